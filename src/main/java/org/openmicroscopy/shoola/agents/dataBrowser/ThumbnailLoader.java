@@ -21,6 +21,7 @@
 package org.openmicroscopy.shoola.agents.dataBrowser;
 
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
@@ -28,6 +29,7 @@ import java.util.List;
 import org.apache.commons.collections4.CollectionUtils;
 
 import org.openmicroscopy.shoola.agents.dataBrowser.view.DataBrowser;
+import org.openmicroscopy.shoola.env.data.events.DSCallBatchFeedbackEvent;
 import org.openmicroscopy.shoola.env.data.events.DSCallFeedbackEvent;
 import org.openmicroscopy.shoola.env.data.model.ThumbnailData;
 import omero.gateway.SecurityContext;
@@ -175,6 +177,27 @@ public class ThumbnailLoader
      */
     public void cancel() { handle.cancel(); }
     
+    /** 
+     * Feeds the thumbnails retrieved within the same frame back to the
+     * viewer in one go. 
+     * @see DataBrowserLoader#update(DSCallBatchFeedbackEvent)
+     */
+    public void update(DSCallBatchFeedbackEvent batch)
+    {
+        if (!thumbnail) {
+            super.update(batch);
+            return;
+        }
+        if (viewer.getState() == DataBrowser.DISCARDED) return;  //Async cancel.
+        List<ThumbnailData> thumbnails = new ArrayList<ThumbnailData>();
+        for (Object result : batch.getPartialResults()) {
+            if (type == EXPERIMENTER)
+                thumbnails.addAll((List<ThumbnailData>) result);
+            else thumbnails.add((ThumbnailData) result);
+        }
+        viewer.setThumbnails(thumbnails, max);
+    }
+    
     /** 
      * Feeds the thumbnails back to the viewer, as they arrive. 
      * @see DataBrowserLoader#update(DSCallFeedbackEvent)
@@ -316,6 +316,16 @@ public interface DataBrowser
     public void setThumbnail(Object ref, BufferedImage thumb, boolean valid, 
     		int maxEntries);
     
+    /**
+     * Call-back used by a data loader to set the thumbnails retrieved
+     * within the same frame. The status is only updated once.
+     * 
+     * @param thumbnails The thumbnails to set.
+     * @param maxEntries The number of thumbnails to load.
+     * @see org.openmicroscopy.shoola.agents.dataBrowser.ThumbnailLoader
+     */
+    public void setThumbnails(List<ThumbnailData> thumbnails, int maxEntries);
+    
     /**
      * Call-back used by data loaders to provide the viewer with feedback about
      * the data retrieval.
@@ -289,6 +289,26 @@ class DataBrowserComponent
 		if (previousState != model.getState()) fireStateChange();
 	}
 
+	/**
+	 * Implemented as specified by the {@link DataBrowser} interface.
+	 * @see DataBrowser#setThumbnails(List, int)
+	 */
+	public void setThumbnails(List<ThumbnailData> thumbnails, int maxEntries)
+	{
+		if (CollectionUtils.isEmpty(thumbnails)) return;
+		int previousState = model.getState();
+		int perc = 0;
+		Object ref;
+		for (ThumbnailData td : thumbnails) {
+			ref = td.getRefObject();
+			if (ref == null) ref = td.getImageID();
+			perc = model.setThumbnail(ref, td.getThumbnail(),
+					td.isValidImage(), maxEntries);
+		}
+		view.setStatus((perc == 100) ? "Done" : "", perc == 100, perc);
+		if (previousState != model.getState()) fireStateChange();
+	}
+
 	/**
 	 * Implemented as specified by the {@link DataBrowser} interface.
 	 * @see DataBrowser#setSelectedDisplays(List)
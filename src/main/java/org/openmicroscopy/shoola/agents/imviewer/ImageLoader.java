@@ -116,9 +116,14 @@ public class ImageLoader
     }
     
     /**
-     * Notifies the user that it wasn't possible to retrieve the data and
-     * and discards the {@link #viewer}.
+     * Notifies the viewer that no plane was rendered so that it can render
+     * the settings modified while the plane was loading.
+     * @see DataLoader#handleNullResult()
      */
-    public void handleNullResult() {}
+    public void handleNullResult()
+    {
+        if (viewer.getState() == ImViewer.DISCARDED) return;  //Async cancel.
+        if (!cancelled) viewer.setImage(null);
+    }
 
 }
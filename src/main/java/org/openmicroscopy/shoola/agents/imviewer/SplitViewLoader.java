@@ -0,0 +1,133 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+package org.openmicroscopy.shoola.agents.imviewer;
+
+import java.awt.image.BufferedImage;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import omero.gateway.SecurityContext;
+import omero.romio.PlaneDef;
+
+import org.openmicroscopy.shoola.agents.imviewer.view.ImViewer;
+import org.openmicroscopy.shoola.env.data.events.DSCallFeedbackEvent;
+import org.openmicroscopy.shoola.env.data.views.CallHandle;
+import org.openmicroscopy.shoola.env.rnd.RenderingControl;
+
+/**
+ * Renders the images composing the split view in the background.
+ * The images are delivered to the viewer as they are rendered.
+ *
+ * @author agent &nbsp;&nbsp;&nbsp;&nbsp;
+ * <a href="mailto:agent@local">agent@local</a>
+ * @since 5.6.3
+ */
+public class SplitViewLoader
+    extends DataLoader
+{
+
+    /** Handle to the asynchronous call so that we can cancel it. */
+    private CallHandle handle;
+
+    /** The rendering control to use. */
+    private final RenderingControl proxy;
+
+    /** The plane to render. */
+    private final PlaneDef pDef;
+
+    /** The channels to render indexed by position in the grid. */
+    private final Map<Integer, List<Integer>> images;
+
+    /** The color model used to render the channels. */
+    private final String colorModel;
+
+    /** Flag indicating that the loader has been cancelled. */
+    private boolean cancelled;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param viewer The view this loader is for. Mustn't be <code>null</code>.
+     * @param ctx The security context.
+     * @param proxy The rendering control to use.
+     * @param pDef The plane to render.
+     * @param images The channels to render indexed by position in the grid,
+     *               <code>-1</code> for the combined image.
+     * @param colorModel The color model used to render the channels.
+     */
+    public SplitViewLoader(ImViewer viewer, SecurityContext ctx,
+            RenderingControl proxy, PlaneDef pDef,
+            Map<Integer, List<Integer>> images, String colorModel)
+    {
+        super(viewer, ctx);
+        if (proxy == null)
+            throw new IllegalArgumentException("No rendering control.");
+        if (images == null)
+            throw new IllegalArgumentException("No images to render.");
+        this.proxy = proxy;
+        this.pDef = pDef;
+        this.images = images;
+        this.colorModel = colorModel;
+    }
+
+    /**
+     * Renders the images.
+     * @see DataLoader#load()
+     */
+    public void load()
+    {
+        handle = ivView.loadSplitView(ctx, proxy, pDef, images, colorModel,
+                this);
+    }
+
+    /**
+     * Cancels the ongoing data retrieval.
+     * @see DataLoader#cancel()
+     */
+    public void cancel()
+    {
+        cancelled = true;
+        handle.cancel();
+    }
+
+    /**
+     * Does nothing as the asynchronous call returns <code>null</code>.
+     * The images are delivered progressively during the updates.
+     * @see DataLoader#handleNullResult()
+     */
+    public void handleNullResult() {}
+
+    /**
+     * Feeds the images back to the viewer, as they arrive.
+     * @see DataLoader#update(DSCallFeedbackEvent)
+     */
+    public void update(DSCallFeedbackEvent fe)
+    {
+        if (cancelled || viewer.getState() == ImViewer.DISCARDED) return;
+        Map<Integer, BufferedImage> result =
+                (Map<Integer, BufferedImage>) fe.getPartialResult();
+        if (result == null) return;
+        for (Entry<Integer, BufferedImage> e : result.entrySet())
+            viewer.setGridImage(e.getKey(), e.getValue());
+    }
+
+}
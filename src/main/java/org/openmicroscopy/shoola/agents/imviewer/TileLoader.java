@@ -24,20 +24,20 @@ package org.openmicroscopy.shoola.agents.imviewer;
 
 
 //Java imports
-import java.util.Collection;
 
 //Third-party libraries
 
 //Application-internal dependencies
-import omero.romio.PlaneDef;
 import org.openmicroscopy.shoola.agents.dataBrowser.DataBrowserLoader;
 import org.openmicroscopy.shoola.agents.dataBrowser.view.DataBrowser;
 import org.openmicroscopy.shoola.agents.imviewer.view.ImViewer;
+import org.openmicroscopy.shoola.env.data.events.DSCallBatchFeedbackEvent;
 import org.openmicroscopy.shoola.env.data.events.DSCallFeedbackEvent;
 import omero.gateway.SecurityContext;
 import org.openmicroscopy.shoola.env.data.views.CallHandle;
 import org.openmicroscopy.shoola.env.rnd.RenderingControl;
 import org.openmicroscopy.shoola.env.rnd.data.Tile;
+import org.openmicroscopy.shoola.env.rnd.data.TileQueue;
 
 /** 
  * Loads the tiles.
@@ -59,18 +59,12 @@ public class TileLoader
     /** Handle to the asynchronous call so that we can cancel it. */
     private CallHandle handle;
     
-    /** The collection of tiles to load.*/
-    private Collection<Tile> tiles;
+    /** The tiles to load.*/
+    private TileQueue queue;
     
     /** The ID of the pixels set. */
     private long pixelsID;
     
-    /** The plane to render.*/
-    private PlaneDef pDef;
-    
-    /** Count the number of tiles loaded.*/
-    private int count;
-    
     /** The proxy to use.*/
     private RenderingControl proxy;
     
@@ -80,25 +74,21 @@ public class TileLoader
      * @param viewer The view this loader is for. Mustn't be <code>null</code>.
      * @param ctx The security context.
      * @param pixelsID The id of the pixels set.
-     * @param pDef The plane to render.
      * @param proxy The rendering control to use.
-     * @param tiles The tiles to handle.
+     * @param queue The tiles to load.
      */
 	public TileLoader(ImViewer viewer, SecurityContext ctx, long pixelsID,
-			PlaneDef pDef, RenderingControl proxy, Collection<Tile> tiles)
+			RenderingControl proxy, TileQueue queue)
 	{
 		super(viewer, ctx);
-		if (tiles == null || tiles.size() == 0)
+		if (queue == null)
 			throw new IllegalArgumentException("No tiles to load.");
-		if (pDef == null)
-			throw new IllegalArgumentException("No plane to render.");
 		if (proxy == null)
 			throw new IllegalArgumentException("No rendering control.");
 		if (pixelsID != proxy.getPixelsID())
 			throw new IllegalArgumentException("Pixels ID not valid.");
-		this.tiles = tiles;
+		this.queue = queue;
 		this.pixelsID = pixelsID;
-		this.pDef = pDef;
 		this.proxy = proxy;
 	}
 	
@@ -108,14 +98,18 @@ public class TileLoader
      */
     public void load()
     {
-    	handle = ivView.loadTiles(ctx, pixelsID, pDef, proxy, tiles, this);
+    	handle = ivView.loadTiles(ctx, pixelsID, proxy, queue, this);
     }
     
     /**
      * Cancels the ongoing data retrieval.
      * @see DataLoader#cancel()
      */
-    public void cancel() { handle.cancel(); }
+    public void cancel()
+    {
+    	handle.cancel();
+    	queue.removeWorker(proxy);
+    }
     
     /**
      * Does nothing as the asynchronous call returns <code>null</code>.
@@ -149,12 +143,29 @@ public class TileLoader
             status = (percDone == 100) ? "" :  //Else
                                      ""; //Description wasn't available.
         viewer.setStatus(status, percDone);
+        //Also notify when the tile was cancelled so that the viewer knows
+        //when all the requested tiles are loaded.
         Tile tile = (Tile) fe.getPartialResult();
-        if (tile != null) {
-        	count++;
-        	if (count == tiles.size()) viewer.setTileCount(count);
-        	else viewer.setTileCount(0);
-        } 
+        if (tile != null) viewer.setTile(tile);
+        viewer.setTileCount(tile == null ? 0 : 1);
+    }
+
+    /** 
+     * Feeds the tiles retrieved within the same frame back to the viewer
+     * and repaints once. 
+     * @see DataBrowserLoader#update(DSCallBatchFeedbackEvent)
+     */
+    public void update(DSCallBatchFeedbackEvent batch)
+    {
+        if (viewer.getState() == DataBrowser.DISCARDED) return;  //Async cancel.
+        String status = batch.getStatus();
+        viewer.setStatus(status == null ? "" : status, batch.getPercentDone());
+        int count = 0;
+        for (Object result : batch.getPartialResults()) {
+            viewer.setTile((Tile) result);
+            count++;
+        }
+        viewer.setTileCount(count);
     }
 
 }
@@ -287,6 +287,15 @@ public interface Browser
 	 */
 	public void viewSplitImages();
 
+	/**
+	 * Sets an image of the grid rendered in the background.
+	 * 
+	 * @param index The position of the image in the grid,
+	 *              <code>-1</code> for the combined image.
+	 * @param image The rendered image.
+	 */
+	public void setGridImage(int index, BufferedImage image);
+
 	/**
 	 * Returns the grid image.
 	 * 
@@ -27,7 +27,7 @@ package org.openmicroscopy.shoola.agents.imviewer.browser;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
-import java.util.Map;
+import java.util.Iterator;
 
 //Third-party libraries
 
@@ -75,36 +75,46 @@ class BrowserBICanvas
         if (model.isBigImage()) {
         	g2D.setColor(BACKGROUND);
         	g2D.drawRect(0, 0, getWidth()-1, getHeight()-1);
-        	Map<Integer, Tile> tiles = model.getTiles();
-        	int rows = model.getRows();
-        	int columns = model.getColumns();
-        	Tile tile;
-        	int index;
+        	//Paint the best preview level upscaled under the tiles.
+        	Tile tile = model.getPreviewTile();
+        	Object preview = null;
+        	if (tile != null) preview = tile.getImage();
+        	if (preview != null)
+        		g2D.drawImage((BufferedImage) preview, 0, 0,
+        				model.getTiledImageSizeX(), model.getTiledImageSizeY(),
+        				null);
+        	//Only the tiles around the visible region are created.
+        	Iterator<Tile> i = model.getTiles().values().iterator();
         	Object img;
             Region region;
-        	for (int i = 0; i < rows; i++) {
-    			for (int j = 0; j < columns; j++) {
-    				index = i*columns+j;
-    				tile = tiles.get(index);
-    				region = tile.getRegion();
-    				img = tile.getImage();
-    				if (img != null)
-    					 g2D.drawImage((BufferedImage) img,
-    							 region.getX(), region.getY(), null);
-    				else {
-    					g2D.drawRect(region.getX(), region.getY(), 
-    							region.getWidth(), region.getHeight());
-    				}
+        	while (i.hasNext()) {
+    			tile = i.next();
+    			region = tile.getRegion();
+    			img = tile.getImage();
+    			if (img != null)
+    				g2D.drawImage((BufferedImage) img,
+    						region.getX(), region.getY(), null);
+    			else if (preview == null) {
+    				g2D.drawRect(region.getX(), region.getY(), 
+    						region.getWidth(), region.getHeight());
     			}
     		}
         	paintScaleBar(g2D, model.getTiledImageSizeX(),
         			model.getTiledImageSizeY(), view.getViewport());
         } else {
-        	 BufferedImage img = model.getDisplayedImage();
-             if (img == null) return;
-             g2D.drawImage(img, 0, 0, null); 
-             paintScaleBar(g2D, img.getWidth(), img.getHeight(),
-            		 view.getViewport());
+        	ZoomedImage zoomed = model.getZoomedImage();
+        	if (zoomed != null) {
+        		//Only magnify the visible region.
+        		zoomed.paint(g2D, g.getClipBounds());
+        		paintScaleBar(g2D, zoomed.getWidth(), zoomed.getHeight(),
+        				view.getViewport());
+        	} else {
+        		BufferedImage img = model.getDisplayedImage();
+        		if (img == null) return;
+        		g2D.drawImage(img, 0, 0, null); 
+        		paintScaleBar(g2D, img.getWidth(), img.getHeight(),
+        				view.getViewport());
+        	}
         }
         g2D.dispose();
     }
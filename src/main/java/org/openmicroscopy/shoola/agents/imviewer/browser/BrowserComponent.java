@@ -444,7 +444,7 @@ class BrowserComponent
 		switch (index) {
 			case ImViewer.GRID_INDEX:
 			    if (model.hasNoGridImages())
-                    model.setGridImages();
+                    model.setGridImages(true);
 				gridView.paintImage();
 				break;
 			case ImViewer.PROJECTION_INDEX:	
@@ -491,7 +491,17 @@ class BrowserComponent
 	public void viewSplitImages()
 	{
 		if (model.getSelectedIndex() != ImViewer.GRID_INDEX) return;
-		model.setGridImages();
+		model.setGridImages(true);
+		if (gridView != null) gridView.repaint();
+	}
+
+	/** 
+     * Implemented as specified by the {@link Browser} interface.
+     * @see Browser#setGridImage(int, BufferedImage)
+     */
+	public void setGridImage(int index, BufferedImage image)
+	{
+		model.setGridImage(index, image);
 		if (gridView != null) gridView.repaint();
 	}
 
@@ -501,9 +511,11 @@ class BrowserComponent
      */
 	public BufferedImage getGridImage()
 	{
-	    if (model.getCombinedImage() != null)
+	    if (model.getCombinedImage() != null && !model.isGridLoading())
             return gridView.getGridImage();
-        model.setGridImages();
+	    //Do not wait for the images rendered in the background.
+	    model.clearGridImages();
+        model.setGridImages(false);
 		return gridView.getGridImage();
 	}
 	
@@ -99,6 +99,12 @@ class BrowserModel
      */
     private BufferedImage   	displayedImage;
     
+    /**
+     * The rendered image magnified on demand if the zoom factor is greater
+     * than the default one, <code>null</code> otherwise.
+     */
+    private ZoomedImage			zoomedImage;
+    
     /** The projected image. */
     private BufferedImage		projectedImage;
     
@@ -138,6 +144,9 @@ class BrowserModel
 
     /** Collection of images composing the grid. */
     private List<SplitImage>	splitImages;
+
+    /** The number of images of the grid not yet rendered. */
+    private int					pendingGridImages;
     
     /** The magnification factor used to render the annotate image. */
    private double 				ratio;
@@ -180,13 +189,17 @@ class BrowserModel
         msg.print(e);
         ImViewerAgent.getRegistry().getLogger().error(this, msg);
         gridImages.clear();
+        pendingGridImages = 0;
     }
     
     /** 
      * Creates the images composing the grid when the color model
      * is <code>GreyScale</code>.
+     * 
+     * @param async Pass <code>true</code> to render the images in the
+     *              background, <code>false</code> otherwise.
      */
-    private void createGridImagesForGreyScale()
+    private void createGridImagesForGreyScale(boolean async)
     {
     	int maxC = parent.getMaxC();
     	List l = parent.getActiveChannelsInGrid();
@@ -243,12 +256,12 @@ class BrowserModel
 						}
 					}
 				} else {
-					retrieveGridImagesForGreyScale(l);
+					retrieveGridImagesForGreyScale(l, async);
 				}
 				break;
 				
 			default:
-				retrieveGridImagesForGreyScale(l);
+				retrieveGridImagesForGreyScale(l, async);
 		}
     }
     
@@ -258,9 +271,19 @@ class BrowserModel
      * red, green or blue i.e. a channel mapped to yellow.
      * 
      * @param channels Collection of active channels in the grid.
+     * @param async Pass <code>true</code> to render the images in the
+     *              background, <code>false</code> otherwise.
      */
-    private void retrieveGridImagesForGreyScale(List channels)
+    private void retrieveGridImagesForGreyScale(List channels, boolean async)
     {
+    	if (async) {
+    		//The combined image is replaced once rendered.
+    		addGridPlaceholders(originalGridImages.size() == 0 &&
+    				!isImageMappedRGB(channels));
+    		combinedImage = Factory.magnifyImage(gridRatio, renderedImage);
+    		pendingGridImages = parent.loadGridImages();
+    		return;
+    	}
     	List<BufferedImage> images = parent.getGridImages();
     	if (images != null) {
     		int last = images.size()-1;
@@ -283,9 +306,19 @@ class BrowserModel
      * Retrieves the images composing the grid when the color model
      * is <code>RBG</code> and when the channels are not mapped to
      * red, green or blue i.e. a channel mapped to yellow.
+     * 
+     * @param async Pass <code>true</code> to render the images in the
+     *              background, <code>false</code> otherwise.
      */
-    private void retrieveGridImages()
+    private void retrieveGridImages(boolean async)
     {
+    	if (async) {
+    		addGridPlaceholders(originalGridImages.size() == 0);
+    		combinedImage = Factory.magnifyImage(renderedImage, gridRatio, 0,
+    				isInterpolation());
+    		pendingGridImages = parent.loadGridImages();
+    		return;
+    	}
     	List<BufferedImage> images = parent.getGridImages();
     	if (images != null) {
     		Iterator<BufferedImage> i = images.iterator();
@@ -300,6 +333,22 @@ class BrowserModel
     	}
     }
 
+    /**
+     * Adds an empty image for each channel while the images of the grid
+     * are rendered.
+     * 
+     * @param original Pass <code>true</code> to also keep the rendered
+     *                 images, <code>false</code> otherwise.
+     */
+    private void addGridPlaceholders(boolean original)
+    {
+    	int n = parent.getSortedChannelData().size();
+    	for (int i = 0; i < n; i++) {
+    		gridImages.add(null);
+    		if (original) originalGridImages.add(null);
+    	}
+    }
+
     /**
      * Clears the list and frees space.
      * 
@@ -317,15 +366,21 @@ class BrowserModel
     	l.clear();
     }
     
-    /** Creates the images composing the grid. */
-    private void createGridImages()
+    /**
+     * Creates the images composing the grid.
+     * 
+     * @param async Pass <code>true</code> to render the images in the
+     *              background, <code>false</code> otherwise.
+     */
+    private void createGridImages(boolean async)
     {
     	//if (combinedImage == null) return;
     	if (originalGridImages == null)
     		originalGridImages = new ArrayList<BufferedImage>();
     	clearList(gridImages);
+    	pendingGridImages = 0;
     	if (ImViewer.GREY_SCALE_MODEL.equals(parent.getColorModel())) {
-    		createGridImagesForGreyScale();
+    		createGridImagesForGreyScale(async);
     		return;
     	}
     	List l = parent.getActiveChannels();
@@ -372,11 +427,11 @@ class BrowserModel
 						}
 					}
 				} else {
-					retrieveGridImages();
+					retrieveGridImages(async);
 				}
 				break;
 			default:
-				retrieveGridImages();
+				retrieveGridImages(async);
     	}
     }
     
@@ -465,8 +520,10 @@ class BrowserModel
     {
     	renderedImage = null;
     	displayedImage = null;
+    	zoomedImage = null;
     	combinedImage = null;
     	clearList(gridImages);
+    	pendingGridImages = 0;
         renderedImage = image;
         
         if (renderedImage != null) {
@@ -484,13 +541,18 @@ class BrowserModel
         }
     }
     
-    /** Sets the images composing the grid. */
-    void setGridImages()
+    /**
+     * Sets the images composing the grid.
+     * 
+     * @param async Pass <code>true</code> to render the images in the
+     *              background, <code>false</code> to wait for the images.
+     */
+    void setGridImages(boolean async)
     {
     	if (gridImages.size() != 0) return;
     	clearList(originalGridImages);
     	try {
-    		createGridImages();
+    		createGridImages(async);
 		} catch (Exception e) {
 			handleGridImageCreationException(e);
 		}
@@ -512,32 +574,53 @@ class BrowserModel
             Graphics2D g2D = bi.createGraphics();
             ImagePaintingFactory.setGraphicRenderingSettings(g2D,
                     isInterpolation());
-            Map<Integer, Tile> tiles = getTiles();
-            //Check the size of the tiles
-            int rows = getRows();
-            int columns = getColumns();
+            //Only the tiles around the visible region are created.
+            Iterator<Tile> i = getTiles().values().iterator();
             Tile tile;
-            int index;
             Object img;
             Region region;
-            for (int i = 0; i < rows; i++) {
-                for (int j = 0; j < columns; j++) {
-                    index = i*columns+j;
-                    tile = tiles.get(index);
-                    region = tile.getRegion();
-                    img = tile.getImage();
-                    if (img != null) {
-                        g2D.drawImage((BufferedImage) img,
-                                region.getX(), region.getY(), null);
-                    }
+            while (i.hasNext()) {
+                tile = i.next();
+                region = tile.getRegion();
+                img = tile.getImage();
+                if (img != null) {
+                    g2D.drawImage((BufferedImage) img,
+                            region.getX(), region.getY(), null);
                 }
             }
             g2D.dispose();
             return bi;
         }
+        //Only magnify the whole image when requested e.g. to save it.
+        if (displayedImage == null && zoomedImage != null)
+            return zoomedImage.createImage();
         return displayedImage;
     }
 
+    /**
+     * Returns the magnified image painted on screen block by block or
+     * <code>null</code> if the displayed image is not magnified.
+     * 
+     * @return See above.
+     */
+    ZoomedImage getZoomedImage() { return zoomedImage; }
+
+    /**
+     * Returns the size of the image painted on screen or <code>null</code>
+     * if no image.
+     * 
+     * @return See above.
+     */
+    Dimension getDisplayedImageSize()
+    {
+        if (zoomedImage != null)
+            return new Dimension(zoomedImage.getWidth(),
+                    zoomedImage.getHeight());
+        if (displayedImage == null) return null;
+        return new Dimension(displayedImage.getWidth(),
+                displayedImage.getHeight());
+    }
+
     /**
      * Returns the image to paint on screen. This image is a transformed 
      * version of the projected image. We apply several transformations to the
@@ -597,6 +680,15 @@ class BrowserModel
     {
     	if (renderedImage == null) return;
     	displayedImage = null;
+    	if (zoomFactor > ZoomAction.DEFAULT_ZOOM_FACTOR) {
+    		//Magnify the blocks painted on screen only.
+    		boolean b = isInterpolation();
+    		if (zoomedImage == null ||
+    				!zoomedImage.isSame(renderedImage, zoomFactor, b))
+    			zoomedImage = new ZoomedImage(renderedImage, zoomFactor, b);
+    		return;
+    	}
+    	zoomedImage = null;
     	if (zoomFactor != ZoomAction.DEFAULT_ZOOM_FACTOR) {
     		BufferedImage img = null;
     		try {
@@ -979,6 +1071,40 @@ class BrowserModel
      */
     boolean hasNoGridImages() { return gridImages.size() == 0; }
 
+    /**
+     * Returns <code>true</code> if some images of the grid are still
+     * rendered, <code>false</code> otherwise.
+     * 
+     * @return See above.
+     */
+    boolean isGridLoading() { return pendingGridImages > 0; }
+
+    /**
+     * Sets the rendered image of the grid. The image is ignored if the
+     * grid was reset since the images were requested.
+     * 
+     * @param index The position of the image in the grid,
+     *              <code>-1</code> for the combined image.
+     * @param image The rendered image.
+     */
+    void setGridImage(int index, BufferedImage image)
+    {
+    	if (pendingGridImages <= 0) return;
+    	pendingGridImages--;
+    	if (image == null) return;
+    	boolean grey = ImViewer.GREY_SCALE_MODEL.equals(parent.getColorModel());
+    	if (index < 0) {
+    		combinedImage = Factory.magnifyImage(gridRatio, image);
+    		return;
+    	}
+    	if (index >= gridImages.size()) return;
+    	if (grey) gridImages.set(index, Factory.magnifyImage(gridRatio, image));
+    	else gridImages.set(index, Factory.magnifyImage(image, gridRatio, 0,
+    			isInterpolation()));
+    	if (index < originalGridImages.size())
+    		originalGridImages.set(index, image);
+    }
+
     /**
      * Returns a collection of images composing the grid.
      * 
@@ -1049,7 +1175,7 @@ class BrowserModel
 		this.gridRatio = gridRatio; 
 		if (CollectionUtils.isEmpty(originalGridImages)) {
 			try {
-				createGridImages();
+				createGridImages(true);
 			} catch (Exception e) {
 				handleGridImageCreationException(e);
 			}
@@ -1069,7 +1195,7 @@ class BrowserModel
 				//TODO: Review that code.
 				if (isImageMappedRGB(parent.getActiveChannels())) {
 					try {
-						createGridImages();
+						createGridImages(true);
 					} catch (Exception e) {
 						handleGridImageCreationException(e);
 					}
@@ -1152,7 +1278,11 @@ class BrowserModel
 	ImViewer getParentModel() { return parent; }
 
 	/** Clears the grid images when the color model changes. */
-	void clearGridImages() { clearList(gridImages); }
+	void clearGridImages()
+	{
+		clearList(gridImages);
+		pendingGridImages = 0;
+	}
 
 
     /**
@@ -1227,6 +1357,14 @@ class BrowserModel
      */
     Map<Integer, Tile> getTiles() { return parent.getTiles(); }
     
+    /**
+     * Returns the tile hosting the lowest resolution level displayed while
+     * the tiles load or <code>null</code>.
+     * 
+     * @return See above.
+     */
+    Tile getPreviewTile() { return parent.getPreviewTile(); }
+    
     /**
      * Returns <code>true</code> if it is a big image, <code>false</code>
      * otherwise.
@@ -1266,11 +1404,13 @@ class BrowserModel
 	{
 		combinedImage = null;
 		displayedImage = null;
+		zoomedImage = null;
 		displayedProjectedImage = null;
 		projectedImage = null;
 		renderedImage = null;
 		clearList(gridImages);
 		clearList(originalGridImages);
+		pendingGridImages = 0;
 		System.gc();//force garbage collection
 	}
 
@@ -402,9 +402,9 @@ class BrowserUI
     {
         if (model.getRenderedImage() == null) return;
         model.createDisplayedImage();
-        BufferedImage img = model.getDisplayedImage();
-        if (img == null) return;
-        canvasListener.setAreaSize(img.getWidth(), img.getHeight());
+        Dimension d = model.getDisplayedImageSize();
+        if (d == null) return;
+        canvasListener.setAreaSize(d.width, d.height);
         canvas.repaint();
     }
     
@@ -414,10 +414,10 @@ class BrowserUI
     	adjusting = false;
     	if (model.getRenderedImage() == null) return;
         model.createDisplayedImage();
-        BufferedImage img = model.getDisplayedImage();
-        if (img == null) return;
-        setComponentsSize(img.getWidth(), img.getHeight());
-        canvasListener.setAreaSize(img.getWidth(), img.getHeight());
+        Dimension d = model.getDisplayedImageSize();
+        if (d == null) return;
+        setComponentsSize(d.width, d.height);
+        canvasListener.setAreaSize(d.width, d.height);
         getViewport().setViewPosition(new Point(-1, -1));
         canvas.repaint();
         setBounds(getBounds());
@@ -26,6 +26,7 @@ package org.openmicroscopy.shoola.agents.imviewer.browser;
 
 //Java imports
 import java.awt.Color;
+import java.awt.Dimension;
 import java.awt.FontMetrics;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
@@ -117,12 +118,12 @@ class ProjectionBICanvas
         Graphics2D g2D = (Graphics2D) g;
         ImagePaintingFactory.setGraphicRenderingSettings(g2D);
         if (img == null) {
-        	img = model.getDisplayedImage();
-        	if (img != null) {
+        	Dimension d = model.getDisplayedImageSize();
+        	if (d != null) {
         		attachListener();
         		double f = model.getZoomFactor();
-        		int w = img.getWidth()-1;
-        		int h = img.getHeight()-1;
+        		int w = d.width-1;
+        		int h = d.height-1;
         		w *= f;
         		h *= f;
         		g2D.setColor(BACKGROUND_COLOR);
@@ -0,0 +1,219 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+package org.openmicroscopy.shoola.agents.imviewer.browser;
+
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.openmicroscopy.shoola.util.image.geom.Factory;
+
+/**
+ * Magnifies the rendered image on demand. Only the blocks intersecting the
+ * painted region are scaled, the most recently painted blocks being kept
+ * so that the memory used does not depend on the zoom factor.
+ *
+ * @author agent &nbsp;&nbsp;&nbsp;&nbsp;
+ * <a href="mailto:agent@local">agent@local</a>
+ * @since 5.6.3
+ */
+class ZoomedImage
+{
+
+    /** The size of a block of the magnified image. */
+    private static final int BLOCK_SIZE = 256;
+
+    /** The number of blocks kept around the painted region. */
+    private static final int MARGIN = 1;
+
+    /** The minimum number of blocks kept. */
+    private static final int MIN_BLOCKS = 16;
+
+    /** The image to magnify. */
+    private final BufferedImage source;
+
+    /** The magnification factor. */
+    private final double factor;
+
+    /** Flag indicating to interpolate the values. */
+    private final boolean interpolation;
+
+    /** The width of the magnified image. */
+    private final int width;
+
+    /** The height of the magnified image. */
+    private final int height;
+
+    /** The blocks already magnified, the least recently painted first. */
+    private final Map<Long, BufferedImage> blocks;
+
+    /**
+     * The maximum number of blocks kept i.e. the blocks of the largest
+     * region painted so far and the blocks around it.
+     */
+    private int maxBlocks;
+
+    /**
+     * Magnifies the specified block.
+     *
+     * @param column The column of the block.
+     * @param row The row of the block.
+     * @return See above.
+     */
+    private BufferedImage createBlock(int column, int row)
+    {
+        int x = column*BLOCK_SIZE;
+        int y = row*BLOCK_SIZE;
+        int w = Math.min(BLOCK_SIZE, width-x);
+        int h = Math.min(BLOCK_SIZE, height-y);
+        BufferedImage block = new BufferedImage(w, h,
+                BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = block.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, interpolation ?
+                RenderingHints.VALUE_INTERPOLATION_BILINEAR :
+                RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+        //Draw the whole image so the blocks match at their borders,
+        //only the pixels of the block are computed.
+        g.translate(-x, -y);
+        g.scale((double) width/source.getWidth(),
+                (double) height/source.getHeight());
+        g.drawImage(source, 0, 0, null);
+        g.dispose();
+        return block;
+    }
+
+    /**
+     * Returns the specified block, magnifying it if not already done.
+     *
+     * @param column The column of the block.
+     * @param row The row of the block.
+     * @return See above.
+     */
+    private BufferedImage getBlock(int column, int row)
+    {
+        Long key = (((long) column) << 32) | row;
+        BufferedImage block = blocks.get(key);
+        if (block != null) return block;
+        block = createBlock(column, row);
+        blocks.put(key, block);
+        Iterator<Long> i = blocks.keySet().iterator();
+        while (blocks.size() > maxBlocks && i.hasNext()) {
+            i.next();
+            i.remove();
+        }
+        return block;
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param source The image to magnify. Mustn't be <code>null</code>.
+     * @param factor The magnification factor.
+     * @param interpolation Pass <code>true</code> to interpolate the values,
+     *                      <code>false</code> otherwise.
+     */
+    ZoomedImage(BufferedImage source, double factor, boolean interpolation)
+    {
+        if (source == null)
+            throw new IllegalArgumentException("No image to magnify.");
+        this.source = source;
+        this.factor = factor;
+        this.interpolation = interpolation;
+        //Same size as the image magnified by Factory.
+        width = Math.max(3, (int) (source.getWidth()*factor));
+        height = Math.max(3, (int) (source.getHeight()*factor));
+        blocks = new LinkedHashMap<Long, BufferedImage>(16, 0.75f, true);
+        maxBlocks = MIN_BLOCKS;
+    }
+
+    /**
+     * Returns the width of the magnified image.
+     *
+     * @return See above.
+     */
+    int getWidth() { return width; }
+
+    /**
+     * Returns the height of the magnified image.
+     *
+     * @return See above.
+     */
+    int getHeight() { return height; }
+
+    /**
+     * Returns <code>true</code> if the passed values are the ones used to
+     * magnify the image, <code>false</code> otherwise.
+     *
+     * @param image The image to magnify.
+     * @param factor The magnification factor.
+     * @param interpolation The interpolation flag.
+     * @return See above.
+     */
+    boolean isSame(BufferedImage image, double factor, boolean interpolation)
+    {
+        return source == image && this.factor == factor &&
+                this.interpolation == interpolation;
+    }
+
+    /**
+     * Paints the blocks intersecting the specified region. The number of
+     * blocks kept grows with the region so that the blocks of the viewport
+     * are never magnified twice while scrolling.
+     *
+     * @param g The graphics context to use.
+     * @param region The region to paint or <code>null</code> to paint the
+     *               whole image.
+     */
+    void paint(Graphics2D g, Rectangle region)
+    {
+        Rectangle r = new Rectangle(0, 0, width, height);
+        if (region != null) r = r.intersection(region);
+        if (r.isEmpty()) return;
+        int c0 = r.x/BLOCK_SIZE;
+        int c1 = (r.x+r.width-1)/BLOCK_SIZE;
+        int r0 = r.y/BLOCK_SIZE;
+        int r1 = (r.y+r.height-1)/BLOCK_SIZE;
+        maxBlocks = Math.max(maxBlocks,
+                (c1-c0+1+2*MARGIN)*(r1-r0+1+2*MARGIN));
+        for (int row = r0; row <= r1; row++) {
+            for (int column = c0; column <= c1; column++) {
+                g.drawImage(getBlock(column, row), column*BLOCK_SIZE,
+                        row*BLOCK_SIZE, null);
+            }
+        }
+    }
+
+    /**
+     * Creates the whole magnified image e.g. to save it. The image is not
+     * kept.
+     *
+     * @return See above.
+     */
+    BufferedImage createImage()
+    {
+        return Factory.magnifyImage(source, factor, 0, interpolation);
+    }
+
+}
@@ -0,0 +1,360 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.agents.imviewer.util.player;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * A ring buffer of the frames of a movie rendered ahead in the background.
+ * <p>The frames are added in the order they are played and rendered one
+ * after the other by a background thread. The frames whose time has passed
+ * are skipped if a later frame is waiting, so that the rendering catches up
+ * with the {@link FrameClock}. When a frame is due, the last frame rendered
+ * is displayed and the earlier ones are dropped.</p>
+ * The number of frames, hence the memory used, is bounded by the size of
+ * the buffer.
+ *
+ * @author agent &nbsp;&nbsp;&nbsp;&nbsp;
+ * <a href="mailto:agent@local">agent@local</a>
+ * @since 5.6.3
+ */
+class FrameBuffer
+{
+
+    /** The default number of frames. */
+    static final int DEFAULT_SIZE = 8;
+
+    /** The state of a frame waiting to be rendered. */
+    private static final int PENDING = 0;
+
+    /** The state of a frame being rendered. */
+    private static final int RENDERING = 1;
+
+    /** The state of a frame rendered. */
+    private static final int READY = 2;
+
+    /** The state of a frame skipped because its time has passed. */
+    private static final int SKIPPED = 3;
+
+    /** Renders the frames, shared by the players. */
+    private static final ExecutorService EXECUTOR =
+            Executors.newSingleThreadExecutor(new ThreadFactory() {
+                public Thread newThread(Runnable r)
+                {
+                    Thread t = new Thread(r, "Movie frames");
+                    t.setDaemon(true);
+                    return t;
+                }
+            });
+
+    /** Renders the XY-plane of a frame. */
+    interface FrameRenderer
+    {
+
+        /**
+         * Renders the specified plane. Returns <code>null</code> if the
+         * plane cannot be rendered ahead.
+         *
+         * @param z The z-section.
+         * @param t The timepoint.
+         * @return See above.
+         */
+        BufferedImage renderFrame(int z, int t);
+    }
+
+    /** A frame of the movie. */
+    static class Frame
+    {
+
+        /** The index of the frame in the movie. */
+        private final long index;
+
+        /** The z-section and timepoint of the frame. */
+        private final int z, t;
+
+        /** The direction of play when the frame was added. */
+        private final boolean up;
+
+        /** The rendered image or <code>null</code>. */
+        private BufferedImage image;
+
+        /** One of the states defined by the buffer. */
+        private int state;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param index The index of the frame in the movie.
+         * @param z The z-section.
+         * @param t The timepoint.
+         * @param up The direction of play.
+         */
+        Frame(long index, int z, int t, boolean up)
+        {
+            this.index = index;
+            this.z = z;
+            this.t = t;
+            this.up = up;
+            state = PENDING;
+        }
+
+        /**
+         * Returns the z-section.
+         *
+         * @return See above.
+         */
+        int getZ() { return z; }
+
+        /**
+         * Returns the timepoint.
+         *
+         * @return See above.
+         */
+        int getT() { return t; }
+
+        /**
+         * Returns the direction of play when the frame was added.
+         *
+         * @return See above.
+         */
+        boolean isUp() { return up; }
+
+        /**
+         * Returns the rendered image or <code>null</code> if the plane
+         * could not be rendered ahead.
+         *
+         * @return See above.
+         */
+        BufferedImage getImage() { return image; }
+    }
+
+    /** The frames, the oldest one at {@link #head}. */
+    private final Frame[] frames;
+
+    /** Renders the frames. */
+    private final FrameRenderer renderer;
+
+    /** The clock of the movie. */
+    private final FrameClock clock;
+
+    /** The index of the oldest frame. */
+    private int head;
+
+    /** The number of frames. */
+    private int count;
+
+    /** The index of the next frame added. */
+    private long next;
+
+    /** Flag indicating that frames are being rendered. */
+    private boolean rendering;
+
+    /**
+     * Returns the frame at the specified position from the oldest one.
+     *
+     * @param i The position.
+     * @return See above.
+     */
+    private Frame get(int i) { return frames[(head+i) % frames.length]; }
+
+    /** Removes the oldest frame. */
+    private void removeHead()
+    {
+        frames[head] = null;
+        head = (head+1) % frames.length;
+        count--;
+    }
+
+    /**
+     * Returns the next frame to render or <code>null</code> if there is no
+     * frame to render. The frames whose time has passed are skipped if a
+     * later frame is waiting.
+     *
+     * @return See above.
+     */
+    private synchronized Frame nextToRender()
+    {
+        long due = clock.getFrame(System.currentTimeMillis());
+        Frame f;
+        for (int i = 0; i < count; i++) {
+            f = get(i);
+            if (f.state != PENDING) continue;
+            if (f.index < due && i < count-1) {
+                f.state = SKIPPED;
+                continue;
+            }
+            f.state = RENDERING;
+            return f;
+        }
+        rendering = false;
+        return null;
+    }
+
+    /**
+     * Stores the rendered image.
+     *
+     * @param f The rendered frame.
+     * @param image The image.
+     */
+    private synchronized void setImage(Frame f, BufferedImage image)
+    {
+        //The frame may have been dropped while rendered.
+        if (f.state != RENDERING) return;
+        f.image = image;
+        f.state = READY;
+    }
+
+    /** Renders the frames until no frame is waiting. */
+    private void render()
+    {
+        Frame f;
+        BufferedImage image;
+        while ((f = nextToRender()) != null) {
+            image = null;
+            try {
+                image = renderer.renderFrame(f.z, f.t);
+            } catch (Throwable e) {
+                //The frame will be rendered when displayed.
+            }
+            setImage(f, image);
+        }
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param size The maximum number of frames.
+     * @param renderer Renders the frames. Mustn't be <code>null</code>.
+     * @param clock The clock of the movie. Mustn't be <code>null</code>.
+     */
+    FrameBuffer(int size, FrameRenderer renderer, FrameClock clock)
+    {
+        if (renderer == null)
+            throw new IllegalArgumentException("No renderer.");
+        if (clock == null)
+            throw new IllegalArgumentException("No clock.");
+        frames = new Frame[Math.max(1, size)];
+        this.renderer = renderer;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns <code>true</code> if no frame can be added,
+     * <code>false</code> otherwise.
+     *
+     * @return See above.
+     */
+    synchronized boolean isFull() { return count == frames.length; }
+
+    /**
+     * Returns <code>true</code> if the buffer contains no frame,
+     * <code>false</code> otherwise.
+     *
+     * @return See above.
+     */
+    synchronized boolean isEmpty() { return count == 0; }
+
+    /**
+     * Adds a frame to render. Returns <code>false</code> if the buffer is
+     * full, <code>true</code> otherwise.
+     *
+     * @param z The z-section.
+     * @param t The timepoint.
+     * @param up The direction of play.
+     * @return See above.
+     */
+    synchronized boolean add(int z, int t, boolean up)
+    {
+        if (count == frames.length) return false;
+        frames[(head+count) % frames.length] = new Frame(next++, z, t, up);
+        count++;
+        if (!rendering) {
+            rendering = true;
+            EXECUTOR.execute(new Runnable() {
+                public void run() { render(); }
+            });
+        }
+        return true;
+    }
+
+    /**
+     * Returns the frame to display at the specified time or
+     * <code>null</code> if no frame is ready. The last frame rendered among
+     * the frames due is returned, the earlier ones are dropped.
+     *
+     * @param now The current time in milliseconds.
+     * @return See above.
+     */
+    synchronized Frame poll(long now)
+    {
+        long due = clock.getFrame(now);
+        int last = -1;
+        Frame f;
+        for (int i = 0; i < count; i++) {
+            f = get(i);
+            if (f.index > due) break;
+            if (f.state == READY) last = i;
+        }
+        int dropped = 0;
+        if (last < 0) {
+            while (count > 0 && get(0).state == SKIPPED) {
+                removeHead();
+                dropped++;
+            }
+            clock.framesDropped(dropped);
+            return null;
+        }
+        for (int i = 0; i < last; i++) {
+            get(0).state = SKIPPED;
+            removeHead();
+            dropped++;
+        }
+        clock.framesDropped(dropped);
+        f = get(0);
+        removeHead();
+        clock.frameShown(now);
+        return f;
+    }
+
+    /**
+     * Removes all the frames and returns the oldest one or
+     * <code>null</code> if the buffer was empty. The frames being rendered
+     * are discarded once rendered.
+     *
+     * @return See above.
+     */
+    synchronized Frame clear()
+    {
+        Frame first = count > 0 ? get(0) : null;
+        while (count > 0) {
+            get(0).state = SKIPPED;
+            removeHead();
+        }
+        head = 0;
+        next = 0;
+        return first;
+    }
+
+}
@@ -0,0 +1,133 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.agents.imviewer.util.player;
+
+/**
+ * The clock of a movie, independent of the rendering of the frames.
+ * The frame due at a given time only depends on the time elapsed since the
+ * movie started, so that a slow frame delays the display of that frame
+ * only. The frames not displayed in time are counted as dropped.
+ *
+ * @author agent &nbsp;&nbsp;&nbsp;&nbsp;
+ * <a href="mailto:agent@local">agent@local</a>
+ * @since 5.6.3
+ */
+class FrameClock
+{
+
+    /** The weight of the last interval in the average. */
+    private static final double WEIGHT = 0.2;
+
+    /** The time in milliseconds the movie started. */
+    private long start;
+
+    /** The time in milliseconds between two frames. */
+    private long period;
+
+    /** The time the last frame was displayed or <code>-1</code>. */
+    private long lastShown;
+
+    /** The average time between two displayed frames. */
+    private double interval;
+
+    /** The number of frames displayed. */
+    private int shown;
+
+    /** The number of frames dropped. */
+    private int dropped;
+
+    /** Creates a new instance. */
+    FrameClock()
+    {
+        period = 1;
+        lastShown = -1;
+    }
+
+    /**
+     * Starts the clock and resets the statistics.
+     *
+     * @param now The current time in milliseconds.
+     * @param period The time in milliseconds between two frames.
+     */
+    synchronized void start(long now, long period)
+    {
+        start = now;
+        this.period = Math.max(1, period);
+        lastShown = -1;
+        interval = 0;
+        shown = 0;
+        dropped = 0;
+    }
+
+    /**
+     * Returns the index of the frame due at the specified time, the first
+     * frame has the index <code>0</code>.
+     *
+     * @param now The current time in milliseconds.
+     * @return See above.
+     */
+    synchronized long getFrame(long now)
+    {
+        return Math.max(0, (now-start)/period);
+    }
+
+    /**
+     * Records the display of a frame.
+     *
+     * @param now The current time in milliseconds.
+     */
+    synchronized void frameShown(long now)
+    {
+        if (lastShown >= 0) {
+            long v = now-lastShown;
+            interval = shown > 1 ? WEIGHT*v+(1-WEIGHT)*interval : v;
+        }
+        lastShown = now;
+        shown++;
+    }
+
+    /**
+     * Records frames dropped.
+     *
+     * @param n The number of frames.
+     */
+    synchronized void framesDropped(int n) { dropped += n; }
+
+    /**
+     * Returns the number of frames displayed per second or <code>0</code>
+     * if not known yet.
+     *
+     * @return See above.
+     */
+    synchronized double getFrameRate()
+    {
+        return interval > 0 ? 1000/interval : 0;
+    }
+
+    /**
+     * Returns the number of frames dropped since the movie started.
+     *
+     * @return See above.
+     */
+    synchronized int getDropped() { return dropped; }
+
+}
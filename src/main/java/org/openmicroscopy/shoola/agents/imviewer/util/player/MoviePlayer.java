@@ -27,6 +27,7 @@ package org.openmicroscopy.shoola.agents.imviewer.util.player;
 
 //Java imports
 import java.awt.event.ActionEvent;
+import java.awt.image.BufferedImage;
 
 //Third-party libraries
 
@@ -35,6 +36,9 @@ import org.openmicroscopy.shoola.agents.imviewer.view.ImViewer;
 
 /** 
  * Player to play movies across z-sections/timepoints.
+ * The frames across z-sections and timepoints are rendered ahead in a
+ * {@link FrameBuffer} and displayed according to a {@link FrameClock}
+ * so that a slow frame is dropped instead of delaying the movie.
  *
  * @author  Jean-Marie Burel &nbsp;&nbsp;&nbsp;&nbsp;
  * 				<a href="mailto:j.burel@dundee.ac.uk">j.burel@dundee.ac.uk</a>
@@ -122,6 +126,18 @@ class MoviePlayer
 
     /** The end bin. */
     private int endBin;
+
+    /** The clock of the movie. */
+    private FrameClock clock;
+
+    /** The frames rendered ahead. */
+    private FrameBuffer buffer;
+
+    /**
+     * Flag indicating that the last frame of the movie has been added to
+     * the buffer.
+     */
+    private boolean ended;
     
     /** Initializes the default values. */
     private void initialize()
@@ -211,13 +227,13 @@ class MoviePlayer
             case BACKWARD:
                 if (frameNumberZ == startZ) {
                     frameNumberZ = endZ;
-                    setPlayerState(Player.STOP);
+                    ended = true;
                 } else frameNumberZ--;
                 break;
             case FORWARD:
                 if (frameNumberZ == endZ) {
                     frameNumberZ = startZ; 
-                    setPlayerState(Player.STOP);
+                    ended = true;
                 } else frameNumberZ++;
                 break;
             case PINGPONG:
@@ -248,13 +264,13 @@ class MoviePlayer
             case BACKWARD:
                 if (frameNumberT == startT) {
                     frameNumberT = endT;
-                    setPlayerState(Player.STOP);
+                    ended = true;
                 } else frameNumberT--;
                 break;
             case FORWARD:
                 if (frameNumberT == endT) {
                     frameNumberT = startT; 
-                    setPlayerState(Player.STOP);
+                    ended = true;
                 } else frameNumberT++;
                 break;
             case PINGPONG:
@@ -295,7 +311,7 @@ class MoviePlayer
                     frameNumberZ = endZ;
                     if (frameNumberT == startT) {
                         frameNumberT = endT;
-                        setPlayerState(Player.STOP);
+                        ended = true;
                     } else frameNumberT--;
                 } else frameNumberZ--;
                 break;
@@ -304,7 +320,7 @@ class MoviePlayer
                     frameNumberZ = startZ; 
                     if (frameNumberT == endT) {
                         frameNumberT = startT; 
-                        setPlayerState(Player.STOP);
+                        ended = true;
                     } else frameNumberT++;
                 } else frameNumberZ++;
                 break;
@@ -333,6 +349,71 @@ class MoviePlayer
         }
     }
 
+    /**
+     * Adds the next frames to the buffer until the buffer is full or the
+     * last frame has been added.
+     */
+    private void fillBuffer()
+    {
+        int z, t;
+        while (!ended && !buffer.isFull()) {
+            z = model.getDefaultZ();
+            t = model.getRealSelectedT();
+            switch (index) {
+                case MoviePlayerDialog.ACROSS_Z:
+                    if (frameNumberZ > getMaxZ() || frameNumberZ < startZ
+                            || frameNumberZ > endZ) return;
+                    z = frameNumberZ;
+                    break;
+                case MoviePlayerDialog.ACROSS_T:
+                    if (frameNumberT > getMaxT() || frameNumberT < startT
+                            || frameNumberT > endT) return;
+                    t = frameNumberT;
+                    break;
+                case MoviePlayerDialog.ACROSS_ZT:
+                    z = frameNumberZ;
+                    t = frameNumberT;
+                    break;
+                default:
+                    return;
+            }
+            buffer.add(z, t, up);
+            switch (index) {
+                case MoviePlayerDialog.ACROSS_Z:
+                    playMovieAcrossZ();
+                    break;
+                case MoviePlayerDialog.ACROSS_T:
+                    playMovieAcrossT();
+                    break;
+                case MoviePlayerDialog.ACROSS_ZT:
+                    playMovieAcrossZT();
+            }
+        }
+    }
+
+    /**
+     * Empties the buffer and moves back to the first frame not displayed,
+     * so that the movie resumes from that frame.
+     */
+    private void clearBuffer()
+    {
+        FrameBuffer.Frame f = buffer.clear();
+        ended = false;
+        if (f == null) return;
+        up = f.isUp();
+        switch (index) {
+            case MoviePlayerDialog.ACROSS_Z:
+                frameNumberZ = f.getZ();
+                break;
+            case MoviePlayerDialog.ACROSS_T:
+                frameNumberT = f.getT();
+                break;
+            case MoviePlayerDialog.ACROSS_ZT:
+                frameNumberZ = f.getZ();
+                frameNumberT = f.getT();
+        }
+    }
+
     /**
      * Creates a new instance.
      * 
@@ -345,6 +426,15 @@ class MoviePlayer
     {
         super(model);
         this.parent = parent;
+        clock = new FrameClock();
+        final ImViewer viewer = model;
+        buffer = new FrameBuffer(FrameBuffer.DEFAULT_SIZE, 
+                new FrameBuffer.FrameRenderer() {
+            public BufferedImage renderFrame(int z, int t)
+            {
+                return viewer.renderFrame(z, t);
+            }
+        }, clock);
         initialize();
         setFrameNumbers();
     }
@@ -588,53 +678,51 @@ class MoviePlayer
         switch (state) {
             case START:
                 parent.setMoviePlay(true);
+                clearBuffer();
+                clock.start(System.currentTimeMillis(), delay);
                 timer.start();
                 break;
             case STOP:
                 parent.setMoviePlay(false);
                 timer.stop();
+                clearBuffer();
                 setFrameNumbers();
                 up = true;
                 break;
             case PAUSE:
                 parent.setMoviePlay(false);
                 timer.stop();
+                clearBuffer();
         }
     }
 
     /**
-     * Plays movie depending on the movie index.
+     * Plays movie depending on the movie index. The frames across
+     * z-sections and timepoints are rendered ahead and the frame due is
+     * displayed if rendered.
      * @see java.awt.event.ActionListener#actionPerformed(ActionEvent)
      */
     public void actionPerformed(ActionEvent e)
     {
-        switch (index) {
-            case MoviePlayerDialog.ACROSS_Z:
-                if (frameNumberZ <= getMaxZ() && frameNumberZ >= startZ
-                        && frameNumberZ <= endZ && state == Player.START) {
-                    parent.renderImage();
-                    playMovieAcrossZ();
-                } 
-                break;
-            case MoviePlayerDialog.ACROSS_T:
-                if (frameNumberT <= getMaxT() && frameNumberT >= startT
-                        && frameNumberT <= endT && state == Player.START) {
-                    parent.renderImage();
-                    playMovieAcrossT();
-                }
-                break;
-            case MoviePlayerDialog.ACROSS_BIN:
-                if (frameNumberBin <= getMaxBin() && frameNumberBin >= startBin
-                        && frameNumberBin <= endBin && state == Player.START) {
-                    parent.renderImage();
-                    playMovieAcrossBin();
-                }
-                break;
-            case MoviePlayerDialog.ACROSS_ZT:
+        if (state != Player.START) return;
+        if (index == MoviePlayerDialog.ACROSS_BIN) {
+            if (frameNumberBin <= getMaxBin() && frameNumberBin >= startBin
+                    && frameNumberBin <= endBin) {
                 parent.renderImage();
-                playMovieAcrossZT();
-                break;
+                playMovieAcrossBin();
+            }
+            return;
+        }
+        fillBuffer();
+        long now = System.currentTimeMillis();
+        FrameBuffer.Frame f = buffer.poll(now);
+        if (f != null) {
+            parent.showFrame(f);
+            parent.setStatistics(clock.getFrameRate(), clock.getDropped());
         }
+        //The state may have been modified while displaying the frame.
+        if (state == Player.START && ended && buffer.isEmpty())
+            setPlayerState(Player.STOP);
     }
 
 }
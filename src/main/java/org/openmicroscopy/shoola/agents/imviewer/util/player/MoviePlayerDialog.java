@@ -173,6 +173,32 @@ public class MoviePlayerDialog
         model.setSelectedXYPlane(z, t, bin);
     }
 
+    /**
+     * Displays the passed frame. The plane is rendered if the frame could
+     * not be rendered ahead.
+     *
+     * @param frame The frame to display.
+     */
+    void showFrame(FrameBuffer.Frame frame)
+    {
+        if (frame.getImage() == null)
+            model.setSelectedXYPlane(frame.getZ(), frame.getT(),
+                    model.getSelectedBin());
+        else model.showFrame(frame.getZ(), frame.getT(), frame.getImage());
+    }
+
+    /**
+     * Displays the number of frames displayed per second and the number
+     * of frames dropped.
+     *
+     * @param rate The number of frames per second.
+     * @param dropped The number of frames dropped.
+     */
+    void setStatistics(double rate, int dropped)
+    {
+        if (uiDelegate != null) uiDelegate.setStatistics(rate, dropped);
+    }
+
     /** Notifies that the state has changed. */
     void notifyPlayerStateChange() {}
 
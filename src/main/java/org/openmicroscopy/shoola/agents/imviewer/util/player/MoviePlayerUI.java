@@ -112,6 +112,9 @@ class MoviePlayerUI
 	/** To specify the movie playback rate in frames per second. */
 	JSpinner            fps;
 
+	/** Displays the frame rate achieved and the frames dropped. */
+	private JLabel		statistics;
+
 	/** To define new editor for JSpinner (due to JSpinner bug). */
 	NumericalTextField	editor;
 
@@ -200,6 +203,9 @@ class MoviePlayerUI
 		editor.setToolTipText(s);
 		editor.setColumns((""+max).length());
 		fps.setEditor(editor);
+		statistics = new JLabel();
+		statistics.setToolTipText(UIUtilities.formatToolTipText(
+				"Frames displayed per second and frames dropped."));
 
 		//movie selection
 		int maxZ = model.getMaxZ();
@@ -279,6 +285,8 @@ class MoviePlayerUI
 		c.gridx = 1;
 		c.insets = new Insets(0, 10, 0, 0);
 		p.add(fps, c);
+		c.gridx = 2;
+		p.add(statistics, c);
 		return p;
 	}
 
@@ -548,6 +556,18 @@ class MoviePlayerUI
 		toolBar.repaint();
 	}
 
+	/**
+	 * Displays the frame rate achieved and the number of frames dropped.
+	 * 
+	 * @param rate The number of frames displayed per second.
+	 * @param dropped The number of frames dropped.
+	 */
+	void setStatistics(double rate, int dropped)
+	{
+		statistics.setText(String.format("%.1f fps, %d dropped", rate,
+				dropped));
+	}
+
 	/**
 	 * Updates the UI components displaying the timer's delay.
 	 * 
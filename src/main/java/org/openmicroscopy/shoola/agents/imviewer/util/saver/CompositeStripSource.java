@@ -0,0 +1,230 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.agents.imviewer.util.saver;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openmicroscopy.shoola.agents.imviewer.util.ImagePaintingFactory;
+import org.openmicroscopy.shoola.util.image.io.StripSource;
+
+/**
+ * Composes the images to save side by side with their scale bar. The
+ * composite is painted band by band when encoded so that it is never built
+ * in memory. The images added as {@link StripSource} are read band by band
+ * too, the other ones are already in memory.
+ *
+ * @author agent &nbsp;&nbsp;&nbsp;&nbsp;
+ * <a href="mailto:agent@local">agent@local</a>
+ * @since 5.6.3
+ */
+class CompositeStripSource
+    implements StripSource
+{
+
+    /** An image and its location in the composite. */
+    private static class Layer
+    {
+
+        /** The image to paint or <code>null</code>. */
+        private final BufferedImage image;
+
+        /** The image to paint band by band or <code>null</code>. */
+        private final StripSource source;
+
+        /** The size of the image. */
+        private final int width, height;
+
+        /** The band of the image painted from the source. */
+        private BufferedImage band;
+
+        /** The location of the image along the X-axis. */
+        private final int x;
+
+        /**
+         * The text of the scale bar or <code>null</code> if no scale bar
+         * is painted.
+         */
+        private final String unitBar;
+
+        /** The length of the scale bar. */
+        private final int unitBarSize;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param image The image to paint or <code>null</code>.
+         * @param source The image to paint band by band or
+         *               <code>null</code>.
+         * @param x The location of the image along the X-axis.
+         * @param unitBar The text of the scale bar or <code>null</code>.
+         * @param unitBarSize The length of the scale bar.
+         */
+        Layer(BufferedImage image, StripSource source, int x, String unitBar,
+                int unitBarSize)
+        {
+            this.image = image;
+            this.source = source;
+            this.x = x;
+            this.unitBar = unitBar;
+            this.unitBarSize = unitBarSize;
+            if (image != null) {
+                width = image.getWidth();
+                height = image.getHeight();
+            } else {
+                width = source.getWidth();
+                height = source.getHeight();
+            }
+        }
+
+        /**
+         * Paints the specified rows of the image.
+         *
+         * @param g2 The graphics context, translated to the first row.
+         * @param y The first row.
+         * @param rows The number of rows.
+         */
+        void paint(Graphics2D g2, int y, int rows)
+        {
+            if (image != null) {
+                g2.drawImage(image, null, x, 0);
+                return;
+            }
+            if (y >= height) return;
+            rows = Math.min(rows, height-y);
+            if (band == null || band.getHeight() != rows)
+                band = new BufferedImage(width, rows,
+                        BufferedImage.TYPE_INT_RGB);
+            source.getRGB(y, rows, ((DataBufferInt)
+                    band.getRaster().getDataBuffer()).getData());
+            g2.drawImage(band, null, x, y);
+        }
+    }
+
+    /** The images composing the composite. */
+    private final List<Layer> layers;
+
+    /** The size of the composite. */
+    private int width, height;
+
+    /** The band the images are painted onto. */
+    private BufferedImage band;
+
+    /** Creates a new instance. */
+    CompositeStripSource()
+    {
+        layers = new ArrayList<Layer>();
+    }
+
+    /**
+     * Adds an image on the right of the images already added.
+     *
+     * @param image The image to add.
+     * @param space The space between the image and the previous one.
+     * @param unitBar The text of the scale bar or <code>null</code> if no
+     *                scale bar is painted.
+     * @param unitBarSize The length of the scale bar.
+     */
+    void add(BufferedImage image, int space, String unitBar, int unitBarSize)
+    {
+        if (image == null) return;
+        add(new Layer(image, null, layers.isEmpty() ? 0 : width+space,
+                unitBar, unitBarSize));
+    }
+
+    /**
+     * Adds an image read band by band on the right of the images already
+     * added.
+     *
+     * @param source The image to add.
+     * @param space The space between the image and the previous one.
+     * @param unitBar The text of the scale bar or <code>null</code> if no
+     *                scale bar is painted.
+     * @param unitBarSize The length of the scale bar.
+     */
+    void add(StripSource source, int space, String unitBar, int unitBarSize)
+    {
+        if (source == null) return;
+        add(new Layer(null, source, layers.isEmpty() ? 0 : width+space,
+                unitBar, unitBarSize));
+    }
+
+    /**
+     * Adds the specified layer.
+     *
+     * @param layer The layer to add.
+     */
+    private void add(Layer layer)
+    {
+        layers.add(layer);
+        width = layer.x+layer.width;
+        height = Math.max(height, layer.height);
+    }
+
+    /**
+     * Implemented as specified by the {@link StripSource} interface.
+     * @see StripSource#getWidth()
+     */
+    public int getWidth() { return width; }
+
+    /**
+     * Implemented as specified by the {@link StripSource} interface.
+     * @see StripSource#getHeight()
+     */
+    public int getHeight() { return height; }
+
+    /**
+     * Paints the band, the space between the images is white.
+     * @see StripSource#getRGB(int, int, int[])
+     */
+    public void getRGB(int y, int rows, int[] buffer)
+    {
+        if (band == null || band.getHeight() != rows)
+            band = new BufferedImage(width, rows, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2 = band.createGraphics();
+        try {
+            ImagePaintingFactory.setGraphicRenderingSettings(g2);
+            g2.setColor(Color.WHITE);
+            g2.fillRect(0, 0, width, rows);
+            g2.translate(0, -y);
+            for (Layer layer : layers) {
+                layer.paint(g2, y, rows);
+                if (layer.unitBar != null) {
+                    ImagePaintingFactory.paintScaleBar(g2,
+                            layer.x+layer.width-layer.unitBarSize-10,
+                            layer.height-10, layer.unitBarSize,
+                            layer.unitBar);
+                }
+            }
+        } finally {
+            g2.dispose();
+        }
+        int[] data = ((DataBufferInt) band.getRaster().getDataBuffer())
+                .getData();
+        System.arraycopy(data, 0, buffer, 0, width*rows);
+    }
+
+}
@@ -26,13 +26,10 @@ package org.openmicroscopy.shoola.agents.imviewer.util.saver;
 import java.awt.Color;
 import java.awt.Cursor;
 import java.awt.Dimension;
-import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
-import java.io.DataOutputStream;
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.Iterator;
 import java.util.List;
@@ -42,14 +39,10 @@ import javax.swing.JFrame;
 
 import org.apache.commons.io.FileUtils;
 import org.openmicroscopy.shoola.agents.imviewer.ImViewerAgent;
-import org.openmicroscopy.shoola.agents.imviewer.util.ImagePaintingFactory;
 import org.openmicroscopy.shoola.agents.imviewer.view.ImViewer;
 import org.openmicroscopy.shoola.env.ui.UserNotifier;
-import org.openmicroscopy.shoola.util.filter.file.TIFFFilter;
-import org.openmicroscopy.shoola.util.image.geom.Factory;
-import org.openmicroscopy.shoola.util.image.io.Encoder;
 import org.openmicroscopy.shoola.util.image.io.EncoderException;
-import org.openmicroscopy.shoola.util.image.io.TIFFEncoder;
+import org.openmicroscopy.shoola.util.image.io.StripSource;
 import org.openmicroscopy.shoola.util.image.io.WriterImage;
 import org.openmicroscopy.shoola.util.ui.MessageBox;
 import org.openmicroscopy.shoola.util.ui.NotificationDialog;
@@ -150,12 +143,25 @@ public class ImgSaver
     
     /** The main image i.e. the one displayed in the viewer. */
     private BufferedImage   mainImage;
+
+    /**
+     * The main image rendered band by band when written, <code>null</code>
+     * if the main image is {@link #mainImage}.
+     */
+    private StripSource     mainSource;
     
     /** 
      * The list of images composing the main image. <code>null</code> if no
      * components.
      */
     private List            imageComponents;
+
+    /**
+     * The images composing the main image rendered band by band when
+     * written, <code>null</code> if no components or if the components
+     * are the images in {@link #imageComponents}.
+     */
+    private List<StripSource> componentSources;
     
     /** The type of the image to save. */
     private int				imageType;
@@ -207,50 +213,80 @@ public class ImgSaver
     	return buffer.toString();
     }
     
+    /**
+     * Adds the specified image to the composite.
+     * 
+     * @param source The composite.
+     * @param image The image to add, either a {@link BufferedImage} or a
+     *              {@link StripSource}.
+     * @param space The space between the image and the previous one.
+     * @param unitBar The text of the scale bar or <code>null</code>.
+     * @param unitBarSize The length of the scale bar.
+     */
+    private void addImage(CompositeStripSource source, Object image,
+            int space, String unitBar, int unitBarSize)
+    {
+        if (image instanceof StripSource)
+            source.add((StripSource) image, space, unitBar, unitBarSize);
+        else source.add((BufferedImage) image, space, unitBar, unitBarSize);
+    }
+
     /**
      * Creates a single image.
      * 
-     * @param image The image to create.
+     * @param image The image to create, either a {@link BufferedImage} or a
+     *              {@link StripSource}.
      * @param constraint The constraint indicating to add the scale bar.
      * @param name The name of the image.
      * @throws EncoderException
-     * @throws IOException
      */
-    private void writeSingleImage(BufferedImage image, boolean constraint,
+    private void writeSingleImage(Object image, boolean constraint,
             String name)
-                    throws EncoderException, IOException
+                    throws EncoderException
     {
-        int width = image.getWidth();
-        int h = image.getHeight();
         String v = getUnitBarValue(); 
         int s = (int) model.getUnitBarSize();
+        CompositeStripSource source = new CompositeStripSource();
+        addImage(source, image, 0, constraint ? v : null, s);
+        writeImage(source, name);
+    }
 
-        BufferedImage newImage = new BufferedImage(width, h,
-                BufferedImage.TYPE_INT_RGB);
-        Graphics2D g2 = (Graphics2D) newImage.getGraphics();
-        ImagePaintingFactory.setGraphicRenderingSettings(g2);
-        //Paint the original image.
-        g2.drawImage(image, null, 0, 0); 
-
-        if (constraint)
-            ImagePaintingFactory.paintScaleBar(g2, width-s-10, h-10, s, v);
-        writeImage(newImage, name);
+    /**
+     * Sets the image displayed in the viewer. The image is rendered band
+     * by band when written, it is only built in memory to be previewed or
+     * if it cannot be rendered by region.
+     * 
+     * @param includeROI Passed <code>true</code> to add ROI, 
+     * 					 <code>false</code> otherwise.
+     * @param preview Pass <code>true</code> to preview the image,
+     *                <code>false</code> otherwise.
+     */
+    private void setMainImage(boolean includeROI, boolean preview)
+    {
+        if (!preview) mainSource = model.getDisplayedImageSource(includeROI);
+        if (mainSource == null) mainImage = model.getDisplayedImage(includeROI);
     }
 
     /**
-     * Displays the preview dialog with images depending on the 
-     * saving type.
+     * Creates the images depending on the saving type. The images of the
+     * channels are rendered band by band when written, they are only
+     * built in memory to be previewed.
      * 
      * @param savingType The type of saving.
+     * @param preview Pass <code>true</code> to preview the images,
+     *                <code>false</code> otherwise.
      */
-    private void createImages(int savingType)
+    private void createImages(int savingType, boolean preview)
     {
     	boolean b = uiDelegate.includeROI();
+    	componentSources = null;
+    	mainSource = null;
+    	mainImage = null;
         switch (savingType) {
             default:
             case ImgSaverUI.IMAGE:
             	imageType = ImgSaverUI.IMAGE;
-                mainImage = model.getDisplayedImage(b);
+            	setMainImage(b, preview);
                 imageComponents = null;
                 break;
             case ImgSaverUI.GRID_IMAGE:
@@ -265,14 +301,22 @@ public class ImgSaver
                 break;
             case ImgSaverUI.IMAGE_AND_COMPONENTS:
             	imageType = ImgSaverUI.IMAGE_AND_COMPONENTS;
-                mainImage = model.getDisplayedImage(b);
-                imageComponents = model.getImageComponents(
+            	setMainImage(b, preview);
+                componentSources = model.getImageComponentSources(
+                						ImViewer.RGB_MODEL, b);
+                imageComponents = null;
+                if (preview)
+                	imageComponents = model.getImageComponents(
                 						ImViewer.RGB_MODEL, b);
                 break;
             case ImgSaverUI.IMAGE_AND_COMPONENTS_GREY:
             	imageType = ImgSaverUI.IMAGE_AND_COMPONENTS;
-                mainImage = model.getDisplayedImage(b);
-                imageComponents = model.getImageComponents(
+            	setMainImage(b, preview);
+                componentSources = model.getImageComponentSources(
+                							ImViewer.GREY_SCALE_MODEL, b);
+                imageComponents = null;
+                if (preview)
+                	imageComponents = model.getImageComponents(
                 							ImViewer.GREY_SCALE_MODEL, b);
                 break;
             case ImgSaverUI.LENS_IMAGE:
@@ -295,25 +339,19 @@ public class ImgSaver
     }
     
     /**
-     * Writes the image.
+     * Writes the image. The image is painted band by band while it is
+     * encoded.
      * 
-     * @param image The image to write to the file.
+     * @param source The image to write to the file.
      * @param n     The name of the image.
      * @throws EncoderException 
-     * @throws IOException
      */
-    private void writeImage(BufferedImage image, String n) throws EncoderException, IOException
+    private void writeImage(StripSource source, String n)
+    		throws EncoderException
     {
-        //n += "."+format;
         String extendedName = getExtendedName(n, format);
         File f = new File(extendedName);
-		if (TIFFFilter.TIF.equals(format)) {
-			Encoder encoder = new TIFFEncoder(Factory.createImage(image),
-					new DataOutputStream(new FileOutputStream(f)));
-			WriterImage.saveImage(encoder);
-		} else
-			WriterImage.saveImage(f, image, format);
-
+        WriterImage.saveImage(f, source, format);
 		close();
     }
     
@@ -425,7 +463,7 @@ public class ImgSaver
     { 
     	ImgSaverPreviewer preview = new ImgSaverPreviewer(this);
         setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
-        createImages(uiDelegate.getSavingType());
+        createImages(uiDelegate.getSavingType(), true);
         setCursor(Cursor.getPredefinedCursor(Cursor.DEFAULT_CURSOR));
         preview.initialize();
         UIUtilities.centerAndShow(preview);
@@ -471,7 +509,7 @@ public class ImgSaver
     void saveImage(boolean init)
     {
     	UserNotifier un = ImViewerAgent.getRegistry().getUserNotifier();
-    	if (init) createImages(uiDelegate.getSavingType());
+    	if (init) createImages(uiDelegate.getSavingType(), false);
         //Builds the image to display.
         boolean unitBar = model.isUnitBar();
         String v = getUnitBarValue(); 
@@ -483,60 +521,50 @@ public class ImgSaver
         	// make sure the parent directory paths all exist
         	FileUtils.forceMkdir(new File(name).getParentFile());
         	
-            if (imageComponents == null) {
-            	constrain = unitBar && v != null && s < mainImage.getWidth() 
+            List components = imageComponents;
+            if (componentSources != null) components = componentSources;
+            Object main = mainImage;
+            int width = mainImage == null ? 0 : mainImage.getWidth();
+            if (mainSource != null) {
+            	main = mainSource;
+            	width = mainSource.getWidth();
+            }
+            if (components == null) {
+            	constrain = unitBar && v != null && s < width 
             				&& imageType == ImgSaverUI.IMAGE;
-            	writeSingleImage(mainImage, constrain, name);
+            	writeSingleImage(main, constrain, name);
             } else {
-            	if (mainImage == null) return;
+            	if (main == null) return;
             	Iterator i;
-            	int h, w;
-            	BufferedImage newImage;
-            	Graphics2D g2;
             	if (uiDelegate.isSaveImagesInSeparatedFiles()) {
-            		constrain = unitBar && v != null && s < mainImage.getWidth() 
+            		constrain = unitBar && v != null && s < width 
     							&& imageType == ImgSaverUI.IMAGE;
-            		writeSingleImage(mainImage, constrain, name);
-            		i = imageComponents.iterator();
+            		writeSingleImage(main, constrain, name);
+            		i = components.iterator();
             		int j = 0;
             		while (i.hasNext()) {
             			constrain = unitBar && v != null && 
             				imageType != ImgSaverUI.LENS_IMAGE_AND_COMPONENTS;
-            			writeSingleImage((BufferedImage) i.next(), constrain, 
-            							name+"_"+j);
+            			writeSingleImage(i.next(), constrain, name+"_"+j);
             			j++;
                     }
             	} else {
-            		int width = mainImage.getWidth();
-                    h = mainImage.getHeight();
-                    int n = imageComponents.size();
-                    w = width*(n+1)+ImgSaverPreviewer.SPACE*(n-1);
-
-                    newImage = new BufferedImage(w, h, 
-                    		BufferedImage.TYPE_INT_RGB);
-                    g2 = (Graphics2D) newImage.getGraphics();
-                    g2.setColor(Color.WHITE);
-                    ImagePaintingFactory.setGraphicRenderingSettings(g2);
-                    //Paint the original image.
-                    i = imageComponents.iterator();
-                    int x = 0;
+            		//The composite is painted band by band while written.
+            		CompositeStripSource source = new CompositeStripSource();
+            		constrain = unitBar && v != null && 
+            			imageType != ImgSaverUI.LENS_IMAGE_AND_COMPONENTS;
+                    i = components.iterator();
+                    int space = 0;
                     while (i.hasNext()) {
-                        g2.drawImage((BufferedImage) i.next(), null, x, 0); 
-                        if (unitBar && v != null && 
-                            	imageType != ImgSaverUI.LENS_IMAGE_AND_COMPONENTS)
-                            ImagePaintingFactory.paintScaleBar(g2, x+width-s-10, 
-                            								h-10, s, v);
-                        x += width;
-                        g2.fillRect(x, 0, ImgSaverPreviewer.SPACE, h);
-                        x += ImgSaverPreviewer.SPACE;
+                    	addImage(source, i.next(), space,
+                    			constrain ? v : null, s);
+                    	space = ImgSaverPreviewer.SPACE;
                     }
-                    g2.drawImage(mainImage, null, x, 0); 
-                    if (unitBar && v != null && 
+                    constrain = unitBar && v != null && 
                     	!(imageType == ImgSaverUI.LENS_IMAGE_AND_COMPONENTS ||
-                    	 imageType == ImgSaverUI.LENS_IMAGE))
-                        ImagePaintingFactory.paintScaleBar(g2, x+width-s-10, 
-                        		h-10, s, v);
-                    writeImage(newImage, name);
+                    	 imageType == ImgSaverUI.LENS_IMAGE);
+                    addImage(source, main, space, constrain ? v : null, s);
+                    writeImage(source, name);
             	}
             }
 		} catch (Exception e) {
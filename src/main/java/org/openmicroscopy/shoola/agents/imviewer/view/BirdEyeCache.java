@@ -0,0 +1,191 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.agents.imviewer.view;
+
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedList;
+
+import org.openmicroscopy.shoola.agents.metadata.rnd.Renderer;
+import org.openmicroscopy.shoola.env.rnd.RndProxyDef;
+
+/**
+ * Keeps the images displayed in the bird eye view of a big image, one per
+ * plane and rendering settings. An image is built from the tiles as they
+ * are loaded, the lowest resolution level covering the whole plane and the
+ * tiles of the finer levels refining the visible region. No plane is
+ * rendered to build the bird eye view.
+ *
+ * @author agent &nbsp;&nbsp;&nbsp;&nbsp;
+ * <a href="mailto:agent@local">agent@local</a>
+ * @since 5.6.3
+ */
+class BirdEyeCache
+{
+
+    /** The maximum number of images kept. */
+    static final int MAX_ENTRIES = 8;
+
+    /** The image of a plane rendered with given settings. */
+    private static class Entry
+    {
+
+        /** The id of the pixels set. */
+        private final long pixelsID;
+
+        /** The z-section and timepoint. */
+        private final int z, t;
+
+        /** The rendering settings used. */
+        private final RndProxyDef def;
+
+        /** The image. */
+        private final BufferedImage image;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param pixelsID The id of the pixels set.
+         * @param z The z-section.
+         * @param t The timepoint.
+         * @param def The rendering settings used.
+         * @param image The image.
+         */
+        Entry(long pixelsID, int z, int t, RndProxyDef def,
+                BufferedImage image)
+        {
+            this.pixelsID = pixelsID;
+            this.z = z;
+            this.t = t;
+            this.def = def;
+            this.image = image;
+        }
+    }
+
+    /** The images, the most recently used first. */
+    private final LinkedList<Entry> entries;
+
+    /**
+     * Returns the entry matching the plane and the current settings of the
+     * renderer or <code>null</code>. The entry found becomes the most
+     * recently used.
+     *
+     * @param pixelsID The id of the pixels set.
+     * @param z The z-section.
+     * @param t The timepoint.
+     * @param rnd The renderer.
+     * @return See above.
+     */
+    private Entry find(long pixelsID, int z, int t, Renderer rnd)
+    {
+        Iterator<Entry> i = entries.iterator();
+        Entry e;
+        while (i.hasNext()) {
+            e = i.next();
+            if (e.pixelsID == pixelsID && e.z == z && e.t == t &&
+                    rnd.isSameSettings(e.def, false)) {
+                i.remove();
+                entries.addFirst(e);
+                return e;
+            }
+        }
+        return null;
+    }
+
+    /** Creates a new instance. */
+    BirdEyeCache()
+    {
+        entries = new LinkedList<Entry>();
+    }
+
+    /**
+     * Returns the image of the specified plane rendered with the current
+     * settings of the renderer or <code>null</code> if not cached.
+     *
+     * @param pixelsID The id of the pixels set.
+     * @param z The z-section.
+     * @param t The timepoint.
+     * @param rnd The renderer. Mustn't be <code>null</code>.
+     * @return See above.
+     */
+    BufferedImage get(long pixelsID, int z, int t, Renderer rnd)
+    {
+        Entry e = find(pixelsID, z, t, rnd);
+        return e == null ? null : e.image;
+    }
+
+    /**
+     * Paints the tile into the image of the specified plane rendered with
+     * the current settings of the renderer and returns the image. The image
+     * is created if not cached, from the specified image if any so that the
+     * bird eye view does not go blank while the tiles are loaded.
+     *
+     * @param pixelsID The id of the pixels set.
+     * @param z The z-section.
+     * @param t The timepoint.
+     * @param rnd The renderer. Mustn't be <code>null</code>.
+     * @param size The size of the image.
+     * @param seed The image to start from or <code>null</code>.
+     * @param tile The image of the tile.
+     * @param bounds The region covered by the tile, in the coordinates of
+     *               the image.
+     * @return See above.
+     */
+    BufferedImage paint(long pixelsID, int z, int t, Renderer rnd,
+            Dimension size, BufferedImage seed, BufferedImage tile,
+            Rectangle bounds)
+    {
+        Entry e = find(pixelsID, z, t, rnd);
+        if (e == null || e.image.getWidth() != size.width ||
+                e.image.getHeight() != size.height) {
+            if (e != null) entries.remove(e);
+            BufferedImage image = new BufferedImage(size.width, size.height,
+                    BufferedImage.TYPE_INT_RGB);
+            if (seed != null) {
+                Graphics2D g = image.createGraphics();
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                        RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.drawImage(seed, 0, 0, size.width, size.height, null);
+                g.dispose();
+            }
+            e = new Entry(pixelsID, z, t, rnd.getRndSettingsCopy(), image);
+            entries.addFirst(e);
+            while (entries.size() > MAX_ENTRIES)
+                entries.removeLast();
+        }
+        Graphics2D g = e.image.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.drawImage(tile, bounds.x, bounds.y, bounds.width, bounds.height,
+                null);
+        g.dispose();
+        return e.image;
+    }
+
+    /** Removes all the images. */
+    void clear() { entries.clear(); }
+
+}
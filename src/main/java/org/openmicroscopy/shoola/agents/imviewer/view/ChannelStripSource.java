@@ -0,0 +1,251 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+
+package org.openmicroscopy.shoola.agents.imviewer.view;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import javax.swing.JComponent;
+
+import org.jhotdraw.draw.DrawingView;
+import org.jhotdraw.draw.Figure;
+
+import org.openmicroscopy.shoola.util.image.io.StripSource;
+
+/**
+ * Provides the magnified image of one or more channels band by band so
+ * that the image is never built in memory.
+ * <p>The plane is rendered as regions of about {@link #BAND_SIZE} bytes,
+ * one region covering the rows of several bands, so that the server is
+ * called a few times per image. Only the layers whose figures intersect
+ * a band are painted onto it, clipped to the band.</p>
+ *
+ * @author agent &nbsp;&nbsp;&nbsp;&nbsp;
+ * <a href="mailto:agent@local">agent@local</a>
+ * @since 5.6.3
+ */
+class ChannelStripSource
+    implements StripSource
+{
+
+    /** The maximum number of bytes of a region rendered at once. */
+    static final long BAND_SIZE = 16*1024*1024;
+
+    /** Reference to the model. */
+    private final ImViewerModel model;
+
+    /** The channels to render. */
+    private final List<Integer> channels;
+
+    /** The color model to use. */
+    private final String colorModel;
+
+    /** The layers painted on top of the image e.g. the ROI. */
+    private final List<JComponent> layers;
+
+    /**
+     * The area covered by the figures of each layer, in the coordinates of
+     * the magnified image, in the same order as {@link #layers}.
+     */
+    private final List<List<Rectangle>> areas;
+
+    /** Pass <code>true</code> to interpolate the magnified image. */
+    private final boolean interpolate;
+
+    /** The dimensions of the plane. */
+    private final int sizeX, sizeY;
+
+    /** The dimensions of the magnified image. */
+    private final int width, height;
+
+    /** The number of rows of the plane rendered at once. */
+    private final int regionRows;
+
+    /** The band the region is painted onto. */
+    private BufferedImage band;
+
+    /** The rows of the plane last rendered or <code>null</code>. */
+    private BufferedImage region;
+
+    /** The first row of {@link #region}. */
+    private int regionStart;
+
+    /**
+     * Returns the area covered by the figures of the specified layer or
+     * <code>null</code> if the layer does not host figures.
+     *
+     * @param layer The layer to handle.
+     * @return See above.
+     */
+    private static List<Rectangle> getArea(JComponent layer)
+    {
+        if (!(layer instanceof DrawingView)) return null;
+        DrawingView view = (DrawingView) layer;
+        List<Rectangle> area = new ArrayList<Rectangle>();
+        if (view.getDrawing() == null) return area;
+        Iterator<Figure> i = view.getDrawing().getFigures().iterator();
+        while (i.hasNext())
+            area.add(view.drawingToView(i.next().getDrawingArea()));
+        return area;
+    }
+
+    /**
+     * Returns <code>true</code> if the specified area intersects the band,
+     * <code>false</code> otherwise.
+     *
+     * @param area The area to handle or <code>null</code> if unknown.
+     * @param y The first row of the band.
+     * @param rows The number of rows.
+     * @return See above.
+     */
+    private boolean intersects(List<Rectangle> area, int y, int rows)
+    {
+        if (area == null) return true;
+        Iterator<Rectangle> i = area.iterator();
+        while (i.hasNext()) {
+            if (i.next().intersects(0, y, width, rows)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the region covering the specified rows of the plane, the
+     * rows following them being rendered at the same time.
+     *
+     * @param start The first row.
+     * @param end The row after the last one.
+     * @return See above.
+     */
+    private BufferedImage getRegion(int start, int end)
+    {
+        if (region != null && start >= regionStart &&
+                end <= regionStart+region.getHeight())
+            return region;
+        region = null;
+        int rows = Math.min(sizeY-start, Math.max(end-start, regionRows));
+        region = model.getSplitComponentRegion(channels, colorModel, start,
+                rows);
+        regionStart = start;
+        return region;
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param model Reference to the model.
+     * @param channels The channels to render.
+     * @param colorModel The color model to use.
+     * @param layers The layers painted on top of the image or
+     *               <code>null</code>.
+     */
+    ChannelStripSource(ImViewerModel model, List<Integer> channels,
+            String colorModel, List<JComponent> layers)
+    {
+        this.model = model;
+        this.channels = channels;
+        this.colorModel = colorModel;
+        this.layers = layers;
+        interpolate = model.isInterpolation();
+        sizeX = model.getMaxX();
+        sizeY = model.getMaxY();
+        //Same size as the magnified image displayed.
+        double f = model.getZoomFactor();
+        width = Math.max(3, (int) (sizeX*f));
+        height = Math.max(3, (int) (sizeY*f));
+        long size = Math.min(BAND_SIZE, Runtime.getRuntime().maxMemory()/16);
+        regionRows = (int) Math.max(1, size/(4L*Math.max(1, sizeX)));
+        areas = new ArrayList<List<Rectangle>>();
+        if (layers != null) {
+            Iterator<JComponent> i = layers.iterator();
+            while (i.hasNext())
+                areas.add(getArea(i.next()));
+        }
+    }
+    /**
+     * Implemented as specified by the {@link StripSource} interface.
+     * @see StripSource#getWidth()
+     */
+    public int getWidth() { return width; }
+
+    /**
+     * Implemented as specified by the {@link StripSource} interface.
+     * @see StripSource#getHeight()
+     */
+    public int getHeight() { return height; }
+
+    /**
+     * Copies the rows of the plane covered by the band, one row more on
+     * each side so that the interpolation matches the one of the whole
+     * image, and magnifies them.
+     * @see StripSource#getRGB(int, int, int[])
+     */
+    public void getRGB(int y, int rows, int[] buffer)
+    {
+        if (band == null || band.getHeight() != rows)
+            band = new BufferedImage(width, rows, BufferedImage.TYPE_INT_RGB);
+        double scaleX = (double) width/sizeX;
+        double scaleY = (double) height/sizeY;
+        int start = Math.max(0, (int) Math.floor(y/scaleY)-1);
+        int end = Math.min(sizeY, (int) Math.ceil((y+rows)/scaleY)+1);
+        BufferedImage image = getRegion(start, end);
+        Graphics2D g2 = band.createGraphics();
+        try {
+            g2.setColor(Color.BLACK);
+            g2.fillRect(0, 0, width, rows);
+            g2.translate(0, -y);
+            g2.clipRect(0, y, width, rows);
+            if (image != null) {
+                Graphics2D g = (Graphics2D) g2.create();
+                try {
+                    g.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                            interpolate ?
+                            RenderingHints.VALUE_INTERPOLATION_BILINEAR :
+                            RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+                    g.scale(scaleX, scaleY);
+                    g.drawImage(image, 0, regionStart, null);
+                } finally {
+                    g.dispose();
+                }
+            }
+            if (layers != null) {
+                for (int i = 0; i < layers.size(); i++) {
+                    if (intersects(areas.get(i), y, rows))
+                        layers.get(i).print(g2);
+                }
+            }
+        } finally {
+            g2.dispose();
+        }
+        int[] data = ((DataBufferInt) band.getRaster().getDataBuffer())
+                .getData();
+        System.arraycopy(data, 0, buffer, 0, width*rows);
+    }
+
+}
@@ -39,6 +39,7 @@ import omero.gateway.SecurityContext;
 import org.openmicroscopy.shoola.env.rnd.RenderingControl;
 import org.openmicroscopy.shoola.env.rnd.RndProxyDef;
 import org.openmicroscopy.shoola.env.rnd.data.Tile;
+import org.openmicroscopy.shoola.util.image.io.StripSource;
 import org.openmicroscopy.shoola.util.ui.component.ObservableComponent;
 import omero.gateway.model.ChannelData;
 import omero.gateway.model.DataObject;
@@ -343,6 +344,30 @@ public interface ImViewer
 	 * @param bin The selected bin, only used for lifetime.
 	 */
 	public void setSelectedXYPlane(int z, int t, int bin);
+
+	/**
+	 * Renders the specified XY-plane with the current settings without
+	 * displaying it, e.g. to render the frames of a movie ahead.
+	 * This method may be invoked outside the event dispatching thread.
+	 * Returns <code>null</code> if the plane cannot be rendered ahead
+	 * e.g. the image is a big image or is not displayed in the main view.
+	 * 
+	 * @param z The z-section.
+	 * @param t The timepoint.
+	 * @return See above.
+	 */
+	public BufferedImage renderFrame(int z, int t);
+
+	/**
+	 * Selects the specified XY-plane and displays the passed image
+	 * rendered ahead by {@link #renderFrame(int, int)} instead of
+	 * rendering the plane.
+	 * 
+	 * @param z The selected z-section.
+	 * @param t The selected timepoint.
+	 * @param image The rendered plane.
+	 */
+	public void showFrame(int z, int t, BufferedImage image);
 	
 	/**
 	 * Sets the image to display.
@@ -451,6 +476,14 @@ public interface ImViewer
 	/** Renders the current XY-plane. */
 	public void renderXYPlane();
 
+	/**
+	 * Renders the current XY-plane in the background after a modification
+	 * of the rendering settings. Only one plane is rendered at a time,
+	 * the request is kept if a plane is already loading so that only
+	 * the latest settings are rendered e.g. while dragging a slider.
+	 */
+	public void refreshXYPlane();
+
 	/**
 	 * Returned the name of the rendered image.
 	 * 
@@ -500,6 +533,23 @@ public interface ImViewer
 	 */
 	public List getImageComponents(String colorModel, boolean includeROI);
 
+	/** 
+	 * Returns the images composing the displayed image, in the same order
+	 * as {@link #getImageComponents(String, boolean)}. The images are
+	 * rendered band by band when read so that they are never built in
+	 * memory.
+	 * Returns <code>null</code> if the the color model is
+	 * {@link #GREY_SCALE_MODEL}.
+	 * 
+	 * @param colorModel The index of the color model either 
+	 * 					 {@link #GREY_SCALE_MODEL} or {@link #RGB_MODEL}.
+	 * @param includeROI Passed <code>true</code> to add ROI, 
+	 * 					 <code>false</code> otherwise.
+	 * @return See above.
+	 */
+	public List<StripSource> getImageComponentSources(String colorModel,
+			boolean includeROI);
+
 	/**
 	 * Returns the image currently displayed.
 	 * 
@@ -509,6 +559,18 @@ public interface ImViewer
 	 */
 	public BufferedImage getDisplayedImage(boolean includeROI);
 
+	/**
+	 * Returns the image currently displayed, rendered band by band when
+	 * read so that it is never built in memory.
+	 * Returns <code>null</code> if the image cannot be rendered by region
+	 * e.g. a big image.
+	 * 
+	 * @param includeROI Passed <code>true</code> to add ROI, 
+	 * 					 <code>false</code> otherwise.
+	 * @return See above.
+	 */
+	public StripSource getDisplayedImageSource(boolean includeROI);
+
 	/**
 	 * Returns the default timepoint.
 	 * 
@@ -715,7 +777,27 @@ public interface ImViewer
 	 * @return See above.
 	 */
 	public List getGridImages();
-	
+
+	/**
+	 * Renders in the background the images composing the grid.
+	 * The images are delivered progressively using
+	 * {@link #setGridImage(int, BufferedImage)}.
+	 *
+	 * @return The number of images to render. The combined image is only
+	 *         rendered when the color model is <code>GreyScale</code>.
+	 */
+	public int loadGridImages();
+
+	/**
+	 * Sets the rendered image of the grid.
+	 *
+	 * @param index The position of the image in the grid,
+	 *              <code>-1</code> for the combined image.
+	 * @param image The rendered image or <code>null</code> if an error
+	 *              occurred.
+	 */
+	public void setGridImage(int index, BufferedImage image);
+
 	/**
 	 * Returns the image in color when the channels are in grey scale.
 	 * This method should only be invoked when the color model 
@@ -1264,12 +1346,28 @@ public interface ImViewer
     Map<Integer, Tile> getTiles();
 
     /**
-     * Indicates that the number of tiles loaded.
+     * Returns the tile hosting the most detailed resolution level loaded
+     * so far to display while the tiles load or <code>null</code>.
+     * 
+     * @return See above.
+     */
+    Tile getPreviewTile();
+
+    /**
+     * Indicates the number of tiles loaded since the last call.
      * 
-     * @param count The number of tiles loaded.
+     * @param count The number of tiles loaded, <code>0</code> if the tile
+     *              was cancelled.
      */
 	public void setTileCount(int count);
     
+	/**
+	 * Updates the bird eye view with the specified tile once loaded.
+	 * 
+	 * @param tile The loaded tile.
+	 */
+	public void setTile(Tile tile);
+    
 	/**
 	 * Loads the tiles corresponding to the specified region.
 	 * 
@@ -27,10 +27,13 @@ import java.awt.Cursor;
 import java.awt.Dimension;
 import java.awt.Point;
 import java.awt.Rectangle;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
 import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
@@ -45,6 +48,7 @@ import javax.swing.JCheckBox;
 import javax.swing.JComponent;
 import javax.swing.JFrame;
 import javax.swing.JPanel;
+import javax.swing.Timer;
 
 import org.openmicroscopy.shoola.agents.events.iviewer.ChannelSelection;
 import org.openmicroscopy.shoola.agents.events.iviewer.ImageRendered;
@@ -85,10 +89,12 @@ import omero.model.enums.UnitsLength;
 
 import org.openmicroscopy.shoola.env.rnd.RenderingControl;
 import org.openmicroscopy.shoola.env.rnd.RndProxyDef;
+import org.openmicroscopy.shoola.env.rnd.data.ResolutionLevel;
 import org.openmicroscopy.shoola.env.rnd.data.Tile;
 import org.openmicroscopy.shoola.env.ui.SaveEventBox;
 import org.openmicroscopy.shoola.env.ui.UserNotifier;
 import org.openmicroscopy.shoola.util.image.geom.Factory;
+import org.openmicroscopy.shoola.util.image.io.StripSource;
 import org.openmicroscopy.shoola.util.ui.MessageBox;
 import org.openmicroscopy.shoola.util.ui.UIUtilities;
 import org.openmicroscopy.shoola.util.ui.component.AbstractComponent;
@@ -133,6 +139,12 @@ class ImViewerComponent
 	
 	/** The message if rendering setting to annotation. */
 	static final String						ANNOTATION = "The annotations";
+
+	/**
+	 * The time in milliseconds without a new plane after which a plane
+	 * rendered with a stronger compression is rendered again.
+	 */
+	private static final int				SETTLE_DELAY = 500;
 	
 	/** The Model sub-component. */
 	private ImViewerModel       			model;
@@ -149,6 +161,18 @@ class ImViewerComponent
 	/** Flag indicating that a new z-section or timepoint is selected. */
 	private boolean							newPlane;
 
+	/**
+	 * Flag indicating that the settings have been modified while the plane
+	 * was loading and that the plane has to be rendered again.
+	 */
+	private boolean							refreshPending;
+
+	/**
+	 * Renders the plane again at the selected compression level once the
+	 * user stops browsing the image.
+	 */
+	private Timer							settleTimer;
+
 	/** 
 	 * Flag indicating that the rendering settings have been saved
 	 * before copying.
@@ -198,6 +222,24 @@ class ImViewerComponent
 		return img;
 	}
 	
+	/**
+	 * Returns the layers hosting the ROI or <code>null</code> if none.
+	 * 
+	 * @return See above.
+	 */
+	private List<JComponent> getROILayers()
+	{
+		if (layers == null) return null;
+		List<JComponent> roi = new ArrayList<JComponent>();
+		Iterator<JComponent> i = layers.iterator();
+		JComponent c;
+		while (i.hasNext()) {
+			c = i.next();
+			if (c instanceof DrawingCanvasView) roi.add(c);
+		}
+		return roi;
+	}
+	
 	/** 
 	 * Brings up the dialog used to set the parameters required for the
 	 * projection.
@@ -531,6 +573,44 @@ class ImViewerComponent
 		bus.post(evt);
 	}
 	
+	/**
+	 * Returns the channels rendered in each image of the grid, indexed by
+	 * position in the grid. The combined image, only rendered when the
+	 * color model is <code>GreyScale</code>, is identified by
+	 * <code>-1</code>.
+	 * 
+	 * @return See above.
+	 */
+	private Map<Integer, List<Integer>> getGridChannels()
+	{
+		Map<Integer, List<Integer>> channels =
+			new LinkedHashMap<Integer, List<Integer>>();
+		Iterator<ChannelData> i = getSortedChannelData().iterator();
+		int index = 0;
+		int k;
+		if (model.getColorModel().equals(GREY_SCALE_MODEL)) {
+			List active = view.getActiveChannelsInGrid();
+			List<Integer> combined = new ArrayList<Integer>();
+			while (i.hasNext()) {
+				k = i.next().getIndex();
+				if (active.contains(k)) {
+					channels.put(index, Arrays.asList(k));
+					combined.add(k);
+				}
+				index++;
+			}
+			if (combined.size() != 0) channels.put(-1, combined);
+		} else {
+			while (i.hasNext()) {
+				k = i.next().getIndex();
+				if (model.isChannelActive(k))
+					channels.put(index, Arrays.asList(k));
+				index++;
+			}
+		}
+		return channels;
+	}
+
 	/**
 	 * Creates a new instance.
 	 * The {@link #initialize() initialize} method should be called straight 
@@ -677,6 +757,7 @@ class ImViewerComponent
 	 */
 	public void discard()
 	{
+		refreshPending = false;
 		model.discard();
 		fireStateChange();
 	}
@@ -729,7 +810,17 @@ class ImViewerComponent
 		if (model.isBigImage()) {
 			double ox = (double) model.getTiledImageSizeX();
 			double oy = (double) model.getTiledImageSizeY();
-			
+			if (zoomIndex == ZoomAction.ZOOM_FIT_TO_WINDOW) {
+				//Load the level matching the size of the window.
+				Rectangle r = model.getBrowser().getVisibleRectangle();
+				if (r != null) zoomIndex = model.getFitResolutionLevel(
+						new Dimension(r.width, r.height));
+				else zoomIndex = model.getSelectedResolutionLevel();
+				//The index is a level not a zoom index.
+				ResolutionLevel level =
+						model.getResolutionDescription(zoomIndex);
+				if (level != null) factor = level.getRatio();
+			}
 			model.setSelectedResolutionLevel(zoomIndex);
 			view.setZoomFactor(factor, zoomIndex);
 			int w = model.getTiledImageSizeX();
@@ -914,22 +1005,60 @@ class ImViewerComponent
 		setSelectedXYPlane(z, t, -1);
 	}
 
+	/** 
+	 * Implemented as specified by the {@link ImViewer} interface.
+	 * @see ImViewer#renderFrame(int, int)
+	 */
+	public BufferedImage renderFrame(int z, int t)
+	{
+		switch (model.getState()) {
+			case NEW:
+			case DISCARDED:
+				return null;
+		}
+		if (model.getTabbedIndex() != VIEW_INDEX || model.isBigImage() ||
+				model.isLifetimeImage())
+			return null;
+		return model.renderFrame(z, t);
+	}
+
+	/** 
+	 * Implemented as specified by the {@link ImViewer} interface.
+	 * @see ImViewer#showFrame(int, int, BufferedImage)
+	 */
+	public void showFrame(int z, int t, BufferedImage image)
+	{
+		//The frame is displayed when the plane is selected.
+		model.setFrame(z, t, image);
+		try {
+			setSelectedXYPlane(z, t);
+		} finally {
+			model.setFrame(-1, -1, null);
+		}
+	}
+
 	/** 
 	 * Implemented as specified by the {@link ImViewer} interface.
 	 * @see ImViewer#setImage(Object)
 	 */
 	public void setImage(Object image)
 	{
-		if (model.getState() == LOADING_IMAGE_CANCELLED) return;
+		if (model.getState() == LOADING_IMAGE_CANCELLED) {
+			//The settings modified while loading are not rendered.
+			refreshPending = false;
+			return;
+		}
 		if (model.getState() != LOADING_IMAGE) 
 			throw new IllegalStateException("This method can only be invoked " +
 			"in the LOADING_IMAGE state.");
 		if (image == null) { //no need to notify.
 			model.setImage(null);
+			onImageLoaded();
 			return;
 		}
 		if (!(image instanceof BufferedImage)) {
 			model.setImage(null);
+			onImageLoaded();
 			return;
 		}
 		view.removeComponentListener(controller);
@@ -962,6 +1091,7 @@ class ImViewerComponent
 		view.setCursor(Cursor.getDefaultCursor());
 		view.addComponentListener(controller);
 		fireStateChange();
+		onImageLoaded();
 	}
 
 	/** 
@@ -1185,6 +1315,62 @@ class ImViewerComponent
 		postActiveChannelSelection(ChannelSelection.CHANNEL_SELECTION);
 	}
 	
+	/** 
+	 * Implemented as specified by the {@link ImViewer} interface.
+	 * @see ImViewer#refreshXYPlane()
+	 */
+	public void refreshXYPlane()
+	{
+		switch (model.getState()) {
+			case NEW:
+				throw new IllegalStateException(
+						"This method can't be invoked in the NEW state.");
+			case DISCARDED:
+			case LOADING_RND:
+				return;
+			case LOADING_IMAGE:
+				//The intermediate settings are skipped.
+				refreshPending = true;
+				return;
+		}
+		int index = model.getTabbedIndex();
+		if (model.isBigImage() || model.isFirstTime() || 
+				index != VIEW_INDEX || model.isPlayingMovie() ||
+				model.isPlayingChannelMovie()) {
+			renderXYPlane();
+			return;
+		}
+		model.fireImageRetrieval(view.getUICompressionLevel(), true);
+		newPlane = false;
+		fireStateChange();
+	}
+
+	/**
+	 * Renders the plane again if the settings were modified while the
+	 * plane was loading.
+	 */
+	private void onImageLoaded()
+	{
+		if (refreshPending) {
+			refreshPending = false;
+			refreshXYPlane();
+			return;
+		}
+		if (!model.isDegraded() || model.isPlayingMovie() ||
+				model.isPlayingChannelMovie()) return;
+		//The plane was rendered with a stronger compression while browsing.
+		if (settleTimer == null) {
+			settleTimer = new Timer(SETTLE_DELAY, new ActionListener() {
+				public void actionPerformed(ActionEvent e) {
+					if (model.getState() == READY && model.isDegraded())
+						refreshXYPlane();
+				}
+			});
+			settleTimer.setRepeats(false);
+		}
+		settleTimer.restart();
+	}
+
 	/** 
 	 * Implemented as specified by the {@link ImViewer} interface.
 	 * @see ImViewer#renderXYPlane()
@@ -1196,12 +1382,17 @@ class ImViewerComponent
 				throw new IllegalStateException(
 						"This method can't be invoked in the NEW state.");
 			case LOADING_IMAGE:
+				//Render the plane once loaded.
+				refreshPending = true;
+				return;
 			case DISCARDED:
 			//case LOADING_BIRD_EYE_VIEW:
 			case LOADING_RND:
 				return;
 		} 
 		if (model.isBigImage()) {
+			//Display the bird eye view already built for the settings.
+			model.showCachedBirdEyeView();
 			model.resetTiles();
 			loadTiles(null);
 			return;
@@ -1497,6 +1688,59 @@ class ImViewerComponent
 		return images;
 	}
 
+	/** 
+	 * Implemented as specified by the {@link ImViewer} interface.
+	 * @see ImViewer#getImageComponentSources(String, boolean)
+	 */
+	public List<StripSource> getImageComponentSources(String colorModel,
+			boolean includeROI)
+	{
+		switch (model.getState()) {
+		case NEW:
+		case DISCARDED:
+			throw new IllegalStateException(
+					"This method can't be invoked in the DISCARDED or NEW"+
+			" state.");
+		}
+		if (model.getColorModel().equals(GREY_SCALE_MODEL)) return null;
+		List<Integer> l = model.getActiveChannels();
+		List<StripSource> sources = new ArrayList<StripSource>(l.size());
+		//A single channel is displayed with the current color model.
+		if (l.size() == 1) colorModel = model.getColorModel();
+		List<JComponent> roi = includeROI ? getROILayers() : null;
+		List<ChannelData> channels = model.getChannelData();
+		Iterator<ChannelData> k = channels.iterator();
+		ChannelData channel;
+		while (k.hasNext()) {
+			channel = k.next();
+			if (l.contains(channel.getIndex()))
+				sources.add(new ChannelStripSource(model,
+						Collections.singletonList(channel.getIndex()),
+						colorModel, roi));
+		}
+		return sources;
+	}
+
+	/** 
+	 * Implemented as specified by the {@link ImViewer} interface.
+	 * @see ImViewer#getDisplayedImageSource(boolean)
+	 */
+	public StripSource getDisplayedImageSource(boolean includeROI)
+	{
+		switch (model.getState()) {
+			case NEW:
+				throw new IllegalStateException(
+						"This method can't be invoked in the NEW state.");
+			case DISCARDED:
+				return null;
+		}
+		if (model.isBigImage()) return null;
+		List<Integer> l = model.getActiveChannels();
+		if (l.size() == 0) return null;
+		List<JComponent> roi = includeROI ? getROILayers() : null;
+		return new ChannelStripSource(model, l, model.getColorModel(), roi);
+	}
+
 	/** 
 	 * Implemented as specified by the {@link ImViewer} interface.
 	 * @see ImViewer#getGridImages()
@@ -1511,60 +1755,48 @@ class ImViewerComponent
 			" state.");
 		}
 		view.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
-		//if (model.getColorModel().equals(GREY_SCALE_MODEL)) return null;
-		List active = model.getActiveChannels();
-		int maxC = model.getMaxC();
-		List<BufferedImage> images = new ArrayList<BufferedImage>(maxC);
-		List<ChannelData> list = getSortedChannelData();
-		Iterator<ChannelData> i = list.iterator();
-		int k;
-		Iterator w;
-		if (model.getColorModel().equals(GREY_SCALE_MODEL)) {
-			active = view.getActiveChannelsInGrid();
-			//Iterator i = active.iterator();
-			while (i.hasNext()) {
-				k = i.next().getIndex();
-				if (active.contains(k)) {
-					model.setChannelActive(k, true);
-					for (int j = 0; j < maxC; j++) {
-						if (j != k) model.setChannelActive(j, false);
-					}
-					images.add(model.getSplitComponentImage());
-				} else {
-					images.add(null);
-				}
-			}
-
-			w = active.iterator();
-			while (w.hasNext()) { //reset values.
-				model.setChannelActive((Integer) w.next(), true);
-			}
-			if (active.size() != 0) {
-				model.setColorModel(RGB_MODEL, false);
-				images.add(model.getSplitComponentImage());
-				model.setColorModel(GREY_SCALE_MODEL, false);
-			}
+		Map<Integer, List<Integer>> channels = getGridChannels();
+		int n = getSortedChannelData().size();
+		List<BufferedImage> images = new ArrayList<BufferedImage>(n+1);
+		String colorModel = model.getColorModel();
+		List<Integer> l;
+		for (int j = 0; j < n; j++) {
+			l = channels.get(j);
+			if (l == null) images.add(null);
+			else images.add(model.getSplitComponentImage(l, colorModel));
+		}
+		l = channels.get(-1);
+		if (l != null) images.add(model.getSplitComponentImage(l, RGB_MODEL));
+		view.setCursor(Cursor.getPredefinedCursor(Cursor.DEFAULT_CURSOR));
+		return images;
+	}
 
-		} else {
-			while (i.hasNext()) {
-				k = i.next().getIndex();
-				if (model.isChannelActive(k)) {
-					for (int l = 0; l < maxC; l++) {
-						model.setChannelActive(l, k == l);
-					}
-					images.add(model.getSplitComponentImage());
-					w = active.iterator();
-					while (w.hasNext()) { //reset values.
-						model.setChannelActive((Integer) w.next(), true);
-					}
-				} else {
-					images.add(null);
-				}
-			}
+	/** 
+	 * Implemented as specified by the {@link ImViewer} interface.
+	 * @see ImViewer#loadGridImages()
+	 */
+	public int loadGridImages()
+	{
+		switch (model.getState()) {
+		case NEW:
+		case DISCARDED:
+			throw new IllegalStateException(
+					"This method can't be invoked in the DISCARDED or NEW"+
+			" state.");
 		}
+		Map<Integer, List<Integer>> channels = getGridChannels();
+		model.fireSplitViewLoading(channels, model.getColorModel());
+		return channels.size();
+	}
 
-		view.setCursor(Cursor.getPredefinedCursor(Cursor.DEFAULT_CURSOR));
-		return images;
+	/** 
+	 * Implemented as specified by the {@link ImViewer} interface.
+	 * @see ImViewer#setGridImage(int, BufferedImage)
+	 */
+	public void setGridImage(int index, BufferedImage image)
+	{
+		if (model.getState() == DISCARDED) return;
+		model.getBrowser().setGridImage(index, image);
 	}
 
 	/** 
@@ -3334,6 +3566,16 @@ class ImViewerComponent
 		return model.getTiles();
 	}
 	
+	/** 
+	 * Implemented as specified by the {@link ImViewer} interface.
+	 * @see ImViewer#getPreviewTile()
+	 */
+	public Tile getPreviewTile()
+	{
+		if (model.getState() == DISCARDED) return null;
+		return model.getPreviewTile();
+	}
+	
 	/** 
 	 * Implemented as specified by the {@link ImViewer} interface.
 	 * @see ImViewer#setTile(int)
@@ -3342,13 +3584,23 @@ class ImViewerComponent
 	{
 		if (model.getState() == DISCARDED) return;
 		model.getBrowser().getUI().repaint();
-		if (model.isTileLoaded(count)) {
+		if (model.getState() == LOADING_TILES && model.isTileLoaded(count)) {
 			view.addComponentListener(controller);
 			model.setState(READY);
 			fireStateChange();
 		}
 	}
 	
+	/** 
+	 * Implemented as specified by the {@link ImViewer} interface.
+	 * @see ImViewer#setTile(Tile)
+	 */
+	public void setTile(Tile tile)
+	{
+		if (model.getState() == DISCARDED) return;
+		model.updateBirdEyeView(tile);
+	}
+	
 	/** 
 	 * Implemented as specified by the {@link ImViewer} interface.
 	 * @see ImViewer#loadTiles(Rectangle)
@@ -3359,57 +3611,22 @@ class ImViewerComponent
 		    return;
 		if (region == null) 
 			region = model.getBrowser().getVisibleRectangle();
-		Map<Integer, Tile> tiles = getTiles();
-    	if (tiles == null) return;
-    	//invalidate images.
-    	Dimension d = model.getTileSize();
-    	int width = d.width;
-    	int height = d.height;
-    	int cs = region.x/width;
-    	int rs = region.y/height;
-    	int ih = region.width/width;
-    	int iv = region.height/height;
-    	int columns = getColumns();
-    	int index;
-    	Tile t;
-    	
-    	int h = rs+iv+1;
-    	int w = cs+ih+1;
-    	cs = cs-1;
-    	rs = rs-1;
-    	if (cs < 0) cs = 0;
-    	if (rs < 0) rs = 0;
-    	List<Tile> l = new ArrayList<Tile>();
-    	List<Tile> toKeep = new ArrayList<Tile>();
-    	for (int i = rs; i <= h; i++) {
-			for (int j = cs; j <= w; j++) {
-				index = i*columns+j;
-				t = tiles.get(index);
-				if (t != null) {
-					if (t.isImageLoaded()) {
-						if (!toKeep.contains(t))
-							toKeep.add(t);
-					} else {
-						if (!l.contains(t))
-							l.add(t);
-					}
-				}
-			}
-		}
-    	List<Tile> toClear = new ArrayList<Tile>();
-    	Iterator<Tile> k = tiles.values().iterator();
-    	while (k.hasNext()) {
+		//Only the visible tiles and the tiles around them are kept.
+		List<Tile> l = new ArrayList<Tile>();
+		Iterator<Tile> k = model.selectTiles(region).iterator();
+		Tile t;
+		while (k.hasNext()) {
 			t = k.next();
-			if (t.isImageLoaded() && !toClear.contains(t) && 
-					!toKeep.contains(t))
-				toClear.add(t);
-		}
-    	model.clearTileImages(toClear);
-		if (l.size() > 0) {
-			view.removeComponentListener(controller);
-			model.fireTileLoading(l);
-			fireStateChange();
+			if (!t.isImageLoaded()) l.add(t);
+		}
+		//Cancel the tiles no longer visible even if all are loaded.
+		if (l.size() == 0) {
+			model.fireTileLoading(l, region);
+			return;
 		}
+		view.removeComponentListener(controller);
+		model.fireTileLoading(l, region);
+		fireStateChange();
 	}
 	
 	/** 
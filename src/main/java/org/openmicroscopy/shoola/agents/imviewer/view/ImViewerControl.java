@@ -980,7 +980,7 @@ class ImViewerControl
 		} else if (LoadingWindow.CANCEL_LOADING_PROPERTY.equals(pName)) {
 			model.cancelInit();
 		} else if (MetadataViewer.RENDER_PLANE_PROPERTY.equals(pName)) {
-			model.renderXYPlane();
+			model.refreshXYPlane();
 		} else if (MetadataViewer.RND_LOADED_PROPERTY.equals(pName)) {
 			boolean b = (Boolean) pce.getNewValue();
 			model.onRndLoaded(b);
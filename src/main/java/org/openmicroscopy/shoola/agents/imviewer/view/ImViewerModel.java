@@ -38,11 +38,14 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
+import javax.swing.SwingUtilities;
+
 import omero.model.Length;
 import omero.model.LengthI;
 import omero.model.PlaneInfo;
 import omero.model.enums.UnitsLength;
 import omero.romio.PlaneDef;
+import omero.romio.RegionDef;
 
 import org.apache.commons.io.FilenameUtils;
 import org.openmicroscopy.shoola.agents.events.iviewer.CopyRndSettings;
@@ -59,6 +62,7 @@ import org.openmicroscopy.shoola.agents.imviewer.PlaneInfoLoader;
 import org.openmicroscopy.shoola.agents.imviewer.ProjectionSaver;
 import org.openmicroscopy.shoola.agents.imviewer.RenderingSettingsCreator;
 import org.openmicroscopy.shoola.agents.imviewer.RenderingSettingsLoader;
+import org.openmicroscopy.shoola.agents.imviewer.SplitViewLoader;
 import org.openmicroscopy.shoola.agents.imviewer.TileLoader;
 import org.openmicroscopy.shoola.agents.imviewer.actions.ZoomAction;
 import org.openmicroscopy.shoola.agents.imviewer.browser.Browser;
@@ -86,6 +90,8 @@ import org.openmicroscopy.shoola.env.rnd.RndProxyDef;
 import org.openmicroscopy.shoola.env.rnd.data.Region;
 import org.openmicroscopy.shoola.env.rnd.data.ResolutionLevel;
 import org.openmicroscopy.shoola.env.rnd.data.Tile;
+import org.openmicroscopy.shoola.env.rnd.data.TileGrid;
+import org.openmicroscopy.shoola.env.rnd.data.TileQueue;
 import org.openmicroscopy.shoola.util.CommonsLangUtils;
 import org.openmicroscopy.shoola.util.file.modulo.ModuloInfo;
 import org.openmicroscopy.shoola.util.image.geom.Factory;
@@ -151,6 +157,9 @@ class ImViewerModel
 	
 	/** Index of the <code>ImageLoader</code> loader. */
 	private static final int BIRD_EYE_VIEW = 2;
+
+	/** Index of the <code>SplitViewLoader</code> loader. */
+	private static final int SPLIT_VIEW = 3;
 	
 	/** The image to view. */
 	private DataObject image; 
@@ -196,6 +205,15 @@ class ImViewerModel
 
 	/** Flag indicating that a movie is played. */
 	private boolean playingMovie;
+
+	/**
+	 * The frame of a movie rendered ahead to display instead of rendering
+	 * the plane or <code>null</code>.
+	 */
+	private BufferedImage frame;
+
+	/** The z-section and timepoint of the {@link #frame}. */
+	private int frameZ, frameT;
 	
 	/** Flag indicating that a movie is played. */
 	private boolean playingChannelMovie;
@@ -286,24 +304,36 @@ class ImViewerModel
      */
     private double originalRatio;
     
-    /** The tiles to display. */
-    private Map<Integer, Tile> tiles;
+    /** The number of tiles selected around the visible region. */
+    private static final int TILE_MARGIN = 1;
     
-    /** The number of rows, default is <code>1</code>.*/
-    private int numberOfRows;
+    /** 
+     * The maximum size, along each axis, of a resolution level used as a
+     * preview.
+     */
+    private static final int MAX_PREVIEW_SIZE = 2048;
+    
+    /** The tiles of the selected resolution level. */
+    private TileGrid tileGrid;
+    
+    /**
+     * The resolution levels displayed while the tiles load, the lowest
+     * level first.
+     */
+    private List<Tile> previewTiles;
+    
+    /** The tiles to load, the closest to the viewport centre first. */
+    private TileQueue tileQueue;
+    
+    /** The images of the bird eye view built from the tiles. */
+    private BirdEyeCache birdEyeCache;
+    
+    /** The image displayed in the bird eye view. */
+    private BufferedImage birdEyeImage;
     
-    /** The number of columns, default is <code>1</code>.*/
-    private int numberOfColumns;
-
 	/** The collection of resolutions levels.*/
 	private List<ResolutionLevel> resolutions;
 	
-	/** The size of the tiled image along the X-axis.*/
-	private int tiledImageSizeX;
-	
-	/** The size of the tiled image along the Y-axis.*/
-	private int tiledImageSizeY;
-	
 	/** Flag indicating that the image is loaded for the first time.*/
 	private boolean firstTime;
 	
@@ -316,12 +346,6 @@ class ImViewerModel
     /** The display mode.*/
     private int displayMode;
     
-    /** The number of tiles to load.*/
-    private int tileTotalCount;
-    
-    /** The number of tiles already loaded.*/
-    private int tileLoadedCount;
-
     /** The default plane size.*/
     private int planeSize;
 
@@ -377,84 +401,16 @@ class ImViewerModel
 		return pDef;
 	}
 	
-	/** Initializes the tiles objects.*/
+	/** 
+	 * Initializes the grid of tiles. The tiles are only created when
+	 * selected.
+	 */
 	private void initializeTiles()
 	{
 		ResolutionLevel level = getResolutionDescription();
-		Dimension d = level.getTileSize();
-		int w = d.width;
-		int h = d.height;
-		int edgeWidth = w;
-		int edgeHeight = h;
-		int size = level.getImageSize().width;
-		edgeWidth = w;
-		int n = size/w;
-		tiledImageSizeX = n*w;
-		if (n*w < size) {
-			edgeWidth = size-n*w;
-			tiledImageSizeX += edgeWidth;
-			n++;
-		}
-		numberOfColumns = n;
-		size = level.getImageSize().height;
-		edgeHeight = h;
-		n = size/h;
-		tiledImageSizeY = n*h;
-		if (n*h < size) {
-			edgeHeight = size-n*h;
-			tiledImageSizeY += edgeHeight;
-			n++;
-		}
-		
-		numberOfRows = n;
-		int index = 0;
-		Tile tile;
-		Region region;
-		int x = 0;
-		int y = 0;
-		int ww;
-		int hh;
-		if (numberOfColumns <= 0) numberOfColumns = 1;
-		if (numberOfColumns <= 0) numberOfColumns = 1;
-		for (int i = 0; i < numberOfRows; i++) {
-			if (i == (numberOfRows-1)) hh = edgeHeight;
-			else hh = h;
-			for (int j = 0; j < numberOfColumns; j++) {
-				if (j == (numberOfColumns-1)) ww = edgeWidth;
-				else ww = w;
-				index = i*numberOfColumns+j;
-				tile = new Tile(index, i, j);
-				region = new Region(x, y, ww, hh);
-				tile.setRegion(region);
-				x += d.width;
-				tiles.put(index, tile);
-			}
-			y += d.height;
-			x = 0;
-		}
+		tileGrid = new TileGrid(level.getImageSize(), level.getTileSize());
 	}
 
-    /**
-     * Sorts the tiles by index.
-     * 
-     * @param tiles The tiles to sort.
-     */
-    private void sortTilesByIndex(List<Tile> tiles)
-    {
-    	 if (tiles == null || tiles.size() == 0) return;
-         Comparator c = new Comparator() {
-             public int compare(Object o1, Object o2)
-             {
-                 int n1 = ((Tile) o1).getIndex(), n2 = ((Tile) o2).getIndex();
-                 int v = 0;
-                 if (n1 < n2) v = -1;
-                 else if (n1 > n2) v = 1;
-                 return v;
-             }
-         };
-         Collections.sort(tiles, c);
-    }
-    
     /**
 	 * Transforms 3D coordinates into linear coordinates.
 	 * The returned value <code>L</code> is calculated as follows: 
@@ -528,7 +484,8 @@ class ImViewerModel
 	{
 		firstTime = true;
 		this.separateWindow = separateWindow;
-		tiles = new HashMap<Integer, Tile>();
+		tileQueue = new TileQueue();
+		birdEyeCache = new BirdEyeCache();
 		originalRatio = 1;
 		overlayTableID = -1;
 		requesterBounds = bounds;
@@ -633,8 +590,6 @@ class ImViewerModel
 		this.image = image;
 		this.ctx = ctx;
 		initialize(bounds, separateWindow);
-		numberOfRows = 1;
-		numberOfColumns = 1;
 		if (getImage().getDefaultPixels() != null) {
 			currentPixelsID = getImage().getDefaultPixels().getId();
 		}
@@ -817,6 +772,8 @@ class ImViewerModel
 	{
 		state = ImViewer.DISCARDED;
 		imageIcon = null;
+		birdEyeCache.clear();
+		birdEyeImage = null;
 		browser.discard();
 		if (image == null) return;
 		resetTiles();
@@ -845,6 +802,20 @@ class ImViewerModel
 		return rnd.getPixelsDimensionsX();
 	}
 
+	/**
+	 * Returns <code>true</code> if the displayed plane was rendered with a
+	 * stronger compression than the selected one, <code>false</code>
+	 * otherwise.
+	 *
+	 * @return See above.
+	 */
+	boolean isDegraded()
+	{
+		Renderer rnd = metadataViewer.getRenderer();
+		if (rnd == null) return false;
+		return rnd.isDegraded();
+	}
+
 	/**
 	 * Returns the sizeY.
 	 * 
@@ -1058,23 +1029,88 @@ class ImViewerModel
 	 * @param compression The compression level.
 	 */
 	void fireImageRetrieval(int compression)
+	{
+		fireImageRetrieval(compression, false);
+	}
+
+	/**
+	 * Starts the asynchronous retrieval of the rendered image if the image
+	 * is rendered for the first time or if the passed flag is
+	 * <code>true</code>. Otherwise the image is rendered synchronously.
+	 *
+	 * @param compression The compression level.
+	 * @param background Pass <code>true</code> to render the image in the
+	 *                   background, <code>false</code> otherwise.
+	 */
+	void fireImageRetrieval(int compression, boolean background)
 	{
 		Renderer rnd = metadataViewer.getRenderer();
 		if (rnd == null) return;
 		PlaneDef pDef = createPlaneDef();
 		state = ImViewer.LOADING_IMAGE;
-		if (firstTime) {
-			browser.setUnitBar(true);
+		if (firstTime || background) {
+			if (firstTime) browser.setUnitBar(true);
 			long pixelsID = getImage().getDefaultPixels().getId();
 			ImageLoader loader = new ImageLoader(component, ctx, 
 					pixelsID, pDef, false, compression);
 			loader.load();
 			loaders.put(IMAGE, loader);
 		} else {
-			component.setImage(rnd.renderPlane(pDef, compression));
+			BufferedImage img = null;
+			if (frame != null && frameZ == pDef.z && frameT == pDef.t)
+				img = frame;
+			frame = null;
+			if (img == null) img = rnd.renderPlane(pDef, compression);
+			component.setImage(img);
 		}
 	}
 
+	/**
+	 * Renders the specified XY-plane with the current settings without
+	 * displaying it. This method may be invoked outside the event
+	 * dispatching thread, the plane is then rendered by the proxy and
+	 * the errors are handled in the event dispatching thread.
+	 *
+	 * @param z The z-section.
+	 * @param t The timepoint.
+	 * @return See above.
+	 */
+	BufferedImage renderFrame(int z, int t)
+	{
+		final Renderer rnd = metadataViewer.getRenderer();
+		if (rnd == null) return null;
+		List<RenderingControl> proxies = rnd.getRenderingControls();
+		if (proxies == null || proxies.size() == 0) return null;
+		RenderingControl proxy = proxies.get(0);
+		PlaneDef pDef = new PlaneDef();
+		pDef.t = t;
+		pDef.z = z;
+		pDef.slice = omero.romio.XY.value;
+		try {
+			return proxy.render(pDef, proxy.getCompressionLevel());
+		} catch (final Throwable e) {
+			SwingUtilities.invokeLater(new Runnable() {
+				public void run() { rnd.handleRenderingError(e); }
+			});
+		}
+		return null;
+	}
+
+	/**
+	 * Sets the frame of a movie rendered ahead to display when the
+	 * specified plane is rendered.
+	 *
+	 * @param z The z-section.
+	 * @param t The timepoint.
+	 * @param image The rendered plane or <code>null</code>.
+	 */
+	void setFrame(int z, int t, BufferedImage image)
+	{
+		frameZ = z;
+		frameT = t;
+		frame = image;
+	}
+
 	/**
 	 * Returns <code>true</code> if the image is rendered for the first time,
 	 * <code>false</code> otherwise.
@@ -1100,6 +1136,76 @@ class ImViewerModel
 		return rnd.renderPlane(pDef);
 	}
 
+	/**
+	 * Renders the displayed plane with only the specified channels active.
+	 * The rendering settings are not modified.
+	 * 
+	 * @param channels The channels to render.
+	 * @param colorModel The color model to use.
+	 * @return See above.
+	 */
+	BufferedImage getSplitComponentImage(List<Integer> channels,
+			String colorModel)
+	{
+		Renderer rnd = metadataViewer.getRenderer();
+		if (rnd == null) return null;
+		PlaneDef pDef = new PlaneDef();
+		pDef.t = getDefaultT();
+		pDef.z = getDefaultZ();
+		pDef.slice = omero.romio.XY.value;
+		return rnd.renderChannels(pDef, channels, colorModel);
+	}
+
+	/**
+	 * Renders the specified rows of the displayed plane with only the
+	 * specified channels active. The rendering settings are not modified.
+	 * 
+	 * @param channels The channels to render.
+	 * @param colorModel The color model to use.
+	 * @param y The first row to render.
+	 * @param rows The number of rows to render.
+	 * @return See above.
+	 */
+	BufferedImage getSplitComponentRegion(List<Integer> channels,
+			String colorModel, int y, int rows)
+	{
+		Renderer rnd = metadataViewer.getRenderer();
+		if (rnd == null) return null;
+		PlaneDef pDef = new PlaneDef();
+		pDef.t = getDefaultT();
+		pDef.z = getDefaultZ();
+		pDef.slice = omero.romio.XY.value;
+		pDef.region = new RegionDef(0, y, getMaxX(), rows);
+		return rnd.renderChannels(pDef, channels, colorModel);
+	}
+
+	/**
+	 * Starts an asynchronous rendering of the images composing the split
+	 * view. The previous rendering, if any, is cancelled.
+	 * 
+	 * @param images The channels to render indexed by position in the grid,
+	 *               <code>-1</code> for the combined image.
+	 * @param colorModel The color model used to render the channels.
+	 */
+	void fireSplitViewLoading(Map<Integer, List<Integer>> images,
+			String colorModel)
+	{
+		DataLoader loader = loaders.remove(SPLIT_VIEW);
+		if (loader != null) loader.cancel();
+		Renderer rnd = metadataViewer.getRenderer();
+		if (rnd == null || images.size() == 0) return;
+		List<RenderingControl> proxies = rnd.getRenderingControls();
+		if (proxies == null || proxies.size() == 0) return;
+		PlaneDef pDef = new PlaneDef();
+		pDef.t = getDefaultT();
+		pDef.z = getDefaultZ();
+		pDef.slice = omero.romio.XY.value;
+		loader = new SplitViewLoader(component, ctx, proxies.get(0), pDef,
+				images, colorModel);
+		loader.load();
+		loaders.put(SPLIT_VIEW, loader);
+	}
+
 	/** Notifies that the rendering control has been loaded. */
 	void onRndLoaded()
 	{
@@ -2712,8 +2818,28 @@ class ImViewerModel
 		return (image instanceof WellSampleData);
 	}
 
+	/**
+	 * Returns the maximum size of the bird eye view depending on the
+	 * height of the screen.
+	 * 
+	 * @return See above.
+	 */
+	private int getBirdEyeSize()
+	{
+		Dimension screen = Toolkit.getDefaultToolkit().getScreenSize();
+		if (screen.height > 1200 && screen.height <= 1600)
+			return BIRD_EYE_SIZE_MEDIUM;
+		else if (screen.height > 1600)
+			return BIRD_EYE_SIZE_HEIGH;
+		return BIRD_EYE_SIZE_LOWER;
+	}
+	
         /**
-         * Loads the bird eye view image for big image.
+         * Loads the bird eye view image for big image. The image built from
+         * the tiles is displayed if already known for the selected plane
+         * and settings. Otherwise the thumbnail is only loaded if no image
+         * is displayed yet, the tiles updating the bird eye view as they
+         * arrive.
          * @param scale If <code>true</code> just loads the thumbnail and scales it up (fast), 
          *     otherwise requests the image with the intended size from the server directly (slow);
          */
@@ -2722,49 +2848,90 @@ class ImViewerModel
             Renderer rnd = metadataViewer.getRenderer();
             if (rnd == null)
                 return;
+            BufferedImage cached = birdEyeCache.get(currentPixelsID,
+                    getDefaultZ(), getDefaultT(), rnd);
+            if (cached != null) {
+                setBirdEyeView(cached, false);
+                return;
+            }
+            if (birdEyeImage != null) return;
             //A second call is some time made to retrieve a better quality thumbnail
             //when the first one is scaled. Thumbnail generation is not allowed in
             //read-only. This prevents the generation of a scale thumbnail.
             if (!ImViewerAgent.canCreate() && state == ImViewer.LOADING_BIRD_EYE_VIEW) {
                 return;
             }
-            int w = tiledImageSizeX;
-            int h = tiledImageSizeY;
             BirdEyeLoader loader;
             if (scale) {
-                double ratio = 1;
-                int ref = BIRD_EYE_SIZE_LOWER;
-                Dimension screen = Toolkit.getDefaultToolkit().getScreenSize();
-                if (screen.height > 1200 && screen.height <= 1600)
-                    ref = BIRD_EYE_SIZE_MEDIUM;
-                else if (screen.height > 1600)
-                    ref = BIRD_EYE_SIZE_HEIGH;
-                if (w < ref || h < ref)
-                    ratio = 1;
-                else {
-                    if (w >= h)
-                        ratio = (double) ref / w;
-                    else
-                        ratio = (double) ref / h;
-                }
-                ratio = (double) ref / Factory.THUMB_DEFAULT_WIDTH;
+                double ratio = (double) getBirdEyeSize() /
+                        Factory.THUMB_DEFAULT_WIDTH;
                 state = ImViewer.LOADING_BIRD_EYE_VIEW;
                 loader = new BirdEyeLoader(component, ctx, getImage(), ratio);
             } else {
-                int imgSize = BIRD_EYE_SIZE_LOWER;
-                Dimension screen = Toolkit.getDefaultToolkit().getScreenSize();
-                if (screen.height > 1200 && screen.height <= 1600)
-                    imgSize = BIRD_EYE_SIZE_MEDIUM;
-                else if (screen.height > 1600)
-                    imgSize = BIRD_EYE_SIZE_HEIGH;
-                
-                loader = new BirdEyeLoader(component, ctx, getImage(), imgSize);
+                loader = new BirdEyeLoader(component, ctx, getImage(),
+                        getBirdEyeSize());
             }
 
             loader.load();
             loaders.put(BIRD_EYE_VIEW, loader);
 	}
 	
+	/**
+	 * Displays the image of the bird eye view built for the selected plane
+	 * and settings if any. Returns <code>true</code> if the image is
+	 * displayed, <code>false</code> otherwise.
+	 * 
+	 * @return See above.
+	 */
+	boolean showCachedBirdEyeView()
+	{
+		Renderer rnd = metadataViewer.getRenderer();
+		if (rnd == null || !isBigImage()) return false;
+		BufferedImage cached = birdEyeCache.get(currentPixelsID,
+				getDefaultZ(), getDefaultT(), rnd);
+		if (cached == null) return false;
+		if (cached != birdEyeImage) setBirdEyeView(cached, false);
+		return true;
+	}
+	
+	/**
+	 * Paints the loaded tile into the bird eye view of the selected plane
+	 * and settings. The tile is scaled down to the size of the bird eye
+	 * view, so the lowest resolution level covers the whole plane while the
+	 * tiles of the selected level refine the visible region.
+	 * 
+	 * @param tile The loaded tile.
+	 */
+	void updateBirdEyeView(Tile tile)
+	{
+		Renderer rnd = metadataViewer.getRenderer();
+		if (rnd == null || tile == null || !isBigImage()) return;
+		if (!(tile.getImage() instanceof BufferedImage)) return;
+		int level = tile.getResolutionLevel();
+		if (level < 0) level = getSelectedResolutionLevel();
+		ResolutionLevel r = getResolutionDescription(level);
+		Region region = tile.getRegion();
+		if (r == null || region == null) return;
+		Dimension d = r.getImageSize();
+		if (d.width <= 0 || d.height <= 0) return;
+		int ref = getBirdEyeSize();
+		double f = (double) ref/Math.max(d.width, d.height);
+		Dimension size = new Dimension(
+				Math.max(1, (int) Math.round(d.width*f)),
+				Math.max(1, (int) Math.round(d.height*f)));
+		int x = (int) Math.floor(region.getX()*f);
+		int y = (int) Math.floor(region.getY()*f);
+		Rectangle bounds = new Rectangle(x, y,
+				Math.max(1, (int) Math.ceil((region.getX()+
+						region.getWidth())*f)-x),
+				Math.max(1, (int) Math.ceil((region.getY()+
+						region.getHeight())*f)-y));
+		BufferedImage image = birdEyeCache.paint(currentPixelsID,
+				getDefaultZ(), getDefaultT(), rnd, size, birdEyeImage,
+				(BufferedImage) tile.getImage(), bounds);
+		setBirdEyeView(image, false);
+	}
+	
 	/**
 	 * Returns the size of the tile.
 	 * 
@@ -2838,28 +3005,132 @@ class ImViewerModel
      * 
      * @return See above.
      */
-    int getRows() { return numberOfRows; }
+    int getRows()
+    {
+    	if (tileGrid == null) return 1;
+    	return tileGrid.getRows();
+    }
     
     /**
      * Returns the number of columns, default is <code>1</code>.
      * 
      * @return See above.
      */
-    int getColumns() { return numberOfColumns; }
+    int getColumns()
+    {
+    	if (tileGrid == null) return 1;
+    	return tileGrid.getColumns();
+    }
+    
+    /**
+     * Returns the tiles created for the selected resolution level i.e.
+     * the tiles last selected.
+     * 
+     * @return See above.
+     */
+    Map<Integer, Tile> getTiles()
+    {
+    	if (tileGrid == null) return Collections.emptyMap();
+    	return tileGrid.getTiles();
+    }
     
     /**
-     * Returns the tiles to display.
+     * Selects the tiles intersecting the specified region and the tiles
+     * around it. The other tiles are discarded.
      * 
+     * @param region The region to handle e.g. the visible region.
      * @return See above.
      */
-    Map<Integer, Tile> getTiles() { return tiles; }
+    List<Tile> selectTiles(Rectangle region)
+    {
+    	if (tileGrid == null || region == null)
+    		return new ArrayList<Tile>();
+    	return tileGrid.select(region, TILE_MARGIN);
+    }
 
+    /**
+     * Returns the tiles hosting the resolution levels less detailed than the
+     * selected one and not larger than {@link #MAX_PREVIEW_SIZE}, the lowest
+     * level first. The tiles are displayed upscaled while the tiles of the
+     * selected level load.
+     * 
+     * @return See above.
+     */
+    List<Tile> getPreviewTiles()
+    {
+    	List<Tile> tiles = new ArrayList<Tile>();
+    	if (!isBigImage() || resolutions == null || resolutions.isEmpty())
+    		return tiles;
+    	if (previewTiles == null) {
+    		List<ResolutionLevel> levels =
+    				new ArrayList<ResolutionLevel>(resolutions);
+    		Collections.sort(levels, new Comparator<ResolutionLevel>() {
+    			public int compare(ResolutionLevel l1, ResolutionLevel l2)
+    			{
+    				int w1 = l1.getImageSize().width;
+    				int w2 = l2.getImageSize().width;
+    				return w1 < w2 ? -1 : (w1 == w2 ? 0 : 1);
+    			}
+    		});
+    		previewTiles = new ArrayList<Tile>();
+    		Iterator<ResolutionLevel> i = levels.iterator();
+    		ResolutionLevel level;
+    		Dimension d;
+    		Tile tile;
+    		while (i.hasNext()) {
+    			level = i.next();
+    			d = level.getImageSize();
+    			if (d.width > MAX_PREVIEW_SIZE || d.height > MAX_PREVIEW_SIZE)
+    				break;
+    			tile = new Tile(-1, 0, 0);
+    			tile.setRegion(new Region(0, 0, d.width, d.height));
+    			tile.setResolutionLevel(level.getLevel());
+    			previewTiles.add(tile);
+    		}
+    	}
+    	ResolutionLevel selected = getResolutionDescription();
+    	if (selected == null) return tiles;
+    	int width = selected.getImageSize().width;
+    	Iterator<Tile> j = previewTiles.iterator();
+    	Tile tile;
+    	while (j.hasNext()) {
+    		tile = j.next();
+    		if (tile.getRegion().getWidth() < width) tiles.add(tile);
+    	}
+    	return tiles;
+    }
+
+    /**
+     * Returns the most detailed preview tile already loaded, or the lowest
+     * resolution level if none is loaded yet. Returns <code>null</code> if
+     * no level can be used as a preview.
+     * 
+     * @return See above.
+     * @see #getPreviewTiles()
+     */
+    Tile getPreviewTile()
+    {
+    	List<Tile> tiles = getPreviewTiles();
+    	if (tiles.isEmpty()) return null;
+    	Tile tile;
+    	for (int i = tiles.size()-1; i >= 0; i--) {
+    		tile = tiles.get(i);
+    		if (tile.isImageLoaded()) return tile;
+    	}
+    	return tiles.get(0);
+    }
+    
     /** 
-     * Fires an asynchronous call to load the tiles.
+     * Fires an asynchronous call to load the tiles. The tiles previously
+     * requested and not in the selection are cancelled. The tiles are loaded
+     * in parallel, one tile at a time per rendering control, the tiles
+     * closest to the centre of the viewport first. The preview levels not
+     * already loaded are loaded before the tiles, the lowest level first.
      * 
      * @param selection The collection of tiles to load.
+     * @param region The visible region or <code>null</code>.
      */
-    void fireTileLoading(List<Tile> selection)
+    void fireTileLoading(List<Tile> selection, Rectangle region)
     {
     	Renderer rnd = metadataViewer.getRenderer();
 		if (rnd == null || selection == null) return;
@@ -2867,35 +3138,35 @@ class ImViewerModel
 		pDef.t = getDefaultT();
 		pDef.z = getDefaultZ();
 		pDef.slice = omero.romio.XY.value;
-		List<Tile> list;
-		list = selection;
-		sortTilesByIndex(list);
+		int x = 0;
+		int y = 0;
+		if (region != null) {
+			x = region.x+region.width/2;
+			y = region.y+region.height/2;
+		}
+		List<Tile> tiles = selection;
+		if (selection.size() > 0) {
+			Iterator<Tile> j = getPreviewTiles().iterator();
+			Tile preview;
+			while (j.hasNext()) {
+				preview = j.next();
+				if (preview.isImageLoaded()) continue;
+				if (tiles == selection) tiles = new ArrayList<Tile>(selection);
+				tiles.add(preview);
+			}
+		}
+		tileQueue.schedule(tiles, pDef, x, y);
+		if (tiles.size() == 0) return;
 		state = ImViewer.LOADING_TILES;
-		List<RenderingControl> proxies = rnd.getRenderingControls();
-		int m = proxies.size();
-		//Create n sublist
-		int n = selection.size();
-		int diff = n/m;
-		List<Tile> l;
-		int j;
-		int step = 0;
-		if (n < m) diff = 1;
-		tileTotalCount = n;
-		tileLoadedCount = 0;
+		Iterator<RenderingControl> i = rnd.getRenderingControls().iterator();
 		RenderingControl proxy;
 		TileLoader loader;
-		for (int i = 0; i < m; i++) {
-			l = new ArrayList<Tile>();
-			j = step+diff;
-			if (i == (m-1)) j += (n-j);
-			if (j <= n) {
-				l =  list.subList(step, j);
-				step += l.size();
-			}
-			if (l.size() > 0) {
-				proxy = proxies.get(i);
+		while (i.hasNext()) {
+			proxy = i.next();
+			//Only start a loader if the proxy is not already in use.
+			if (tileQueue.addWorker(proxy)) {
 				loader = new TileLoader(component, ctx, currentPixelsID,
-						pDef, proxy, l);
+						proxy, tileQueue);
 				loader.load();
 			}
 		}
@@ -2904,8 +3175,13 @@ class ImViewerModel
     /** Resets the tiles.*/
     void resetTiles()
     {
-    	if (tiles == null) return;
-    	Iterator<Tile> i = tiles.values().iterator();
+    	tileQueue.clear();
+    	if (previewTiles != null) {
+    		Iterator<Tile> j = previewTiles.iterator();
+    		while (j.hasNext())
+    			j.next().setImage(null);
+    	}
+    	Iterator<Tile> i = getTiles().values().iterator();
 		while (i.hasNext())
 			i.next().setImage(null);
     }
@@ -2949,14 +3225,38 @@ class ImViewerModel
 			level = getResolutionLevels()-1;
 		Renderer rnd = metadataViewer.getRenderer();
 		if (rnd == null) return;
-		clearTileImages(tiles.values());
-		tiles.clear();
+		tileQueue.clear();
+		if (tileGrid != null) {
+			clearTileImages(tileGrid.getTiles().values());
+			tileGrid.clear();
+		}
 		rnd.setSelectedResolutionLevel(level);
 		initializeTiles();
 		
 		browser.setSelectedResolutionLevelZoomFactor(getResolutionDescription().getRatio());
 	}
 	
+	/**
+	 * Returns the resolution level best matching the magnification needed
+	 * to display the whole image in the passed area. This method should only
+	 * be used when dealing with large images.
+	 * 
+	 * @param area The size of the area.
+	 * @return See above.
+	 */
+	int getFitResolutionLevel(Dimension area)
+	{
+		int sizeX = getMaxX();
+		int sizeY = getMaxY();
+		if (resolutions == null || area == null || sizeX <= 0 || sizeY <= 0)
+			return getSelectedResolutionLevel();
+		double f = Math.min((double) area.width/sizeX,
+				(double) area.height/sizeY);
+		int level = ResolutionLevel.select(resolutions, f);
+		if (level < 0) return getSelectedResolutionLevel();
+		return level;
+	}
+	
 	/**
 	 * Returns the size of the tiled image along the X-axis i.e.
 	 * the size of a tile along the X-axis multiplied by the number of columns.
@@ -2966,7 +3266,8 @@ class ImViewerModel
 	int getTiledImageSizeX()
 	{
 		if (!isBigImage()) return getMaxX();
-		return tiledImageSizeX;
+		if (tileGrid == null) return 0;
+		return tileGrid.getSizeX();
 	}
 	
 	/**
@@ -2978,7 +3279,8 @@ class ImViewerModel
 	int getTiledImageSizeY()
 	{
 		if (!isBigImage()) return getMaxY();
-		return tiledImageSizeY;
+		if (tileGrid == null) return 0;
+		return tileGrid.getSizeY();
 	}
 
 	/**
@@ -3027,6 +3329,7 @@ class ImViewerModel
 	void setBirdEyeView(BufferedImage image, boolean scaled)
 	{
 		loaders.remove(BIRD_EYE_VIEW);
+		birdEyeImage = image;
 		getBrowser().setBirdEyeView(image);
 	}
 
@@ -3138,16 +3441,15 @@ class ImViewerModel
 	}
 
 	/** 
-	 * Returns <code>true</code> if all the tiles are loaded,
+	 * Returns <code>true</code> if all the requested tiles are loaded,
 	 * <code>false</code> otherwise.
 	 * 
-	 * @param count The number of loaded tiles.
+	 * @param count The number of tiles just loaded.
 	 * @return See above.
 	 */
 	boolean isTileLoaded(int count)
 	{
-		tileLoadedCount += count;
-		return tileLoadedCount == tileTotalCount;
+		return tileQueue.getPendingCount() == 0;
 	}
 
     /**
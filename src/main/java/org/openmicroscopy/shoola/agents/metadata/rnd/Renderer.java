@@ -562,6 +562,15 @@ public interface Renderer
      */
     int getCompressionLevel();
 
+    /**
+     * Returns <code>true</code> if the last plane was rendered with a
+     * stronger compression than the requested one, <code>false</code>
+     * otherwise.
+     *
+     * @return See above.
+     */
+    boolean isDegraded();
+
     /**
      * Returns <code>true</code> if the passed rendering settings are the same
      * that the current one, <code>false</code> otherwise.
@@ -614,6 +623,28 @@ public interface Renderer
      */
     BufferedImage renderPlane(PlaneDef pDef);
 
+    /**
+     * Handles an error which occurred while rendering a plane directly with
+     * the rendering control e.g. a frame of a movie rendered ahead.
+     * This method should be invoked in the event dispatching thread.
+     * 
+     * @param e The error to handle.
+     */
+    void handleRenderingError(Throwable e);
+
+    /**
+     * Renders the specified plane with only the passed channels active
+     * and using the specified color model. The rendering settings are not
+     * modified.
+     * 
+     * @param pDef The plane to render.
+     * @param channels The indexes of the channels to render.
+     * @param colorModel The color model to use.
+     * @return See above.
+     */
+    BufferedImage renderChannels(PlaneDef pDef, List<Integer> channels,
+            String colorModel);
+
     /** 
      * Sets the maximum range for channels.
      * 
@@ -848,6 +848,12 @@ class RendererComponent
      */
 	public int getCompressionLevel() { return model.getCompressionLevel(); }
 
+    /** 
+     * Implemented as specified by the {@link Renderer} interface.
+     * @see Renderer#isDegraded()
+     */
+	public boolean isDegraded() { return model.isDegraded(); }
+
     /** 
      * Implemented as specified by the {@link Renderer} interface.
      * @see Renderer#getPixelsDimensionsC()
@@ -1146,6 +1152,31 @@ class RendererComponent
 
 	/** 
      * Implemented as specified by the {@link Renderer} interface.
+     * @see Renderer#handleRenderingError(Throwable)
+     */
+	public void handleRenderingError(Throwable e)
+	{
+		if (e != null) handleException(e, false);
+	}
+
+	/** 
+     * Implemented as specified by the {@link Renderer} interface.
+     * @see Renderer#renderChannels(PlaneDef, List, String)
+     */
+	public BufferedImage renderChannels(PlaneDef pDef, List<Integer> channels,
+			String colorModel)
+	{
+		if (pDef == null || channels == null) return null;
+		try {
+			return model.renderChannels(pDef, channels, colorModel);
+		} catch (Throwable e) {
+			handleException(e, false);
+		}
+		return null;
+	}
+
+	/** 
+     * Implemented as specified by the {@link Renderer} interface.
      * @see Renderer#setRangeAllChannels(boolean)
      */
 	public void setRangeAllChannels(boolean absolute)
@@ -1116,6 +1116,19 @@ class RendererModel
 		return rndControl.getCompressionLevel();
 	}
 
+	/**
+	 * Returns <code>true</code> if the last plane was rendered with a
+	 * stronger compression than the requested one, <code>false</code>
+	 * otherwise.
+	 *
+	 * @return See above.
+	 */
+	boolean isDegraded()
+	{
+		if (rndControl == null) return false;
+		return rndControl.isDegraded();
+	}
+
 	/**
 	 * Returns the physical size of a pixels along the Y-axis.
 	 *
@@ -1413,6 +1426,25 @@ class RendererModel
 	    return rndControl.render(pDef, compression);
 	}
 
+	/**
+	 * Renders the specified plane with only the passed channels active.
+	 * 
+	 * @param pDef The plane to render.
+	 * @param channels The indexes of the channels to render.
+	 * @param colorModel The color model to use.
+	 * @return See above.
+	 * @throws RenderingServiceException If an error occurred while setting
+	 *                                  the value.
+	 * @throws DSOutOfServiceException If the connection is broken.
+	 */
+	BufferedImage renderChannels(PlaneDef pDef, List<Integer> channels,
+			String colorModel)
+		throws RenderingServiceException, DSOutOfServiceException
+	{
+		if (rndControl == null) return null;
+		return rndControl.renderChannels(pDef, channels, colorModel);
+	}
+
 	/**
 	 * Returns <code>true</code> if the passed rendering settings are the same
 	 * that the current one, <code>false</code> otherwise.
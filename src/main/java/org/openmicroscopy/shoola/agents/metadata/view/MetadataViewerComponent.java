@@ -410,6 +410,7 @@ class MetadataViewerComponent
 		model.setRootObject(root, ctx);
 		if (model.isSingleMode()) {
 			model.fireStructuredDataLoading(root);
+			if (!same) model.prepareRenderingControl(root);
 			fireStateChange();
 		}
 		view.setRootObject();
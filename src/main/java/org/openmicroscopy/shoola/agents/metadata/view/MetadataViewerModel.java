@@ -20,6 +20,8 @@
  */
 package org.openmicroscopy.shoola.agents.metadata.view;
 
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -32,6 +34,8 @@ import java.util.Map;
 import java.util.Set;
 import java.util.Map.Entry;
 
+import javax.swing.Timer;
+
 import org.apache.commons.collections4.CollectionUtils;
 import org.openmicroscopy.shoola.agents.metadata.AdminEditor;
 import org.openmicroscopy.shoola.agents.metadata.DataBatchSaver;
@@ -41,6 +45,7 @@ import org.openmicroscopy.shoola.agents.metadata.GroupEditor;
 import org.openmicroscopy.shoola.agents.metadata.MetadataLoader;
 import org.openmicroscopy.shoola.agents.metadata.ContainersLoader;
 import org.openmicroscopy.shoola.agents.metadata.MetadataViewerAgent;
+import org.openmicroscopy.shoola.agents.metadata.RenderingControlPreparer;
 import org.openmicroscopy.shoola.agents.metadata.RenderingSettingsLoader;
 import org.openmicroscopy.shoola.agents.metadata.StructuredDataLoader;
 import org.openmicroscopy.shoola.agents.metadata.ThumbnailLoader;
@@ -91,6 +96,12 @@ import omero.gateway.model.WellSampleData;
 class MetadataViewerModel
 {
 
+	/**
+	 * The time in milliseconds the selection must remain unchanged before
+	 * starting the rendering engine of the selected image.
+	 */
+	private static final int PREPARE_DELAY = 1000;
+
 	/** Holds one of the state flags defined by {@link MetadataViewer}. */
 	private int state;
 
@@ -163,6 +174,15 @@ class MetadataViewerModel
 	/** The selected rendering settings in "User Settings".*/
 	private long selectedViewedByDef;
 
+	/** Starts the rendering engine once the selection is stable. */
+	private Timer prepareTimer;
+
+	/** The image whose rendering engine is to be started. */
+	private ImageData imageToPrepare;
+
+	/** The call starting the rendering engine of the selected image. */
+	private RenderingControlPreparer preparer;
+
     /**
      * Creates a new context if <code>null</code>.
      *
@@ -311,6 +331,7 @@ class MetadataViewerModel
 		}
 		loaders.clear();
 		if (multiDataLoader != null) multiDataLoader.cancel();
+		cancelRenderingControlPreparation();
 	}
 	
 	/**
@@ -462,6 +483,61 @@ class MetadataViewerModel
 			setState(MetadataViewer.LOADING_METADATA);
 		}
 	}
+
+	/**
+	 * Starts the rendering engine of the selected image ahead of time.
+	 * This is only done when images are browsed, not when viewed, and once
+	 * the image has remained selected for a while so that browsing through
+	 * the images does not start an engine for each of them.
+	 *
+	 * @param node The selected node.
+	 */
+	void prepareRenderingControl(Object node)
+	{
+		cancelRenderingControlPreparation();
+		if (index != MetadataViewer.RND_GENERAL) return;
+		if (node instanceof WellSampleData)
+			node = ((WellSampleData) node).getImage();
+		if (!(node instanceof ImageData)) return;
+		ImageData img = (ImageData) node;
+		if (img.getId() < 0 || img.getDefaultPixels() == null) return;
+		imageToPrepare = img;
+		if (prepareTimer == null) {
+			prepareTimer = new Timer(PREPARE_DELAY, new ActionListener() {
+				public void actionPerformed(ActionEvent e)
+				{
+					startRenderingControlPreparation();
+				}
+			});
+			prepareTimer.setRepeats(false);
+		}
+		prepareTimer.restart();
+	}
+
+	/** Starts the rendering engine of the image still selected. */
+	private void startRenderingControlPreparation()
+	{
+		ImageData img = imageToPrepare;
+		imageToPrepare = null;
+		if (img == null || state == MetadataViewer.DISCARDED) return;
+		preparer = new RenderingControlPreparer(retrieveContext(img),
+				img.getDefaultPixels().getId());
+		preparer.load();
+	}
+
+	/**
+	 * Cancels the pending start of a rendering engine. An engine already
+	 * started is kept for when the image is opened.
+	 */
+	private void cancelRenderingControlPreparation()
+	{
+		if (prepareTimer != null) prepareTimer.stop();
+		imageToPrepare = null;
+		if (preparer != null) {
+			preparer.cancel();
+			preparer = null;
+		}
+	}
 	
 	/**
 	 * Returns <code>true</code> if the passed object is the reference object,
@@ -269,6 +269,13 @@ public class LookupNames
     public static final String THUMBNAIL_FETCH_MEDIUM_SPEED =
             "/services/Thumbnailing/fetchMediumSpeed";
 
+    /**
+     * Field to access the maximum size, in Mb, of the disk cache hosting
+     * the thumbnails retrieved from the server.
+     */
+    public static final String THUMBNAIL_DISK_CACHE_SZ =
+            "/services/Thumbnailing/diskCacheSz";
+
     /**
      * Field to access the number of rendering engine to start for big images.
      */
@@ -280,13 +287,46 @@ public class LookupNames
      */
     public static final String RE_TIMEOUT = "/services/RE/timeout";
 
+    /**
+     * Field to access the maximum number of rendering engines open at the
+     * same time.
+     */
+    public static final String RE_MAX_ENGINES = "/services/RE/maxEngines";
+
+    /**
+     * Field to access the maximum size, in Mb, of the cache hosting
+     * the planes already rendered.
+     */
+    public static final String RE_CACHE_SZ = "/services/RE/cacheSz";
+
+    /**
+     * Field to access the maximum size, in Mb, of the disk cache hosting
+     * the tiles of big images discarded from memory.
+     */
+    public static final String RE_TILE_CACHE_SZ = "/services/RE/tileCacheSz";
+
+    /**
+     * Field to access the interval after which an idle session used by
+     * the rendering engines is checked. The value is in milliseconds.
+     */
+    public static final String RE_HEARTBEAT = "/services/RE/heartbeat";
+
+    /**
+     * Field to access the maximum size, in Mb, of the cache hosting
+     * the raw planes used to render on the client.
+     */
+    public static final String RE_RAW_CACHE_SZ = "/services/RE/rawCacheSz";
+
     @Deprecated
     public static final String RE_STACK_BUF_SZ = "/services/RE/stackBufSz";
 
     @Deprecated
     public static final String RE_STACK_BLOCK_SZ = "/services/RE/stackBlockSz";
 
-    @Deprecated
+    /**
+     * Field to access the maximum number of planes rendered ahead while
+     * browsing the z-sections or timepoints.
+     */
     public static final String RE_MAX_PRE_FETCH = "/services/RE/maxPreFetch";
 
     public static final String CMD_PROCESSOR = "/services/CmdProcessor";
@@ -39,6 +39,8 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.Timer;
+import java.util.TimerTask;
 import java.util.Map.Entry;
 import java.util.concurrent.ExecutionException;
 
@@ -387,6 +389,12 @@ class OMEROGateway
 	
     // Keep track of the rendering engines currently in use
     private Map<SecurityContext, Set<Long>> renderingEngines = new HashMap<SecurityContext, Set<Long>>();
+
+    /** The rendering engines of the images recently closed. */
+    private final RenderingEnginePool enginePool = new RenderingEnginePool();
+
+    /** Discards the rendering engines idle for too long. */
+    private Timer engineTimer;
 	
 	/**
 	 * Creates the query to load the file set corresponding to a given image.
@@ -1613,10 +1621,17 @@ class OMEROGateway
 	}
 
 	boolean joinSession() {
+	    //The engines kept are no longer valid.
+	    closeRenderingEngines(enginePool.clear());
 	    return gw.joinSession();
 	}
 
 	void logout() {
+	    synchronized (enginePool) {
+	        if (engineTimer != null) engineTimer.cancel();
+	        engineTimer = null;
+	    }
+	    enginePool.clear();
 	    gw.disconnect();
 	}
 
@@ -2398,28 +2413,179 @@ class OMEROGateway
 			SecurityContext ctx, long pixelsID)
 		throws DSOutOfServiceException, DSAccessException, FSAccessException
 	{
-	    RenderingEnginePrx service = null;
+	    RenderingEnginePrx service = reuseRenderingEngine(ctx, pixelsID);
+	    if (service != null) return service;
 		try {
-		    service = gw.getRenderingService(ctx, pixelsID);
-			service.lookupPixels(pixelsID);
-			needDefault(pixelsID, service);
-			service.load();
-            Set<Long> pixIds = renderingEngines.get(ctx);
-            if (pixIds == null) {
-                pixIds = new HashSet<Long>();
-                renderingEngines.put(ctx, pixIds);
-            }
-            pixIds.add(pixelsID);
+		    service = startRenderingEngine(ctx, pixelsID, true);
+		    enginePool.add(ctx, pixelsID, service);
+		    registerRenderingEngine(ctx, pixelsID);
 			return service;
 		} catch (Throwable t) {
 		    log(t.getMessage());
-		    gw.closeService(ctx, service);
 			String s = "Cannot start the Rendering Engine.";
 			handleFSException(t, s);
 			handleException(t, s);
 		}
 		return null;
 	}
+
+	/**
+	 * Starts a new rendering service for the specified pixels set.
+	 * Returns <code>null</code> if the pixels set has no rendering settings
+	 * and the default ones must not be created.
+	 *
+	 * @param ctx The security context.
+	 * @param pixelsID The pixels set ID.
+	 * @param createDefault Pass <code>true</code> to create the default
+	 *                      settings if required, <code>false</code>
+	 *                      otherwise.
+	 * @return See above.
+	 * @throws Throwable If an error occurred while starting the service.
+	 */
+	private RenderingEnginePrx startRenderingEngine(SecurityContext ctx,
+	        long pixelsID, boolean createDefault)
+	    throws Throwable
+	{
+	    RenderingEnginePrx service = gw.getRenderingService(ctx, pixelsID);
+	    try {
+	        service.lookupPixels(pixelsID);
+	        if (createDefault) needDefault(pixelsID, service);
+	        else if (!service.lookupRenderingDef(pixelsID)) {
+	            gw.closeService(ctx, service);
+	            return null;
+	        }
+	        service.load();
+	    } catch (Throwable t) {
+	        gw.closeService(ctx, service);
+	        throw t;
+	    }
+	    return service;
+	}
+
+	/**
+	 * Registers the rendering engine so that it is re-activated if the
+	 * connection is lost.
+	 *
+	 * @param ctx The security context.
+	 * @param pixelsID The pixels set ID.
+	 */
+	private void registerRenderingEngine(SecurityContext ctx, long pixelsID)
+	{
+	    Set<Long> pixIds = renderingEngines.get(ctx);
+	    if (pixIds == null) {
+	        pixIds = new HashSet<Long>();
+	        renderingEngines.put(ctx, pixIds);
+	    }
+	    pixIds.add(pixelsID);
+	}
+
+	/**
+	 * Closes the rendering engines no longer kept.
+	 *
+	 * @param engines The engines to close and the context used to start them.
+	 */
+	private void closeRenderingEngines(
+	        Map<RenderingEnginePrx, SecurityContext> engines)
+	{
+	    Iterator<Entry<RenderingEnginePrx, SecurityContext>> i =
+	            engines.entrySet().iterator();
+	    Entry<RenderingEnginePrx, SecurityContext> e;
+	    while (i.hasNext()) {
+	        e = i.next();
+	        try {
+	            gw.closeService(e.getValue(), e.getKey());
+	        } catch (Exception ex) {
+	            log("Cannot close the Rendering Engine: "+ex.getMessage());
+	        }
+	    }
+	}
+
+	/**
+	 * Starts, if not already started, the timer closing the rendering
+	 * engines idle for too long even if no image is opened or closed.
+	 */
+	private void scheduleEngineEviction()
+	{
+	    synchronized (enginePool) {
+	        if (engineTimer != null) return;
+	        long period = enginePool.getIdleTime()/2;
+	        engineTimer = new Timer("Rendering engines eviction", true);
+	        engineTimer.schedule(new TimerTask() {
+	            public void run() {
+	                closeRenderingEngines(enginePool.evict(
+	                        System.currentTimeMillis()));
+	            }
+	        }, period, period);
+	    }
+	}
+
+	/**
+	 * Returns the rendering engine kept for the specified pixels set or
+	 * <code>null</code> if none available. The settings are reloaded so
+	 * the engine is in the same state as a new one.
+	 *
+	 * @param ctx The security context.
+	 * @param pixelsID The pixels set ID.
+	 * @return See above.
+	 */
+	private RenderingEnginePrx reuseRenderingEngine(SecurityContext ctx,
+	        long pixelsID)
+	{
+	    Map<RenderingEnginePrx, SecurityContext> discarded =
+	            new HashMap<RenderingEnginePrx, SecurityContext>();
+	    RenderingEnginePrx service = enginePool.take(ctx, pixelsID,
+	            System.currentTimeMillis(), discarded);
+	    closeRenderingEngines(discarded);
+	    if (service == null) return null;
+	    try {
+	        //Discard the settings not saved when the image was closed.
+	        needDefault(pixelsID, service);
+	        service.load();
+	        registerRenderingEngine(ctx, pixelsID);
+	        return service;
+	    } catch (Throwable t) {
+	        log("Cannot reuse the Rendering Engine: "+t.getMessage());
+	        enginePool.remove(service);
+	        try {
+	            gw.closeService(ctx, service);
+	        } catch (Exception ex) {}
+	    }
+	    return null;
+	}
+
+	/**
+	 * Starts a rendering engine for the specified pixels set ahead of time
+	 * if none is already in use or kept. No engine is started if the pixels
+	 * set has no rendering settings, so that selecting an image does not
+	 * create them.
+	 *
+	 * @param ctx The security context.
+	 * @param pixelsID  The pixels set ID.
+	 * @throws DSOutOfServiceException If the connection is broken, or not logged in
+	 * @throws DSAccessException If an error occurred while trying to
+	 * retrieve data from OMERO service.
+	 * @throws FSAccessException If an error occurred when trying to build a
+	 * pyramid or access file not available.
+	 */
+	void prepareRenderingEngine(SecurityContext ctx, long pixelsID)
+		throws DSOutOfServiceException, DSAccessException, FSAccessException
+	{
+	    if (enginePool.contains(ctx, pixelsID)) return;
+		try {
+		    RenderingEnginePrx service = startRenderingEngine(ctx, pixelsID,
+		            false);
+		    if (service == null) return;
+		    closeRenderingEngines(enginePool.offer(ctx, pixelsID, service,
+		            System.currentTimeMillis()));
+		    scheduleEngineEviction();
+		} catch (Throwable t) {
+		    log(t.getMessage());
+			String s = "Cannot start the Rendering Engine.";
+			handleFSException(t, s);
+			handleException(t, s);
+		}
+	}
+
 	/**
 	 * Finds the link if any between the specified parent and child.
 	 *
@@ -4245,6 +4411,48 @@ class OMEROGateway
 		return null;
 	}
 
+	/**
+	 * Retrieves the time of the last modification of the rendering settings
+	 * of the specified pixels sets, whoever the settings belong to.
+	 *
+	 * @param ctx The security context.
+	 * @param pixelsIDs The ids of the pixels sets.
+	 * @return Map whose keys are the pixels IDs and the values the time in
+	 *         milliseconds.
+	 * @throws DSOutOfServiceException  If the connection is broken, or logged
+	 *                                  in.
+	 * @throws DSAccessException        If an error occurred while trying to
+	 *                                  retrieve data from OMEDS service.
+	 */
+	Map<Long, Long> getRenderingDefTimes(SecurityContext ctx,
+			Collection<Long> pixelsIDs)
+		throws DSOutOfServiceException, DSAccessException
+	{
+		Map<Long, Long> times = new HashMap<Long, Long>();
+		try {
+		    IQueryPrx service = gw.getQueryService(ctx);
+			StringBuffer sb = new StringBuffer();
+			sb.append("select def from RenderingDef as def");
+			sb.append(" join fetch def.details.updateEvent");
+			sb.append(" where def.pixels.id in (:ids)");
+			ParametersI p = new ParametersI();
+			p.addIds(pixelsIDs);
+			List<IObject> l = service.findAllByQuery(sb.toString(), p);
+			RenderingDef def;
+			Long id, time, previous;
+			for (IObject o : l) {
+				def = (RenderingDef) o;
+				id = def.getPixels().getId().getValue();
+				time = def.getDetails().getUpdateEvent().getTime().getValue();
+				previous = times.get(id);
+				if (previous == null || previous < time) times.put(id, time);
+			}
+		} catch (Exception e) {
+			handleException(e, "Cannot retrieve the rendering settings");
+		}
+		return times;
+	}
+
 	/**
 	 * Retrieves the annotations of the passed type.
 	 *
@@ -6016,7 +6224,18 @@ class OMEROGateway
 	 */
 	void removeREService(SecurityContext ctx, long pixelsID)
 	{
-		gw.shutdownRenderingEngine(ctx, pixelsID);
+	    //Keep the engines in case the image is reopened.
+	    Map<RenderingEnginePrx, SecurityContext> discarded =
+	            new HashMap<RenderingEnginePrx, SecurityContext>();
+	    if (enginePool.release(ctx, pixelsID, System.currentTimeMillis(),
+	            discarded)) {
+	        Set<Long> pixIds = renderingEngines.get(ctx);
+	        if (pixIds != null) pixIds.remove(pixelsID);
+	        closeRenderingEngines(discarded);
+	        scheduleEngineEviction();
+	    } else {
+	        gw.shutdownRenderingEngine(ctx, pixelsID);
+	    }
 	}
 
 	/**
@@ -172,6 +172,33 @@ public interface OmeroImageService
 	 */
 	public void shutDown(SecurityContext ctx, long pixelsID);
 
+	/**
+	 * Starts the rendering service for the specified pixels set ahead of
+	 * time e.g. when the image is selected, so that opening the image does
+	 * not wait for the service to start.
+	 *
+	 * @param ctx The security context.
+	 * @param pixelsID The ID of the pixels set.
+	 * @throws DSOutOfServiceException If the connection is broken, or logged
+	 *                                 in.
+	 * @throws DSAccessException If an error occurred while trying to
+	 *                           retrieve data from OMEDS service.
+	 * @throws FSAccessException If an error occurred when trying to build a
+	 *                           pyramid or access file not available.
+	 */
+	public void prepareRenderingControl(SecurityContext ctx, long pixelsID)
+		throws DSOutOfServiceException, DSAccessException, FSAccessException;
+
+	/**
+	 * Closes the rendering services attached to the specified pixels set
+	 * without discarding the rendering control. The services are started
+	 * again using {@link #reloadRenderingService(SecurityContext, long)}.
+	 *
+	 * @param ctx The security context.
+	 * @param pixelsID The ID of the pixels set.
+	 */
+	public void suspendRenderingControl(SecurityContext ctx, long pixelsID);
+
 	/**
 	 * Returns a thumbnail of the currently selected 2D-plane for the
 	 * passed pixels set.
@@ -834,6 +861,24 @@ public interface OmeroImageService
 	Long getRenderingDef(SecurityContext ctx, long pixelsID, long userID)
 		throws DSOutOfServiceException, DSAccessException;
 
+	/**
+	 * Returns the time of the last modification of the rendering settings
+	 * of the specified pixels sets, whoever the settings belong to.
+	 * The pixels sets without rendering settings are not in the map.
+	 *
+	 * @param ctx The security context.
+	 * @param pixelsIDs The ids of the pixels sets.
+	 * @return Map whose keys are the pixels IDs and the values the time in
+	 *         milliseconds.
+	 * @throws DSOutOfServiceException If the connection is broken, or logged
+	 *                                  in.
+	 * @throws DSAccessException If an error occurred while trying to
+	 *                                  retrieve data from OMEDS service.
+	 */
+	Map<Long, Long> getRenderingDefTimes(SecurityContext ctx,
+			Collection<Long> pixelsIDs)
+		throws DSOutOfServiceException, DSAccessException;
+
     /**
      * Retrieves the rendering settings for the specified pixels set.
      *
@@ -620,6 +620,32 @@ class OmeroImageServiceImpl
 		}
 	}
 
+	/**
+	 * Implemented as specified by {@link OmeroImageService}.
+	 * @see OmeroImageService#prepareRenderingControl(SecurityContext, long)
+	 */
+	public void prepareRenderingControl(SecurityContext ctx, long pixelsID)
+		throws DSOutOfServiceException, DSAccessException, FSAccessException
+	{
+		//The image is already opened.
+		if (PixelsServicesFactory.getRenderingControl(context,
+				Long.valueOf(pixelsID), false) != null) return;
+		gateway.prepareRenderingEngine(ctx, pixelsID);
+	}
+
+	/**
+	 * Implemented as specified by {@link OmeroImageService}.
+	 * @see OmeroImageService#suspendRenderingControl(SecurityContext, long)
+	 */
+	public void suspendRenderingControl(SecurityContext ctx, long pixelsID)
+	{
+		try {
+			gateway.removeREService(ctx, pixelsID);
+		} catch (Exception e) {
+			context.getLogger().error(this, e.getMessage());
+		}
+	}
+
 	/**
 	 * Implemented as specified by {@link OmeroImageService}.
 	 * @see OmeroImageService#getThumbnail(SecurityContext, long, int, int, long)
@@ -2020,6 +2046,19 @@ class OmeroImageServiceImpl
 		return def.getId().getValue();
 	}
 
+	/**
+	 * Implemented as specified by {@link OmeroDataService}.
+	 * @see OmeroImageService#getRenderingDefTimes(SecurityContext, Collection)
+	 */
+	public Map<Long, Long> getRenderingDefTimes(SecurityContext ctx,
+			Collection<Long> pixelsIDs)
+		throws DSOutOfServiceException, DSAccessException
+	{
+		if (CollectionUtils.isEmpty(pixelsIDs))
+			return new HashMap<Long, Long>();
+		return gateway.getRenderingDefTimes(ctx, pixelsIDs);
+	}
+
 	/**
 	 * Implemented as specified by {@link OmeroDataService}.
 	 * @see OmeroImageService#getRenderingDef(SecurityContext, long)
@@ -0,0 +1,343 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.env.data;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import omero.api.RenderingEnginePrx;
+import omero.gateway.SecurityContext;
+
+/**
+ * Keeps the rendering engines of the images recently closed so that
+ * reopening one of them does not require to start a new rendering engine.
+ * The engines in use are registered when started and moved to the pool
+ * of idle engines when the image is closed. The idle engines are discarded
+ * after a given time or when too many engines are kept, the least recently
+ * released first. The engines discarded are returned to the caller, which
+ * is responsible for closing them and for calling {@link #evict(long)}
+ * periodically so that the idle engines are discarded even if no image is
+ * opened or closed.
+ *
+ * @author agent &nbsp;&nbsp;&nbsp;&nbsp;
+ * <a href="mailto:agent@local">agent@local</a>
+ * @since 5.6.3
+ */
+class RenderingEnginePool
+{
+
+    /** The default maximum number of idle engines kept. */
+    static final int MAX_ENGINES = 4;
+
+    /** The default time in milliseconds an idle engine is kept. */
+    static final long IDLE_TIME = 300000;
+
+    /** Hosts an engine and the image it is for. */
+    private static class Engine
+    {
+
+        /** The security context used to start the engine. */
+        private final SecurityContext ctx;
+
+        /** The ID of the pixels set. */
+        private final long pixelsID;
+
+        /** The rendering engine. */
+        private final RenderingEnginePrx re;
+
+        /** The time the engine was released. */
+        private long time;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param ctx The security context.
+         * @param pixelsID The ID of the pixels set.
+         * @param re The rendering engine.
+         */
+        Engine(SecurityContext ctx, long pixelsID, RenderingEnginePrx re)
+        {
+            this.ctx = ctx;
+            this.pixelsID = pixelsID;
+            this.re = re;
+        }
+
+        /**
+         * Returns <code>true</code> if the engine is for the specified image,
+         * <code>false</code> otherwise.
+         *
+         * @param ctx The security context.
+         * @param pixelsID The ID of the pixels set.
+         * @return See above.
+         */
+        boolean isFor(SecurityContext ctx, long pixelsID)
+        {
+            return this.pixelsID == pixelsID && this.ctx.equals(ctx);
+        }
+    }
+
+    /** The maximum number of idle engines kept. */
+    private final int maxEngines;
+
+    /** The time in milliseconds an idle engine is kept. */
+    private final long idleTime;
+
+    /** The engines in use. */
+    private final List<Engine> active;
+
+    /** The idle engines, the least recently released first. */
+    private final LinkedList<Engine> idle;
+
+    /**
+     * Removes the idle engines kept for too long or exceeding the maximum
+     * number of engines.
+     *
+     * @param time The current time in milliseconds.
+     * @param discarded The engines to close and the context used to start
+     *                  them.
+     */
+    private void evict(long time,
+            Map<RenderingEnginePrx, SecurityContext> discarded)
+    {
+        Iterator<Engine> i = idle.iterator();
+        Engine e;
+        while (i.hasNext()) {
+            e = i.next();
+            if (idle.size() > maxEngines || time-e.time >= idleTime) {
+                i.remove();
+                discarded.put(e.re, e.ctx);
+            }
+        }
+    }
+
+    /** Creates a new instance with the default values. */
+    RenderingEnginePool()
+    {
+        this(MAX_ENGINES, IDLE_TIME);
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param maxEngines The maximum number of idle engines kept.
+     *                   If <code>0</code>, the engines are never kept.
+     * @param idleTime The time in milliseconds an idle engine is kept.
+     */
+    RenderingEnginePool(int maxEngines, long idleTime)
+    {
+        this.maxEngines = Math.max(0, maxEngines);
+        this.idleTime = idleTime;
+        active = new ArrayList<Engine>();
+        idle = new LinkedList<Engine>();
+    }
+
+    /**
+     * Registers an engine in use.
+     *
+     * @param ctx The security context.
+     * @param pixelsID The ID of the pixels set.
+     * @param re The rendering engine.
+     */
+    synchronized void add(SecurityContext ctx, long pixelsID,
+            RenderingEnginePrx re)
+    {
+        if (ctx == null || re == null) return;
+        active.add(new Engine(ctx, pixelsID, re));
+    }
+
+    /**
+     * Adds an engine started ahead of time to the idle engines.
+     *
+     * @param ctx The security context.
+     * @param pixelsID The ID of the pixels set.
+     * @param re The rendering engine.
+     * @param time The current time in milliseconds.
+     * @return The engines to close and the context used to start them.
+     */
+    synchronized Map<RenderingEnginePrx, SecurityContext> offer(
+            SecurityContext ctx, long pixelsID, RenderingEnginePrx re,
+            long time)
+    {
+        Map<RenderingEnginePrx, SecurityContext> discarded =
+                new HashMap<RenderingEnginePrx, SecurityContext>();
+        if (ctx == null || re == null) return discarded;
+        Engine e = new Engine(ctx, pixelsID, re);
+        e.time = time;
+        idle.add(e);
+        evict(time, discarded);
+        return discarded;
+    }
+
+    /**
+     * Returns an idle engine for the specified image and registers it as
+     * in use or <code>null</code> if none available.
+     *
+     * @param ctx The security context.
+     * @param pixelsID The ID of the pixels set.
+     * @param time The current time in milliseconds.
+     * @param discarded The engines to close and the context used to start
+     *                  them.
+     * @return See above.
+     */
+    synchronized RenderingEnginePrx take(SecurityContext ctx, long pixelsID,
+            long time, Map<RenderingEnginePrx, SecurityContext> discarded)
+    {
+        evict(time, discarded);
+        //The most recently released first.
+        Iterator<Engine> i = idle.descendingIterator();
+        Engine e;
+        while (i.hasNext()) {
+            e = i.next();
+            if (e.isFor(ctx, pixelsID)) {
+                i.remove();
+                active.add(e);
+                return e.re;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Moves the engines in use for the specified image to the idle engines.
+     * Returns <code>false</code> if no engine was registered for the image,
+     * <code>true</code> otherwise.
+     *
+     * @param ctx The security context.
+     * @param pixelsID The ID of the pixels set.
+     * @param time The current time in milliseconds.
+     * @param discarded The engines to close and the context used to start
+     *                  them.
+     * @return See above.
+     */
+    synchronized boolean release(SecurityContext ctx, long pixelsID,
+            long time, Map<RenderingEnginePrx, SecurityContext> discarded)
+    {
+        boolean found = false;
+        Iterator<Engine> i = active.iterator();
+        Engine e;
+        while (i.hasNext()) {
+            e = i.next();
+            if (e.isFor(ctx, pixelsID)) {
+                i.remove();
+                e.time = time;
+                idle.add(e);
+                found = true;
+            }
+        }
+        evict(time, discarded);
+        return found;
+    }
+
+    /**
+     * Removes the idle engines kept for too long or exceeding the maximum
+     * number of engines e.g. when no image has been opened or closed for
+     * a while.
+     *
+     * @param time The current time in milliseconds.
+     * @return The engines to close and the context used to start them.
+     */
+    synchronized Map<RenderingEnginePrx, SecurityContext> evict(long time)
+    {
+        Map<RenderingEnginePrx, SecurityContext> discarded =
+                new HashMap<RenderingEnginePrx, SecurityContext>();
+        evict(time, discarded);
+        return discarded;
+    }
+
+    /**
+     * Returns the time in milliseconds an idle engine is kept.
+     *
+     * @return See above.
+     */
+    long getIdleTime() { return idleTime; }
+
+    /**
+     * Removes the specified engine e.g. if it cannot be used anymore.
+     *
+     * @param re The engine to remove.
+     */
+    synchronized void remove(RenderingEnginePrx re)
+    {
+        Iterator<Engine> i = active.iterator();
+        while (i.hasNext()) {
+            if (i.next().re == re) i.remove();
+        }
+        i = idle.iterator();
+        while (i.hasNext()) {
+            if (i.next().re == re) i.remove();
+        }
+    }
+
+    /**
+     * Returns <code>true</code> if an engine is in use or idle for the
+     * specified image, <code>false</code> otherwise.
+     *
+     * @param ctx The security context.
+     * @param pixelsID The ID of the pixels set.
+     * @return See above.
+     */
+    synchronized boolean contains(SecurityContext ctx, long pixelsID)
+    {
+        Iterator<Engine> i = active.iterator();
+        while (i.hasNext()) {
+            if (i.next().isFor(ctx, pixelsID)) return true;
+        }
+        i = idle.iterator();
+        while (i.hasNext()) {
+            if (i.next().isFor(ctx, pixelsID)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of idle engines.
+     *
+     * @return See above.
+     */
+    synchronized int getIdleCount() { return idle.size(); }
+
+    /**
+     * Removes all the engines e.g. when the session is closed and returns
+     * the idle ones and the context used to start them.
+     *
+     * @return See above.
+     */
+    synchronized Map<RenderingEnginePrx, SecurityContext> clear()
+    {
+        Map<RenderingEnginePrx, SecurityContext> l =
+                new HashMap<RenderingEnginePrx, SecurityContext>();
+        Iterator<Engine> i = idle.iterator();
+        Engine e;
+        while (i.hasNext()) {
+            e = i.next();
+            l.put(e.re, e.ctx);
+        }
+        idle.clear();
+        active.clear();
+        return l;
+    }
+
+}
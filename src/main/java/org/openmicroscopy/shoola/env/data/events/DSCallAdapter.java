@@ -38,11 +38,14 @@ import org.openmicroscopy.shoola.env.event.AgentEventListener;
  * <p>The purpose of this class is to ease the job of creating observers for
  * asynchronous calls to the data services.  This class implements the
  * {@link AgentEventListener} interface and forwards every feedback event to the
- * {@link #update(DSCallFeedbackEvent) update} method.  When the notification of
- * the computation outcome is received (that is, a {@link DSCallFeedbackEvent}),
- * the {@link #onEnd() onEnd} method is called, then right after one of the
- * <code>handleXXX</code> methods is called depending on what was the
- * computation outcome &#151; note that the <code>handleXXX</code> methods are
+ * {@link #update(DSCallFeedbackEvent) update} method and the feedback events
+ * coalesced within the same frame to the
+ * {@link #update(DSCallBatchFeedbackEvent) batch update} method.  When the
+ * notification of the computation outcome is received (that is, a
+ * {@link DSCallFeedbackEvent}), the {@link #onEnd() onEnd} method is called,
+ * then right after one of the <code>handleXXX</code> methods is called
+ * depending on what was the computation outcome &#151; note that the
+ * <code>handleXXX</code> methods are
  * mutually exclusive, only one will ever be invoked.</p>
  * <p>This class provides a default <i>no-op</i> implementation of the 
  * <code>update</code>, <code>onEnd</code>, and <code>handleXXX</code> methods
@@ -71,7 +74,9 @@ public abstract class DSCallAdapter
      */
     public final void eventFired(AgentEvent ae)
     {
-        if (ae instanceof DSCallFeedbackEvent) {  //Progress notification. 
+        if (ae instanceof DSCallBatchFeedbackEvent) {  //Coalesced progress.
+            update((DSCallBatchFeedbackEvent) ae);
+        } else if (ae instanceof DSCallFeedbackEvent) {  //Progress notification. 
             update((DSCallFeedbackEvent) ae);
         } else {  //Outcome notification.
             DSCallOutcomeEvent oe = (DSCallOutcomeEvent) ae;
@@ -100,6 +105,22 @@ public abstract class DSCallAdapter
      */
     public void update(DSCallFeedbackEvent progress) {}
     
+    /**
+     * Invoked when the progress notifications fired within the same frame
+     * are received in one go.
+     * This implementation forwards each notification to the
+     * {@link #update(DSCallFeedbackEvent) update} method.  Subclasses 
+     * displaying the partial results should override it to apply them in
+     * bulk and refresh the display only once.
+     * 
+     * @param batch Embodies the progress notifications.
+     */
+    public void update(DSCallBatchFeedbackEvent batch)
+    {
+        for (DSCallFeedbackEvent fe : batch.getEvents())
+            update(fe);
+    }
+    
     /**
      * Invoked when the call returns.
      * This method is called upon receiving the {@link DSCallOutcomeEvent},
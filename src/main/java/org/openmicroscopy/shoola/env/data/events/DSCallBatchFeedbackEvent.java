@@ -0,0 +1,98 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+
+package org.openmicroscopy.shoola.env.data.events;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Notifies of the progress of an asynchronous call to the data services
+ * when several feedback events have been fired within the same frame.
+ * <p>The percent value and the status are the ones of the last event, so
+ * that observers only interested in the progress can treat the batch as a
+ * regular {@link DSCallFeedbackEvent}. Observers displaying the partial
+ * results should retrieve them all using {@link #getPartialResults()} and
+ * apply them in one go.</p>
+ *
+ * @author agent &nbsp;&nbsp;&nbsp;&nbsp;
+ * <a href="mailto:agent@local">agent@local</a>
+ * @since 5.6.3
+ */
+public class DSCallBatchFeedbackEvent
+    extends DSCallFeedbackEvent
+{
+
+    /** The feedback events in the order they were fired. */
+    private final List<DSCallFeedbackEvent> events;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param events The feedback events in the order they were fired.
+     *               Mustn't be <code>null</code> or empty.
+     */
+    public DSCallBatchFeedbackEvent(List<DSCallFeedbackEvent> events)
+    {
+        super(last(events).getPercentDone(), last(events).getStatus(),
+                last(events).getPartialResult());
+        this.events = Collections.unmodifiableList(
+                new ArrayList<DSCallFeedbackEvent>(events));
+    }
+
+    /**
+     * Returns the last event of the specified list.
+     *
+     * @param events The events to handle.
+     * @return See above.
+     */
+    private static DSCallFeedbackEvent last(List<DSCallFeedbackEvent> events)
+    {
+        if (events == null || events.isEmpty())
+            throw new IllegalArgumentException("No feedback events.");
+        return events.get(events.size()-1);
+    }
+
+    /**
+     * Returns the feedback events in the order they were fired.
+     *
+     * @return See above.
+     */
+    public List<DSCallFeedbackEvent> getEvents() { return events; }
+
+    /**
+     * Returns the partial results carried by the events, in the order they
+     * were fired. The events without partial result are skipped.
+     *
+     * @return See above.
+     */
+    public List<Object> getPartialResults()
+    {
+        List<Object> results = new ArrayList<Object>(events.size());
+        for (DSCallFeedbackEvent fe : events) {
+            if (fe.hasPartialResult()) results.add(fe.getPartialResult());
+        }
+        return results;
+    }
+
+}
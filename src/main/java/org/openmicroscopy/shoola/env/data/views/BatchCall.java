@@ -75,6 +75,12 @@ public abstract class BatchCall
      * likely to require changes.
      */
     protected boolean   done;
+    
+    /** 
+     * The result of this call, delivered as a partial result when the calls
+     * of a tree are executed in parallel.
+     */
+    private Object      partialResult;
 
     /**
      * Creates a new instance with no textual description.
@@ -126,6 +132,24 @@ public abstract class BatchCall
      */
     BatchCall getCurCall() { return this; }
     
+    /**
+     * Sets the result of this call.
+     * The calls of a tree executed in parallel must set their result using
+     * this method, instead of a field of the tree, so that the result of
+     * each call is delivered to the observer.
+     * 
+     * @param result The result of the call.
+     * @see BatchCallTree#getFanOut()
+     */
+    protected void setPartialResult(Object result) { partialResult = result; }
+    
+    /**
+     * Returns the result set by this call, if any.
+     * 
+     * @return See above.
+     */
+    Object getPartialResult() { return partialResult; }
+    
     /**
      * A leaf <code>BatchCall</code> overrides this method to carry out
      * some operation on the data services.
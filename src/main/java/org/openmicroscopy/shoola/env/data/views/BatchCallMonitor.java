@@ -25,11 +25,17 @@ package org.openmicroscopy.shoola.env.data.views;
 
 
 //Java imports
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.ArrayList;
+import java.util.List;
 import javax.swing.SwingUtilities;
+import javax.swing.Timer;
 
 //Third-party libraries
 
 //Application-internal dependencies
+import org.openmicroscopy.shoola.env.data.events.DSCallBatchFeedbackEvent;
 import org.openmicroscopy.shoola.env.data.events.DSCallFeedbackEvent;
 import org.openmicroscopy.shoola.env.data.events.DSCallOutcomeEvent;
 import org.openmicroscopy.shoola.env.event.AgentEvent;
@@ -68,6 +74,10 @@ import org.openmicroscopy.shoola.util.concur.tasks.ExecMonitor;
  * the whole computation, as returned by the 
  * {@link BatchCallTree#getResult() tree}, is made available through the
  * {@link DSCallOutcomeEvent#getResult() DSCallOutcomeEvent} object.</p>
+ * <p>The feedback events fired within the same {@link #FRAME_INTERVAL frame}
+ * are coalesced and delivered in one go as a {@link DSCallBatchFeedbackEvent}
+ * so that calls with many steps don't flood the event queue.  A feedback event
+ * fired on its own is delivered as is.</p>
  * <p>Finally, all events are delivered <i>sequentially</i> and wihin the 
  * <i>Swing</i> event dispatching thread.  This means the adaptee can run 
  * synchronously with respect to the UI and won't need to worry about 
@@ -92,12 +102,55 @@ class BatchCallMonitor
     implements ExecMonitor
 {
 
+    /** 
+     * The time, in milliseconds, during which the feedback events are
+     * coalesced.
+     */
+    static final int            FRAME_INTERVAL = 40;
+    
     /** The call tree. */
     private BatchCallTree       tree;
     
     /** The adaptee to notify. */
     private AgentEventListener  adaptee;
     
+    /** The feedback events not delivered yet. */
+    private List<DSCallFeedbackEvent> pending;
+    
+    /** Delivers the pending feedback events. */
+    private final Runnable      flush = new Runnable() {
+        public void run() { flush(); }
+    };
+    
+    /**
+     * Queues the specified feedback event.  The pending events are 
+     * delivered at the end of the frame started by the first one.
+     * 
+     * @param fe The event to queue.
+     */
+    private void queue(DSCallFeedbackEvent fe)
+    {
+        boolean first;
+        synchronized (this) {
+            first = pending.isEmpty();
+            pending.add(fe);
+        }
+        if (first) schedule(flush, FRAME_INTERVAL);
+    }
+    
+    /**
+     * Delivers the pending feedback events, if any.
+     * This is invoked at the end of the frame and before the outcome of the
+     * computation is delivered.
+     */
+    synchronized void flush()
+    {
+        if (pending.isEmpty()) return;
+        if (pending.size() == 1) deliver(pending.get(0));
+        else deliver(new DSCallBatchFeedbackEvent(pending));
+        pending = new ArrayList<DSCallFeedbackEvent>();
+    }
+    
     /**
      * Creates a new instance.
      * 
@@ -110,6 +163,7 @@ class BatchCallMonitor
         if (observer == null) throw new NullPointerException("No observer.");
         this.tree = tree;
         this.adaptee = observer;
+        pending = new ArrayList<DSCallFeedbackEvent>();
     }
 
     /**
@@ -128,6 +182,23 @@ class BatchCallMonitor
     //NOTE: This method is protected so that subclasses can be used for 
     //      testing that dispatch in the test driver's thread. 
     
+    /**
+     * Runs the specified task once within the <i>Swing</i> dispatching
+     * thread, after the specified delay.
+     * 
+     * @param task The task to run.
+     * @param delay The delay in milliseconds.
+     */
+    protected void schedule(final Runnable task, int delay)
+    {
+        Timer timer = new Timer(delay, new ActionListener() {
+            public void actionPerformed(ActionEvent e) { task.run(); }
+        });
+        timer.setRepeats(false);
+        timer.start();
+    }
+    //NOTE: Same as above.
+    
     /**
      * Issues the first feedback event when the computation starts.
      * 
@@ -156,13 +227,13 @@ class BatchCallMonitor
         DSCallFeedbackEvent feedback;
         if (curCall != null)
             feedback = new DSCallFeedbackEvent(perc, curCall.getDescription(),
-                                                tree.getPartialResult());
+                                                tree.collectPartialResult());
         else
             //Computation has finished regularly.  B/c update is always called
             //*after* doStep, we have no curCall.
             feedback = new DSCallFeedbackEvent(100, null,
-                                                tree.getPartialResult());
-        deliver(feedback);
+                                                tree.collectPartialResult());
+        queue(feedback);
     }
 
     /**
@@ -173,7 +244,11 @@ class BatchCallMonitor
     public void onCancel()
     {
         DSCallOutcomeEvent cancelEvent = new DSCallOutcomeEvent();
-        deliver(cancelEvent);
+        tree.release();
+        synchronized (this) {
+            flush();
+            deliver(cancelEvent);
+        }
     }
 
     /**
@@ -185,7 +260,11 @@ class BatchCallMonitor
     public void onAbort(Throwable cause)
     {
         DSCallOutcomeEvent errorEvent = new DSCallOutcomeEvent(cause);
-        deliver(errorEvent);
+        tree.release();
+        synchronized (this) {
+            flush();
+            deliver(errorEvent);
+        }
     }
 
     /**
@@ -202,8 +281,12 @@ class BatchCallMonitor
         //the BatchCallTree to assemble and return the final result.
         
         Object finalResult = tree.getResult();
+        tree.release();
         DSCallOutcomeEvent resultEvent = new DSCallOutcomeEvent(finalResult);
-        deliver(resultEvent);
+        synchronized (this) {
+            flush();
+            deliver(resultEvent);
+        }
     }
 
 }
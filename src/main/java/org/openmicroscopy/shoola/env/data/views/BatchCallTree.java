@@ -148,7 +148,9 @@ public abstract class BatchCallTree
         
         //Only one thread will ever make it here b/c hasExecuted is sync.
         buildTree();
-        ExecHandle handle = getProcessor().exec(root, getMonitor(observer));
+        root.setFanOut(getFanOut());
+        ExecHandle handle = getProcessor().exec(root, getMonitor(observer),
+                getPriority());
         return new CallHandle(handle);
     }
     
@@ -163,6 +165,45 @@ public abstract class BatchCallTree
         return (CmdProcessor) context.lookup(LookupNames.CMD_PROCESSOR);
     }
     
+    /**
+     * Returns the maximum number of children of the root executed at the
+     * same time.
+     * By default the calls are executed <i>sequentially</i>, so we return
+     * <code>1</code>.  Subclasses whose calls are independent of each other
+     * can override this method to execute them concurrently.  In that case,
+     * each call has to deliver its result through 
+     * {@link BatchCall#setPartialResult(Object)} as the results are
+     * delivered in completion order, and must only update the state of the
+     * tree in a thread-safe way.
+     * 
+     * @return See above.
+     * @see CompositeBatchCall#setFanOut(int)
+     */
+    protected int getFanOut() { return 1; }
+    
+    /**
+     * Returns the partial result to deliver after a call has been executed.
+     * This is the result of the call if the calls are executed in parallel,
+     * the value returned by {@link #getPartialResult()} otherwise.
+     * 
+     * @return See above.
+     */
+    Object collectPartialResult()
+    {
+        if (root.isParallel()) return root.getPartialResult();
+        return getPartialResult();
+    }
+    
+    /**
+     * Returns the priority with which the call tree is 
+     * {@link #exec(AgentEventListener) executed}.
+     * Most trees load data the user is waiting for, so we provide a default
+     * implementation returning {@link CmdProcessor#INTERACTIVE}.
+     * 
+     * @return One of the priorities defined by {@link CmdProcessor}.
+     */
+    protected int getPriority() { return CmdProcessor.INTERACTIVE; }
+    
     /**
      * Returns an implementation of {@link ExecMonitor} that works as an 
      * adapter to notify the specified <code>observer</code> of execution
@@ -258,4 +299,13 @@ public abstract class BatchCallTree
      */
     protected Object getPartialResult() { return null; }
     
+    /**
+     * Invoked once the execution of the tree is over, whatever the outcome,
+     * and before the outcome is delivered.
+     * Subclasses sharing resources among their calls, e.g. services, should
+     * override this method to release them.  The default implementation
+     * does nothing.
+     */
+    protected void release() {}
+    
 }
@@ -26,6 +26,13 @@ package org.openmicroscopy.shoola.env.data.views;
 
 //Java imports
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 //Third-party libraries
 
@@ -45,6 +52,14 @@ import org.openmicroscopy.shoola.util.concur.tasks.MultiStepTask;
  * <p>This class behaves just like a {@link CompositeTask}.  In fact, this 
  * class extends (through delegation) the functionality of {@link CompositeTask}
  * so that it can play nicely with composition of {@link BatchCall}s.</p>
+ * <p>If a {@link #setFanOut(int) fan-out} greater than <code>1</code> is
+ * set, the children are executed concurrently on a shared pool of threads,
+ * at most fan-out children at a time. Each invocation of {@link #doStep()}
+ * then waits for the next step of any child to complete, so the steps are
+ * reported in completion order. The result of the call that completed is
+ * available through {@link #getPartialResult()}. The first exception thrown
+ * by a child aborts the execution, the children already running being
+ * completed in the background.</p>
  *
  * @author  Jean-Marie Burel &nbsp;&nbsp;&nbsp;&nbsp;
  * 				<a href="mailto:j.burel@dundee.ac.uk">j.burel@dundee.ac.uk</a>
@@ -69,12 +84,192 @@ class CompositeBatchCall
      */
     private CompositeTask   delegate;
     
+    /** The maximum number of threads running the children in parallel. */
+    private static final int    MAX_THREADS = 8;
+    
+    /** Runs the children of the nodes executed in parallel. */
+    private static final ExecutorService    EXECUTOR;
+    
+    static {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(MAX_THREADS,
+                MAX_THREADS, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                    public Thread newThread(Runnable r)
+                    {
+                        Thread t = new Thread(r, "Batch calls");
+                        t.setDaemon(true);
+                        return t;
+                    }
+                });
+        pool.allowCoreThreadTimeOut(true);
+        EXECUTOR = pool;
+    }
+    
+    /** The step of a child executed in parallel. */
+    private static class Completion
+    {
+        
+        /** The call executed during the step or <code>null</code>. */
+        private final BatchCall     call;
+        
+        /** The exception thrown during the step or <code>null</code>. */
+        private final Throwable     error;
+        
+        /** Flag indicating that the child won't execute any further. */
+        private final boolean       last;
+        
+        /**
+         * Creates a new instance.
+         * 
+         * @param call  The call executed during the step.
+         * @param error The exception thrown or <code>null</code>.
+         * @param last  Pass <code>true</code> if the child is done,
+         *              <code>false</code> otherwise.
+         */
+        Completion(BatchCall call, Throwable error, boolean last)
+        {
+            this.call = call;
+            this.error = error;
+            this.last = last;
+        }
+    }
+    
+    /** Executes a child in a thread of the shared pool. */
+    private class Runner
+        implements Runnable
+    {
+        
+        /** The child to execute. */
+        private final BatchCall child;
+        
+        /**
+         * Creates a new instance.
+         * 
+         * @param child The child to execute.
+         */
+        Runner(BatchCall child) { this.child = child; }
+        
+        /** Executes the child and reports each step. */
+        public void run()
+        {
+            BatchCall call = null;
+            boolean last = false;
+            try {
+                while (!last && !aborted) {
+                    call = child.getCurCall();
+                    child.doStep();
+                    last = child.isDone();
+                    completed.add(new Completion(call, null, last));
+                }
+            } catch (Throwable t) {
+                last = true;
+                completed.add(new Completion(call, t, true));
+            }
+            //Aborted, let the caller know the child is over.
+            if (!last) completed.add(new Completion(null, null, true));
+        }
+    }
+    
+    /** The maximum number of children executed at the same time. */
+    private int                 fanOut;
+    
+    /** The steps completed by the children executed in parallel. */
+    private BlockingQueue<Completion>   completed;
+    
+    /** The index of the next child to execute in parallel. */
+    private int                 next;
+    
+    /** The number of children executed in parallel and not done. */
+    private int                 running;
+    
+    /** The call of the last step completed in parallel. */
+    private BatchCall           lastCall;
+    
+    /** Flag indicating that the parallel execution has been aborted. */
+    private volatile boolean    aborted;
+    
+    /** 
+     * Starts executing children until the fan-out is reached.
+     * Children can be added while the node is executed.
+     */
+    private void startChildren()
+    {
+        List children = delegate.getChildren();
+        BatchCall child;
+        while (running < fanOut && next < children.size()) {
+            child = (BatchCall) children.get(next++);
+            if (child.isDone()) continue;  //No call to execute.
+            EXECUTOR.execute(new Runner(child));
+            running++;
+        }
+    }
+    
+    /**
+     * Waits for the next step of a child executed in parallel to complete.
+     * 
+     * @throws Exception If the child threw an exception.
+     */
+    private void doParallelStep()
+        throws Exception
+    {
+        Completion c;
+        do {  //Skip the children aborted without executing any call.
+            startChildren();
+            if (running == 0) return;
+            try {
+                c = completed.take();
+            } catch (InterruptedException e) {
+                aborted = true;
+                throw e;
+            }
+            if (c.last) running--;
+        } while (c.call == null && c.error == null);
+        lastCall = c.call;
+        if (c.error != null) {
+            aborted = true;
+            if (c.error instanceof Exception) throw (Exception) c.error;
+            if (c.error instanceof Error) throw (Error) c.error;
+            throw new Exception(c.error);
+        }
+        startChildren();
+    }
+    
     
     /**
      * Creates a new instance which could serve either as a root or internal
      * node.
      */
-    CompositeBatchCall() { delegate = new CompositeTask(); }
+    CompositeBatchCall() 
+    { 
+        delegate = new CompositeTask();
+        fanOut = 1;
+    }
+    
+    /**
+     * Sets the maximum number of children executed at the same time.
+     * The children are executed one after the other if the value is
+     * <code>1</code>. This method has to be called before the node is
+     * executed.
+     * 
+     * @param fanOut The maximum number of children executed at the same
+     *               time.  Must be positive.
+     */
+    void setFanOut(int fanOut)
+    {
+        if (fanOut <= 0)
+            throw new IllegalArgumentException("The fan-out must be positive.");
+        this.fanOut = fanOut;
+        if (isParallel() && completed == null)
+            completed = new LinkedBlockingQueue<Completion>();
+    }
+    
+    /**
+     * Returns <code>true</code> if the children are executed in parallel,
+     * <code>false</code> otherwise.
+     * 
+     * @return See above.
+     */
+    boolean isParallel() { return fanOut > 1; }
     
     /**
      * Adds a new child node to this node.
@@ -111,6 +306,7 @@ class CompositeBatchCall
      */
     BatchCall getCurCall() 
     { 
+        if (isParallel()) return isDone() ? null : lastCall;
         BatchCall bc = (BatchCall) delegate.getCurChild();
         if (bc != null) bc = bc.getCurCall();  //Use recursion.
         return bc; 
@@ -123,13 +319,30 @@ class CompositeBatchCall
     public Object doStep()
         throws Exception
     {
-        return delegate.doStep();
+        if (!isParallel()) return delegate.doStep();
+        doParallelStep();
+        return null;
+    }
+    
+    /**
+     * Returns the partial result of the call of the last step completed if
+     * the children are executed in parallel.
+     * @see BatchCall#getPartialResult()
+     */
+    Object getPartialResult()
+    {
+        if (!isParallel() || lastCall == null) return null;
+        return lastCall.getPartialResult();
     }
     
     /**
      * Forwards the call to its {@link CompositeTask} delegate.
      * @see BatchCall#isDone()
      */
-    public boolean isDone() { return delegate.isDone(); }
+    public boolean isDone() 
+    { 
+        if (!isParallel()) return delegate.isDone();
+        return running == 0 && next >= delegate.getChildren().size();
+    }
     
 }
@@ -42,7 +42,7 @@ import omero.gateway.SecurityContext;
 import org.openmicroscopy.shoola.env.event.AgentEventListener;
 import org.openmicroscopy.shoola.env.rnd.RenderingControl;
 import org.openmicroscopy.shoola.env.rnd.RndProxyDef;
-import org.openmicroscopy.shoola.env.rnd.data.Tile;
+import org.openmicroscopy.shoola.env.rnd.data.TileQueue;
 import org.openmicroscopy.shoola.util.roi.model.util.Coord3D;
 
 import omero.gateway.model.DataObject;
@@ -96,6 +96,18 @@ public interface ImageDataView
      */
     public CallHandle shutDownRenderingControl(SecurityContext ctx,
     		long pixelsID, AgentEventListener observer);
+
+    /**
+     * Starts the rendering engine for the pixels set ahead of time so that
+     * the image opens faster.
+     *
+     * @param ctx The security context.
+     * @param pixelsID  The id of the pixels set.
+     * @param observer  Call-back handler.
+     * @return A handle that can be used to cancel the call.
+     */
+    public CallHandle prepareRenderingControl(SecurityContext ctx,
+    		long pixelsID, AgentEventListener observer);
     
     /**
      * Renders the specified plane.
@@ -480,20 +492,38 @@ public interface ImageDataView
 			AgentEventListener observer);
 
 	/**
-	 * Loads the tiles.
+	 * Loads the tiles scheduled by the passed queue until the queue is
+	 * empty.
 	 * 
 	 * @param ctx The security context.
 	 * @param pixelsID The id of the pixels set.
-	 * @param pDef The plane to render.
 	 * @param proxy The rendering control to use
-	 * @param tiles The tiles.
+	 * @param queue The tiles to load.
 	 * @param observer Call-back handler.
 	 * @return See above.
 	 */
 	public CallHandle loadTiles(SecurityContext ctx, long pixelsID,
-		PlaneDef pDef, RenderingControl proxy, Collection<Tile> tiles,
+		RenderingControl proxy, TileQueue queue,
 		 AgentEventListener observer);
 
+	/**
+	 * Renders in parallel the images composing the split view.
+	 * The images are delivered as soon as they are rendered.
+	 * 
+	 * @param ctx The security context.
+	 * @param proxy The rendering control to use.
+	 * @param pDef The plane to render.
+	 * @param images The channels to render indexed by position in the grid,
+	 *               <code>-1</code> for the combined image.
+	 * @param colorModel The color model used to render the channels.
+	 * @param observer Call-back handler.
+	 * @return See above.
+	 */
+	public CallHandle loadSplitView(SecurityContext ctx,
+		RenderingControl proxy, PlaneDef pDef,
+		Map<Integer, List<Integer>> images, String colorModel,
+		AgentEventListener observer);
+
 	/**
 	 * Saves the ImageJ results back to OMERO.
 	 *
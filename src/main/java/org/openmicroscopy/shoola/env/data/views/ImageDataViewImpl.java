@@ -62,11 +62,12 @@ import org.openmicroscopy.shoola.env.data.views.calls.ROISaver;
 import org.openmicroscopy.shoola.env.data.views.calls.RenderingControlLoader;
 import org.openmicroscopy.shoola.env.data.views.calls.RenderingSettingsLoader;
 import org.openmicroscopy.shoola.env.data.views.calls.RenderingSettingsSaver;
+import org.openmicroscopy.shoola.env.data.views.calls.SplitViewLoader;
 import org.openmicroscopy.shoola.env.data.views.calls.TileLoader;
 import org.openmicroscopy.shoola.env.event.AgentEventListener;
 import org.openmicroscopy.shoola.env.rnd.RenderingControl;
 import org.openmicroscopy.shoola.env.rnd.RndProxyDef;
-import org.openmicroscopy.shoola.env.rnd.data.Tile;
+import org.openmicroscopy.shoola.env.rnd.data.TileQueue;
 import org.openmicroscopy.shoola.util.roi.model.util.Coord3D;
 
 import omero.gateway.model.DataObject;
@@ -460,13 +461,28 @@ class ImageDataViewImpl
 
 	/**
      * Implemented as specified by the view interface.
-     * @see ImageDataView#loadTiles(long, PlaneDef, List, AgentEventListener)
+     * @see ImageDataView#loadTiles(SecurityContext, long, RenderingControl,
+     * TileQueue, AgentEventListener)
      */
 	public CallHandle loadTiles(SecurityContext ctx, long pixelsID,
-		PlaneDef pDef, RenderingControl proxy, Collection<Tile> tiles,
+		RenderingControl proxy, TileQueue queue, AgentEventListener observer)
+	{
+		BatchCallTree cmd = new TileLoader(ctx, pixelsID, proxy, queue);
+		return cmd.exec(observer);
+	}
+
+	/**
+     * Implemented as specified by the view interface.
+     * @see ImageDataView#loadSplitView(SecurityContext, RenderingControl,
+     * PlaneDef, Map, String, AgentEventListener)
+     */
+	public CallHandle loadSplitView(SecurityContext ctx,
+		RenderingControl proxy, PlaneDef pDef,
+		Map<Integer, List<Integer>> images, String colorModel,
 		AgentEventListener observer)
 	{
-		BatchCallTree cmd = new TileLoader(ctx, pixelsID, pDef, proxy, tiles);
+		BatchCallTree cmd = new SplitViewLoader(ctx, proxy, pDef, images,
+				colorModel);
 		return cmd.exec(observer);
 	}
 	
@@ -482,6 +498,19 @@ class ImageDataViewImpl
         return cmd.exec(observer);
 	}
 
+	/**
+     * Implemented as specified by the view interface.
+     * @see ImageDataView#prepareRenderingControl(SecurityContext, long,
+     * AgentEventListener)
+     */
+	public CallHandle prepareRenderingControl(SecurityContext ctx,
+			long pixelsID, AgentEventListener observer)
+	{
+		BatchCallTree cmd = new RenderingControlLoader(ctx, pixelsID,
+				RenderingControlLoader.PREPARE);
+        return cmd.exec(observer);
+	}
+
 	/**
 	 * Implemented as specified by the view interface.
 	 * @see ImageDataView#saveResults(SecurityContext, ResultsObject, AgentEventListener)
@@ -26,6 +26,7 @@ import org.openmicroscopy.shoola.env.data.OmeroMetadataService;
 import omero.gateway.SecurityContext;
 import org.openmicroscopy.shoola.env.data.views.BatchCall;
 import org.openmicroscopy.shoola.env.data.views.BatchCallTree;
+import org.openmicroscopy.shoola.util.concur.tasks.CmdProcessor;
 import omero.gateway.model.DataObject;
 import omero.gateway.model.FileAnnotationData;
 
@@ -101,4 +102,10 @@ public class ArchivedFilesSaver
     	loadCall = makeBatchCall(ctx, fileAnnotation, file, index, linkTo);
     }
 
+    /**
+     * Runs in the background, after the other calls.
+     * @see BatchCallTree#getPriority()
+     */
+    protected int getPriority() { return CmdProcessor.BACKGROUND; }
+
 }
@@ -40,6 +40,7 @@ import org.openmicroscopy.shoola.env.data.model.TimeRefObject;
 import omero.gateway.SecurityContext;
 import org.openmicroscopy.shoola.env.data.views.BatchCall;
 import org.openmicroscopy.shoola.env.data.views.BatchCallTree;
+import org.openmicroscopy.shoola.util.concur.tasks.CmdProcessor;
 import omero.log.LogMessage;
 
 /** 
@@ -197,4 +198,10 @@ public class ExperimenterImagesCounter
         ms = context.getMetadataService();
     }
 
+    /**
+     * Counts the objects after the data the user is waiting for.
+     * @see BatchCallTree#getPriority()
+     */
+    protected int getPriority() { return CmdProcessor.PREFETCH; }
+
 }
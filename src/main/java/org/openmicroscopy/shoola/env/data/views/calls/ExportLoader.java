@@ -34,6 +34,7 @@ import org.openmicroscopy.shoola.env.data.util.Target;
 import omero.gateway.SecurityContext;
 import org.openmicroscopy.shoola.env.data.views.BatchCall;
 import org.openmicroscopy.shoola.env.data.views.BatchCallTree;
+import org.openmicroscopy.shoola.util.concur.tasks.CmdProcessor;
 
 /**
  * Exports the image.
@@ -118,4 +119,10 @@ public class ExportLoader
     	loadCall = makeAsOMETiffBatchCall(index, file, imageID, target);
     }
 
+    /**
+     * Runs in the background, after the other calls.
+     * @see BatchCallTree#getPriority()
+     */
+    protected int getPriority() { return CmdProcessor.BACKGROUND; }
+
 }
@@ -31,6 +31,7 @@ import org.openmicroscopy.shoola.env.data.model.ProjectionParam;
 import omero.gateway.SecurityContext;
 import org.openmicroscopy.shoola.env.data.views.BatchCall;
 import org.openmicroscopy.shoola.env.data.views.BatchCallTree;
+import org.openmicroscopy.shoola.util.concur.tasks.CmdProcessor;
 
 /** 
  * Command to project an image.
@@ -149,5 +150,11 @@ public class ProjectionSaver
     	this.ctx = ctx;
     	loadCall = makeProjectionCall(ref);
     }
-    
+
+    /**
+     * Runs in the background, after the other calls.
+     * @see BatchCallTree#getPriority()
+     */
+    protected int getPriority() { return CmdProcessor.BACKGROUND; }
+
 }
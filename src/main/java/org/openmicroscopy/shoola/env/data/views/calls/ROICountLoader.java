@@ -27,6 +27,7 @@ import omero.gateway.facility.ROIFacility;
 
 import org.openmicroscopy.shoola.env.data.views.BatchCall;
 import org.openmicroscopy.shoola.env.data.views.BatchCallTree;
+import org.openmicroscopy.shoola.util.concur.tasks.CmdProcessor;
 
 /**
  * Loads the number of ROIs for a specific image
@@ -82,4 +83,10 @@ public class ROICountLoader extends BatchCallTree {
         loadCall = makeLoadCalls(ctx, imageID);
     }
 
+    /**
+     * Counts the objects after the data the user is waiting for.
+     * @see BatchCallTree#getPriority()
+     */
+    protected int getPriority() { return CmdProcessor.PREFETCH; }
+
 }
@@ -69,6 +69,9 @@ public class RenderingControlLoader
 	
 	/** Indicates to reload the rendering engine. */
 	public static final int SHUTDOWN = 3;
+
+	/** Indicates to start the rendering engine ahead of time. */
+	public static final int PREPARE = 4;
 	
 	/** Result of the call. */
 	private Object result;
@@ -116,6 +119,9 @@ public class RenderingControlLoader
 						break;
 					case SHUTDOWN:
 						rds.shutDown(ctx, pixelsID);
+						break;
+					case PREPARE:
+						rds.prepareRenderingControl(ctx, pixelsID);
 				}
 			}
 		};
@@ -0,0 +1,156 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+package org.openmicroscopy.shoola.env.data.views.calls;
+
+import java.awt.image.BufferedImage;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import omero.gateway.SecurityContext;
+import omero.romio.PlaneDef;
+
+import org.openmicroscopy.shoola.env.data.views.BatchCall;
+import org.openmicroscopy.shoola.env.data.views.BatchCallTree;
+import org.openmicroscopy.shoola.env.rnd.RenderingControl;
+
+/**
+ * Renders the images composing the split view. A call is added to the tree
+ * for each image, the calls are executed in parallel by the tree and
+ * the images delivered as soon as they are rendered. Cancelling the call
+ * stops the images not yet rendered.
+ * The images are identified by their position in the grid, the
+ * combined image by <code>-1</code>.
+ *
+ * @author agent &nbsp;&nbsp;&nbsp;&nbsp;
+ * <a href="mailto:agent@local">agent@local</a>
+ * @since 5.6.3
+ */
+public class SplitViewLoader
+    extends BatchCallTree
+{
+
+    /** The maximum number of images rendered at the same time. */
+    private static final int FAN_OUT = 4;
+
+    /** The rendering control to use. */
+    private final RenderingControl proxy;
+
+    /** The plane to render. */
+    private final PlaneDef pDef;
+
+    /** The channels to render indexed by position in the grid. */
+    private final Map<Integer, List<Integer>> images;
+
+    /** The color model used to render the channels. */
+    private final String colorModel;
+
+    /**
+     * Creates the call rendering the specified image.
+     *
+     * @param index The position of the image in the grid.
+     * @param channels The channels to render.
+     * @return See above.
+     */
+    private BatchCall createCall(final Integer index,
+            final List<Integer> channels)
+    {
+        return new BatchCall("Rendering split view") {
+            public void doCall()
+            {
+                BufferedImage img = null;
+                try {
+                    //The combined image is always displayed in RGB.
+                    String model = colorModel;
+                    if (index < 0) model = RenderingControl.RGB;
+                    img = proxy.renderChannels(pDef, channels, model);
+                } catch (Exception e) {
+                    context.getLogger().error(this,
+                            "Cannot render the channels "+channels+": "+e);
+                }
+                setPartialResult(Collections.singletonMap(index, img));
+            }
+        };
+    }
+
+    /**
+     * Returns <code>null</code> as there's no final result.
+     * In fact, the images are progressively delivered with feedback events.
+     * @see BatchCallTree#getResult()
+     */
+    protected Object getResult() { return null; }
+
+    /**
+     * Adds a {@link BatchCall} to the tree for each image to render.
+     * Each call delivers its image, a map with a single entry, as partial
+     * result.
+     * @see BatchCallTree#buildTree()
+     */
+    protected void buildTree()
+    {
+        Iterator<Entry<Integer, List<Integer>>> i =
+                images.entrySet().iterator();
+        Entry<Integer, List<Integer>> e;
+        while (i.hasNext()) {
+            e = i.next();
+            add(createCall(e.getKey(), e.getValue()));
+        }
+    }
+
+    /**
+     * Renders the images in parallel, on the pool shared by the trees.
+     * The channels rendered on the client are rendered concurrently, the
+     * ones rendered by the server wait for the engine. The slave engines
+     * are not used: they are only created for big images, which are never
+     * displayed in the split view.
+     * @see BatchCallTree#getFanOut()
+     */
+    protected int getFanOut() { return FAN_OUT; }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param ctx The security context.
+     * @param proxy The rendering control to use.
+     * @param pDef The plane to render.
+     * @param images The channels to render indexed by position in the grid,
+     *               <code>-1</code> for the combined image.
+     * @param colorModel The color model used to render the channels.
+     */
+    public SplitViewLoader(SecurityContext ctx, RenderingControl proxy,
+            PlaneDef pDef, Map<Integer, List<Integer>> images,
+            String colorModel)
+    {
+        if (proxy == null)
+            throw new IllegalArgumentException("No rendering control.");
+        if (pDef == null)
+            throw new IllegalArgumentException("No plane to render.");
+        if (images == null)
+            throw new IllegalArgumentException("No images to render.");
+        this.proxy = proxy;
+        this.pDef = pDef;
+        this.images = images;
+        this.colorModel = colorModel;
+    }
+
+}
@@ -0,0 +1,516 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+
+package org.openmicroscopy.shoola.env.data.views.calls;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps on disk the thumbnails retrieved from the server so that they
+ * do not have to be downloaded again, even after a restart.
+ * <p>A thumbnail is identified by the pixels set, the user whose settings
+ * were used and the size of its longest side. It is stored with the time of
+ * the last modification of the rendering settings and is only returned if
+ * that time is still the same. The thumbnails are written as they are sent
+ * by the server, one file per thumbnail.</p>
+ * <p>The entries are recorded in a memory-mapped index of fixed-size records
+ * so that updating the index does not require writing a file. The cache is
+ * bounded by a number of bytes on disk, the least recently used thumbnails
+ * are deleted first. The index is locked while the cache is open, the cache
+ * is disabled if another application already uses the directory.</p>
+ * The files are written and read outside of the lock so that a slow disk
+ * does not block the other threads using the cache.
+ *
+ * @author agent &nbsp;&nbsp;&nbsp;&nbsp;
+ * <a href="mailto:agent@local">agent@local</a>
+ * @since 5.6.3
+ */
+class ThumbnailDiskCache
+{
+
+    /** Identifies a thumbnail. */
+    private static class Key
+    {
+
+        /** The identifier of the pixels set. */
+        private final long pixelsID;
+
+        /** The identifier of the user whose settings are used. */
+        private final long userID;
+
+        /** The size of the longest side of the thumbnail. */
+        private final int size;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param pixelsID The identifier of the pixels set.
+         * @param userID The identifier of the user whose settings are used.
+         * @param size The size of the longest side of the thumbnail.
+         */
+        private Key(long pixelsID, long userID, int size)
+        {
+            this.pixelsID = pixelsID;
+            this.userID = userID;
+            this.size = size;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            int h = (int) (pixelsID^(pixelsID >>> 32));
+            h = 31*h+(int) (userID^(userID >>> 32));
+            return 31*h+size;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (!(o instanceof Key)) return false;
+            Key k = (Key) o;
+            return k.pixelsID == pixelsID && k.userID == userID &&
+                    k.size == size;
+        }
+    }
+
+    /** A thumbnail written to disk. */
+    private static class Entry
+    {
+
+        /** The record of the index describing the thumbnail. */
+        private final int slot;
+
+        /** The time of the last modification of the rendering settings. */
+        private final long time;
+
+        /** The number of bytes written. */
+        private final int length;
+
+        /** The file hosting the thumbnail. */
+        private final File file;
+
+        /** Used to restore the order of use when the index is read. */
+        private long lastAccess;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param slot The record of the index describing the thumbnail.
+         * @param time The time of the last modification of the settings.
+         * @param length The number of bytes written.
+         * @param file The file hosting the thumbnail.
+         */
+        private Entry(int slot, long time, int length, File file)
+        {
+            this.slot = slot;
+            this.time = time;
+            this.length = length;
+            this.file = file;
+        }
+    }
+
+    /** The name of the index file. */
+    static final String INDEX = "index";
+
+    /** The minimum number of records of the index. */
+    static final int MIN_CAPACITY = 1024;
+
+    /** The number of bytes expected per thumbnail to size the index. */
+    private static final int AVERAGE_LENGTH = 2048;
+
+    /** Identifies the index file. */
+    private static final int MAGIC = 0x4F54444B;
+
+    /** The version of the index format. */
+    private static final int VERSION = 1;
+
+    /** The size of the header: magic, version and capacity. */
+    private static final int HEADER = 16;
+
+    /**
+     * The size of a record: pixels ID, user ID, size, length, time,
+     * last access and file ID. A record whose pixels ID is <code>0</code>
+     * is free.
+     */
+    private static final int RECORD = 48;
+
+    /** The thumbnails ordered from the least to the most recently used. */
+    private final LinkedHashMap<Key, Entry> entries;
+
+    /** The records of the index not in use. */
+    private final LinkedList<Integer> free;
+
+    /** The directory hosting the files. */
+    private final File directory;
+
+    /** The maximum number of bytes the cache can hold. */
+    private long maxSize;
+
+    /** The index, <code>null</code> if the cache is disabled. */
+    private MappedByteBuffer index;
+
+    /** The file hosting the index, kept open to hold the lock. */
+    private RandomAccessFile indexFile;
+
+    /** The lock preventing other applications from using the directory. */
+    private FileLock lock;
+
+    /** The number of bytes currently held. */
+    private long size;
+
+    /** Used to name the files. */
+    private long count;
+
+    /** Used to order the entries by use. */
+    private long clock;
+
+    /**
+     * Deletes the specified files.
+     *
+     * @param toDelete The files to delete.
+     */
+    private static void delete(List<File> toDelete)
+    {
+        Iterator<File> i = toDelete.iterator();
+        while (i.hasNext())
+            i.next().delete();
+    }
+
+    /**
+     * Returns the position of the specified record in the index.
+     *
+     * @param slot The record.
+     * @return See above.
+     */
+    private static int position(int slot) { return HEADER+slot*RECORD; }
+
+    /**
+     * Closes the index file, which releases the file lock.
+     */
+    private void closeIndex()
+    {
+        try {
+            if (indexFile != null) indexFile.close();
+        } catch (IOException e) {
+            //Ignore, the lock is released when the application exits.
+        }
+        indexFile = null;
+        lock = null;
+        index = null;
+    }
+
+    /**
+     * Maps and locks the index so that no other application uses the
+     * directory, then reads the entries if the index is valid or empties
+     * the directory otherwise.
+     *
+     * @param capacity The number of records of the index.
+     * @throws IOException If the index cannot be mapped or is locked.
+     */
+    private void open(int capacity)
+        throws IOException
+    {
+        indexFile = new RandomAccessFile(new File(directory, INDEX), "rw");
+        FileChannel channel = indexFile.getChannel();
+        try {
+            lock = channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            lock = null;
+        }
+        if (lock == null)
+            throw new IOException("Index used by another application.");
+        boolean valid = channel.size() == position(capacity);
+        index = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                position(capacity));
+        valid = valid && index.getInt(0) == MAGIC &&
+                index.getInt(4) == VERSION && index.getInt(8) == capacity;
+        List<Map.Entry<Key, Entry>> l = new ArrayList<Map.Entry<Key, Entry>>();
+        Set<String> names = new HashSet<String>();
+        names.add(INDEX);
+        int p;
+        long pixelsID, id;
+        Entry entry;
+        for (int i = 0; i < capacity; i++) {
+            p = position(i);
+            pixelsID = valid ? index.getLong(p) : 0;
+            if (pixelsID == 0) {
+                if (!valid) index.putLong(p, 0);
+                free.add(i);
+                continue;
+            }
+            id = index.getLong(p+40);
+            entry = new Entry(i, index.getLong(p+24), index.getInt(p+20),
+                    new File(directory, Long.toString(id, 36)));
+            entry.lastAccess = index.getLong(p+32);
+            l.add(new AbstractMap.SimpleEntry<Key, Entry>(new Key(pixelsID,
+                    index.getLong(p+8), index.getInt(p+16)), entry));
+            names.add(entry.file.getName());
+            count = Math.max(count, id+1);
+            clock = Math.max(clock, entry.lastAccess+1);
+        }
+        //Remove the files written but not recorded.
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (int i = 0; i < files.length; i++) {
+                if (!names.contains(files[i].getName()))
+                    files[i].delete();
+            }
+        }
+        //Restore the order of use.
+        Collections.sort(l, new Comparator<Map.Entry<Key, Entry>>() {
+            public int compare(Map.Entry<Key, Entry> e1,
+                    Map.Entry<Key, Entry> e2) {
+                long a1 = e1.getValue().lastAccess;
+                long a2 = e2.getValue().lastAccess;
+                return a1 < a2 ? -1 : (a1 == a2 ? 0 : 1);
+            }
+        });
+        Iterator<Map.Entry<Key, Entry>> i = l.iterator();
+        Map.Entry<Key, Entry> e;
+        while (i.hasNext()) {
+            e = i.next();
+            entries.put(e.getKey(), e.getValue());
+            size += e.getValue().length;
+        }
+        if (!valid) {
+            index.putInt(0, MAGIC);
+            index.putInt(4, VERSION);
+            index.putInt(8, capacity);
+        }
+    }
+
+    /**
+     * Removes the specified entry from the index.
+     * The caller has to hold the lock and delete the file.
+     *
+     * @param entry The entry to remove.
+     */
+    private void release(Entry entry)
+    {
+        size -= entry.length;
+        if (index == null) return;
+        index.putLong(position(entry.slot), 0);
+        free.add(entry.slot);
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param directory The directory hosting the files.
+     *                  Mustn't be <code>null</code>.
+     * @param maxSize The maximum number of bytes the cache can hold.
+     *                If <code>0</code> or negative no thumbnail is cached.
+     */
+    ThumbnailDiskCache(File directory, long maxSize)
+    {
+        this(directory, maxSize,
+                (int) Math.min(Integer.MAX_VALUE/RECORD,
+                        Math.max(MIN_CAPACITY, maxSize/AVERAGE_LENGTH)));
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param directory The directory hosting the files.
+     *                  Mustn't be <code>null</code>.
+     * @param maxSize The maximum number of bytes the cache can hold.
+     *                If <code>0</code> or negative no thumbnail is cached.
+     * @param capacity The maximum number of thumbnails the cache can hold.
+     */
+    ThumbnailDiskCache(File directory, long maxSize, int capacity)
+    {
+        if (directory == null)
+            throw new NullPointerException("No directory.");
+        if (capacity <= 0)
+            throw new IllegalArgumentException("Capacity: "+capacity);
+        this.directory = directory;
+        entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true);
+        free = new LinkedList<Integer>();
+        if (maxSize > 0 && !directory.isDirectory()) directory.mkdirs();
+        if (maxSize > 0 && directory.isDirectory()) {
+            try {
+                open(capacity);
+            } catch (Exception e) {
+                closeIndex();
+                entries.clear();
+                free.clear();
+                size = 0;
+            }
+        }
+        this.maxSize = index == null ? 0 : maxSize;
+    }
+
+    /**
+     * Returns <code>true</code> if the cache can hold thumbnails,
+     * <code>false</code> otherwise.
+     *
+     * @return See above.
+     */
+    synchronized boolean isEnabled() { return maxSize > 0; }
+
+    /**
+     * Returns the thumbnail or <code>null</code> if the thumbnail is not
+     * cached, cannot be read or was generated with settings modified since.
+     *
+     * @param pixelsID The identifier of the pixels set.
+     * @param userID The identifier of the user whose settings are used.
+     * @param size The size of the longest side of the thumbnail.
+     * @param time The time of the last modification of the settings.
+     * @return See above.
+     */
+    byte[] get(long pixelsID, long userID, int size, long time)
+    {
+        Key key = new Key(pixelsID, userID, size);
+        Entry entry;
+        synchronized (this) {
+            if (!isEnabled()) return null;
+            entry = entries.get(key);
+            if (entry == null) return null;
+            if (entry.time == time) {
+                entry.lastAccess = clock++;
+                index.putLong(position(entry.slot)+32, entry.lastAccess);
+            } else {
+                entries.remove(key);
+                release(entry);
+            }
+        }
+        if (entry.time == time) {
+            try {
+                byte[] data = Files.readAllBytes(entry.file.toPath());
+                if (data.length == entry.length) return data;
+            } catch (Exception e) {
+                //The file was deleted or is not valid.
+            }
+            synchronized (this) {
+                if (entries.remove(key, entry)) release(entry);
+            }
+        }
+        entry.file.delete();
+        return null;
+    }
+
+    /**
+     * Writes the passed thumbnail to disk. The least recently used
+     * thumbnails are deleted if the cache exceeds its size.
+     *
+     * @param pixelsID The identifier of the pixels set.
+     * @param userID The identifier of the user whose settings are used.
+     * @param size The size of the longest side of the thumbnail.
+     * @param time The time of the last modification of the settings.
+     * @param data The thumbnail as sent by the server.
+     */
+    void put(long pixelsID, long userID, int size, long time, byte[] data)
+    {
+        if (pixelsID == 0 || data == null || data.length == 0) return;
+        File f;
+        synchronized (this) {
+            if (!isEnabled() || data.length > maxSize) return;
+            f = new File(directory, Long.toString(count++, 36));
+        }
+        try {
+            Files.write(f.toPath(), data);
+        } catch (Exception e) {
+            f.delete();
+            return;
+        }
+        Key key = new Key(pixelsID, userID, size);
+        List<File> toDelete = new ArrayList<File>();
+        synchronized (this) {
+            if (!isEnabled()) {
+                toDelete.add(f);
+            } else {
+                Entry old = entries.remove(key);
+                if (old != null) {
+                    release(old);
+                    toDelete.add(old.file);
+                }
+                Iterator<Entry> i = entries.values().iterator();
+                Entry e;
+                while ((this.size+data.length > maxSize || free.isEmpty()) &&
+                        i.hasNext()) {
+                    e = i.next();
+                    release(e);
+                    toDelete.add(e.file);
+                    i.remove();
+                }
+                Entry entry = new Entry(free.removeFirst(), time,
+                        data.length, f);
+                entry.lastAccess = clock++;
+                int p = position(entry.slot);
+                index.putLong(p+8, userID);
+                index.putInt(p+16, size);
+                index.putInt(p+20, data.length);
+                index.putLong(p+24, time);
+                index.putLong(p+32, entry.lastAccess);
+                index.putLong(p+40, Long.parseLong(f.getName(), 36));
+                index.putLong(p, pixelsID);
+                entries.put(key, entry);
+                this.size += data.length;
+            }
+        }
+        delete(toDelete);
+    }
+
+    /**
+     * Writes the index to disk and releases the lock.
+     * No thumbnail is cached afterwards.
+     */
+    synchronized void close()
+    {
+        if (index != null) index.force();
+        closeIndex();
+        maxSize = 0;
+    }
+
+    /**
+     * Returns the number of bytes currently held.
+     *
+     * @return See above.
+     */
+    synchronized long getSize() { return size; }
+
+    /**
+     * Returns the directory hosting the files.
+     *
+     * @return See above.
+     */
+    File getDirectory() { return directory; }
+
+}
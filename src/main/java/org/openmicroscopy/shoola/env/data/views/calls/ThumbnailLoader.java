@@ -30,15 +30,19 @@ import omero.gateway.SecurityContext;
 import omero.gateway.exception.DSAccessException;
 import omero.gateway.exception.DSOutOfServiceException;
 import omero.gateway.model.DataObject;
+import omero.gateway.model.ExperimenterData;
 import omero.gateway.model.ImageData;
 import omero.gateway.model.PixelsData;
 import omero.log.LogMessage;
 
 import org.openmicroscopy.shoola.env.LookupNames;
+import org.openmicroscopy.shoola.env.config.Registry;
 import org.openmicroscopy.shoola.env.data.OmeroImageService;
+import org.openmicroscopy.shoola.env.data.login.UserCredentials;
 import org.openmicroscopy.shoola.env.data.model.ThumbnailData;
 import org.openmicroscopy.shoola.env.data.views.BatchCall;
 import org.openmicroscopy.shoola.env.data.views.BatchCallTree;
+import org.openmicroscopy.shoola.util.concur.tasks.CmdProcessor;
 import org.openmicroscopy.shoola.util.image.geom.Factory;
 import org.openmicroscopy.shoola.util.image.io.EncoderException;
 import org.openmicroscopy.shoola.util.image.io.WriterImage;
@@ -46,10 +50,15 @@ import org.openmicroscopy.shoola.util.ui.IconManager;
 
 import java.awt.Dimension;
 import java.awt.Image;
+import java.io.File;
 import java.lang.StackTraceElement;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Command to load a given set of thumbnails.
@@ -62,6 +71,13 @@ import java.util.HashSet;
  * <p>Thumbnails are generated respecting the <code>X/Y</code> ratio of the
  * original image and so that their area doesn't exceed <code>maxWidth*
  * maxHeight</code>, which is specified to the constructor.</p>
+ * <p>When no specific rendering settings are requested, the thumbnails are
+ * retrieved in sets of {@link #SET_SIZE} using one call to the server per
+ * set. The thumbnail stores are shared by the calls and closed once the
+ * thumbnails have been loaded. The thumbnails of a set are first looked up
+ * in the {@link ThumbnailDiskCache}, under the id of the logged in user,
+ * and only the ones not cached or whose rendering settings have been
+ * modified since are retrieved.</p>
  *
  * @author Jean-Marie Burel &nbsp;&nbsp;&nbsp;&nbsp;
  * <a href="mailto:j.burel@dundee.ac.uk">j.burel@dundee.ac.uk</a>
@@ -73,6 +89,65 @@ import java.util.HashSet;
  */
 public class ThumbnailLoader extends BatchCallTree {
 
+    /**
+     * The maximum number of thumbnails loaded at the same time.
+     */
+    private static final int FAN_OUT = 4;
+
+    /**
+     * The maximum number of thumbnails retrieved with one call to the server.
+     */
+    static final int SET_SIZE = 50;
+
+    /**
+     * The name of the directory hosting the thumbnails kept on disk.
+     */
+    private static final String THUMBNAIL_DIR = "thumbnails";
+
+    /**
+     * The number of bytes in a megabyte.
+     */
+    private static final long MB = 1024*1024;
+
+    /**
+     * The thumbnails kept on disk, shared by all the loaders.
+     */
+    private static ThumbnailDiskCache diskCache;
+
+    /**
+     * Returns the disk cache of the server the user is connected to or
+     * <code>null</code> if the thumbnails are not kept on disk.
+     *
+     * @param context Reference to the registry.
+     * @return See above.
+     */
+    private static synchronized ThumbnailDiskCache getDiskCache(
+            Registry context) {
+        Integer size = (Integer) context.lookup(
+                LookupNames.THUMBNAIL_DISK_CACHE_SZ);
+        String home = (String) context.lookup(LookupNames.USER_HOME_OMERO);
+        UserCredentials uc = (UserCredentials) context.lookup(
+                LookupNames.USER_CREDENTIALS);
+        if (size == null || size.intValue() <= 0 || home == null
+                || uc == null || uc.getServer() == null) {
+            return null;
+        }
+        // One directory per server so that the ids do not collide
+        String server = uc.getServer().getHost() + "_"
+                + uc.getServer().getPort();
+        File directory = new File(new File(home, THUMBNAIL_DIR),
+                server.replaceAll("[^\\w.-]", "_"));
+        if (diskCache != null && !directory.equals(diskCache.getDirectory())) {
+            diskCache.close();
+            diskCache = null;
+        }
+        if (diskCache == null) {
+            diskCache = new ThumbnailDiskCache(directory,
+                    size.longValue() * MB);
+        }
+        return diskCache.isEnabled() ? diskCache : null;
+    }
+
     /**
      * The images for which we need thumbnails.
      */
@@ -89,9 +164,11 @@ public class ThumbnailLoader extends BatchCallTree {
     private int maxHeight;
 
     /**
-     * The lastly retrieved thumbnail.
+     * The lastly retrieved thumbnail, returned as the result of the tree
+     * for the callers loading a single thumbnail. The thumbnails are
+     * delivered as partial results by the calls themselves.
      */
-    private Object currentThumbnail;
+    private volatile Object currentThumbnail;
 
     /**
      * Collection of user IDs.
@@ -115,6 +192,11 @@ public class ThumbnailLoader extends BatchCallTree {
 
     private boolean readOnly = false;
 
+    /**
+     * The thumbnail stores shared by the calls.
+     */
+    private ThumbnailStorePool pool;
+
     private boolean isReadOnly() {
         String b = (String) context.lookup(LookupNames.SERVER_DB);
         if (b != null) {
@@ -158,6 +240,8 @@ public class ThumbnailLoader extends BatchCallTree {
         this.ctx = ctx;
         this.service = context.getImageService();
         this.readOnly = isReadOnly();
+        this.pool = new ThumbnailStorePool(ctx, service,
+                context.getDataService());
     }
 
     public ThumbnailLoader(SecurityContext ctx, Collection<DataObject> imgs, long userID) {
@@ -191,45 +275,44 @@ public class ThumbnailLoader extends BatchCallTree {
         return currentThumbnail;
     }
 
-    /**
-     * Returns the lastly retrieved thumbnail.
-     * This will be packed by the framework into a feedback event and
-     * sent to the provided call observer, if any.
-     *
-     * @return A {@link ThumbnailData} containing the thumbnail pixels.
-     */
-    @Override
-    protected Object getPartialResult() {
-        return currentThumbnail;
-    }
-
     /**
      * Adds a {@link BatchCall} to the tree for each thumbnail to retrieve.
+     * The calls run in parallel and deliver their thumbnail as partial
+     * result.
      *
      * @see BatchCallTree#buildTree()
      */
     @Override
     protected void buildTree() {
-        final int lastIndex = images.size() - 1;
         for (final long userId : userIDs) {
-            int k = 0;
+            boolean useSet = userId < 0 && !asImage && maxWidth == maxHeight;
+            ThumbnailSet set = null;
             for (DataObject image : images) {
                 // Cast our image to pixels object
                 final PixelsData pxd = dataObjectToPixelsData(image);
 
-                // Flag to check if we've iterated to the last image
-                final boolean last = lastIndex == k++;
+                // Group the images to retrieve the thumbnails in sets
+                if (useSet) {
+                    if (set == null || set.size() == SET_SIZE) {
+                        set = new ThumbnailSet() {
+                            Map<Long, byte[]> load(List<Long> pixelsIDs) {
+                                return loadThumbnailSet(pixelsIDs);
+                            }
+                        };
+                    }
+                    set.add(pxd.getId());
+                }
+                final ThumbnailSet thumbnails = set;
 
                 // Add a new load thumbnail task to tree
                 BatchCall call = new BatchCall("Loading thumbnails") {
                     @Override
                     public void doCall() throws Exception {
-                        ThumbnailStorePrx store = null;
+                        ThumbnailData data;
                         try {
-                            store = getThumbnailStore(pxd);
-                            handleBatchCall(store, pxd, userId);
+                            data = handleBatchCall(thumbnails, pxd, userId);
                         } catch (Exception e) {
-                            currentThumbnail = new ThumbnailData(pxd.getImage().getId(),
+                            data = new ThumbnailData(pxd.getImage().getId(),
                                     getErrorIcon(), userId, false);
 
                             LogMessage msg = new LogMessage(
@@ -237,11 +320,9 @@ public class ThumbnailLoader extends BatchCallTree {
                                             + pxd.getId(), e);
 
                             context.getLogger().warn(this, msg);
-                        } finally {
-                            if (last && store != null) {
-                                context.getDataService().closeService(ctx, store);
-                            }
                         }
+                        currentThumbnail = data;
+                        setPartialResult(data);
                     }
                 };
 
@@ -250,11 +331,88 @@ public class ThumbnailLoader extends BatchCallTree {
         }
     }
 
-    private void handleBatchCall(ThumbnailStorePrx store, PixelsData pxd, long userId) throws DSOutOfServiceException,
+    /**
+     * Retrieves the thumbnails of the specified pixels sets from the disk
+     * cache and the ones not cached with one call to the server. Returns an
+     * empty map if the thumbnails could not be retrieved, so that they are
+     * loaded one by one.
+     *
+     * @param pixelsIDs The ids of the pixels sets.
+     * @return See above.
+     */
+    private Map<Long, byte[]> loadThumbnailSet(List<Long> pixelsIDs) {
+        Map<Long, byte[]> thumbnails = new HashMap<Long, byte[]>();
+        ThumbnailDiskCache cache = getDiskCache(context);
+        // The server uses the settings of the logged in user
+        ExperimenterData exp = (ExperimenterData) context.lookup(
+                LookupNames.CURRENT_USER_DETAILS);
+        long sessionUserID = exp == null ? -1 : exp.getId();
+        Map<Long, Long> times = null;
+        List<Long> missing = pixelsIDs;
+        if (cache != null && sessionUserID >= 0) {
+            try {
+                times = service.getRenderingDefTimes(ctx, pixelsIDs);
+            } catch (Exception e) {
+                context.getLogger().warn(this, new LogMessage(
+                        "Couldn't check the cached thumbnails", e));
+            }
+        }
+        if (times != null) {
+            missing = new ArrayList<Long>();
+            for (Long id : pixelsIDs) {
+                Long time = times.get(id);
+                byte[] data = time == null ? null :
+                        cache.get(id, sessionUserID, maxWidth, time);
+                if (data != null) {
+                    thumbnails.put(id, data);
+                } else {
+                    missing.add(id);
+                }
+            }
+            if (missing.isEmpty()) {
+                return thumbnails;
+            }
+        }
+        ThumbnailStorePrx store = null;
+        try {
+            store = pool.acquire(-1);
+            Map<Long, byte[]> m = store.getThumbnailByLongestSideSet(
+                    omero.rtypes.rint(maxWidth), missing);
+            pool.release(-1, store);
+            if (m != null) {
+                thumbnails.putAll(m);
+                if (times != null) {
+                    for (Map.Entry<Long, byte[]> e : m.entrySet()) {
+                        Long time = times.get(e.getKey());
+                        if (time != null) {
+                            cache.put(e.getKey(), sessionUserID, maxWidth,
+                                    time, e.getValue());
+                        }
+                    }
+                }
+            }
+        } catch (Exception e) {
+            pool.discard(store);
+            context.getLogger().warn(this, new LogMessage(
+                    "Couldn't load the thumbnail set", e));
+        }
+        return thumbnails;
+    }
+
+    private ThumbnailData handleBatchCall(ThumbnailSet set, PixelsData pxd, long userId) throws DSOutOfServiceException,
             DSAccessException {
         Image thumbnail = null;
+        ThumbnailStorePrx store = null;
+        boolean reusable = false;
         try {
-            byte[] thumbnailData = loadThumbnail(store, pxd, userId);
+            byte[] thumbnailData = set == null ? null : set.get(pxd.getId());
+            if (thumbnailData == null || thumbnailData.length == 0) {
+                // Not in the set, load it on its own
+                store = pool.acquire(userId);
+                initStore(store, pxd);
+                thumbnailData = loadThumbnail(store, pxd, userId);
+            }
+            reusable = true;
             if (thumbnailData == null || thumbnailData.length == 0) {
                 // Find out why the thumbnail is not ready on the server
                 if (requiresPixelsPyramid(pxd)) {
@@ -272,6 +430,12 @@ public class ThumbnailLoader extends BatchCallTree {
             // Thrown if conversion of bytes to Image fails
             context.getLogger().error(this,
                     new LogMessage("Failed to convert thumbnail byte array to BufferedImage", e));
+        } finally {
+            if (reusable) {
+                pool.release(userId, store);
+            } else {
+                pool.discard(store);
+            }
         }
 
         if (thumbnail == null) {
@@ -279,7 +443,7 @@ public class ThumbnailLoader extends BatchCallTree {
         }
 
         // Convert thumbnail to whatever
-        currentThumbnail = new ThumbnailData(pxd.getImage().getId(),
+        return new ThumbnailData(pxd.getImage().getId(),
                 thumbnail, userId, true);
     }
 
@@ -308,14 +472,12 @@ public class ThumbnailLoader extends BatchCallTree {
         return getErrorIcon();
     }
 
-    private ThumbnailStorePrx getThumbnailStore(PixelsData pxd) throws DSAccessException,
-            DSOutOfServiceException, ServerError {
-        ThumbnailStorePrx store = service.createThumbnailStore(ctx);
+    private void initStore(ThumbnailStorePrx store, PixelsData pxd)
+            throws ServerError {
         if (!store.setPixelsId(pxd.getId())) {
             store.resetDefaults();
             store.setPixelsId(pxd.getId());
         }
-        return store;
     }
 
     /**
@@ -380,4 +542,23 @@ public class ThumbnailLoader extends BatchCallTree {
                 .getImage();
     }
 
+    /**
+     * Loads the thumbnails after the data the user is waiting for.
+     * @see BatchCallTree#getPriority()
+     */
+    protected int getPriority() { return CmdProcessor.THUMBNAILS; }
+
+    /**
+     * Loads the thumbnails in parallel, the stores being shared through
+     * the pool.
+     * @see BatchCallTree#getFanOut()
+     */
+    protected int getFanOut() { return FAN_OUT; }
+
+    /**
+     * Closes the thumbnail stores.
+     * @see BatchCallTree#release()
+     */
+    protected void release() { pool.close(); }
+
 }
@@ -0,0 +1,96 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+
+package org.openmicroscopy.shoola.env.data.views.calls;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The thumbnails of pixels sets retrieved together with one call to the
+ * server. The set is loaded by the first call needing one of its
+ * thumbnails and each thumbnail is handed out once. A thumbnail missing
+ * from the set, e.g. because the set could not be loaded, is returned as
+ * <code>null</code> so that the caller loads it on its own.
+ *
+ * @author agent &nbsp;&nbsp;&nbsp;&nbsp;
+ * <a href="mailto:agent@local">agent@local</a>
+ * @since 5.6.3
+ */
+abstract class ThumbnailSet
+{
+
+    /** The ids of the pixels sets. */
+    private final List<Long> pixelsIDs;
+
+    /** The thumbnails not handed out yet, <code>null</code> until loaded. */
+    private Map<Long, byte[]> thumbnails;
+
+    /**
+     * Retrieves the thumbnails of the specified pixels sets. Returns an
+     * empty map or <code>null</code> if the thumbnails could not be
+     * retrieved.
+     *
+     * @param pixelsIDs The ids of the pixels sets.
+     * @return See above.
+     */
+    abstract Map<Long, byte[]> load(List<Long> pixelsIDs);
+
+    /** Creates a new instance. */
+    ThumbnailSet()
+    {
+        pixelsIDs = new ArrayList<Long>();
+    }
+
+    /**
+     * Adds the specified pixels set to the set.
+     *
+     * @param pixelsID The id of the pixels set.
+     */
+    void add(long pixelsID) { pixelsIDs.add(pixelsID); }
+
+    /**
+     * Returns the number of pixels sets.
+     *
+     * @return See above.
+     */
+    int size() { return pixelsIDs.size(); }
+
+    /**
+     * Returns the thumbnail of the specified pixels set or
+     * <code>null</code> if it could not be retrieved with the set.
+     *
+     * @param pixelsID The id of the pixels set.
+     * @return See above.
+     */
+    synchronized byte[] get(long pixelsID)
+    {
+        if (thumbnails == null) {
+            thumbnails = load(pixelsIDs);
+            if (thumbnails == null) thumbnails = new HashMap<Long, byte[]>();
+        }
+        return thumbnails.remove(pixelsID);
+    }
+
+}
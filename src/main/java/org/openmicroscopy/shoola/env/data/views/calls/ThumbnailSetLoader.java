@@ -41,6 +41,7 @@ import omero.gateway.exception.RenderingServiceException;
 
 import org.openmicroscopy.shoola.env.data.views.BatchCall;
 import org.openmicroscopy.shoola.env.data.views.BatchCallTree;
+import org.openmicroscopy.shoola.util.concur.tasks.CmdProcessor;
 import org.openmicroscopy.shoola.util.image.geom.Factory;
 
 import omero.gateway.model.DataObject;
@@ -459,4 +460,10 @@ extends BatchCallTree
         if (l != null && l.size() > 0) toHandle.add(l);
     }
 
+    /**
+     * Loads the thumbnails after the data the user is waiting for.
+     * @see BatchCallTree#getPriority()
+     */
+    protected int getPriority() { return CmdProcessor.THUMBNAILS; }
+
 }
@@ -0,0 +1,164 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+
+package org.openmicroscopy.shoola.env.data.views.calls;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import omero.api.ThumbnailStorePrx;
+import omero.gateway.SecurityContext;
+import omero.gateway.exception.DSAccessException;
+import omero.gateway.exception.DSOutOfServiceException;
+
+import org.openmicroscopy.shoola.env.data.OmeroDataService;
+import org.openmicroscopy.shoola.env.data.OmeroImageService;
+
+/**
+ * Keeps the thumbnail stores used by the calls of a
+ * {@link ThumbnailLoader} so that they can be reused from one image to the
+ * next instead of creating a store per image.
+ * <p>The stores are kept per user because the rendering settings selected
+ * for a user are stored in the store. At most {@link #MAX_IDLE} idle stores
+ * are kept for a given user; the extra ones are closed when released.
+ * All the stores are closed when the pool is {@link #close() closed}, a
+ * store in use at that time is closed as soon as it is released.</p>
+ *
+ * @author agent &nbsp;&nbsp;&nbsp;&nbsp;
+ * <a href="mailto:agent@local">agent@local</a>
+ * @since 5.6.3
+ */
+class ThumbnailStorePool
+{
+
+    /** The maximum number of idle stores kept for a given user. */
+    static final int MAX_IDLE = 4;
+
+    /** The security context. */
+    private final SecurityContext ctx;
+
+    /** Used to create the stores. */
+    private final OmeroImageService imageService;
+
+    /** Used to close the stores. */
+    private final OmeroDataService dataService;
+
+    /** The idle stores, indexed by user ID. */
+    private final Map<Long, LinkedList<ThumbnailStorePrx>> idle;
+
+    /** Flag indicating that the pool has been closed. */
+    private boolean closed;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param ctx The security context.
+     * @param imageService Used to create the stores.
+     * @param dataService Used to close the stores.
+     */
+    ThumbnailStorePool(SecurityContext ctx, OmeroImageService imageService,
+            OmeroDataService dataService)
+    {
+        this.ctx = ctx;
+        this.imageService = imageService;
+        this.dataService = dataService;
+        idle = new HashMap<Long, LinkedList<ThumbnailStorePrx>>();
+    }
+
+    /**
+     * Returns an idle store for the specified user or creates a new one.
+     * The store must be {@link #release(long, ThumbnailStorePrx) released}
+     * once used.
+     *
+     * @param userID The id of the user or <code>-1</code>.
+     * @return See above.
+     * @throws DSOutOfServiceException If the connection is broken.
+     * @throws DSAccessException If the store cannot be created.
+     */
+    ThumbnailStorePrx acquire(long userID)
+        throws DSOutOfServiceException, DSAccessException
+    {
+        synchronized (this) {
+            if (closed) throw new IllegalStateException("Pool closed.");
+            LinkedList<ThumbnailStorePrx> stores = idle.get(userID);
+            if (stores != null && !stores.isEmpty())
+                return stores.removeFirst();
+        }
+        return imageService.createThumbnailStore(ctx);
+    }
+
+    /**
+     * Returns the specified store to the pool. The store is closed if the
+     * pool is closed or if enough stores are idle.
+     *
+     * @param userID The id of the user the store was acquired for.
+     * @param store The store to release, may be <code>null</code>.
+     */
+    void release(long userID, ThumbnailStorePrx store)
+    {
+        if (store == null) return;
+        synchronized (this) {
+            if (!closed) {
+                LinkedList<ThumbnailStorePrx> stores = idle.get(userID);
+                if (stores == null) {
+                    stores = new LinkedList<ThumbnailStorePrx>();
+                    idle.put(userID, stores);
+                }
+                if (stores.size() < MAX_IDLE) {
+                    stores.addFirst(store);
+                    return;
+                }
+            }
+        }
+        dataService.closeService(ctx, store);
+    }
+
+    /**
+     * Discards the specified store, e.g. after an error left it in an
+     * unknown state.
+     *
+     * @param store The store to discard, may be <code>null</code>.
+     */
+    void discard(ThumbnailStorePrx store)
+    {
+        if (store != null) dataService.closeService(ctx, store);
+    }
+
+    /** Closes the idle stores and the stores released from now on. */
+    void close()
+    {
+        List<ThumbnailStorePrx> stores = new ArrayList<ThumbnailStorePrx>();
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+            for (LinkedList<ThumbnailStorePrx> l : idle.values())
+                stores.addAll(l);
+            idle.clear();
+        }
+        for (ThumbnailStorePrx store : stores)
+            dataService.closeService(ctx, store);
+    }
+
+}
@@ -24,8 +24,6 @@ package org.openmicroscopy.shoola.env.data.views.calls;
 
 
 //Java imports
-import java.util.Collection;
-import java.util.Iterator;
 
 //Third-party libraries
 
@@ -38,10 +36,14 @@ import org.openmicroscopy.shoola.env.data.views.BatchCallTree;
 import org.openmicroscopy.shoola.env.rnd.RenderingControl;
 import org.openmicroscopy.shoola.env.rnd.data.Region;
 import org.openmicroscopy.shoola.env.rnd.data.Tile;
+import org.openmicroscopy.shoola.env.rnd.data.TileQueue;
+import org.openmicroscopy.shoola.util.concur.tasks.CmdProcessor;
 import org.openmicroscopy.shoola.util.image.geom.Factory;
 
 /** 
- * Loads the tiles.
+ * Loads the tiles scheduled by a {@link TileQueue} using a given rendering
+ * control. The tiles are loaded one at a time, a call being added to the
+ * tree for each tile until the queue is empty.
  *
  * @author Jean-Marie Burel &nbsp;&nbsp;&nbsp;&nbsp;
  * <a href="mailto:j.burel@dundee.ac.uk">j.burel@dundee.ac.uk</a>
@@ -59,23 +61,24 @@ public class TileLoader
 	/** The lastly retrieve tile. */
     private Object	currentTile;
     
-    /** The tiles.*/
-    private Collection<Tile> tiles;
-
-    /** The plane to render.*/
-    private PlaneDef pDef;
+    /** The tiles to load.*/
+    private TileQueue queue;
 
     /** The proxy to use.*/
     private RenderingControl proxy;
     
     /**
-     * Loads the tile.
+     * Loads the next tile. The tile is not delivered if it was cancelled
+     * while loaded.
      * 
-     * @param tile The tile to load.
+     * @param request The tile to load.
      */
-    private void loadTile(Tile tile) 
+    private void loadTile(TileQueue.Request request) 
     {
+    	Tile tile = request.getTile();
+    	PlaneDef pDef = request.getPlane();
     	Region rt = tile.getRegion();
+    	Object image;
     	try {
     		PlaneDef def = new PlaneDef();
     		def.slice = pDef.slice;
@@ -86,12 +89,38 @@ public class TileLoader
     		def.t = pDef.t;
     		def.region = new RegionDef(rt.getX(), rt.getY(),
     				rt.getWidth(), rt.getHeight());
-    		tile.setImage(proxy.render(def));
+    		if (tile.getResolutionLevel() < 0) image = proxy.render(def);
+    		else image = proxy.renderAtResolutionLevel(def,
+    				tile.getResolutionLevel());
 		} catch (Exception e) {
-			tile.setImage(Factory.createDefaultImageThumbnail(rt.getWidth(), 
-					rt.getHeight()));
+			//No placeholder for a preview, the tiles are displayed instead.
+			if (tile.getResolutionLevel() >= 0) image = null;
+			else image = Factory.createDefaultImageThumbnail(rt.getWidth(), 
+					rt.getHeight());
 		}
-    	currentTile = tile;
+    	if (queue.done(request)) {
+    		tile.setImage(image);
+    		currentTile = tile;
+    	} else currentTile = null;
+    }
+    
+    /**
+     * Adds a call loading the next tile in the queue.
+     * The call adds another call once the tile is loaded.
+     */
+    private void addNextCall()
+    {
+    	add(new BatchCall("Loading tiles") {
+    		public void doCall() { 
+    			TileQueue.Request request = queue.take(proxy);
+    			if (request == null) {
+    				currentTile = null;
+    				return;
+    			}
+    			loadTile(request);
+    			addNextCall();
+    		}
+    	});
     }
     
     /**
@@ -99,7 +128,7 @@ public class TileLoader
      * This will be packed by the framework into a feedback event and
      * sent to the provided call observer, if any.
      * 
-     * @return A Map containing the index of the tile and the associated image.
+     * @return The lastly retrieved tile or <code>null</code>.
      */
     protected Object getPartialResult() { return currentTile; }
     
@@ -111,47 +140,43 @@ public class TileLoader
     protected Object getResult() { return null; }
     
     /**
-     * Adds a {@link BatchCall} to the tree for each tile to retrieve.
-     * The batch call simply invokes {@link #loadTile(Tile)}.
+     * Adds a {@link BatchCall} to the tree loading the first tile.
      * @see BatchCallTree#buildTree()
      */
-    protected void buildTree()
-    {
-    	Iterator<Tile> i = tiles.iterator();
-    	String description = "Loading tiles";
-    	Tile tile;
-    	while (i.hasNext()) {
-			tile = i.next();
-			final Tile t = tile;
-			add(new BatchCall(description) {
-        		public void doCall() { 
-        			loadTile(t);
-        		}
-        	});  
-		}
-    }
+    protected void buildTree() { addNextCall(); }
+
+    /**
+     * Overridden so that the workers loading the tiles do not use up the
+     * threads of the services the user is waiting for.
+     * @see BatchCallTree#getPriority()
+     */
+    protected int getPriority() { return CmdProcessor.TILES; }
+
+    /**
+     * Unregisters the worker so that a new one can be started if the tree
+     * was cancelled or stopped because of an error.
+     * @see BatchCallTree#release()
+     */
+    protected void release() { queue.removeWorker(proxy); }
     
     /**
      * Creates a new instance.
      * 
      * @param ctx The security context.
      * @param pixelsID 	The id of the pixels set.
-     * @param pDef The plane to render.
-	 * @param tiles	The tiles.
+     * @param proxy The rendering control to use.
+	 * @param queue	The tiles to load.
      */
-    public TileLoader(SecurityContext ctx, long pixelsID, PlaneDef pDef,
-    		RenderingControl proxy, Collection<Tile> tiles)
+    public TileLoader(SecurityContext ctx, long pixelsID,
+    		RenderingControl proxy, TileQueue queue)
     {
     	if (proxy == null)
 			throw new IllegalArgumentException("No rendering control.");
 		if (pixelsID != proxy.getPixelsID())
 			throw new IllegalArgumentException("Pixels ID not valid.");
-        if (tiles == null || tiles.size() == 0)
+        if (queue == null)
             throw new IllegalArgumentException("No tiles to load.");
-        if (pDef == null)
-        	 throw new IllegalArgumentException("No plane to render.");
-        this.tiles = tiles;
-        this.pDef = pDef;
+        this.queue = queue;
         this.proxy = proxy;
     }
     
@@ -31,8 +31,8 @@ package org.openmicroscopy.shoola.env.init;
 //Application-internal dependencies
 import org.openmicroscopy.shoola.env.LookupNames;
 import org.openmicroscopy.shoola.env.config.Registry;
-import org.openmicroscopy.shoola.util.concur.tasks.AsyncProcessor;
 import org.openmicroscopy.shoola.util.concur.tasks.CmdProcessor;
+import org.openmicroscopy.shoola.util.concur.tasks.PoolProcessor;
 
 /** 
  * This task intializes the {@link CmdProcessor} the container will use
@@ -75,7 +75,7 @@ public final class CmdProcessorInit
     void execute()
     {
         //TODO: What processor to use should be externalized in cfg.
-        CmdProcessor processor = new AsyncProcessor();
+        CmdProcessor processor = new PoolProcessor();
         Registry reg = container.getRegistry();
         reg.bind(LookupNames.CMD_PROCESSOR, processor);
     }
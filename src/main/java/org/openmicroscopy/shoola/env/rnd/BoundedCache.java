@@ -0,0 +1,173 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.env.rnd;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Top class of the caches bounded by a number of bytes, the least recently
+ * used entries being discarded first.
+ * <p>Subclasses indicate the number of bytes used by an entry and the pixels
+ * set it belongs to, so that the entries of an image can be invalidated.</p>
+ * The values handed out by the cache are shared and must not be modified
+ * by the caller.
+ *
+ * @author agent &nbsp;&nbsp;&nbsp;&nbsp;
+ * <a href="mailto:agent@local">agent@local</a>
+ * @since 5.6.3
+ */
+abstract class BoundedCache<K, V>
+{
+
+    /** The entries ordered from the least to the most recently used. */
+    private final LinkedHashMap<K, V> entries;
+
+    /** The maximum number of bytes the cache can hold. */
+    private final long maxSize;
+
+    /** The number of bytes currently held. */
+    private long size;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param maxSize The maximum number of bytes the cache can hold.
+     *                If <code>0</code> or negative nothing is cached.
+     */
+    BoundedCache(long maxSize)
+    {
+        this.maxSize = maxSize;
+        entries = new LinkedHashMap<K, V>(16, 0.75f, true);
+    }
+
+    /**
+     * Returns the number of bytes used by the specified value.
+     *
+     * @param value The value to handle.
+     * @return See above.
+     */
+    abstract long sizeOf(V value);
+
+    /**
+     * Returns the identifier of the pixels set the specified entry
+     * belongs to.
+     *
+     * @param key The key identifying the entry.
+     * @return See above.
+     */
+    abstract long getPixelsID(K key);
+
+    /**
+     * Returns <code>true</code> if the cache can hold entries,
+     * <code>false</code> otherwise.
+     *
+     * @return See above.
+     */
+    boolean isEnabled() { return maxSize > 0; }
+
+    /**
+     * Returns <code>true</code> if the cache can hold the specified number
+     * of bytes, <code>false</code> otherwise.
+     *
+     * @param n The number of bytes.
+     * @return See above.
+     */
+    boolean canHold(long n) { return n > 0 && n <= maxSize; }
+
+    /**
+     * Returns the value corresponding to the passed key or <code>null</code>
+     * if the value is not cached.
+     *
+     * @param key The key identifying the entry.
+     * @return See above.
+     */
+    synchronized V get(K key)
+    {
+        if (key == null) return null;
+        return entries.get(key);
+    }
+
+    /**
+     * Caches the passed value. The least recently used entries are
+     * discarded if the cache exceeds its size. A value larger than the
+     * cache is never cached.
+     *
+     * @param key The key identifying the entry.
+     * @param value The value to cache.
+     * @return The entries discarded, ordered from the least to the most
+     *         recently used.
+     */
+    synchronized Map<K, V> put(K key, V value)
+    {
+        Map<K, V> discarded = new LinkedHashMap<K, V>();
+        if (key == null || value == null) return discarded;
+        long n = sizeOf(value);
+        if (!canHold(n)) return discarded;
+        V old = entries.put(key, value);
+        if (old != null) size -= sizeOf(old);
+        size += n;
+        Iterator<Map.Entry<K, V>> i = entries.entrySet().iterator();
+        Map.Entry<K, V> e;
+        while (size > maxSize && i.hasNext()) {
+            e = i.next();
+            size -= sizeOf(e.getValue());
+            discarded.put(e.getKey(), e.getValue());
+            i.remove();
+        }
+        return discarded;
+    }
+
+    /**
+     * Removes all the entries of the specified pixels set.
+     *
+     * @param pixelsID The identifier of the pixels set.
+     */
+    synchronized void invalidate(long pixelsID)
+    {
+        Iterator<Map.Entry<K, V>> i = entries.entrySet().iterator();
+        Map.Entry<K, V> e;
+        while (i.hasNext()) {
+            e = i.next();
+            if (getPixelsID(e.getKey()) == pixelsID) {
+                size -= sizeOf(e.getValue());
+                i.remove();
+            }
+        }
+    }
+
+    /** Removes all the entries. */
+    synchronized void clear()
+    {
+        entries.clear();
+        size = 0;
+    }
+
+    /**
+     * Returns the number of bytes currently held.
+     *
+     * @return See above.
+     */
+    synchronized long getSize() { return size; }
+
+}
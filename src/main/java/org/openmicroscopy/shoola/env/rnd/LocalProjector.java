@@ -0,0 +1,300 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+
+package org.openmicroscopy.shoola.env.rnd;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.openmicroscopy.shoola.env.data.model.ProjectionParam;
+
+/**
+ * Projects the z-sections of a channel on the client from the raw pixels
+ * values, so that the preview of a projection does not require a round
+ * trip to the server.
+ * <p>The projection of each channel is accumulated and kept. When the
+ * interval is modified, only the z-sections added to or removed from the
+ * interval are processed. The maximum intensity cannot be reduced, so it is
+ * computed again from all the z-sections when sections are removed. The
+ * mean intensity is the sum divided by the number of sections; the sum is
+ * clamped to the upper bound of the pixels type as done by the server.</p>
+ * The pixels are processed in parallel.
+ *
+ * @author agent &nbsp;&nbsp;&nbsp;&nbsp;
+ * <a href="mailto:agent@local">agent@local</a>
+ * @since 5.6.3
+ */
+class LocalProjector
+{
+
+    /** The maximum number of pixels processed by a single task. */
+    private static final int PIXELS = 1 << 16;
+
+    /** Provides the raw pixels values of the z-sections to project. */
+    interface PlaneSource
+    {
+
+        /**
+         * Returns the raw pixels values of the specified plane.
+         *
+         * @param z The z-section.
+         * @param t The timepoint.
+         * @param c The channel.
+         * @return See above.
+         * @throws Exception If an error occurred while loading the values.
+         */
+        float[] getPlane(int z, int t, int c) throws Exception;
+    }
+
+    /** The projection accumulated for a channel. */
+    private static class Accumulator
+    {
+
+        /** The timepoint. */
+        private final int t;
+
+        /** Flag indicating that the maximum intensity is accumulated. */
+        private final boolean max;
+
+        /** The accumulated values. */
+        private final double[] values;
+
+        /** The projected z-sections. */
+        private final Set<Integer> sections;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param t The timepoint.
+         * @param max Pass <code>true</code> to accumulate the maximum
+         *            intensity, <code>false</code> to accumulate the sum.
+         * @param size The number of pixels.
+         */
+        Accumulator(int t, boolean max, int size)
+        {
+            this.t = t;
+            this.max = max;
+            values = new double[size];
+            sections = new TreeSet<Integer>();
+        }
+    }
+
+    /** Updates a band of the accumulated values and the projection. */
+    private static class ProjectTask
+        extends RecursiveAction
+    {
+
+        /** The accumulated values. */
+        private final Accumulator acc;
+
+        /** The planes to add and to remove. */
+        private final float[][] added, removed;
+
+        /** The destination buffer. */
+        private final float[] result;
+
+        /** The type of projection. */
+        private final int type;
+
+        /** The upper bound of the projected values. */
+        private final double upperBound;
+
+        /** The first pixel to process and the pixel after the last one. */
+        private final int from, to;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param acc The accumulated values.
+         * @param added The planes to add.
+         * @param removed The planes to remove.
+         * @param result The destination buffer.
+         * @param type The type of projection.
+         * @param upperBound The upper bound of the projected values.
+         * @param from The first pixel to process.
+         * @param to The pixel after the last one to process.
+         */
+        ProjectTask(Accumulator acc, float[][] added, float[][] removed,
+                float[] result, int type, double upperBound, int from, int to)
+        {
+            this.acc = acc;
+            this.added = added;
+            this.removed = removed;
+            this.result = result;
+            this.type = type;
+            this.upperBound = upperBound;
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * Processes the pixels or splits the band if it is too large.
+         * @see RecursiveAction#compute()
+         */
+        protected void compute()
+        {
+            if (to-from > PIXELS) {
+                int middle = (from+to) >>> 1;
+                invokeAll(new ProjectTask(acc, added, removed, result, type,
+                        upperBound, from, middle),
+                        new ProjectTask(acc, added, removed, result, type,
+                        upperBound, middle, to));
+                return;
+            }
+            double[] values = acc.values;
+            int n = acc.sections.size();
+            double v;
+            for (int i = from; i < to; i++) {
+                v = values[i];
+                if (acc.max) {
+                    for (int k = 0; k < added.length; k++) {
+                        if (added[k][i] > v) v = added[k][i];
+                    }
+                } else {
+                    for (int k = 0; k < added.length; k++)
+                        v += added[k][i];
+                    for (int k = 0; k < removed.length; k++)
+                        v -= removed[k][i];
+                }
+                values[i] = v;
+                if (type == ProjectionParam.MEAN_INTENSITY)
+                    v = n > 0 ? v/n : 0;
+                else if (type == ProjectionParam.SUM_INTENSITY &&
+                        upperBound > 0 && v > upperBound)
+                    v = upperBound;
+                result[i] = (float) v;
+            }
+        }
+    }
+
+    /** The accumulated projections, indexed by channel. */
+    private final Map<Integer, Accumulator> projections;
+
+    /**
+     * Returns the z-sections of the specified interval.
+     *
+     * @param startZ The first z-section.
+     * @param endZ The last z-section.
+     * @param stepping The stepping of the projection.
+     * @return See above.
+     */
+    static Set<Integer> getSections(int startZ, int endZ, int stepping)
+    {
+        if (stepping < 1) stepping = 1;
+        Set<Integer> sections = new TreeSet<Integer>();
+        for (int z = startZ; z <= endZ; z += stepping)
+            sections.add(z);
+        return sections;
+    }
+
+    /** Creates a new instance. */
+    LocalProjector()
+    {
+        projections = new HashMap<Integer, Accumulator>();
+    }
+
+    /**
+     * Projects the specified z-sections of a channel and returns the
+     * projected values.
+     *
+     * @param c The channel.
+     * @param t The timepoint.
+     * @param sections The z-sections to project.
+     * @param type The type of projection, one of the constants defined by
+     *             {@link ProjectionParam}.
+     * @param upperBound The upper bound of the pixels type or
+     *                   <code>0</code> if not known.
+     * @param size The number of pixels of a plane.
+     * @param source Provides the raw pixels values.
+     * @return See above.
+     * @throws Exception If an error occurred while loading the values.
+     */
+    synchronized float[] project(int c, int t, Set<Integer> sections,
+            int type, double upperBound, int size, PlaneSource source)
+        throws Exception
+    {
+        if (sections == null || sections.isEmpty())
+            throw new IllegalArgumentException("No z-sections to project.");
+        boolean max = type == ProjectionParam.MAXIMUM_INTENSITY;
+        Accumulator acc = projections.get(c);
+        if (acc == null || acc.t != t || acc.max != max ||
+                acc.values.length != size ||
+                (max && !sections.containsAll(acc.sections))) {
+            acc = new Accumulator(t, max, size);
+            if (max) Arrays.fill(acc.values, Double.NEGATIVE_INFINITY);
+            projections.remove(c);
+        }
+        List<float[]> added = new ArrayList<float[]>();
+        List<float[]> removed = new ArrayList<float[]>();
+        List<Integer> toRemove = new ArrayList<Integer>();
+        for (Integer z : sections) {
+            if (!acc.sections.contains(z))
+                added.add(checkPlane(source.getPlane(z, t, c), size));
+        }
+        for (Integer z : acc.sections) {
+            if (!sections.contains(z)) {
+                removed.add(checkPlane(source.getPlane(z, t, c), size));
+                toRemove.add(z);
+            }
+        }
+        float[] result = new float[size];
+        //Updates the sections first, the mean is computed with the new count.
+        acc.sections.removeAll(toRemove);
+        acc.sections.addAll(sections);
+        try {
+            ForkJoinPool.commonPool().invoke(new ProjectTask(acc,
+                    added.toArray(new float[added.size()][]),
+                    removed.toArray(new float[removed.size()][]),
+                    result, type, upperBound, 0, size));
+        } catch (RuntimeException e) {
+            projections.remove(c);
+            throw e;
+        }
+        projections.put(c, acc);
+        return result;
+    }
+
+    /**
+     * Returns the passed plane if it has the expected size.
+     *
+     * @param plane The plane to check.
+     * @param size The expected number of pixels.
+     * @return See above.
+     */
+    private static float[] checkPlane(float[] plane, int size)
+    {
+        if (plane == null || plane.length < size)
+            throw new IllegalArgumentException("No data for the plane.");
+        return plane;
+    }
+
+    /** Discards the accumulated projections. */
+    synchronized void clear() { projections.clear(); }
+
+}
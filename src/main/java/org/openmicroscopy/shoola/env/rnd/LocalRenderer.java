@@ -0,0 +1,293 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.env.rnd;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Renders a plane on the client from the raw pixels values, so that changes
+ * to the rendering settings do not require a round trip to the server.
+ * <p>The renderer follows the algorithm used by the server's rendering
+ * engine for the linear family: the pixels values are mapped onto the
+ * codomain interval using the channel window and the bit resolution, the
+ * intensity is reversed if required and the channels are blended using
+ * their colour. In the grey scale model only the first active channel is
+ * rendered.</p>
+ * The other families, the noise reduction and the lookup tables hosted by
+ * the server are not supported. The planes using them are identified by
+ * {@link #canRender(RndProxyDef)} and rendered by the server.
+ * The rows of the plane are rendered in parallel.
+ *
+ * @author agent &nbsp;&nbsp;&nbsp;&nbsp;
+ * <a href="mailto:agent@local">agent@local</a>
+ * @since 5.6.3
+ */
+class LocalRenderer
+{
+
+    /** The maximum number of rows rendered by a single task. */
+    private static final int ROWS = 64;
+
+    /** The opaque alpha component of a packed pixel. */
+    private static final int ALPHA = 0xFF000000;
+
+    /** The settings used to render one channel. */
+    private static class ChannelSettings
+    {
+
+        /** The raw pixels values. */
+        private final float[] data;
+
+        /** The lower bound of the window. */
+        private final double start;
+
+        /** The upper bound of the window. */
+        private final double end;
+
+        /** The value used to map the window onto the bit resolution. */
+        private final double slope;
+
+        /** The ratio used to map the bit resolution onto the codomain. */
+        private final double cdRatio;
+
+        /** The bounds of the codomain. */
+        private final int cdStart, cdEnd;
+
+        /** The bit resolution. */
+        private final int bitResolution;
+
+        /** Flag indicating to reverse the intensity. */
+        private final boolean reverse;
+
+        /** The ratio applied to the discrete value for each component. */
+        private final double red, green, blue;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param data The raw pixels values.
+         * @param c The settings of the channel.
+         * @param def The rendering settings.
+         * @param grey Pass <code>true</code> to ignore the colour,
+         *             <code>false</code> otherwise.
+         */
+        ChannelSettings(float[] data, ChannelBindingsProxy c, RndProxyDef def,
+                boolean grey)
+        {
+            this.data = data;
+            start = c.getInputStart();
+            end = c.getInputEnd();
+            bitResolution = def.getBitResolution();
+            cdStart = def.getCdStart();
+            cdEnd = def.getCdEnd();
+            slope = end > start ? bitResolution/(end-start) : 0;
+            cdRatio = bitResolution > 0 ?
+                    (double) (cdEnd-cdStart)/bitResolution : 0;
+            reverse = c.getReverseIntensity();
+            if (grey) {
+                red = 1;
+                green = 1;
+                blue = 1;
+            } else {
+                int[] rgba = c.getRGBA();
+                double alpha = rgba[3]/255.0;
+                red = rgba[0]/255.0*alpha;
+                green = rgba[1]/255.0*alpha;
+                blue = rgba[2]/255.0*alpha;
+            }
+        }
+
+        /**
+         * Maps the passed value onto the codomain interval.
+         *
+         * @param v The raw value.
+         * @return See above.
+         */
+        int quantize(double v)
+        {
+            int q;
+            if (v < start) q = cdStart;
+            else if (v >= end) q = cdEnd;
+            else {
+                long d = Math.round(slope*(v-start));
+                q = (int) Math.round(cdRatio*d+cdStart);
+            }
+            if (reverse) q = cdEnd-q+cdStart;
+            return q;
+        }
+    }
+
+    /** Renders a band of rows. */
+    private static class RenderTask
+        extends RecursiveAction
+    {
+
+        /** The settings of the channels to render. */
+        private final ChannelSettings[] channels;
+
+        /** The destination buffer. */
+        private final int[] buffer;
+
+        /** The number of pixels along the X-axis. */
+        private final int sizeX;
+
+        /** The first row to render and the row after the last one. */
+        private final int from, to;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param channels The settings of the channels to render.
+         * @param buffer The destination buffer.
+         * @param sizeX The number of pixels along the X-axis.
+         * @param from The first row to render.
+         * @param to The row after the last one to render.
+         */
+        RenderTask(ChannelSettings[] channels, int[] buffer, int sizeX,
+                int from, int to)
+        {
+            this.channels = channels;
+            this.buffer = buffer;
+            this.sizeX = sizeX;
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * Renders the rows or splits the band if it is too large.
+         * @see RecursiveAction#compute()
+         */
+        protected void compute()
+        {
+            if (to-from > ROWS) {
+                int middle = (from+to) >>> 1;
+                invokeAll(new RenderTask(channels, buffer, sizeX, from, middle),
+                        new RenderTask(channels, buffer, sizeX, middle, to));
+                return;
+            }
+            ChannelSettings c;
+            int r, g, b, v, index;
+            for (int y = from; y < to; y++) {
+                for (int x = 0; x < sizeX; x++) {
+                    index = y*sizeX+x;
+                    r = 0;
+                    g = 0;
+                    b = 0;
+                    for (int k = 0; k < channels.length; k++) {
+                        c = channels[k];
+                        v = c.quantize(c.data[index]);
+                        r += (int) (c.red*v);
+                        g += (int) (c.green*v);
+                        b += (int) (c.blue*v);
+                    }
+                    if (r > 255) r = 255;
+                    if (g > 255) g = 255;
+                    if (b > 255) b = 255;
+                    buffer[index] = ALPHA | (r << 16) | (g << 8) | b;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns <code>true</code> if the plane can be rendered on the client
+     * using the passed settings, <code>false</code> otherwise.
+     *
+     * @param def The rendering settings.
+     * @return See above.
+     */
+    static boolean canRender(RndProxyDef def)
+    {
+        if (def == null) return false;
+        List<Integer> active = getRenderedChannels(def);
+        if (active.size() == 0) return false;
+        ChannelBindingsProxy c;
+        for (Integer index : active) {
+            c = def.getChannel(index);
+            if (!RenderingControl.LINEAR.equals(c.getFamily())) return false;
+            if (c.isNoiseReduction()) return false;
+            if (c.getLookupTable() != null &&
+                    c.getLookupTable().trim().length() > 0)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the indexes of the channels rendered using the passed
+     * settings i.e. the active channels or the first active channel in
+     * the grey scale model.
+     *
+     * @param def The rendering settings.
+     * @return See above.
+     */
+    static List<Integer> getRenderedChannels(RndProxyDef def)
+    {
+        List<Integer> active = new ArrayList<Integer>();
+        boolean grey = RenderingControl.GREY_SCALE.equals(def.getColorModel());
+        ChannelBindingsProxy c;
+        for (int i = 0; i < def.getNumberOfChannels(); i++) {
+            c = def.getChannel(i);
+            if (c != null && c.isActive()) {
+                active.add(i);
+                if (grey) break;
+            }
+        }
+        return active;
+    }
+
+    /**
+     * Renders the plane and returns the pixels packed as <code>ARGB</code>
+     * integers.
+     *
+     * @param def The rendering settings.
+     * @param planes The raw pixels values of each channel, indexed by
+     *               channel. Only the rendered channels are required.
+     * @param sizeX The number of pixels along the X-axis.
+     * @param sizeY The number of pixels along the Y-axis.
+     * @return See above.
+     */
+    static int[] render(RndProxyDef def, float[][] planes, int sizeX,
+            int sizeY)
+    {
+        boolean grey = RenderingControl.GREY_SCALE.equals(def.getColorModel());
+        List<Integer> active = getRenderedChannels(def);
+        ChannelSettings[] channels = new ChannelSettings[active.size()];
+        int index;
+        for (int i = 0; i < channels.length; i++) {
+            index = active.get(i);
+            if (planes[index] == null || planes[index].length < sizeX*sizeY)
+                throw new IllegalArgumentException("No data for channel "+
+                        index);
+            channels[i] = new ChannelSettings(planes[index],
+                    def.getChannel(index), def, grey);
+        }
+        int[] buffer = new int[sizeX*sizeY];
+        ForkJoinPool.commonPool().invoke(new RenderTask(channels, buffer,
+                sizeX, 0, sizeY));
+        return buffer;
+    }
+
+}
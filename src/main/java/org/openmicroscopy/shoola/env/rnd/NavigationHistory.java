@@ -110,6 +110,26 @@ class NavigationHistory
             history.remove(0);
     }
     
+    /**
+     * Returns <code>true</code> if the passed list contains a plane with
+     * the same z and t coordinates as <code>pd</code>, <code>false</code>
+     * otherwise. Note that {@link PlaneDef} doesn't override
+     * <code>equals</code>.
+     * 
+     * @param moves The moves to check.
+     * @param pd The plane to look for.
+     * @return See above.
+     */
+    private boolean contains(List moves, PlaneDef pd)
+    {
+        PlaneDef move;
+        for (int i = 0; i < moves.size(); i++) {
+            move = (PlaneDef) moves.get(i);
+            if (move.z == pd.z && move.t == pd.t) return true;
+        }
+        return false;
+    }
+    
     /**
      * Returns the plane definition that was added by the second last call
      * to {@link #addMove(PlaneDef)}.
@@ -196,7 +216,8 @@ class NavigationHistory
         
         //Check if pd is the current move.  If so, return as we haven't moved
         //at all from the previous point.
-        if (pd.equals(curMove())) return;  //curMove can be null, but pd is not.
+        PlaneDef cur = curMove();  //curMove can be null, but pd is not.
+        if (cur != null && cur.z == z && cur.t == t) return;
         
         //Now make a copy to avoid caller changing entry after we added.
         pd = new PlaneDef();
@@ -273,12 +294,12 @@ class NavigationHistory
             pd = new PlaneDef();
             pd.slice = omero.romio.XY.value;
             pd.t = (int) p.x2;
-            pd.y = (int) p.x1;
+            pd.z = (int) p.x1;
             
             //Even though dir.getPoint is monotonic, we could be getting a pd
             //equal to the previous one b/c of the above casts to int.  However,
             //this shouldn't happen if navigation is || to the z or t axis.
-            if (!nextMoves.contains(pd))  //Never allow duplicates.
+            if (!contains(nextMoves, pd))  //Never allow duplicates.
                 nextMoves.add(pd);
         }
         return (PlaneDef[]) nextMoves.toArray(new PlaneDef[0]);
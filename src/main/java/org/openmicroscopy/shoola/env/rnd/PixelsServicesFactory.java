@@ -22,16 +22,22 @@
 package org.openmicroscopy.shoola.env.rnd;
 
 import java.awt.image.BufferedImage;
+import java.io.File;
 import java.lang.management.ManagementFactory;
 import java.lang.management.MemoryUsage;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 
 import omero.api.RenderingEnginePrx;
 import omero.model.ChannelBinding;
@@ -73,9 +79,14 @@ public class PixelsServicesFactory
 	/** The percentage of memory used for caching. */
 	private static final double		RATIO = 0.10;
 	
-	/** Values used to determine the size of a cache. */
-	private static final int		FACTOR = 
-		RenderingControl.MAX_SIZE*RenderingControl.MAX_SIZE;
+	/** The number of bytes in a Mb. */
+	private static final long		MB = 1024*1024;
+	
+	/** 
+	 * The name of the directory, in the <code>omero</code> directory,
+	 * hosting the tiles discarded from memory.
+	 */
+	private static final String		TILE_DIR = "tiles";
 	
 	/** The sole instance. */
 	private static PixelsServicesFactory 	singleton;
@@ -84,7 +95,7 @@ public class PixelsServicesFactory
 	private static Registry                 registry;
 
 	/** The maximum amount of memory in bytes used for caching. */
-	private static int						maxSize;
+	private static long						maxSize;
 
 	/**
 	 * Converts the {@link RenderingDef} into a {@link RndProxyDef}.
@@ -183,7 +194,50 @@ public class PixelsServicesFactory
 			String message = "Heap memory usage: max "+usage.getMax();
 			registry.getLogger().info(singleton, message);
 			//percentage of memory used for caching.
-			maxSize = (int) (RATIO*usage.getMax())/FACTOR; 
+			maxSize = (long) (RATIO*usage.getMax());
+			Integer size = (Integer) registry.lookup(LookupNames.RE_CACHE_SZ);
+			if (size != null && size.longValue()*MB < maxSize)
+				maxSize = size.longValue()*MB;
+			//tiles discarded from memory.
+			PlaneDiskCache disk = null;
+			size = (Integer) registry.lookup(LookupNames.RE_TILE_CACHE_SZ);
+			String home = (String) registry.lookup(
+					LookupNames.USER_HOME_OMERO);
+			if (size != null && size.intValue() > 0 && home != null) {
+				disk = new PlaneDiskCache(new File(home, TILE_DIR),
+						size.longValue()*MB);
+				registry.getLogger().info(singleton,
+						"Tile disk cache size: "+size.longValue()*MB);
+			}
+			singleton.planeCache = new PlaneCache(maxSize, disk);
+			registry.getLogger().info(singleton, "Plane cache size: "+maxSize);
+			singleton.sessionMonitor = createSessionMonitor();
+			//raw planes used to render on the client.
+			size = (Integer) registry.lookup(LookupNames.RE_RAW_CACHE_SZ);
+			if (size != null && size.intValue() > 0) {
+				long rawSize = (long) (RATIO*usage.getMax());
+				if (size.longValue()*MB < rawSize)
+					rawSize = size.longValue()*MB;
+				singleton.rawPlaneCache = new RawPlaneCache(rawSize);
+				registry.getLogger().info(singleton,
+						"Raw plane cache size: "+rawSize);
+			}
+			size = (Integer) registry.lookup(LookupNames.RE_MAX_ENGINES);
+			if (size != null) singleton.maxEngines = size.intValue();
+			size = (Integer) registry.lookup(LookupNames.RE_MAX_PRE_FETCH);
+			if (size != null && size.intValue() > 0) {
+				singleton.lookAhead = size.intValue();
+				singleton.prefetchExecutor = Executors.newSingleThreadExecutor(
+						new ThreadFactory() {
+					public Thread newThread(Runnable r)
+					{
+						Thread t = new Thread(r, "Plane prefetch");
+						t.setDaemon(true);
+						t.setPriority(Thread.MIN_PRIORITY);
+						return t;
+					}
+				});
+			}
 		}
 		return singleton;
 	}
@@ -253,8 +307,8 @@ public class PixelsServicesFactory
 					proxy = (RenderingControlProxy) i.next();
 					proxy.shutDown();
 					proxy.setRenderingEngine(reList.get(index));
+					index++;
 				}
-				index++;
 			}
 		}
 		return proxy;
@@ -296,8 +350,8 @@ public class PixelsServicesFactory
 				while (i.hasNext()) {
 					proxy = (RenderingControlProxy) i.next();
 					proxy.resetRenderingEngine(reList.get(index), converted);
+					index++;
 				}
-				index++;
 			}
 		}
 		return proxy;
@@ -325,6 +379,9 @@ public class PixelsServicesFactory
 		if (proxy != null) {
 			if (count == 1) {
 				proxy.shutDown();
+				singleton.planeCache.invalidate(pixelsID);
+				if (singleton.rawPlaneCache != null)
+					singleton.rawPlaneCache.invalidate(pixelsID);
 				singleton.rndSvcProxies.remove(pixelsID);
 				singleton.rndSvcProxiesCount.remove(pixelsID);
 			} else {
@@ -336,6 +393,19 @@ public class PixelsServicesFactory
 		return false;
 	}
 	
+	/**
+	 * Creates the monitor keeping track of the sessions used by the
+	 * rendering proxies.
+	 * 
+	 * @return See above.
+	 */
+	private static SessionMonitor createSessionMonitor()
+	{
+		Long heartbeat = (Long) registry.lookup(LookupNames.RE_HEARTBEAT);
+		return new SessionMonitor(registry, heartbeat == null ?
+				SessionMonitor.HEARTBEAT : heartbeat.longValue());
+	}
+
 	/** 
 	 * Shuts downs all running rendering services.
 	 * 
@@ -346,14 +416,21 @@ public class PixelsServicesFactory
 	public static void shutDownRenderingControls(Registry context)
 	{
 		//Note that the class should be deleted.
+		singleton.planeCache.clear();
+		if (singleton.rawPlaneCache != null)
+			singleton.rawPlaneCache.clear();
+		//A stopped monitor cannot be restarted.
+		singleton.sessionMonitor.stop();
+		singleton.sessionMonitor = createSessionMonitor();
 		singleton.rndSvcProxies.clear();
 		singleton.rndSvcProxiesCount.clear();
 	}
 
 
 	/** 
-	 * Checks if the rendering controls are still active. Shuts the inactive
-	 * ones.
+	 * Checks if the rendering controls are still active. Suspends the
+	 * inactive ones and the least recently used ones if more engines than
+	 * allowed are open.
 	 * 
 	 * @param context Reference to the registry. To ensure that agents cannot
 	 *                call the method. It must be a reference to the
@@ -361,13 +438,13 @@ public class PixelsServicesFactory
 	 */
 	public static void checkRenderingControls(Registry context)
 	{
-		// TODO Auto-generated method stub
 		if (!(context.equals(registry)))
 			throw new IllegalArgumentException("Not allow to access method.");
 		RenderingControlProxy proxy;
 		Entry<Long, RenderingControl> e;
 		Iterator<Entry<Long, RenderingControl>> i =
-				singleton.rndSvcProxies.entrySet().iterator();
+				new ArrayList<Entry<Long, RenderingControl>>(
+						singleton.rndSvcProxies.entrySet()).iterator();
 		Long value = (Long) context.lookup(LookupNames.RE_TIMEOUT);
 		 
 		long timeout = 60000; //1min
@@ -379,11 +456,12 @@ public class PixelsServicesFactory
 			e = i.next();
 			proxy = (RenderingControlProxy) e.getValue();
 			if (!proxy.isProxyActive(timeout)) {
-				if (!proxy.shutDown())
+				if (proxy.suspend())
 					logger.info(singleton,
-							"Rendering Engine shut down: PixelsID "+e.getKey());
+							"Rendering Engine suspended: PixelsID "+e.getKey());
 			}
 		}
+		singleton.checkEngineCount(null);
 	}
 	
 	/**
@@ -573,6 +651,24 @@ public class PixelsServicesFactory
 	 */
 	private Map<Long, Integer>			rndSvcProxiesCount;
 	
+	/** The planes already rendered. */
+	private PlaneCache					planeCache;
+	
+	/** Keeps track of the liveness of the sessions. */
+	private SessionMonitor				sessionMonitor;
+	
+	/** The raw planes used to render on the client or <code>null</code>. */
+	private RawPlaneCache				rawPlaneCache;
+	
+	/** The maximum number of planes rendered ahead. */
+	private int							lookAhead;
+	
+	/** Renders ahead the planes likely to be viewed next or <code>null</code>. */
+	private ExecutorService				prefetchExecutor;
+
+	/** The maximum number of engines open or <code>0</code> if no limit. */
+	private int							maxEngines;
+	
 	/** Creates the sole instance. */
 	private PixelsServicesFactory()
 	{
@@ -607,20 +703,68 @@ public class PixelsServicesFactory
 		RenderingEnginePrx master = reList.get(0);
 		reList.remove(0);
 		rnd = new RenderingControlProxy(registry, ctx, master, pixels, metadata,
-										compression, defs);
+										compression, defs, planeCache,
+										sessionMonitor, rawPlaneCache);
 		Iterator<RenderingEnginePrx> i = reList.iterator();
 		if (reList.size() > 0) {
 			List<RenderingControl> 
 			slaves = new ArrayList<RenderingControl>(reList.size());
 			while (i.hasNext()) {
 				slaves.add(new RenderingControlProxy(registry, ctx, 
-						i.next(), pixels, metadata, compression, defs));
+						i.next(), pixels, metadata, compression, defs,
+						planeCache, sessionMonitor, rawPlaneCache));
 			}
 			((RenderingControlProxy) rnd).setSlaves(slaves);
 		}
-		
+		((RenderingControlProxy) rnd).enablePrefetch(lookAhead,
+				prefetchExecutor);
 		singleton.rndSvcProxies.put(id, rnd);
+		checkEngineCount(rnd);
 		return rnd;
 	}
 
+	/**
+	 * Suspends the least recently used rendering controls until no more
+	 * engines than allowed are open.
+	 *
+	 * @param keep The rendering control not to suspend or <code>null</code>.
+	 */
+	private void checkEngineCount(RenderingControl keep)
+	{
+		if (maxEngines <= 0) return;
+		List<RenderingControlProxy> proxies =
+				new ArrayList<RenderingControlProxy>();
+		Iterator<RenderingControl> i = new ArrayList<RenderingControl>(
+				rndSvcProxies.values()).iterator();
+		RenderingControlProxy proxy;
+		int count = 0;
+		int n;
+		while (i.hasNext()) {
+			proxy = (RenderingControlProxy) i.next();
+			n = proxy.getEngineCount();
+			count += n;
+			if (n > 0 && proxy != keep) proxies.add(proxy);
+		}
+		if (count <= maxEngines) return;
+		Collections.sort(proxies, new Comparator<RenderingControlProxy>() {
+			public int compare(RenderingControlProxy p1,
+					RenderingControlProxy p2)
+			{
+				long t1 = p1.getLastAction();
+				long t2 = p2.getLastAction();
+				return t1 < t2 ? -1 : (t1 == t2 ? 0 : 1);
+			}
+		});
+		Iterator<RenderingControlProxy> j = proxies.iterator();
+		while (count > maxEngines && j.hasNext()) {
+			proxy = j.next();
+			n = proxy.getEngineCount();
+			if (proxy.suspend()) {
+				count -= n;
+				registry.getLogger().info(this, "Rendering Engine suspended: "+
+						"PixelsID "+proxy.getPixelsID());
+			}
+		}
+	}
+
 }
@@ -0,0 +1,268 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.env.rnd;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.util.Iterator;
+import java.util.Map;
+
+import omero.romio.PlaneDef;
+import omero.romio.RegionDef;
+
+/**
+ * Keeps the planes already rendered so that revisiting a plane does not
+ * require another call to the server.
+ * <p>Entries are identified by the pixels set, the {@link PlaneDef}, the
+ * resolution level, the compression level and the fingerprint of the
+ * rendering settings used to render the plane. The cache is bounded by
+ * a number of bytes, the least recently used planes are discarded first.
+ * </p>
+ * <p>The tiles of big images discarded from memory are written to the
+ * {@link PlaneDiskCache} if any, so that returning to a region or a
+ * resolution level viewed earlier does not require a call to the server.
+ * </p>
+ *
+ * @author agent &nbsp;&nbsp;&nbsp;&nbsp;
+ * <a href="mailto:agent@local">agent@local</a>
+ * @since 5.6.3
+ */
+class PlaneCache
+    extends BoundedCache<PlaneCache.PlaneKey, BufferedImage>
+{
+
+    /** Identifies a rendered plane. */
+    static class PlaneKey
+    {
+
+        /** The identifier of the pixels set. */
+        private final long pixelsID;
+
+        /** The plane coordinates. */
+        private final int slice, x, y, z, t, stride;
+
+        /** The region of the plane if any. */
+        private final int regionX, regionY, regionWidth, regionHeight;
+
+        /** The resolution level. */
+        private final int level;
+
+        /** The compression level. */
+        private final int compression;
+
+        /** The fingerprint of the rendering settings. */
+        private final long fingerprint;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param pixelsID The identifier of the pixels set.
+         * @param pDef The plane to render.
+         * @param level The resolution level.
+         * @param compression The compression level.
+         * @param fingerprint The fingerprint of the rendering settings.
+         */
+        PlaneKey(long pixelsID, PlaneDef pDef, int level, int compression,
+                long fingerprint)
+        {
+            this.pixelsID = pixelsID;
+            slice = pDef.slice;
+            x = pDef.x;
+            y = pDef.y;
+            z = pDef.z;
+            t = pDef.t;
+            stride = pDef.stride;
+            RegionDef region = pDef.region;
+            if (region != null) {
+                regionX = region.x;
+                regionY = region.y;
+                regionWidth = region.width;
+                regionHeight = region.height;
+            } else {
+                regionX = -1;
+                regionY = -1;
+                regionWidth = -1;
+                regionHeight = -1;
+            }
+            this.level = level;
+            this.compression = compression;
+            this.fingerprint = fingerprint;
+        }
+
+        /**
+         * Returns the identifier of the pixels set.
+         *
+         * @return See above.
+         */
+        long getPixelsID() { return pixelsID; }
+
+        /**
+         * Returns <code>true</code> if the key identifies a region of the
+         * plane e.g. a tile, <code>false</code> otherwise.
+         *
+         * @return See above.
+         */
+        boolean isRegion() { return regionWidth > 0 && regionHeight > 0; }
+
+        /**
+         * Overridden to compare the plane coordinates and the settings.
+         * @see Object#equals(Object)
+         */
+        public boolean equals(Object o)
+        {
+            if (this == o) return true;
+            if (!(o instanceof PlaneKey)) return false;
+            PlaneKey k = (PlaneKey) o;
+            return pixelsID == k.pixelsID && slice == k.slice && x == k.x &&
+                    y == k.y && z == k.z && t == k.t && stride == k.stride &&
+                    regionX == k.regionX && regionY == k.regionY &&
+                    regionWidth == k.regionWidth &&
+                    regionHeight == k.regionHeight && level == k.level &&
+                    compression == k.compression &&
+                    fingerprint == k.fingerprint;
+        }
+
+        /**
+         * Overridden to be consistent with {@link #equals(Object)}.
+         * @see Object#hashCode()
+         */
+        public int hashCode()
+        {
+            long h = pixelsID;
+            h = 31*h+slice;
+            h = 31*h+x;
+            h = 31*h+y;
+            h = 31*h+z;
+            h = 31*h+t;
+            h = 31*h+stride;
+            h = 31*h+regionX;
+            h = 31*h+regionY;
+            h = 31*h+regionWidth;
+            h = 31*h+regionHeight;
+            h = 31*h+level;
+            h = 31*h+compression;
+            h = 31*h+fingerprint;
+            return (int) (h^(h >>> 32));
+        }
+    }
+
+    /** The cache hosting the tiles discarded or <code>null</code>. */
+    private final PlaneDiskCache disk;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param maxSize The maximum number of bytes the cache can hold.
+     *                If <code>0</code> or negative no plane is cached.
+     */
+    PlaneCache(long maxSize)
+    {
+        this(maxSize, null);
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param maxSize The maximum number of bytes the cache can hold.
+     *                If <code>0</code> or negative no plane is cached.
+     * @param disk The cache hosting the tiles discarded from memory
+     *             or <code>null</code>.
+     */
+    PlaneCache(long maxSize, PlaneDiskCache disk)
+    {
+        super(maxSize);
+        this.disk = disk != null && disk.isEnabled() ? disk : null;
+    }
+
+    /**
+     * Implemented as specified by {@link BoundedCache}.
+     * @see BoundedCache#sizeOf(Object)
+     */
+    long sizeOf(BufferedImage image)
+    {
+        DataBuffer buffer = image.getRaster().getDataBuffer();
+        long bits = (long) buffer.getSize()*buffer.getNumBanks()*
+                DataBuffer.getDataTypeSize(buffer.getDataType());
+        return bits/8;
+    }
+
+    /**
+     * Implemented as specified by {@link BoundedCache}.
+     * @see BoundedCache#getPixelsID(Object)
+     */
+    long getPixelsID(PlaneKey key) { return key.getPixelsID(); }
+
+    /**
+     * Overridden to move back to memory a tile found on disk.
+     * @see BoundedCache#get(Object)
+     */
+    BufferedImage get(PlaneKey key)
+    {
+        BufferedImage img = super.get(key);
+        if (img != null || disk == null || key == null || !key.isRegion())
+            return img;
+        img = disk.get(key);
+        if (img != null) put(key, img);
+        return img;
+    }
+
+    /**
+     * Overridden to write in the background the tiles discarded from
+     * memory to disk if possible.
+     * @see BoundedCache#put(Object, Object)
+     */
+    Map<PlaneKey, BufferedImage> put(PlaneKey key, BufferedImage image)
+    {
+        Map<PlaneKey, BufferedImage> discarded = super.put(key, image);
+        if (disk == null) return discarded;
+        Iterator<Map.Entry<PlaneKey, BufferedImage>> i =
+                discarded.entrySet().iterator();
+        Map.Entry<PlaneKey, BufferedImage> e;
+        while (i.hasNext()) {
+            e = i.next();
+            if (e.getKey().isRegion())
+                disk.spill(e.getKey(), e.getValue());
+        }
+        return discarded;
+    }
+
+    /**
+     * Overridden to remove the tiles written to disk.
+     * @see BoundedCache#invalidate(long)
+     */
+    void invalidate(long pixelsID)
+    {
+        if (disk != null) disk.invalidate(pixelsID);
+        super.invalidate(pixelsID);
+    }
+
+    /**
+     * Overridden to remove the tiles written to disk.
+     * @see BoundedCache#clear()
+     */
+    void clear()
+    {
+        if (disk != null) disk.clear();
+        super.clear();
+    }
+
+}
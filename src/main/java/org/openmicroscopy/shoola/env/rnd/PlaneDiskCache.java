@@ -0,0 +1,470 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.env.rnd;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import javax.imageio.ImageIO;
+
+/**
+ * Keeps on disk the planes discarded by the {@link PlaneCache}.
+ * <p>The planes are written as PNG files in a sub-directory of the passed
+ * directory used only by this instance, so that several instances of the
+ * application can run at the same time. The sub-directory is locked while
+ * in use, the sub-directories left by the instances no longer running are
+ * deleted when the cache is created since the index of the files is only
+ * kept in memory. The cache is bounded by a number of bytes on disk, the
+ * least recently used planes are deleted first.</p>
+ * <p>The planes discarded from memory are encoded and written by a
+ * background thread so that the thread discarding them, possibly the
+ * Swing thread, is not slowed down. The planes waiting to be written are
+ * still served by the cache.</p>
+ * The files are written and read outside of the lock so that a slow disk
+ * does not block the other threads using the cache.
+ *
+ * @author agent &nbsp;&nbsp;&nbsp;&nbsp;
+ * <a href="mailto:agent@local">agent@local</a>
+ * @since 5.6.3
+ */
+class PlaneDiskCache
+{
+
+    /** A plane written to disk. */
+    private static class Entry
+    {
+
+        /** The file hosting the plane. */
+        private final File file;
+
+        /** The number of bytes written. */
+        private final long size;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param file The file hosting the plane.
+         */
+        private Entry(File file)
+        {
+            this.file = file;
+            size = file.length();
+        }
+    }
+
+    /** The format used to write the planes. */
+    private static final String FORMAT = "png";
+
+    /** The prefix of the sub-directories used by the instances. */
+    private static final String PREFIX = "tiles";
+
+    /** The file locked while a sub-directory is in use. */
+    private static final String LOCK = ".lock";
+
+    /**
+     * The maximum number of planes waiting to be written. The planes
+     * discarded when the writer is behind are not kept.
+     */
+    private static final int MAX_PENDING = 16;
+
+    /** The files ordered from the least to the most recently used. */
+    private final LinkedHashMap<PlaneCache.PlaneKey, Entry> files;
+
+    /** The planes waiting to be written. */
+    private final Map<PlaneCache.PlaneKey, BufferedImage> pending;
+
+    /**
+     * The directory hosting the files or <code>null</code> if the cache
+     * is disabled.
+     */
+    private final File directory;
+
+    /** The maximum number of bytes the cache can hold. */
+    private final long maxSize;
+
+    /** The file locked while the directory is in use. */
+    private RandomAccessFile lockFile;
+
+    /** The lock on the directory. */
+    private FileLock lock;
+
+    /** Writes the planes discarded from memory. */
+    private ExecutorService writer;
+
+    /** The number of bytes currently held. */
+    private long size;
+
+    /** Used to name the files. */
+    private long count;
+
+    /**
+     * Deletes the specified files.
+     *
+     * @param toDelete The files to delete.
+     */
+    private static void delete(List<File> toDelete)
+    {
+        Iterator<File> i = toDelete.iterator();
+        while (i.hasNext())
+            i.next().delete();
+    }
+
+    /**
+     * Deletes the files of the specified directory except the lock.
+     *
+     * @param directory The directory to empty.
+     */
+    private static void empty(File directory)
+    {
+        File[] l = directory.listFiles();
+        if (l == null) return;
+        for (int i = 0; i < l.length; i++) {
+            if (!LOCK.equals(l[i].getName())) l[i].delete();
+        }
+    }
+
+    /**
+     * Deletes the sub-directories of the instances no longer running i.e.
+     * the ones whose lock is free.
+     *
+     * @param parent The directory hosting the sub-directories.
+     */
+    private static void deleteStale(File parent)
+    {
+        File[] l = parent.listFiles();
+        if (l == null) return;
+        File f;
+        for (int i = 0; i < l.length; i++) {
+            if (!l[i].isDirectory() || !l[i].getName().startsWith(PREFIX))
+                continue;
+            f = new File(l[i], LOCK);
+            //Not locked yet by the instance creating it.
+            if (!f.isFile()) continue;
+            try (RandomAccessFile raf = new RandomAccessFile(f, "rw")) {
+                FileLock lock = raf.getChannel().tryLock();
+                if (lock == null) continue;
+                empty(l[i]);
+                lock.release();
+            } catch (Exception e) {
+                //Used by a running instance.
+                continue;
+            }
+            f.delete();
+            l[i].delete();
+        }
+    }
+
+    /** Releases the lock on the directory. */
+    private void unlock()
+    {
+        try {
+            if (lock != null) lock.release();
+        } catch (IOException e) {}
+        try {
+            if (lockFile != null) lockFile.close();
+        } catch (IOException e) {}
+        lock = null;
+        lockFile = null;
+    }
+
+    /**
+     * Creates the sub-directory used by this instance and locks it.
+     * Returns <code>null</code> if the directory cannot be used.
+     *
+     * @param parent The directory hosting the sub-directories.
+     * @return See above.
+     */
+    private File createDirectory(File parent)
+    {
+        File dir = null;
+        try {
+            if (!parent.isDirectory() && !parent.mkdirs()) return null;
+            deleteStale(parent);
+            dir = Files.createTempDirectory(parent.toPath(), PREFIX).toFile();
+            lockFile = new RandomAccessFile(new File(dir, LOCK), "rw");
+            lock = lockFile.getChannel().tryLock();
+            if (lock == null) throw new IOException("Directory in use.");
+            return dir;
+        } catch (Exception e) {
+            unlock();
+            if (dir != null) {
+                new File(dir, LOCK).delete();
+                dir.delete();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Removes the files of the specified pixels set, or all the files if the
+     * identifier is negative, from the index and returns them. The planes
+     * of the pixels set waiting to be written are discarded.
+     *
+     * @param pixelsID The identifier of the pixels set or <code>-1</code>.
+     * @return See above.
+     */
+    private synchronized List<File> remove(long pixelsID)
+    {
+        List<File> removed = new ArrayList<File>();
+        Iterator<Map.Entry<PlaneCache.PlaneKey, Entry>> i =
+                files.entrySet().iterator();
+        Map.Entry<PlaneCache.PlaneKey, Entry> e;
+        while (i.hasNext()) {
+            e = i.next();
+            if (pixelsID < 0 || e.getKey().getPixelsID() == pixelsID) {
+                size -= e.getValue().size;
+                removed.add(e.getValue().file);
+                i.remove();
+            }
+        }
+        Iterator<PlaneCache.PlaneKey> j = pending.keySet().iterator();
+        while (j.hasNext()) {
+            if (j.next().getPixelsID() == pixelsID || pixelsID < 0)
+                j.remove();
+        }
+        return removed;
+    }
+
+    /**
+     * Writes the passed plane to disk. The least recently used planes are
+     * deleted if the cache exceeds its size.
+     *
+     * @param key The key identifying the plane.
+     * @param image The rendered plane.
+     * @param spilled Pass <code>true</code> if the plane is waiting to be
+     *                written, <code>false</code> otherwise.
+     */
+    private void write(PlaneCache.PlaneKey key, BufferedImage image,
+            boolean spilled)
+    {
+        File f;
+        synchronized (this) {
+            //The plane was invalidated while waiting.
+            if (spilled && pending.get(key) != image) return;
+            f = new File(directory, "plane"+(count++)+"."+FORMAT);
+        }
+        boolean written;
+        try {
+            written = ImageIO.write(image, FORMAT, f);
+        } catch (Exception e) {
+            written = false;
+        }
+        Entry entry = written ? new Entry(f) : null;
+        List<File> toDelete = new ArrayList<File>();
+        synchronized (this) {
+            if (spilled && !pending.remove(key, image)) entry = null;
+            if (entry == null || entry.size > maxSize) {
+                toDelete.add(f);
+            } else {
+                Entry old = files.put(key, entry);
+                if (old != null) {
+                    size -= old.size;
+                    toDelete.add(old.file);
+                }
+                size += entry.size;
+                Iterator<Map.Entry<PlaneCache.PlaneKey, Entry>> i =
+                        files.entrySet().iterator();
+                Map.Entry<PlaneCache.PlaneKey, Entry> e;
+                while (size > maxSize && i.hasNext()) {
+                    e = i.next();
+                    size -= e.getValue().size;
+                    toDelete.add(e.getValue().file);
+                    i.remove();
+                }
+            }
+        }
+        delete(toDelete);
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param parent The directory hosting the sub-directory of this
+     *               instance. Mustn't be <code>null</code>.
+     * @param maxSize The maximum number of bytes the cache can hold.
+     *                If <code>0</code> or negative no plane is cached.
+     */
+    PlaneDiskCache(File parent, long maxSize)
+    {
+        if (parent == null)
+            throw new NullPointerException("No directory.");
+        files = new LinkedHashMap<PlaneCache.PlaneKey, Entry>(16, 0.75f,
+                true);
+        pending = new HashMap<PlaneCache.PlaneKey, BufferedImage>();
+        directory = maxSize > 0 ? createDirectory(parent) : null;
+        this.maxSize = directory != null ? maxSize : 0;
+        if (directory == null) return;
+        writer = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            public Thread newThread(Runnable r)
+            {
+                Thread t = new Thread(r, "Tile disk cache");
+                t.setDaemon(true);
+                t.setPriority(Thread.MIN_PRIORITY);
+                return t;
+            }
+        });
+    }
+
+    /**
+     * Returns <code>true</code> if the cache can hold planes,
+     * <code>false</code> otherwise.
+     *
+     * @return See above.
+     */
+    boolean isEnabled() { return maxSize > 0; }
+
+    /**
+     * Returns the directory hosting the files or <code>null</code> if the
+     * cache is disabled.
+     *
+     * @return See above.
+     */
+    File getDirectory() { return directory; }
+
+    /**
+     * Returns <code>true</code> if the plane corresponding to the passed
+     * key is cached or waiting to be written, <code>false</code> otherwise.
+     *
+     * @param key The key identifying the plane.
+     * @return See above.
+     */
+    synchronized boolean contains(PlaneCache.PlaneKey key)
+    {
+        return files.containsKey(key) || pending.containsKey(key);
+    }
+
+    /**
+     * Returns the plane corresponding to the passed key or <code>null</code>
+     * if the plane is not cached or cannot be read.
+     *
+     * @param key The key identifying the plane.
+     * @return See above.
+     */
+    BufferedImage get(PlaneCache.PlaneKey key)
+    {
+        if (key == null) return null;
+        Entry entry;
+        synchronized (this) {
+            BufferedImage img = pending.get(key);
+            if (img != null) return img;
+            entry = files.get(key);
+        }
+        if (entry == null) return null;
+        try {
+            BufferedImage img = ImageIO.read(entry.file);
+            if (img != null) return img;
+        } catch (Exception e) {
+            //The file was deleted or is not valid.
+        }
+        synchronized (this) {
+            if (files.remove(key, entry)) size -= entry.size;
+        }
+        entry.file.delete();
+        return null;
+    }
+
+    /**
+     * Writes the passed plane to disk. The least recently used planes are
+     * deleted if the cache exceeds its size.
+     *
+     * @param key The key identifying the plane.
+     * @param image The rendered plane.
+     */
+    void put(PlaneCache.PlaneKey key, BufferedImage image)
+    {
+        if (key == null || image == null || !isEnabled()) return;
+        if (contains(key)) return;
+        write(key, image, false);
+    }
+
+    /**
+     * Writes the passed plane to disk in the background. The plane is not
+     * kept if too many planes are already waiting to be written.
+     *
+     * @param key The key identifying the plane.
+     * @param image The rendered plane.
+     */
+    void spill(final PlaneCache.PlaneKey key, final BufferedImage image)
+    {
+        if (key == null || image == null || !isEnabled()) return;
+        synchronized (this) {
+            if (files.containsKey(key) || pending.containsKey(key) ||
+                    pending.size() >= MAX_PENDING)
+                return;
+            pending.put(key, image);
+        }
+        writer.execute(new Runnable() {
+            public void run() { write(key, image, true); }
+        });
+    }
+
+    /** Waits until the planes waiting to be written are on disk. */
+    void flush()
+    {
+        if (writer == null) return;
+        try {
+            writer.submit(new Runnable() {
+                public void run() {}
+            }).get();
+        } catch (Exception e) {
+            //Interrupted, the planes are written later.
+        }
+    }
+
+    /**
+     * Removes all the planes rendered for the specified pixels set.
+     *
+     * @param pixelsID The identifier of the pixels set.
+     */
+    void invalidate(long pixelsID)
+    {
+        if (pixelsID < 0) return;
+        delete(remove(pixelsID));
+    }
+
+    /** Removes all the planes. */
+    void clear()
+    {
+        delete(remove(-1));
+    }
+
+    /**
+     * Returns the number of bytes currently held.
+     *
+     * @return See above.
+     */
+    synchronized long getSize() { return size; }
+
+}
@@ -0,0 +1,247 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.env.rnd;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import omero.romio.PlaneDef;
+
+/**
+ * Renders in the background the planes the user is likely to view next
+ * and stores them in the {@link PlaneCache}.
+ * <p>The XY planes rendered are recorded in a {@link NavigationHistory}
+ * which predicts the next moves from the current direction of travel
+ * along the <i>z</i> and <i>t</i> axes, e.g. while scrolling through a
+ * stack or playing a movie. The predicted planes that are not already
+ * cached are rendered by the passed executor. The pending planes that are
+ * no longer predicted, e.g. because the direction changed, are cancelled.
+ * </p>
+ * A plane is only cached if the settings did not change while it was
+ * rendered i.e. if the key of the plane is unchanged.
+ *
+ * @author agent &nbsp;&nbsp;&nbsp;&nbsp;
+ * <a href="mailto:agent@local">agent@local</a>
+ * @since 5.6.3
+ */
+class PlanePrefetcher
+{
+
+    /** Renders a plane on behalf of the prefetcher. */
+    interface PlaneLoader
+    {
+
+        /**
+         * Returns the key identifying the plane rendered with the current
+         * settings.
+         *
+         * @param pDef The plane to render.
+         * @return See above.
+         */
+        PlaneCache.PlaneKey getKey(PlaneDef pDef);
+
+        /**
+         * Renders the specified plane.
+         *
+         * @param pDef The plane to render.
+         * @return See above.
+         * @throws Exception If an error occurred while rendering the plane.
+         */
+        BufferedImage load(PlaneDef pDef) throws Exception;
+    }
+
+    /** The maximum number of moves kept in the history. */
+    private static final int MAX_ENTRIES = 4;
+
+    /** The maximum number of planes to render ahead. */
+    private final int lookAhead;
+
+    /** The moves of the user. */
+    private final NavigationHistory history;
+
+    /** The cache hosting the rendered planes. */
+    private final PlaneCache cache;
+
+    /** Renders the planes. */
+    private final PlaneLoader loader;
+
+    /** The executor running the tasks. */
+    private final ExecutorService executor;
+
+    /** The planes currently rendered or waiting to be rendered. */
+    private final Map<PlaneCache.PlaneKey, Future<?>> pending;
+
+    /**
+     * Renders the specified plane and caches it if the settings did not
+     * change in the meantime.
+     *
+     * @param pDef The plane to render.
+     * @param key The key identifying the plane when it was requested.
+     */
+    private void prefetch(PlaneDef pDef, PlaneCache.PlaneKey key)
+    {
+        try {
+            BufferedImage img = loader.load(pDef);
+            if (img != null && key.equals(loader.getKey(pDef)))
+                cache.put(key, img);
+        } catch (Exception e) {
+            //The plane will be rendered when requested.
+        }
+    }
+
+    /**
+     * Cancels the specified tasks. The tasks already running are not
+     * interrupted since interrupting a call to the server would close the
+     * connection; the planes they render are cached as usual.
+     *
+     * @param tasks The tasks to cancel.
+     */
+    private void cancel(List<Future<?>> tasks)
+    {
+        Iterator<Future<?>> i = tasks.iterator();
+        while (i.hasNext())
+            i.next().cancel(false);
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param lookAhead The maximum number of planes to render ahead.
+     * @param sizeZ The number of z-sections.
+     * @param sizeT The number of timepoints.
+     * @param cache The cache hosting the rendered planes.
+     *              Mustn't be <code>null</code>.
+     * @param loader Renders the planes. Mustn't be <code>null</code>.
+     * @param executor The executor running the tasks.
+     *                 Mustn't be <code>null</code>.
+     */
+    PlanePrefetcher(int lookAhead, int sizeZ, int sizeT, PlaneCache cache,
+            PlaneLoader loader, ExecutorService executor)
+    {
+        if (cache == null)
+            throw new NullPointerException("No plane cache.");
+        if (loader == null)
+            throw new NullPointerException("No loader.");
+        if (executor == null)
+            throw new NullPointerException("No executor.");
+        this.lookAhead = lookAhead;
+        this.cache = cache;
+        this.loader = loader;
+        this.executor = executor;
+        history = new NavigationHistory(MAX_ENTRIES, sizeZ, sizeT);
+        pending = new HashMap<PlaneCache.PlaneKey, Future<?>>();
+    }
+
+    /**
+     * Records that the specified plane has been viewed and renders the
+     * planes likely to be viewed next. Only the XY planes are handled.
+     *
+     * @param pDef The plane viewed.
+     */
+    void moved(PlaneDef pDef)
+    {
+        if (pDef == null || pDef.slice != omero.romio.XY.value ||
+                pDef.region != null)
+            return;
+        if (pDef.z < 0 || pDef.z >= history.SIZE_Z || pDef.t < 0 ||
+                pDef.t >= history.SIZE_T)
+            return;
+        history.addMove(pDef);
+        PlaneDef[] moves = history.guessNextMoves(lookAhead);
+        Map<PlaneCache.PlaneKey, PlaneDef> next =
+                new LinkedHashMap<PlaneCache.PlaneKey, PlaneDef>();
+        for (int i = 0; i < moves.length; i++)
+            next.put(loader.getKey(moves[i]), moves[i]);
+        List<Future<?>> cancelled = new ArrayList<Future<?>>();
+        synchronized (pending) {
+            //Cancel the planes that are no longer predicted.
+            Iterator<Entry<PlaneCache.PlaneKey, Future<?>>> i =
+                    pending.entrySet().iterator();
+            Entry<PlaneCache.PlaneKey, Future<?>> e;
+            while (i.hasNext()) {
+                e = i.next();
+                if (!next.containsKey(e.getKey())) {
+                    cancelled.add(e.getValue());
+                    i.remove();
+                }
+            }
+            Iterator<Entry<PlaneCache.PlaneKey, PlaneDef>> j =
+                    next.entrySet().iterator();
+            Entry<PlaneCache.PlaneKey, PlaneDef> n;
+            while (j.hasNext()) {
+                n = j.next();
+                final PlaneCache.PlaneKey key = n.getKey();
+                final PlaneDef plane = n.getValue();
+                if (pending.containsKey(key) || cache.get(key) != null)
+                    continue;
+                FutureTask<Object> task = new FutureTask<Object>(
+                        new Runnable() {
+                    public void run() { prefetch(plane, key); }
+                }, null) {
+                    protected void done()
+                    {
+                        synchronized (pending) {
+                            pending.remove(key, this);
+                        }
+                    }
+                };
+                pending.put(key, task);
+                executor.execute(task);
+            }
+        }
+        cancel(cancelled);
+    }
+
+    /** Cancels the planes currently rendered or waiting to be rendered. */
+    void cancel()
+    {
+        List<Future<?>> cancelled;
+        synchronized (pending) {
+            cancelled = new ArrayList<Future<?>>(pending.values());
+            pending.clear();
+        }
+        cancel(cancelled);
+    }
+
+    /**
+     * Returns the number of planes currently rendered or waiting to be
+     * rendered.
+     *
+     * @return See above.
+     */
+    int getPendingCount()
+    {
+        synchronized (pending) {
+            return pending.size();
+        }
+    }
+
+}
@@ -0,0 +1,125 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.env.rnd;
+
+/**
+ * Keeps the raw pixels values of the planes used to render locally so that
+ * changing the rendering settings does not require to load the pixels again.
+ * <p>Entries are identified by the pixels set and the z-section, timepoint
+ * and channel of the plane. The values are stored as <code>float</code>.
+ * The cache is bounded by a number of bytes, the least recently used planes
+ * are discarded first.</p>
+ *
+ * @author agent &nbsp;&nbsp;&nbsp;&nbsp;
+ * <a href="mailto:agent@local">agent@local</a>
+ * @since 5.6.3
+ */
+class RawPlaneCache
+    extends BoundedCache<RawPlaneCache.RawPlaneKey, float[]>
+{
+
+    /** Identifies a raw plane. */
+    static class RawPlaneKey
+    {
+
+        /** The identifier of the pixels set. */
+        private final long pixelsID;
+
+        /** The plane coordinates. */
+        private final int z, t, c;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param pixelsID The identifier of the pixels set.
+         * @param z The z-section.
+         * @param t The timepoint.
+         * @param c The channel.
+         */
+        RawPlaneKey(long pixelsID, int z, int t, int c)
+        {
+            this.pixelsID = pixelsID;
+            this.z = z;
+            this.t = t;
+            this.c = c;
+        }
+
+        /**
+         * Returns the identifier of the pixels set.
+         *
+         * @return See above.
+         */
+        long getPixelsID() { return pixelsID; }
+
+        /**
+         * Overridden to compare the plane coordinates.
+         * @see Object#equals(Object)
+         */
+        public boolean equals(Object o)
+        {
+            if (this == o) return true;
+            if (!(o instanceof RawPlaneKey)) return false;
+            RawPlaneKey k = (RawPlaneKey) o;
+            return pixelsID == k.pixelsID && z == k.z && t == k.t && c == k.c;
+        }
+
+        /**
+         * Overridden to be consistent with {@link #equals(Object)}.
+         * @see Object#hashCode()
+         */
+        public int hashCode()
+        {
+            long h = pixelsID;
+            h = 31*h+z;
+            h = 31*h+t;
+            h = 31*h+c;
+            return (int) (h^(h >>> 32));
+        }
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param maxSize The maximum number of bytes the cache can hold.
+     *                If <code>0</code> or negative no plane is cached.
+     */
+    RawPlaneCache(long maxSize)
+    {
+        super(maxSize);
+    }
+
+    /**
+     * Implemented as specified by {@link BoundedCache}.
+     * @see BoundedCache#sizeOf(Object)
+     */
+    long sizeOf(float[] plane)
+    {
+        return 4L*plane.length;
+    }
+
+    /**
+     * Implemented as specified by {@link BoundedCache}.
+     * @see BoundedCache#getPixelsID(Object)
+     */
+    long getPixelsID(RawPlaneKey key) { return key.getPixelsID(); }
+
+}
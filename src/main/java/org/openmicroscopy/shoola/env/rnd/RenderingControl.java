@@ -633,6 +633,38 @@ public interface RenderingControl
 	public BufferedImage render(PlaneDef pDef, int compression)
 		throws RenderingServiceException, DSOutOfServiceException;
 
+	/**
+	 * Renders the specified {@link PlaneDef 2D-plane} at the passed
+	 * resolution level. The selected resolution level is not modified.
+	 * This method should only be used when dealing with large images.
+	 * 
+	 * @param pDef 	 Information about the plane to render.
+	 * @param level The resolution level to use.
+	 * @return See above.
+	 * @throws RenderingServiceException 	If an error occurred.
+     * @throws DSOutOfServiceException  	If the connection is broken.
+	 */
+	public BufferedImage renderAtResolutionLevel(PlaneDef pDef, int level)
+		throws RenderingServiceException, DSOutOfServiceException;
+
+	/**
+	 * Renders the specified {@link PlaneDef 2D-plane} with only the passed
+	 * channels active and using the specified color model, e.g. to build
+	 * the split view. The rendering settings are not modified.
+	 * This method can be invoked from several threads at the same time.
+	 *
+	 * @param pDef Information about the plane to render.
+	 * @param channels The indexes of the channels to render.
+	 * @param colorModel The color model to use, {@link #GREY_SCALE} or
+	 *                   {@link #RGB}.
+	 * @return See above.
+	 * @throws RenderingServiceException 	If an error occurred.
+     * @throws DSOutOfServiceException  	If the connection is broken.
+	 */
+	public BufferedImage renderChannels(PlaneDef pDef, List<Integer> channels,
+			String colorModel)
+		throws RenderingServiceException, DSOutOfServiceException;
+
 	/**
 	 * Returns one of the compression level defined by this class.
 	 * 
@@ -640,6 +672,16 @@ public interface RenderingControl
 	 */
 	public int getCompressionLevel();
 
+	/**
+	 * Returns <code>true</code> if the last plane was rendered with a
+	 * stronger compression than the requested one because the link to the
+	 * server was too slow while browsing, <code>false</code> otherwise.
+	 * The plane should be rendered again once the user stops browsing.
+	 *
+	 * @return See above.
+	 */
+	public boolean isDegraded();
+
 	/** 
      * Sets the original rendering settings. 
      * 
@@ -36,6 +36,10 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import omero.LockTimeout;
 import omero.api.RenderingEnginePrx;
@@ -62,6 +66,8 @@ import org.openmicroscopy.shoola.env.data.model.ProjectionParam;
 import omero.gateway.SecurityContext;
 import omero.gateway.exception.DSOutOfServiceException;
 import omero.gateway.exception.RenderingServiceException;
+import omero.gateway.facility.RawDataFacility;
+import omero.gateway.rnd.Plane2D;
 import omero.log.LogMessage;
 
 import org.openmicroscopy.shoola.env.rnd.data.ResolutionLevel;
@@ -110,7 +116,16 @@ class RenderingControlProxy
 	
 	/** The maximum number of retry.*/
 	private static final int MAX_RETRY = 2;
-	
+
+	/** Indicates that the input window of a channel has been modified. */
+	private static final int WINDOW = 1;
+
+	/** Indicates that the color of a channel has been modified. */
+	private static final int COLOR = 2;
+
+	/** Indicates that the mapping of a channel has been modified. */
+	private static final int MAP = 4;
+
     /** List of supported families. */
     private List families;
     
@@ -161,6 +176,12 @@ class RenderingControlProxy
 	
 	/** Flag indicating if the rendering engine is already shut down or not.*/
 	private boolean shutDown;
+
+	/**
+	 * Flag indicating that the rendering engines have been closed to
+	 * release the resources. The engines are started again when needed.
+	 */
+	private volatile boolean suspended;
 	
 	/** The security context associated to the control.*/
 	private SecurityContext ctx;
@@ -171,6 +192,55 @@ class RenderingControlProxy
 	/** The lookup tables */
 	private Collection<String> lookupTables;
 	
+	/** The planes already rendered, shared by all the proxies.*/
+	private PlaneCache cache;
+	
+	/** Keeps track of the liveness of the session.*/
+	private SessionMonitor monitor;
+
+	/**
+	 * The raw planes used to render on the client or <code>null</code>
+	 * if the planes are always rendered by the server.
+	 */
+	private RawPlaneCache rawCache;
+
+	/**
+	 * Projects the z-sections on the client or <code>null</code> if the
+	 * projections are always computed by the server.
+	 */
+	private LocalProjector projector;
+
+	/** The z-section and timepoint of the last rendered plane.*/
+	private int lastRenderedZ, lastRenderedT;
+
+	/** Renders ahead the planes likely to be viewed next or <code>null</code>.*/
+	private PlanePrefetcher prefetcher;
+
+	/**
+	 * Guards the state of the rendering engine. The planes are rendered
+	 * holding the read lock, the engine is modified holding the write lock
+	 * e.g. while its channels are switched to render the split view.
+	 */
+	private final ReentrantReadWriteLock servantLock =
+			new ReentrantReadWriteLock();
+
+	/**
+	 * The channels whose settings have been modified but not yet sent to
+	 * the rendering engine, indexed by channel. The values are combinations
+	 * of {@link #WINDOW}, {@link #COLOR} and {@link #MAP}.
+	 */
+	private final ConcurrentHashMap<Integer, Integer> pendingChannels =
+			new ConcurrentHashMap<Integer, Integer>();
+
+	/** Measures the time taken to retrieve the planes.*/
+	private final ThroughputMonitor throughput = new ThroughputMonitor();
+
+	/**
+	 * Flag indicating that the last plane was rendered with a stronger
+	 * compression than the requested one.
+	 */
+	private volatile boolean degraded;
+
     /**
      * Maps the color channel Red to {@link #RED_INDEX}, Blue to 
      * {@link #BLUE_INDEX}, Green to {@link #GREEN_INDEX} and
@@ -187,6 +257,16 @@ class RenderingControlProxy
     	return NON_PRIMARY_INDEX;
     }
 
+    /**
+     * Removes the planes rendered with the previous settings from the cache.
+     * This method should be invoked each time the settings are modified.
+     */
+    private void invalidateCache()
+    {
+        if (prefetcher != null) prefetcher.cancel();
+        if (cache != null) cache.invalidate(getPixelsID());
+    }
+
     /**
      * Handles only connection error. Returns <code>true</code> if it is not a
      * connection error, <code>false</code> otherwise.
@@ -199,6 +279,7 @@ class RenderingControlProxy
         ConnectionExceptionHandler handler = new ConnectionExceptionHandler();
         int index = handler.handleConnectionException(e);
         if (index < 0) return true;
+        monitor.failure(ctx);
         log("Handle Exception:"+index);
         context.getTaskBar().sessionExpired(index);
         return index == ConnectionExceptionHandler.LOST_CONNECTION;
@@ -353,6 +434,7 @@ class RenderingControlProxy
     /** Initializes the cached rendering settings to speed up process. */
     private void initialize()
     {
+    	clearModified();
     	try {
     		rndDef.setTypeSigned(servant.isPixelsTypeSigned());
     		rndDef.setDefaultZ(servant.getDefaultZ());
@@ -430,13 +512,114 @@ class RenderingControlProxy
     	throws RenderingServiceException, DSOutOfServiceException
     {
     	try {
-    		servant.setRGBA(index, rgba[0], rgba[1], rgba[2], rgba[3]);
     		rndDef.getChannel(index).setRGBA(rgba[0], rgba[1], rgba[2], rgba[3]);
+    		setModified(index, COLOR);
+    		invalidateCache();
 		} catch (Exception e) {
 			handleException(e, ERROR+"color for: "+index+".");
 		}
     }
 
+    /**
+     * Marks the specified settings of the channel as modified. The value
+     * will be sent to the rendering engine before the next plane is rendered
+     * on the server.
+     *
+     * @param index The index of the channel.
+     * @param flag One of the constants defined by this class.
+     */
+    private void setModified(int index, int flag)
+    {
+    	Integer value;
+    	do {
+    		value = pendingChannels.putIfAbsent(index, flag);
+    	} while (value != null &&
+    			!pendingChannels.replace(index, value, value | flag));
+    }
+
+    /**
+     * Discards the modified settings not yet sent to the rendering engine.
+     * This method should be invoked when the settings of the rendering
+     * engine are set or read back.
+     */
+    private void clearModified()
+    {
+    	pendingChannels.clear();
+    }
+
+    /**
+     * Returns the family corresponding to the specified value or
+     * <code>null</code> if the family is not supported.
+     *
+     * @param value The value to handle.
+     * @return See above.
+     */
+    private Family getFamily(String value)
+    {
+    	if (families == null || value == null) return null;
+    	Iterator i = families.iterator();
+    	Family family;
+    	while (i.hasNext()) {
+    		family = (Family) i.next();
+    		if (family.getValue().getValue().equals(value)) return family;
+    	}
+    	return null;
+    }
+
+    /**
+     * Sends to the rendering engine the settings of the channels modified
+     * since the last call. The modifications are buffered so that dragging
+     * a slider only costs the calls needed for the plane actually rendered.
+     * The values are sent as two-way calls so that they are applied before
+     * the plane is rendered.
+     * This method must not be invoked while holding the read lock.
+     *
+     * @throws Exception If an error occurred while setting the values.
+     */
+    private void flushSettings()
+    	throws Exception
+    {
+    	if (pendingChannels.isEmpty()) return;
+    	//Do not modify the engine while a plane is rendered.
+    	servantLock.writeLock().lock();
+    	try {
+    		Iterator<Integer> i = pendingChannels.keySet().iterator();
+    		Integer index, flag;
+    		ChannelBindingsProxy cb;
+    		int[] rgba;
+    		Family family;
+    		while (i.hasNext()) {
+    			index = i.next();
+    			flag = pendingChannels.remove(index);
+    			if (flag == null) continue;
+    			cb = rndDef.getChannel(index);
+    			try {
+    				if ((flag & WINDOW) != 0)
+    					servant.setChannelWindow(index, cb.getInputStart(),
+    							cb.getInputEnd());
+    				if ((flag & COLOR) != 0) {
+    					rgba = cb.getRGBA();
+    					servant.setRGBA(index, rgba[0], rgba[1], rgba[2],
+    							rgba[3]);
+    				}
+    				if ((flag & MAP) != 0) {
+    					family = getFamily(cb.getFamily());
+    					if (family != null)
+    						servant.setQuantizationMap(index, family,
+    								cb.getCurveCoefficient(),
+    								cb.isNoiseReduction());
+    				}
+    			} catch (Exception e) {
+    				//Send the values again next time.
+    				setModified(index, flag);
+    				throw e;
+    			}
+    		}
+    	} finally {
+    		servantLock.writeLock().unlock();
+    	}
+    }
+
 	/**
 	 * Renders the compressed image.
 	 * 
@@ -450,8 +633,6 @@ class RenderingControlProxy
 	private BufferedImage renderCompressedBI(PlaneDef pDef)
 		throws RenderingServiceException, DSOutOfServiceException
 	{
-		//Need to adjust the cache.
-		//Object array = getFromCache(pDef);
 		try {
 			byte[] values = servant.renderCompressed(pDef);
 			imageSize = values.length;
@@ -466,6 +647,47 @@ class RenderingControlProxy
 		return null;
 	}
 	
+	/**
+	 * Renders the plane using the specified compression level instead of
+	 * the one set. The other planes cannot be rendered until the level
+	 * is restored.
+	 *
+	 * @param pDef The plane to render.
+	 * @param level The compression level to use.
+	 * @return See above.
+	 * @throws RenderingServiceException If an error occurred while setting
+     * the value.
+     * @throws DSOutOfServiceException If the connection is broken.
+	 */
+	private BufferedImage renderCompressedBI(PlaneDef pDef, int level)
+		throws RenderingServiceException, DSOutOfServiceException
+	{
+		servantLock.writeLock().lock();
+		try {
+			if (suspended) resume();
+			try {
+				servant.setCompressionLevel(
+						PixelsServicesFactory.getCompressionQuality(level));
+			} catch (Throwable e) {
+				handleException(e, ERROR+"compression level.");
+				return null;
+			}
+			try {
+				return renderCompressedBI(pDef);
+			} finally {
+				try {
+					servant.setCompressionLevel(
+						PixelsServicesFactory.getCompressionQuality(
+								compression));
+				} catch (Throwable e) {
+					handleException(e, ERROR+"compression level.");
+				}
+			}
+		} finally {
+			servantLock.writeLock().unlock();
+		}
+	}
+
 	/**
 	 * Renders the image without compression.
 	 * 
@@ -496,6 +718,279 @@ class RenderingControlProxy
         return img;
 	}
 
+	/**
+	 * Renders the specified plane in the background on behalf of the
+	 * {@link PlanePrefetcher}. Unlike the other rendering methods, this
+	 * method does not modify the state of the proxy.
+	 *
+	 * @param pDef The plane to render.
+	 * @return See above.
+	 * @throws Exception If an error occurred while rendering the plane.
+	 */
+	private BufferedImage renderInBackground(PlaneDef pDef)
+		throws Exception
+	{
+		if (shutDown || suspended) return null;
+		flushSettings();
+		servantLock.readLock().lock();
+		try {
+			if (isCompressed())
+				return WriterImage.bytesToImage(
+						servant.renderCompressed(pDef));
+			int[] buf = servant.renderAsPackedInt(pDef);
+			Point p = getSize(pDef);
+			return Factory.createImage(buf, 32, p.x, p.y);
+		} finally {
+			servantLock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns <code>true</code> if the specified plane can be rendered on
+	 * the client, <code>false</code> otherwise. The raw pixels values are
+	 * only loaded if the settings of the last rendered plane are modified,
+	 * browsing to another plane uses the server unless the values are
+	 * already cached.
+	 *
+	 * @param pDef The plane to render.
+	 * @param def The rendering settings to use.
+	 * @return See above.
+	 */
+	private boolean shouldRenderLocally(PlaneDef pDef, RndProxyDef def)
+	{
+		if (!canRenderLocally(pDef, def)) return false;
+		if (pDef.z == lastRenderedZ && pDef.t == lastRenderedT) return true;
+		List<Integer> channels = LocalRenderer.getRenderedChannels(def);
+		Iterator<Integer> i = channels.iterator();
+		while (i.hasNext()) {
+			if (rawCache.get(new RawPlaneCache.RawPlaneKey(getPixelsID(),
+					pDef.z, pDef.t, i.next())) == null)
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns <code>true</code> if the specified plane can be rendered on
+	 * the client using the passed settings i.e. if the settings are
+	 * supported and the raw pixels values of the rendered channels fit in
+	 * the cache, <code>false</code> otherwise.
+	 *
+	 * @param pDef The plane to render.
+	 * @param def The rendering settings to use.
+	 * @return See above.
+	 */
+	private boolean canRenderLocally(PlaneDef pDef, RndProxyDef def)
+	{
+		if (rawCache == null) return false;
+		if (pDef.slice != omero.romio.XY.value || pDef.region != null)
+			return false;
+		if (isBigImage() || !LocalRenderer.canRender(def)) return false;
+		List<Integer> channels = LocalRenderer.getRenderedChannels(def);
+		long n = 4L*getPixelsDimensionsX()*getPixelsDimensionsY()*
+				channels.size();
+		return rawCache.canHold(n);
+	}
+
+	/**
+	 * Renders the plane on the client using the raw pixels values.
+	 * Returns <code>null</code> if the values could not be loaded, the
+	 * plane will then be rendered by the server.
+	 *
+	 * @param pDef The plane to render.
+	 * @param def The rendering settings to use.
+	 * @return See above.
+	 */
+	private BufferedImage renderLocally(PlaneDef pDef, RndProxyDef def)
+	{
+		int sizeX = getPixelsDimensionsX();
+		int sizeY = getPixelsDimensionsY();
+		List<Integer> channels = LocalRenderer.getRenderedChannels(def);
+		float[][] planes = new float[getPixelsDimensionsC()][];
+		Iterator<Integer> i = channels.iterator();
+		int c;
+		try {
+			while (i.hasNext()) {
+				c = i.next();
+				planes[c] = getRawPlane(pDef.z, pDef.t, c, sizeX, sizeY);
+			}
+			int[] buf = LocalRenderer.render(def, planes, sizeX, sizeY);
+			return Factory.createImage(buf, 32, sizeX, sizeY);
+		} catch (Throwable e) {
+			log("Cannot render locally: "+printErrorText(e));
+		}
+		return null;
+	}
+
+	/**
+	 * Projects the z-sections on the client using the raw pixels values
+	 * and renders the projection. Returns <code>null</code> if the
+	 * projection cannot be computed on the client, e.g. the settings are not
+	 * supported or the z-sections do not fit in the cache, the projection
+	 * will then be computed by the server.
+	 * The projection of each channel is kept so that only the z-sections
+	 * added to or removed from the interval are processed when the interval
+	 * is modified.
+	 *
+	 * @param startZ The first optical section.
+	 * @param endZ The last optical section.
+	 * @param stepping The stepping of the projection.
+	 * @param type The projection type.
+	 * @param channels The channels to project.
+	 * @return See above.
+	 */
+	private BufferedImage renderProjectedLocally(int startZ, int endZ,
+			int stepping, int type, List<Integer> channels)
+	{
+		if (projector == null || isBigImage()) return null;
+		RndProxyDef def = rndDef.copy();
+		ChannelBindingsProxy cb;
+		for (int i = 0; i < getPixelsDimensionsC(); i++) {
+			cb = def.getChannel(i);
+			if (cb != null) cb.setActive(channels.contains(i));
+		}
+		if (!LocalRenderer.canRender(def)) return null;
+		final int sizeX = getPixelsDimensionsX();
+		final int sizeY = getPixelsDimensionsY();
+		Set<Integer> sections = LocalProjector.getSections(startZ, endZ,
+				stepping);
+		List<Integer> rendered = LocalRenderer.getRenderedChannels(def);
+		long n = 4L*sizeX*sizeY*rendered.size()*sections.size();
+		if (!rawCache.canHold(n)) return null;
+		LocalProjector.PlaneSource source = new LocalProjector.PlaneSource() {
+
+			public float[] getPlane(int z, int t, int c)
+				throws Exception
+			{
+				return getRawPlane(z, t, c, sizeX, sizeY);
+			}
+		};
+		float[][] planes = new float[getPixelsDimensionsC()][];
+		int t = getDefaultT();
+		try {
+			for (Integer c : rendered) {
+				planes[c] = projector.project(c, t, sections, type,
+						def.getChannel(c).getUpperBound(), sizeX*sizeY,
+						source);
+			}
+			int[] buf = LocalRenderer.render(def, planes, sizeX, sizeY);
+			return Factory.createImage(buf, 32, sizeX, sizeY);
+		} catch (Throwable e) {
+			log("Cannot project locally: "+printErrorText(e));
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the raw pixels values of the specified plane, the values are
+	 * loaded and cached if not already cached.
+	 *
+	 * @param z The z-section.
+	 * @param t The timepoint.
+	 * @param c The channel.
+	 * @param sizeX The number of pixels along the X-axis.
+	 * @param sizeY The number of pixels along the Y-axis.
+	 * @return See above.
+	 * @throws Exception If an error occurred while loading the values.
+	 */
+	private float[] getRawPlane(int z, int t, int c, int sizeX, int sizeY)
+		throws Exception
+	{
+		RawPlaneCache.RawPlaneKey key = new RawPlaneCache.RawPlaneKey(
+				getPixelsID(), z, t, c);
+		float[] plane = rawCache.get(key);
+		if (plane == null) {
+			plane = loadRawPlane(z, t, c, sizeX, sizeY);
+			rawCache.put(key, plane);
+		}
+		return plane;
+	}
+
+	/**
+	 * Renders the plane on the server with only the active channels of the
+	 * passed settings and their color model. The channels of the rendering
+	 * engine are switched while the plane is rendered then reset to the
+	 * current settings.
+	 *
+	 * @param pDef The plane to render.
+	 * @param def The rendering settings to use.
+	 * @return See above.
+	 * @throws Exception If an error occurred while rendering the plane.
+	 */
+	private BufferedImage renderChannelsOnServer(PlaneDef pDef,
+			RndProxyDef def)
+		throws Exception
+	{
+		int n = getPixelsDimensionsC();
+		ChannelBindingsProxy c;
+		servantLock.writeLock().lock();
+		try {
+			for (int i = 0; i < n; i++) {
+				c = def.getChannel(i);
+				servant.setActive(i, c != null && c.isActive());
+			}
+			setServantModel(def.getColorModel());
+			return renderInBackground(pDef);
+		} finally {
+			try {
+				for (int i = 0; i < n; i++)
+					servant.setActive(i, isActive(i));
+				setServantModel(rndDef.getColorModel());
+			} finally {
+				servantLock.writeLock().unlock();
+			}
+		}
+	}
+
+	/**
+	 * Sets the color model of the rendering engine without modifying the
+	 * rendering settings.
+	 *
+	 * @param value The color model to set.
+	 * @throws Exception If an error occurred while setting the model.
+	 */
+	private void setServantModel(String value)
+		throws Exception
+	{
+		Iterator i = models.iterator();
+		RenderingModel model;
+		while (i.hasNext()) {
+			model = (RenderingModel) i.next();
+			if (model.getValue().getValue().equals(value)) {
+				servant.setModel(model);
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Loads the raw pixels values of the specified plane.
+	 *
+	 * @param z The z-section.
+	 * @param t The timepoint.
+	 * @param c The channel.
+	 * @param sizeX The number of pixels along the X-axis.
+	 * @param sizeY The number of pixels along the Y-axis.
+	 * @return See above.
+	 * @throws Exception If an error occurred while loading the values.
+	 */
+	private float[] loadRawPlane(int z, int t, int c, int sizeX, int sizeY)
+		throws Exception
+	{
+		try (RawDataFacility f = context.getGateway().getFacility(
+				RawDataFacility.class)) {
+			Plane2D data = f.getPlane(ctx, new PixelsData(pixs), z, t, c);
+			monitor.success(ctx);
+			float[] values = new float[sizeX*sizeY];
+			int index = 0;
+			for (int y = 0; y < sizeY; y++) {
+				for (int x = 0; x < sizeX; x++)
+					values[index++] = (float) data.getPixelValue(x, y);
+			}
+			return values;
+		}
+	}
+
 	/**
 	 * Projects the selected section of the optical sections
 	 * and renders a compressed image.
@@ -566,18 +1061,22 @@ class RenderingControlProxy
         return img;
 	}
 	
-	/** Checks if the proxy is still alive.*/
+	/**
+	 * Checks if the proxy is still alive. The server is only contacted
+	 * if no call succeeded recently.
+	 */
 	private void isSessionAlive()
 		throws RenderingServiceException
 	{
     	lastAction = System.currentTimeMillis();
     	boolean b = false;
 		try {
-			b = context.getImageService().isAlive(ctx);
+			b = monitor.isAlive(ctx);
 			if (!b) {
 			    context.getTaskBar().sessionExpired(
 			            ConnectionExceptionHandler.NETWORK);
 			}
+			if (b && suspended) resume();
 		} catch (DSOutOfServiceException e) {
 			RenderingServiceException ex = new RenderingServiceException(e);
 			ex.setIndex(RenderingServiceException.CONNECTION);
@@ -585,6 +1084,76 @@ class RenderingControlProxy
 		}
 	}
 
+	/**
+	 * Starts new rendering engines if the proxy was suspended and sets the
+	 * rendering settings kept while suspended.
+	 *
+	 * @throws RenderingServiceException If an error occurred while starting
+	 * the engines.
+	 * @throws DSOutOfServiceException If the connection is broken.
+	 */
+	private void resume()
+		throws RenderingServiceException, DSOutOfServiceException
+	{
+		servantLock.writeLock().lock();
+		try {
+			if (!suspended) return;
+			log("Resume rendering engine: PixelsID "+getPixelsID());
+			//The new engines are set by the factory.
+			context.getImageService().reloadRenderingService(ctx,
+					getPixelsID());
+			restoreSettings();
+			Iterator<RenderingControl> i = slaves.iterator();
+			while (i.hasNext())
+				((RenderingControlProxy) i.next()).restoreSettings();
+			suspended = false;
+		} finally {
+			servantLock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Sets the values not set by {@link #setRenderingEngine(RenderingEnginePrx)}
+	 * i.e. the compression, the resolution level, the lookup tables and
+	 * the reverse intensity.
+	 *
+	 * @throws RenderingServiceException If an error occurred while setting
+	 * the values.
+	 * @throws DSOutOfServiceException If the connection is broken.
+	 */
+	private void restoreSettings()
+		throws RenderingServiceException, DSOutOfServiceException
+	{
+		try {
+			servant.setCompressionLevel(
+					PixelsServicesFactory.getCompressionQuality(compression));
+			if (selectedResolutionLevel >= 0)
+				servant.setResolutionLevel(selectedResolutionLevel);
+			ChannelBindingsProxy cb;
+			boolean reverse;
+			for (int i = 0; i < getPixelsDimensionsC(); i++) {
+				cb = rndDef.getChannel(i);
+				if (cb == null) continue;
+				servant.setChannelLookupTable(i, cb.getLookupTable());
+				reverse = false;
+				for (IObject cd : servant.getCodomainMapContext(i)) {
+					if (cd instanceof ReverseIntensityContext) {
+						reverse = true;
+						break;
+					}
+				}
+				if (reverse == cb.getReverseIntensity()) continue;
+				if (reverse)
+					servant.removeCodomainMapFromChannel(
+							new ReverseIntensityMapContext(), i);
+				else servant.addCodomainMapToChannel(
+							new ReverseIntensityMapContext(), i);
+			}
+		} catch (Exception e) {
+			handleException(e, "Cannot reset the rendering engine.");
+		}
+	}
+
 	/**
 	 * Returns the identifier of the user currently logged in.
 	 * 
@@ -610,10 +1179,16 @@ class RenderingControlProxy
 	 * 					  pass the compression used.
 	 * @param rndDefs Local copy of the rendering settings used to
 	 * speed-up the client.
+	 * @param cache The planes already rendered or <code>null</code>.
+	 * @param monitor Keeps track of the liveness of the session.
+	 * Mustn't be <code>null</code>.
+	 * @param rawCache The raw planes used to render on the client or
+	 * <code>null</code> to always render on the server.
      */
     RenderingControlProxy(Registry context, SecurityContext ctx,
     		RenderingEnginePrx re, Pixels pixels, List<ChannelData> m,
-    		int compression, List<RndProxyDef> rndDefs)
+    		int compression, List<RndProxyDef> rndDefs, PlaneCache cache,
+    		SessionMonitor monitor, RawPlaneCache rawCache)
     {
         if (re == null)
             throw new NullPointerException("No rendering engine.");
@@ -623,13 +1198,21 @@ class RenderingControlProxy
             throw new NullPointerException("No registry.");
         if (ctx == null)
             throw new NullPointerException("No security context.");
+        if (monitor == null)
+            throw new NullPointerException("No session monitor.");
         this.ctx = ctx;
+        this.monitor = monitor;
         slaves = new ArrayList<RenderingControl>();
         resolutionLevels = -1;
         selectedResolutionLevel = -1;
         lastAction = System.currentTimeMillis();
         shutDown = false;
         this.context = context;
+        this.cache = cache;
+        this.rawCache = rawCache;
+        if (rawCache != null) projector = new LocalProjector();
+        lastRenderedZ = -1;
+        lastRenderedT = -1;
         servant = re;
         pixs = pixels;
         families = null;
@@ -691,6 +1274,8 @@ class RenderingControlProxy
         try {
             servant.loadRenderingDef(rndId);
             servant.load();
+            clearModified();
+            invalidateCache();
         } catch (Throwable e) {
             handleException(e, "An error occurred while loading the settings.");
         }
@@ -716,6 +1301,37 @@ class RenderingControlProxy
     	if (slaves == null) return;
     	this.slaves = slaves;
     }
+
+    /**
+     * Renders ahead, using the passed executor, the planes likely to be
+     * viewed next. This is only supported if the planes are cached and the
+     * image is not a big image.
+     *
+     * @param lookAhead The maximum number of planes to render ahead.
+     * @param executor The executor running the tasks.
+     */
+    void enablePrefetch(int lookAhead, ExecutorService executor)
+    {
+    	if (lookAhead <= 0 || executor == null) return;
+    	if (cache == null || !cache.isEnabled() || isBigImage()) return;
+    	prefetcher = new PlanePrefetcher(lookAhead, getPixelsDimensionsZ(),
+    			getPixelsDimensionsT(), cache,
+    			new PlanePrefetcher.PlaneLoader() {
+
+    		public PlaneCache.PlaneKey getKey(PlaneDef pDef)
+    		{
+    			return new PlaneCache.PlaneKey(getPixelsID(), pDef,
+    					getSelectedResolutionLevel(), compression,
+    					rndDef.getFingerprint());
+    		}
+
+    		public BufferedImage load(PlaneDef pDef)
+    			throws Exception
+    		{
+    			return renderInBackground(pDef);
+    		}
+    	}, executor);
+    }
     
     /**
      * Resets the rendering engine.
@@ -739,6 +1355,7 @@ class RenderingControlProxy
     	this.servant = servant;
     	shutDown = false;
     	lastAction = System.currentTimeMillis();
+    	invalidateCache();
     	try {
     		if (rndDef == null) {
             	initialize();
@@ -820,11 +1437,72 @@ class RenderingControlProxy
                 rgba = cb.getRGBA();
                 servant.setRGBA(i, rgba[0], rgba[1], rgba[2], rgba[3]);
             }
+            clearModified();
 		} catch (Exception e) {
 			handleException(e, "Cannot reset the rendering engine.");
 		}
     }
 
+    /**
+     * Closes the rendering engines to release the resources used on the
+     * server and the planes cached. The rendering settings are kept and
+     * set again when the engines are started on the next call. Returns
+     * <code>true</code> if the proxy was suspended, <code>false</code>
+     * otherwise.
+     *
+     * @return See above.
+     */
+    boolean suspend()
+    {
+    	if (shutDown || suspended) return false;
+    	servantLock.writeLock().lock();
+    	try {
+    		if (shutDown || suspended) return false;
+    		if (prefetcher != null) prefetcher.cancel();
+    		//The settings not sent yet are set when resumed.
+    		context.getImageService().suspendRenderingControl(ctx,
+    				getPixelsID());
+    		suspended = true;
+    		long id = getPixelsID();
+    		if (cache != null) cache.invalidate(id);
+    		if (rawCache != null) rawCache.invalidate(id);
+    		if (projector != null) projector.clear();
+    		return true;
+    	} catch (Exception e) {
+    		log("Cannot suspend the rendering engine: "+e);
+    	} finally {
+    		servantLock.writeLock().unlock();
+    	}
+    	return false;
+    }
+
+    /**
+     * Returns <code>true</code> if the rendering engines have been closed
+     * to release the resources, <code>false</code> otherwise.
+     *
+     * @return See above.
+     */
+    boolean isSuspended() { return suspended; }
+
+    /**
+     * Returns the number of rendering engines currently open for the
+     * proxy, including the slaves.
+     *
+     * @return See above.
+     */
+    int getEngineCount()
+    {
+    	if (shutDown || suspended) return 0;
+    	return 1+slaves.size();
+    }
+
+    /**
+     * Returns the time of the last interaction.
+     *
+     * @return See above.
+     */
+    long getLastAction() { return lastAction; }
+
     /** 
      * Shuts down the service. Returns <code>true</code> if the proxy
      * was already shut down, <code>false</code> otherwise.
@@ -833,6 +1511,7 @@ class RenderingControlProxy
     boolean shutDown()
     {
     	if (shutDown) return shutDown;
+    	if (prefetcher != null) prefetcher.cancel();
     	try {
     		Iterator<RenderingControl> j = slaves.iterator();
 			while (j.hasNext())
@@ -858,10 +1537,16 @@ class RenderingControlProxy
             while (i.hasNext()) {
                 model= (RenderingModel) i.next();
                 if (model.getValue().getValue().equals(value)) {
-                    servant.setModel(model);
-                    rndDef.setColorModel(value);
+                	servantLock.writeLock().lock();
+                	try {
+                		servant.setModel(model);
+                		rndDef.setColorModel(value);
+                	} finally {
+                		servantLock.writeLock().unlock();
+                	}
                 }
             }
+            invalidateCache();
             Iterator<RenderingControl> j = slaves.iterator();
 			while (j.hasNext())
 				j.next().setModel(value);
@@ -944,6 +1629,7 @@ class RenderingControlProxy
     		checkBitResolution(bitResolution);
             servant.setQuantumStrategy(bitResolution);
             rndDef.setBitResolution(bitResolution);
+            invalidateCache();
             Iterator<RenderingControl> j = slaves.iterator();
 			while (j.hasNext())
 				j.next().setQuantumStrategy(bitResolution);
@@ -963,6 +1649,7 @@ class RenderingControlProxy
     	try {
     		servant.setCodomainInterval(start, end);
             rndDef.setCodomain(start, end);
+            invalidateCache();
             Iterator<RenderingControl> i = slaves.iterator();
             while (i.hasNext())
                 i.next().setCodomainInterval(start, end);
@@ -981,18 +1668,12 @@ class RenderingControlProxy
     {
     	isSessionAlive();
     	try {
-    		List list = servant.getAvailableFamilies();
-            Iterator i = list.iterator();
-            Family family;
-            while (i.hasNext()) {
-                family = (Family) i.next();
-                if (family.getValue().getValue().equals(value)) {
-                    servant.setQuantizationMap(index, family, coefficient,
-                                                noiseReduction);
-                    rndDef.getChannel(index).setQuantization(value, coefficient,
-                                                noiseReduction);
-                }
-            }
+    		if (getFamily(value) != null) {
+    			rndDef.getChannel(index).setQuantization(value, coefficient,
+    					noiseReduction);
+    			setModified(index, MAP);
+    		}
+            invalidateCache();
             Iterator<RenderingControl> j = slaves.iterator();
 			while (j.hasNext())
 				j.next().setQuantizationMap(index, value, coefficient,
@@ -1044,8 +1725,9 @@ class RenderingControlProxy
     {
     	isSessionAlive();
     	try {
-    		servant.setChannelWindow(index, start, end);
             rndDef.getChannel(index).setInterval(start, end);
+            setModified(index, WINDOW);
+            invalidateCache();
             Iterator<RenderingControl> i = slaves.iterator();
     		while (i.hasNext())
     			i.next().setChannelWindow(index, start, end);
@@ -1085,10 +1767,10 @@ class RenderingControlProxy
     {
     	isSessionAlive();
     	try {
-    		servant.setRGBA(index, c.getRed(), c.getGreen(), c.getBlue(),
-    						c.getAlpha());
     		rndDef.getChannel(index).setRGBA(c.getRed(), c.getGreen(), c.getBlue(),
     						c.getAlpha());
+    		setModified(index, COLOR);
+    		invalidateCache();
     		Iterator<RenderingControl> j = slaves.iterator();
 			while (j.hasNext())
 				j.next().setRGBA(index, c);
@@ -1118,8 +1800,14 @@ class RenderingControlProxy
     { 
     	isSessionAlive();
     	try {
-    		servant.setActive(index, active);
-            rndDef.getChannel(index).setActive(active);
+    		servantLock.writeLock().lock();
+    		try {
+    			servant.setActive(index, active);
+    			rndDef.getChannel(index).setActive(active);
+    		} finally {
+    			servantLock.writeLock().unlock();
+    		}
+            invalidateCache();
             Iterator<RenderingControl> i = slaves.iterator();
     		while (i.hasNext())
     			i.next().setActive(index, active);
@@ -1153,6 +1841,7 @@ class RenderingControlProxy
         try {
             omero.romio.ReverseIntensityMapContext c = new omero.romio.ReverseIntensityMapContext();
             servant.addCodomainMapToChannel(c, index);
+            invalidateCache();
         } catch (Exception e) {
             handleException(e, ERROR+"cannot set the map context.");
         }
@@ -1185,6 +1874,7 @@ class RenderingControlProxy
         try {
             omero.romio.ReverseIntensityMapContext c = new omero.romio.ReverseIntensityMapContext();
             servant.removeCodomainMapFromChannel(c, index);
+            invalidateCache();
         } catch (Exception e) {
             handleException(e, ERROR+"cannot set the map context.");
         }
@@ -1221,6 +1911,7 @@ class RenderingControlProxy
         isSessionAlive();
         Iterator<RenderingControl> i = slaves.iterator();
         try {
+            flushSettings();
             long userID = getUserID();
             long ownerID = rndDef.getOwnerID();
             if (userID == ownerID) {
@@ -1257,6 +1948,7 @@ class RenderingControlProxy
     		while (i.hasNext())
 				i.next().resetDefaults();
     		initialize();
+    		invalidateCache();
 		} catch (Throwable e) {
 			handleException(e, ERROR+"default settings.");
 		}
@@ -1531,24 +2223,203 @@ class RenderingControlProxy
     {
     	if (pDef == null) 
              throw new IllegalArgumentException("Plane def cannot be null.");
-    	try {
-    	    context.getImageService().isAlive(ctx);
-			servant.ice_ping();
-		} catch (Exception e) {
-			return null;
-		}
+    	//The settings may be modified while the plane is rendered.
+    	RndProxyDef def = rndDef.copy();
+    	//The tiles of a big image are requested in bursts, only the planes
+    	//indicate that the user is browsing the image.
+    	boolean interactive = pDef.region == null &&
+    			throughput.request(System.currentTimeMillis());
+    	PlaneCache.PlaneKey key = null;
+    	if (cache != null && cache.isEnabled()) {
+    		key = new PlaneCache.PlaneKey(getPixelsID(), pDef,
+    				getSelectedResolutionLevel(), value,
+    				def.getFingerprint());
+    		BufferedImage img = cache.get(key);
+    		if (img != null) {
+    			degraded = false;
+    			lastAction = System.currentTimeMillis();
+    			if (prefetcher != null) prefetcher.moved(pDef);
+    			return img;
+    		}
+    	}
     	retry = 0;
     	//since this method is always invoked after another change in
     	//the settings and due to the fact that the proxy is usually invoked
     	//in the swing thread.
-    	if (value != compression) setCompression(value);
-    	BufferedImage img;
-        if (isCompressed()) img = renderCompressedBI(pDef);
-        else img = renderUncompressed(pDef);
-        if (value != compression) setCompression(compression);
+    	BufferedImage img = null;
+    	int level = value;
+    	if (shouldRenderLocally(pDef, def)) {
+    		img = renderLocally(pDef, def);
+    		if (img != null) imageSize = 3*img.getWidth()*img.getHeight();
+    	}
+    	boolean server = img == null;
+    	if (server) {
+    		//Only contact the server if the state of the session is unknown.
+    		//A failure while rendering is handled by the reconnection logic.
+    		try {
+    			monitor.isAlive(ctx);
+    		} catch (Exception e) {
+    			return null;
+    		}
+    		if (suspended) resume();
+    		try {
+    			flushSettings();
+    		} catch (Exception e) {
+    			handleException(e, ERROR+"channels.");
+    		}
+    		level = throughput.select(value, interactive);
+    		long start = System.currentTimeMillis();
+    		if (level != value) {
+    			img = renderCompressedBI(pDef, level);
+    		} else {
+    			//Do not render while the channels are switched for the
+    			//split view. The compression level of the engine is only
+    			//switched while holding the write lock.
+    			int selected = compression;
+    			Lock lock = value != selected ? servantLock.writeLock() :
+    				servantLock.readLock();
+    			lock.lock();
+    			while (suspended) {
+    				//Suspended since the check.
+    				lock.unlock();
+    				resume();
+    				lock.lock();
+    			}
+    			try {
+    				if (value != selected) setCompression(value);
+    				try {
+    					if (isCompressed()) img = renderCompressedBI(pDef);
+    					else img = renderUncompressed(pDef);
+    				} finally {
+    					if (value != selected) setCompression(selected);
+    				}
+    			} finally {
+    				lock.unlock();
+    			}
+    		}
+    		if (img != null)
+    			throughput.record(level, System.currentTimeMillis()-start);
+    	}
+        if (img != null) {
+        	//The session is only known to be alive if the server was used.
+        	if (server) monitor.success(ctx);
+        	degraded = level != value;
+        	lastRenderedZ = pDef.z;
+        	lastRenderedT = pDef.t;
+        	//Do not cache a plane rendered with outdated settings or
+        	//with a stronger compression than requested.
+        	if (key != null && !degraded &&
+        			def.getFingerprint() == rndDef.getFingerprint())
+        		cache.put(key, img);
+        	if (prefetcher != null) prefetcher.moved(pDef);
+        }
         return img;
     }
     
+    /** 
+	 * Implemented as specified by {@link RenderingControl}.
+	 * @see RenderingControl#renderAtResolutionLevel(PlaneDef, int)
+	 */
+    public BufferedImage renderAtResolutionLevel(PlaneDef pDef, int level)
+    	throws RenderingServiceException, DSOutOfServiceException
+    {
+    	if (pDef == null) 
+            throw new IllegalArgumentException("Plane def cannot be null.");
+    	if (level == getSelectedResolutionLevel()) return render(pDef);
+    	RndProxyDef def = rndDef.copy();
+    	PlaneCache.PlaneKey key = null;
+    	if (cache != null && cache.isEnabled()) {
+    		key = new PlaneCache.PlaneKey(getPixelsID(), pDef, level,
+    				compression, def.getFingerprint());
+    		BufferedImage img = cache.get(key);
+    		if (img != null) return img;
+    	}
+    	isSessionAlive();
+    	if (suspended) resume();
+    	try {
+    		flushSettings();
+    	} catch (Exception e) {
+    		handleException(e, ERROR+"channels.");
+    	}
+    	//Only the level of this engine is switched, not the selected level
+    	//nor the slaves. The other planes cannot be rendered until the
+    	//level is restored.
+    	BufferedImage img = null;
+    	servantLock.writeLock().lock();
+    	try {
+    		int selected = getSelectedResolutionLevel();
+    		try {
+    			servant.setResolutionLevel(level);
+    		} catch (Exception e) {
+    			handleException(e, ERROR+" resolution level: "+level);
+    			return null;
+    		}
+    		try {
+    			retry = 0;
+    			if (isCompressed()) img = renderCompressedBI(pDef);
+    			else img = renderUncompressed(pDef);
+    		} finally {
+    			try {
+    				servant.setResolutionLevel(selected);
+    			} catch (Exception e) {
+    				//reset the level next time it is requested.
+    				selectedResolutionLevel = -1;
+    			}
+    		}
+    	} finally {
+    		servantLock.writeLock().unlock();
+    	}
+    	if (img != null) {
+    		monitor.success(ctx);
+    		if (key != null && def.getFingerprint() == rndDef.getFingerprint())
+    			cache.put(key, img);
+    	}
+    	return img;
+    }
+    
+    /** 
+	 * Implemented as specified by {@link RenderingControl}.
+	 * @see RenderingControl#renderChannels(PlaneDef, List, String)
+	 */
+    public BufferedImage renderChannels(PlaneDef pDef, List<Integer> channels,
+    		String colorModel)
+    	throws RenderingServiceException, DSOutOfServiceException
+    {
+    	if (pDef == null) 
+            throw new IllegalArgumentException("Plane def cannot be null.");
+    	if (channels == null)
+    		throw new IllegalArgumentException("No channels to render.");
+    	RndProxyDef def = rndDef.copy();
+    	if (colorModel != null) def.setColorModel(colorModel);
+    	ChannelBindingsProxy c;
+    	for (int i = 0; i < getPixelsDimensionsC(); i++) {
+    		c = def.getChannel(i);
+    		if (c != null) c.setActive(channels.contains(i));
+    	}
+    	PlaneCache.PlaneKey key = null;
+    	BufferedImage img = null;
+    	if (cache != null && cache.isEnabled()) {
+    		key = new PlaneCache.PlaneKey(getPixelsID(), pDef,
+    				getSelectedResolutionLevel(), compression,
+    				def.getFingerprint());
+    		img = cache.get(key);
+    		if (img != null) return img;
+    	}
+    	isSessionAlive();
+    	//The raw planes are loaded and rendered without the rendering engine
+    	//so the channels can be rendered in parallel.
+    	if (canRenderLocally(pDef, def)) img = renderLocally(pDef, def);
+    	if (img == null) {
+    		try {
+    			img = renderChannelsOnServer(pDef, def);
+    		} catch (Throwable e) {
+    			handleException(e, ERROR_RENDER+"the channels "+channels+".");
+    		}
+    	}
+    	if (img != null && key != null) cache.put(key, img);
+    	return img;
+    }
+
     /** 
 	 * Implemented as specified by {@link RenderingControl}.
 	 * @see RenderingControl#setCompression(int)
@@ -1582,6 +2453,12 @@ class RenderingControlProxy
 	 */
 	public int getCompressionLevel() { return compression; }
 
+	/** 
+	 * Implemented as specified by {@link RenderingControl}.
+	 * @see RenderingControl#isDegraded()
+	 */
+	public boolean isDegraded() { return degraded; }
+
 	/** 
 	 * Implemented as specified by {@link RenderingControl}.
 	 * @see RenderingControl#setOriginalRndSettings()
@@ -1613,6 +2490,7 @@ class RenderingControlProxy
     					m.getGlobalMax());
     		}
     		initialize();
+    		invalidateCache();
     		Iterator<RenderingControl> i = slaves.iterator();
 			while (i.hasNext())
 				i.next().setOriginalRndSettings();
@@ -1629,6 +2507,9 @@ class RenderingControlProxy
 			                           int type, List<Integer> channels) 
 		throws RenderingServiceException, DSOutOfServiceException
 	{
+		BufferedImage img = renderProjectedLocally(startZ, endZ, stepping,
+				type, channels);
+		if (img != null) return img;
 		List<Integer> active = getActiveChannels();
 		for (int i = 0; i < getPixelsDimensionsC(); i++) 
 			setActive(i, false);
@@ -1636,8 +2517,12 @@ class RenderingControlProxy
 		Iterator<Integer> j = channels.iterator();
 		while (j.hasNext()) 
 			setActive(j.next(), true);
-		BufferedImage img;
 		retry = 0;
+		try {
+			flushSettings();
+		} catch (Exception e) {
+			handleException(e, ERROR+"channels.");
+		}
         if (isCompressed()) 
         	img = renderProjectedCompressed(startZ, endZ, stepping, type);
         else img = renderProjectedUncompressed(startZ, endZ, stepping, type);
@@ -1874,8 +2759,14 @@ class RenderingControlProxy
 			level = getResolutionLevels();
 		isSessionAlive();
 		try {
-			servant.setResolutionLevel(level);
-			selectedResolutionLevel = level;
+			//Wait for a plane rendered at another level.
+			servantLock.writeLock().lock();
+			try {
+				servant.setResolutionLevel(level);
+				selectedResolutionLevel = level;
+			} finally {
+				servantLock.writeLock().unlock();
+			}
 			Iterator<RenderingControl> j = slaves.iterator();
 			while (j.hasNext())
 				j.next().setSelectedResolutionLevel(level);
@@ -1927,7 +2818,7 @@ class RenderingControlProxy
 	 * Implemented as specified by {@link RenderingControl}.
 	 * @see RenderingControl#isShutDown()
 	 */
-    public boolean isShutDown() { return shutDown; }
+    public boolean isShutDown() { return shutDown || suspended; }
 
     /** 
 	 * Implemented as specified by {@link RenderingControl}.
@@ -2049,6 +2940,7 @@ class RenderingControlProxy
             ChannelBindingsProxy channel = rndDef.getChannel(index);
             if (channel != null)
                 channel.setReverseIntensity(revInt);
+            invalidateCache();
         } catch (Exception e) {
             handleException(e, ERROR
                     + " setting reverse intensity for channel: " + index + ".");
@@ -2072,6 +2964,7 @@ class RenderingControlProxy
             ChannelBindingsProxy channel = rndDef.getChannel(index);
             if (channel != null)
                 channel.setLookupTable(lut);
+            invalidateCache();
         } catch (Exception e) {
             handleException(e, ERROR + " lookup up table for channel: " + index
                     + ".");
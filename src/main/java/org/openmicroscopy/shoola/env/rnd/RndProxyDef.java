@@ -266,6 +266,46 @@ public class RndProxyDef
         this.compression = compression;
     }
 
+    /**
+     * Returns a fingerprint of the settings used to render a plane i.e.
+     * all the settings but the selected plane and the compression.
+     * Two definitions with the same settings have the same fingerprint.
+     *
+     * @return See above.
+     */
+    long getFingerprint()
+    {
+        long h = bitResolution;
+        h = 31*h+cdStart;
+        h = 31*h+cdEnd;
+        h = 31*h+(colorModel == null ? 0 : colorModel.hashCode());
+        Iterator<Integer> i = channels.keySet().iterator();
+        Integer index;
+        ChannelBindingsProxy c;
+        int[] rgba;
+        while (i.hasNext()) {
+            index = i.next();
+            c = channels.get(index);
+            h = 31*h+index;
+            if (c == null) continue;
+            h = 31*h+(c.isActive() ? 1 : 0);
+            h = 31*h+Double.doubleToLongBits(c.getInputStart());
+            h = 31*h+Double.doubleToLongBits(c.getInputEnd());
+            h = 31*h+Double.doubleToLongBits(c.getCurveCoefficient());
+            h = 31*h+(c.getFamily() == null ? 0 : c.getFamily().hashCode());
+            h = 31*h+(c.isNoiseReduction() ? 1 : 0);
+            h = 31*h+(c.getReverseIntensity() ? 1 : 0);
+            h = 31*h+(c.getLookupTable() == null ? 0 :
+                c.getLookupTable().hashCode());
+            rgba = c.getRGBA();
+            if (rgba != null) {
+                for (int j = 0; j < rgba.length; j++)
+                    h = 31*h+rgba[j];
+            }
+        }
+        return h;
+    }
+
     /**
      * Creates and returns a copy of the element.
      * 
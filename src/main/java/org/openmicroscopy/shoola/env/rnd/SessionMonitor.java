@@ -0,0 +1,227 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.env.rnd;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.openmicroscopy.shoola.env.config.Registry;
+
+import omero.gateway.SecurityContext;
+import omero.gateway.exception.DSOutOfServiceException;
+
+/**
+ * Keeps track of the liveness of the sessions used by the rendering proxies
+ * so that the proxies do not have to contact the server before each call.
+ * <p>The time of the last successful call is recorded for each
+ * security context. A session is considered alive if a call succeeded
+ * within the heartbeat interval. A background heartbeat checks the sessions
+ * that have been idle for longer than the interval. A failed call or a
+ * failed heartbeat clears the recorded state so the next call checks the
+ * session again. The sessions not used for {@link #MAX_IDLE} intervals are
+ * no longer checked, so that the heartbeat does not keep them alive.</p>
+ * Once stopped, the monitor cannot be restarted.
+ *
+ * @author agent &nbsp;&nbsp;&nbsp;&nbsp;
+ * <a href="mailto:agent@local">agent@local</a>
+ * @since 5.6.3
+ */
+class SessionMonitor
+{
+
+    /** The default interval between two heartbeats, in milliseconds. */
+    static final long HEARTBEAT = 30000;
+
+    /**
+     * The number of intervals after which a session not used is no longer
+     * checked.
+     */
+    static final int MAX_IDLE = 10;
+
+    /** Reference to the registry. */
+    private final Registry context;
+
+    /** The interval between two heartbeats, in milliseconds. */
+    private final long interval;
+
+    /** The time of the last successful call for each security context. */
+    private final Map<SecurityContext, Long> lastSuccess;
+
+    /**
+     * The time of the last call made by a rendering proxy for each
+     * security context, the heartbeat excluded.
+     */
+    private final Map<SecurityContext, Long> lastUse;
+
+    /** The timer running the heartbeat or <code>null</code>. */
+    private Timer timer;
+
+    /** Flag indicating that the monitor has been stopped. */
+    private boolean stopped;
+
+    /**
+     * Checks the sessions that have been idle for too long. The sessions
+     * not used for {@link #MAX_IDLE} intervals are forgotten.
+     *
+     * @param now The current time in milliseconds.
+     */
+    void heartbeat(long now)
+    {
+        Iterator<Entry<SecurityContext, Long>> i =
+                lastSuccess.entrySet().iterator();
+        Entry<SecurityContext, Long> e;
+        SecurityContext ctx;
+        Long used;
+        while (i.hasNext()) {
+            e = i.next();
+            if (now-e.getValue().longValue() < interval) continue;
+            ctx = e.getKey();
+            used = lastUse.get(ctx);
+            if (used == null || now-used.longValue() > MAX_IDLE*interval) {
+                i.remove();
+                lastUse.remove(ctx);
+                continue;
+            }
+            try {
+                if (context.getImageService().isAlive(ctx))
+                    lastSuccess.put(ctx, System.currentTimeMillis());
+                else failure(ctx);
+            } catch (Exception ex) {
+                context.getLogger().debug(this, "Heartbeat failed: "+ex);
+                failure(ctx);
+            }
+        }
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param context Reference to the registry. Mustn't be <code>null</code>.
+     * @param interval The interval between two heartbeats, in milliseconds.
+     *                 If not positive, the default value is used.
+     */
+    SessionMonitor(Registry context, long interval)
+    {
+        if (context == null)
+            throw new NullPointerException("No registry.");
+        this.context = context;
+        this.interval = interval > 0 ? interval : HEARTBEAT;
+        lastSuccess = new ConcurrentHashMap<SecurityContext, Long>();
+        lastUse = new ConcurrentHashMap<SecurityContext, Long>();
+    }
+
+    /**
+     * Records that a call made using the specified context succeeded.
+     *
+     * @param ctx The security context.
+     */
+    void success(SecurityContext ctx)
+    {
+        if (ctx == null) return;
+        synchronized (this) {
+            if (stopped) return;
+            long now = System.currentTimeMillis();
+            lastSuccess.put(ctx, now);
+            lastUse.put(ctx, now);
+            if (timer != null) return;
+            timer = new Timer("Session heartbeat", true);
+            timer.schedule(new TimerTask() {
+                public void run() { heartbeat(System.currentTimeMillis()); }
+            }, interval, interval);
+        }
+    }
+
+    /**
+     * Records that a call made using the specified context failed.
+     * The session will be checked again before the next call.
+     *
+     * @param ctx The security context.
+     */
+    void failure(SecurityContext ctx)
+    {
+        if (ctx == null) return;
+        lastSuccess.remove(ctx);
+        lastUse.remove(ctx);
+    }
+
+    /**
+     * Returns <code>true</code> if a call made using the specified context
+     * succeeded within the heartbeat interval, <code>false</code> otherwise.
+     *
+     * @param ctx The security context.
+     * @return See above.
+     */
+    boolean isKnownAlive(SecurityContext ctx)
+    {
+        if (ctx == null) return false;
+        Long time = lastSuccess.get(ctx);
+        if (time == null) return false;
+        return System.currentTimeMillis()-time.longValue() < 2*interval;
+    }
+
+    /**
+     * Returns <code>true</code> if the session is alive,
+     * <code>false</code> otherwise. The server is only contacted if the
+     * state of the session is unknown.
+     *
+     * @param ctx The security context.
+     * @return See above.
+     * @throws DSOutOfServiceException If the connection is broken.
+     */
+    boolean isAlive(SecurityContext ctx)
+        throws DSOutOfServiceException
+    {
+        if (isKnownAlive(ctx)) {
+            lastUse.put(ctx, System.currentTimeMillis());
+            return true;
+        }
+        try {
+            boolean b = context.getImageService().isAlive(ctx);
+            if (b) success(ctx);
+            else failure(ctx);
+            return b;
+        } catch (DSOutOfServiceException e) {
+            failure(ctx);
+            throw e;
+        }
+    }
+
+    /**
+     * Stops the heartbeat and forgets the state of the sessions. The
+     * heartbeat is not started again.
+     */
+    void stop()
+    {
+        synchronized (this) {
+            stopped = true;
+            if (timer != null) timer.cancel();
+            timer = null;
+            lastSuccess.clear();
+            lastUse.clear();
+        }
+    }
+
+}
@@ -0,0 +1,166 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.env.rnd;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Measures the time taken to retrieve the planes rendered by the server and
+ * selects the compression level to use while the user browses the image.
+ * <p>The time taken to retrieve the frames is averaged for each compression
+ * level. The planes requested in quick succession, e.g. while scrolling
+ * through a stack, are considered interactive. If retrieving an interactive
+ * plane at the requested level takes longer than the target time, the
+ * strongest compression is used instead. Once the interaction stops, the
+ * plane has to be rendered again at the requested level.</p>
+ *
+ * @author agent &nbsp;&nbsp;&nbsp;&nbsp;
+ * <a href="mailto:agent@local">agent@local</a>
+ * @since 5.6.3
+ */
+class ThroughputMonitor
+{
+
+    /** The default time in milliseconds a frame should take to retrieve. */
+    static final long TARGET_TIME = 100;
+
+    /**
+     * The default time in milliseconds between two requests below which
+     * the user is considered to be browsing the image.
+     */
+    static final long INTERACTION_DELAY = 300;
+
+    /** The weight of the last frame in the averages. */
+    private static final double WEIGHT = 0.3;
+
+    /** The time a frame should take to retrieve. */
+    private final long targetTime;
+
+    /** The time between two requests of the same interaction. */
+    private final long interactionDelay;
+
+    /** The average time to retrieve a frame, indexed by compression level. */
+    private final Map<Integer, Double> times;
+
+    /** The time of the last request or <code>-1</code>. */
+    private long lastRequest;
+
+    /**
+     * Returns the updated average.
+     *
+     * @param average The current average or <code>null</code>.
+     * @param value The new value.
+     * @return See above.
+     */
+    private static double average(Double average, double value)
+    {
+        if (average == null) return value;
+        return WEIGHT*value+(1-WEIGHT)*average.doubleValue();
+    }
+
+    /** Creates a new instance with the default values. */
+    ThroughputMonitor()
+    {
+        this(TARGET_TIME, INTERACTION_DELAY);
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param targetTime The time in milliseconds a frame should take to
+     *                   retrieve.
+     * @param interactionDelay The time in milliseconds between two requests
+     *                         of the same interaction.
+     */
+    ThroughputMonitor(long targetTime, long interactionDelay)
+    {
+        this.targetTime = targetTime;
+        this.interactionDelay = interactionDelay;
+        times = new HashMap<Integer, Double>();
+        lastRequest = -1;
+    }
+
+    /**
+     * Records the request of a plane and returns <code>true</code> if the
+     * request follows the previous one closely i.e. if the user is
+     * browsing the image, <code>false</code> otherwise.
+     *
+     * @param time The time of the request in milliseconds.
+     * @return See above.
+     */
+    synchronized boolean request(long time)
+    {
+        boolean interactive = lastRequest >= 0 &&
+                time-lastRequest < interactionDelay;
+        lastRequest = time;
+        return interactive;
+    }
+
+    /**
+     * Records the retrieval of a frame.
+     *
+     * @param level The compression level used.
+     * @param time The time taken in milliseconds.
+     */
+    synchronized void record(int level, long time)
+    {
+        times.put(level, average(times.get(level), time));
+    }
+
+    /**
+     * Returns the average time taken to retrieve a frame at the specified
+     * level or <code>-1</code> if no frame has been retrieved yet.
+     *
+     * @param level The compression level.
+     * @return See above.
+     */
+    synchronized double getTime(int level)
+    {
+        Double t = times.get(level);
+        return t == null ? -1 : t.doubleValue();
+    }
+
+    /**
+     * Returns the compression level to use to render a plane.
+     * The strongest compression is returned if the plane is requested while
+     * browsing and the frames at the requested level take too long to
+     * retrieve, unless the strongest compression is known to be as slow.
+     *
+     * @param requested The compression level requested.
+     * @param interactive Pass <code>true</code> if the plane is requested
+     *                    while browsing the image, <code>false</code>
+     *                    otherwise.
+     * @return See above.
+     */
+    synchronized int select(int requested, boolean interactive)
+    {
+        if (!interactive || requested == RenderingControl.LOW)
+            return requested;
+        double t = getTime(requested);
+        if (t <= targetTime) return requested;
+        double low = getTime(RenderingControl.LOW);
+        if (low >= 0 && low >= t) return requested;
+        return RenderingControl.LOW;
+    }
+
+}
@@ -23,6 +23,8 @@
 package org.openmicroscopy.shoola.env.rnd.data;
 
 import java.awt.Dimension;
+import java.util.Collection;
+import java.util.Iterator;
 
 //Java imports
 
@@ -46,6 +48,39 @@ import java.awt.Dimension;
 public class ResolutionLevel
 {
 
+	/** Tolerance used when comparing a ratio to a magnification.*/
+	private static final double TOLERANCE = 0.01;
+	
+	/**
+	 * Returns the level best matching the passed magnification of the
+	 * full resolution image i.e. the most detailed level whose size does not
+	 * exceed the magnified size, so no more pixels are loaded than displayed.
+	 * The least detailed level is returned if all the levels are larger.
+	 * 
+	 * @param levels The levels to select from.
+	 * @param magnification The magnification of the full resolution image.
+	 * @return See above or <code>-1</code> if no level is specified.
+	 */
+	public static int select(Collection<ResolutionLevel> levels,
+			double magnification)
+	{
+		if (levels == null) return -1;
+		ResolutionLevel best = null, lowest = null;
+		ResolutionLevel level;
+		double max = magnification*(1+TOLERANCE);
+		Iterator<ResolutionLevel> i = levels.iterator();
+		while (i.hasNext()) {
+			level = i.next();
+			if (lowest == null || level.getRatio() < lowest.getRatio())
+				lowest = level;
+			if (level.getRatio() <= max &&
+				(best == null || level.getRatio() > best.getRatio()))
+				best = level;
+		}
+		if (best == null) best = lowest;
+		return best == null ? -1 : best.getLevel();
+	}
+
 	/** The resolution level.*/
 	private int level;
 	
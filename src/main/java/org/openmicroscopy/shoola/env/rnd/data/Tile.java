@@ -59,6 +59,12 @@ public class Tile
 	/** The region covered by the tile.*/
 	private Region region;
 	
+	/** 
+	 * The resolution level of the tile or <code>-1</code> if the tile
+	 * belongs to the selected resolution level.
+	 */
+	private int resolutionLevel;
+	
 	/**
 	 * Creates a new instance.
 	 * 
@@ -70,6 +76,7 @@ public class Tile
 		this.row = row;
 		this.column = column;
 		this.index = index;
+		resolutionLevel = -1;
 	}
 	/** 
 	 * Sets the region covered by the tile.
@@ -88,6 +95,25 @@ public class Tile
 	 */
 	public Region getRegion() { return region; }
 	
+	/**
+	 * Sets the resolution level of the tile if the tile does not belong to
+	 * the selected resolution level e.g. a low resolution preview.
+	 * 
+	 * @param resolutionLevel The value to set.
+	 */
+	public void setResolutionLevel(int resolutionLevel)
+	{
+		this.resolutionLevel = resolutionLevel;
+	}
+	
+	/**
+	 * Returns the resolution level of the tile or <code>-1</code> if the
+	 * tile belongs to the selected resolution level.
+	 * 
+	 * @return See above.
+	 */
+	public int getResolutionLevel() { return resolutionLevel; }
+	
 	/**
 	 * Returns the index.
 	 * 
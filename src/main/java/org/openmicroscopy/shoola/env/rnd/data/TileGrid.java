@@ -0,0 +1,206 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+package org.openmicroscopy.shoola.env.rnd.data;
+
+import java.awt.Dimension;
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Describes the tiles of a resolution level.
+ * <p>The geometry of the tiles is computed from the size of the image and
+ * the size of a tile. The {@link Tile} objects are only created for the
+ * tiles selected i.e. the visible tiles and a margin around them, so the
+ * memory used does not depend on the size of the image.</p>
+ * The tiles are indexed as follows: <code>row*columns+column</code>.
+ *
+ * @author agent &nbsp;&nbsp;&nbsp;&nbsp;
+ * <a href="mailto:agent@local">agent@local</a>
+ * @since 5.6.3
+ */
+public class TileGrid
+{
+
+    /** The size of the image along the X-axis. */
+    private final int sizeX;
+
+    /** The size of the image along the Y-axis. */
+    private final int sizeY;
+
+    /** The size of a tile along the X-axis. */
+    private final int tileWidth;
+
+    /** The size of a tile along the Y-axis. */
+    private final int tileHeight;
+
+    /** The number of rows. */
+    private final int rows;
+
+    /** The number of columns. */
+    private final int columns;
+
+    /** The tiles created so far. */
+    private final Map<Integer, Tile> tiles;
+
+    /**
+     * Returns the number of tiles needed to cover the specified length.
+     *
+     * @param size The length to cover.
+     * @param tile The size of a tile.
+     * @return See above.
+     */
+    private static int count(int size, int tile)
+    {
+        int n = size/tile;
+        if (n*tile < size) n++;
+        return n <= 0 ? 1 : n;
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param imageSize The size of the image. Mustn't be <code>null</code>.
+     * @param tileSize The size of a tile. Mustn't be <code>null</code>.
+     */
+    public TileGrid(Dimension imageSize, Dimension tileSize)
+    {
+        if (imageSize == null)
+            throw new IllegalArgumentException("No image size.");
+        if (tileSize == null || tileSize.width <= 0 || tileSize.height <= 0)
+            throw new IllegalArgumentException("Tile size not valid.");
+        sizeX = imageSize.width;
+        sizeY = imageSize.height;
+        tileWidth = tileSize.width;
+        tileHeight = tileSize.height;
+        columns = count(sizeX, tileWidth);
+        rows = count(sizeY, tileHeight);
+        tiles = new HashMap<Integer, Tile>();
+    }
+
+    /**
+     * Returns the number of rows.
+     *
+     * @return See above.
+     */
+    public int getRows() { return rows; }
+
+    /**
+     * Returns the number of columns.
+     *
+     * @return See above.
+     */
+    public int getColumns() { return columns; }
+
+    /**
+     * Returns the size of the tiled image along the X-axis.
+     *
+     * @return See above.
+     */
+    public int getSizeX() { return sizeX; }
+
+    /**
+     * Returns the size of the tiled image along the Y-axis.
+     *
+     * @return See above.
+     */
+    public int getSizeY() { return sizeY; }
+
+    /**
+     * Returns the tile at the specified position, the tile is created
+     * if needed. Returns <code>null</code> if the position is not valid.
+     *
+     * @param row The row index.
+     * @param column The column index.
+     * @return See above.
+     */
+    public Tile getTile(int row, int column)
+    {
+        if (row < 0 || row >= rows || column < 0 || column >= columns)
+            return null;
+        int index = row*columns+column;
+        Tile tile = tiles.get(index);
+        if (tile != null) return tile;
+        int x = column*tileWidth;
+        int y = row*tileHeight;
+        tile = new Tile(index, row, column);
+        tile.setRegion(new Region(x, y, Math.min(tileWidth, sizeX-x),
+                Math.min(tileHeight, sizeY-y)));
+        tiles.put(index, tile);
+        return tile;
+    }
+
+    /**
+     * Selects the tiles intersecting the specified region and the tiles
+     * within the passed margin. The tiles outside the selection are
+     * discarded.
+     *
+     * @param region The region to handle e.g. the visible region.
+     *               Mustn't be <code>null</code>.
+     * @param margin The number of tiles to add around the region.
+     * @return The selected tiles ordered by row then column.
+     */
+    public List<Tile> select(Rectangle region, int margin)
+    {
+        if (region == null)
+            throw new IllegalArgumentException("No region.");
+        if (margin < 0) margin = 0;
+        int firstColumn = Math.max(0, region.x/tileWidth-margin);
+        int firstRow = Math.max(0, region.y/tileHeight-margin);
+        int x = region.x+Math.max(region.width, 1)-1;
+        int y = region.y+Math.max(region.height, 1)-1;
+        int lastColumn = Math.min(columns-1, x/tileWidth+margin);
+        int lastRow = Math.min(rows-1, y/tileHeight+margin);
+        List<Tile> selection = new ArrayList<Tile>();
+        Map<Integer, Tile> kept = new HashMap<Integer, Tile>();
+        Tile tile;
+        for (int i = firstRow; i <= lastRow; i++) {
+            for (int j = firstColumn; j <= lastColumn; j++) {
+                tile = getTile(i, j);
+                selection.add(tile);
+                kept.put(tile.getIndex(), tile);
+            }
+        }
+        Iterator<Integer> k = tiles.keySet().iterator();
+        while (k.hasNext()) {
+            if (!kept.containsKey(k.next())) k.remove();
+        }
+        return selection;
+    }
+
+    /**
+     * Returns the tiles created so far, the map is not modifiable.
+     *
+     * @return See above.
+     */
+    public Map<Integer, Tile> getTiles()
+    {
+        return Collections.unmodifiableMap(tiles);
+    }
+
+    /** Discards all the tiles created. */
+    public void clear() { tiles.clear(); }
+
+}
@@ -0,0 +1,323 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+package org.openmicroscopy.shoola.env.rnd.data;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import omero.romio.PlaneDef;
+
+/**
+ * Schedules the tiles to load, the tiles closest to the centre of the
+ * viewport being loaded first.
+ * <p>The tiles are requested by the workers, one per rendering control,
+ * so the number of tiles loaded in parallel is bounded by the number of
+ * rendering controls. Each call to {@link #schedule(Collection, PlaneDef,
+ * int, int)} replaces the previous request: the queued tiles that are no
+ * longer requested are dropped and the tiles being loaded are marked as
+ * cancelled. A tile requested again while queued or loaded is not queued
+ * twice.</p>
+ * The tiles are identified by reference.
+ *
+ * @author agent &nbsp;&nbsp;&nbsp;&nbsp;
+ * <a href="mailto:agent@local">agent@local</a>
+ * @since 5.6.3
+ */
+public class TileQueue
+{
+
+    /** A tile to load. */
+    public static class Request
+    {
+
+        /** The tile to load. */
+        private final Tile tile;
+
+        /** The plane the tile belongs to. */
+        private final PlaneDef plane;
+
+        /** The squared distance to the centre of the viewport. */
+        private long priority;
+
+        /** The order in which the request was made. */
+        private final long order;
+
+        /** Flag indicating if the request was cancelled while loaded. */
+        private boolean cancelled;
+
+        /**
+         * Flag indicating that the request was discarded e.g. because the
+         * settings changed. A discarded request cannot be requested again.
+         */
+        private boolean discarded;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param tile The tile to load.
+         * @param plane The plane the tile belongs to.
+         * @param order The order in which the request was made.
+         */
+        private Request(Tile tile, PlaneDef plane, long order)
+        {
+            this.tile = tile;
+            this.plane = plane;
+            this.order = order;
+        }
+
+        /**
+         * Returns the tile to load.
+         *
+         * @return See above.
+         */
+        public Tile getTile() { return tile; }
+
+        /**
+         * Returns the plane the tile belongs to.
+         *
+         * @return See above.
+         */
+        public PlaneDef getPlane() { return plane; }
+    }
+
+    /** The queued tiles ordered by priority. */
+    private final PriorityQueue<Request> queue;
+
+    /** The queued requests identified by tile. */
+    private final Map<Tile, Request> queued;
+
+    /** The requests being loaded. */
+    private final Set<Request> running;
+
+    /** The workers currently loading tiles. */
+    private final Set<Object> workers;
+
+    /** The number of requests made so far. */
+    private long count;
+
+    /**
+     * Returns the squared distance between the centre of the tile and the
+     * specified point. Returns <code>-1</code> for a tile of another
+     * resolution level e.g. a preview, so that it is loaded first. Those
+     * tiles are loaded in the order they are requested.
+     *
+     * @param tile The tile to handle.
+     * @param x The x-coordinate of the point.
+     * @param y The y-coordinate of the point.
+     * @return See above.
+     */
+    private static long distance(Tile tile, int x, int y)
+    {
+        if (tile.getResolutionLevel() >= 0) return -1;
+        Region r = tile.getRegion();
+        if (r == null) return Long.MAX_VALUE;
+        long dx = r.getX()+r.getWidth()/2-x;
+        long dy = r.getY()+r.getHeight()/2-y;
+        return dx*dx+dy*dy;
+    }
+
+    /**
+     * Returns <code>true</code> if the passed objects identify the same
+     * plane, <code>false</code> otherwise.
+     *
+     * @param p1 The plane to compare.
+     * @param p2 The plane to compare.
+     * @return See above.
+     */
+    private static boolean isSamePlane(PlaneDef p1, PlaneDef p2)
+    {
+        if (p1 == p2) return true;
+        if (p1 == null || p2 == null) return false;
+        return p1.slice == p2.slice && p1.z == p2.z && p1.t == p2.t;
+    }
+
+    /** Creates a new instance. */
+    public TileQueue()
+    {
+        queue = new PriorityQueue<Request>(16, new Comparator<Request>() {
+            public int compare(Request r1, Request r2)
+            {
+                if (r1.priority != r2.priority)
+                    return r1.priority < r2.priority ? -1 : 1;
+                if (r1.order == r2.order) return 0;
+                return r1.order < r2.order ? -1 : 1;
+            }
+        });
+        queued = new IdentityHashMap<Tile, Request>();
+        running = Collections.newSetFromMap(
+                new IdentityHashMap<Request, Boolean>());
+        workers = new HashSet<Object>();
+    }
+
+    /**
+     * Replaces the requested tiles. The tiles are ordered by their distance
+     * to the specified point, usually the centre of the viewport.
+     *
+     * @param tiles The tiles to load.
+     * @param plane The plane the tiles belong to.
+     * @param x The x-coordinate of the centre of the viewport.
+     * @param y The y-coordinate of the centre of the viewport.
+     */
+    public synchronized void schedule(Collection<Tile> tiles, PlaneDef plane,
+            int x, int y)
+    {
+        //Tile does not override equals, the order of the tiles is kept.
+        Map<Tile, Tile> requested = new LinkedHashMap<Tile, Tile>();
+        if (tiles != null) {
+            Iterator<Tile> i = tiles.iterator();
+            Tile tile;
+            while (i.hasNext()) {
+                tile = i.next();
+                requested.put(tile, tile);
+            }
+        }
+        //Cancel the tiles no longer requested.
+        Iterator<Request> j = queue.iterator();
+        Request r;
+        while (j.hasNext()) {
+            r = j.next();
+            if (!requested.containsKey(r.tile)) {
+                j.remove();
+                queued.remove(r.tile);
+            }
+        }
+        Map<Tile, Tile> loading = new IdentityHashMap<Tile, Tile>();
+        Iterator<Request> k = running.iterator();
+        while (k.hasNext()) {
+            r = k.next();
+            r.cancelled = r.discarded || !requested.containsKey(r.tile) ||
+                    !isSamePlane(r.plane, plane);
+            if (!r.cancelled) loading.put(r.tile, r.tile);
+        }
+        //Queue the new tiles and update the priority of the others.
+        Iterator<Tile> i = requested.keySet().iterator();
+        Tile tile;
+        while (i.hasNext()) {
+            tile = i.next();
+            if (loading.containsKey(tile)) continue;
+            r = queued.remove(tile);
+            if (r != null) queue.remove(r);
+            r = new Request(tile, plane, count++);
+            r.priority = distance(tile, x, y);
+            queued.put(tile, r);
+            queue.add(r);
+        }
+    }
+
+    /**
+     * Registers the specified worker. Returns <code>true</code> if the
+     * worker was not already registered i.e. if a new worker has to be
+     * started, <code>false</code> otherwise.
+     *
+     * @param worker The worker, usually the rendering control used.
+     * @return See above.
+     */
+    public synchronized boolean addWorker(Object worker)
+    {
+        if (worker == null) return false;
+        return workers.add(worker);
+    }
+
+    /**
+     * Unregisters the specified worker e.g. when the worker was cancelled
+     * or stopped because of an error, so that a new worker can be started.
+     *
+     * @param worker The worker to unregister.
+     */
+    public synchronized void removeWorker(Object worker)
+    {
+        if (worker != null) workers.remove(worker);
+    }
+
+    /**
+     * Returns the next tile to load or <code>null</code> if there are no
+     * more tiles to load. In that case, the worker is unregistered.
+     *
+     * @param worker The worker requesting a tile.
+     * @return See above.
+     */
+    public synchronized Request take(Object worker)
+    {
+        Request r = queue.poll();
+        if (r == null) {
+            workers.remove(worker);
+            return null;
+        }
+        queued.remove(r.tile);
+        running.add(r);
+        return r;
+    }
+
+    /**
+     * Indicates that the specified request has been loaded. Returns
+     * <code>true</code> if the tile is still requested, <code>false</code>
+     * if it was cancelled while loaded.
+     *
+     * @param request The loaded request.
+     * @return See above.
+     */
+    public synchronized boolean done(Request request)
+    {
+        return running.remove(request) && !request.cancelled;
+    }
+
+    /**
+     * Cancels all the requested tiles and unregisters the workers. The tiles
+     * being loaded will not be used even if requested again.
+     */
+    public synchronized void clear()
+    {
+        Request r;
+        queue.clear();
+        queued.clear();
+        workers.clear();
+        Iterator<Request> i = running.iterator();
+        while (i.hasNext()) {
+            r = i.next();
+            r.cancelled = true;
+            r.discarded = true;
+        }
+    }
+
+    /**
+     * Returns the number of requested tiles not yet loaded.
+     *
+     * @return See above.
+     */
+    public synchronized int getPendingCount()
+    {
+        int n = queue.size();
+        Iterator<Request> i = running.iterator();
+        while (i.hasNext()) {
+            if (!i.next().cancelled) n++;
+        }
+        return n;
+    }
+
+}
@@ -48,6 +48,9 @@ package org.openmicroscopy.shoola.util.concur.tasks;
  * For example, subclasses could enforce an execution policy by which execution
  * takes place in the client thread if no threading resources are available at
  * the moment of triggering execution.</p>  
+ * <p>A service can be given one of the priorities defined by this class.
+ * Subclasses that queue up services are expected to run the services of
+ * higher priority first, others may ignore the priority.</p>
  *
  * @author  Jean-Marie Burel &nbsp;&nbsp;&nbsp;&nbsp;
  * 				<a href="mailto:j.burel@dundee.ac.uk">j.burel@dundee.ac.uk</a>
@@ -63,6 +66,27 @@ package org.openmicroscopy.shoola.util.concur.tasks;
 public abstract class CmdProcessor
 {
     
+    /** The priority of the services the user is waiting for. */
+    public static final int INTERACTIVE = 0;
+    
+    /**
+     * The priority of the services loading the tiles of big images. Those
+     * services run until all the requested tiles are loaded.
+     */
+    public static final int TILES = 1;
+    
+    /** The priority of the services loading thumbnails. */
+    public static final int THUMBNAILS = 2;
+    
+    /** The priority of the services loading data ahead of need. */
+    public static final int PREFETCH = 3;
+    
+    /** The priority of the services running in the background. */
+    public static final int BACKGROUND = 4;
+    
+    /** The number of priorities. */
+    public static final int PRIORITIES = 5;
+    
     /**
      * Subclasses have to implement this method in order to execute the
      * service.
@@ -80,6 +104,17 @@ public abstract class CmdProcessor
      */
     protected abstract void doExec(Runnable cmd);
     
+    /**
+     * Executes the service with the specified priority.
+     * Subclasses that don't support priorities don't need to override this
+     * method, which ignores the priority and calls 
+     * {@link #doExec(Runnable)}.
+     * 
+     * @param cmd       Enapsulates the service workflow.
+     * @param priority  One of the priorities defined by this class.
+     */
+    protected void doExec(Runnable cmd, int priority) { doExec(cmd); }
+    
     /**
      * Executes the specified <code>task</code>.
      *   
@@ -349,6 +384,43 @@ public abstract class CmdProcessor
     public Future exec(MultiStepTask task, ResultAssembler rAsm, 
                         ExecMonitor observer)
     {
+        return exec(task, rAsm, observer, INTERACTIVE);
+    }
+    
+    /**
+     * Executes the specified multi-step <code>task</code> with the given
+     * priority.
+     * 
+     * @param task  The multi-step task to execute.  Mustn't be 
+     *              <code>null</code>.
+     * @param observer  To get feedback about the execution progress.
+     * @param priority  One of the priorities defined by this class.
+     * @return A {@link Future} to collect the result of the invocation.
+     * @see #exec(MultiStepTask, ExecMonitor)
+     */
+    public Future exec(MultiStepTask task, ExecMonitor observer, int priority)
+    {
+        return exec(task, null, observer, priority);
+    }
+    
+    /**
+     * Executes the specified multi-step <code>task</code> with the given
+     * priority.
+     * 
+     * @param task  The multi-step task to execute.  Mustn't be 
+     *              <code>null</code>.
+     * @param rAsm  To provide a specific way to assemble the computatation 
+     *              results from partial results.
+     * @param observer  To get feedback about the execution progress.
+     * @param priority  One of the priorities defined by this class.
+     * @return A {@link Future} to collect the result of the invocation.
+     * @see #exec(MultiStepTask, ResultAssembler, ExecMonitor)
+     */
+    public Future exec(MultiStepTask task, ResultAssembler rAsm, 
+                        ExecMonitor observer, int priority)
+    {
+        if (priority < 0 || priority >= PRIORITIES)
+            throw new IllegalArgumentException("Priority not supported.");
         if (task == null) throw new NullPointerException("No task.");
         
         //Adaptation.  We need to have a cmd linked to exactly one
@@ -361,7 +433,7 @@ public abstract class CmdProcessor
         future.setCommand(cmd);  //OK, init completed now (two-step init).
         
         //Transfer command.
-        doExec(cmd);  //Normally executed in a different thread.  
+        doExec(cmd, priority);  //Normally executed in a different thread.  
         
         //Allow client to retrieve result and cancel execution.
         return future;
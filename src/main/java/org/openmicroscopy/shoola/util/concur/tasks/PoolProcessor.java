@@ -0,0 +1,403 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+
+package org.openmicroscopy.shoola.util.concur.tasks;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A concrete {@link CmdProcessor} that runs the services on a bounded pool
+ * of threads.
+ * <p>The services are queued up in one lane per priority. When a thread is
+ * available, the oldest service of the highest priority lane is executed,
+ * unless that lane already runs as many services as allowed. So a burst of
+ * requests, e.g. loading the thumbnails of a plate, can't use up all the
+ * threads and delay the services the user is waiting for.</p>
+ * <p>Unlike the {@link AsyncProcessor}, services are queued, so a service
+ * must never wait for the completion of another service of the same lane,
+ * this could result in a deadlock.</p>
+ * <p>The number of services queued and running, and the average time spent
+ * in the queue are available for each lane.</p>
+ *
+ * @author agent &nbsp;&nbsp;&nbsp;&nbsp;
+ * <a href="mailto:agent@local">agent@local</a>
+ * @since 5.6.3
+ */
+public class PoolProcessor
+    extends CmdProcessor
+{
+
+    /** The default number of threads. */
+    public static final int DEFAULT_SIZE = 12;
+
+    /** The default maximum number of services running in each lane. */
+    private static final int[] DEFAULT_LIMITS = {8, 4, 4, 2, 4};
+
+    /** The weight of the last service in the average waiting time. */
+    private static final double WEIGHT = 0.2;
+
+    /** A service waiting in a lane. */
+    private static class Entry
+    {
+
+        /** The service. */
+        private final ExecCommand cmd;
+
+        /** The time at which the service was queued. */
+        private final long time;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param cmd The service.
+         * @param time The time at which the service was queued.
+         */
+        Entry(ExecCommand cmd, long time)
+        {
+            this.cmd = cmd;
+            this.time = time;
+        }
+    }
+
+    /**
+     * Runs a service, traps any uncaught exceptions and notifies the
+     * processor upon exit so that the next service can be started.
+     */
+    private class Runner
+        implements Runnable
+    {
+
+        /** The service to run. */
+        private final ExecCommand cmd;
+
+        /** The lane of the service. */
+        private final int lane;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param cmd The service to run.
+         * @param lane The lane of the service.
+         */
+        Runner(ExecCommand cmd, int lane)
+        {
+            this.cmd = cmd;
+            this.lane = lane;
+        }
+
+        /** Runs the service. */
+        public void run()
+        {
+            try {
+                cmd.run();
+            } catch (Throwable t) {
+                if (uncaughtExcHandler != null) uncaughtExcHandler.handle(t);
+                else t.printStackTrace();
+            } finally {  //Make sure we notify in any case.
+                notifyExit(this);
+            }
+        }
+    }
+
+    /** The services waiting, one queue per lane. */
+    private final List<LinkedList<Entry>> lanes;
+
+    /** The maximum number of services running in each lane. */
+    private final int[] limits;
+
+    /** The number of services running in each lane. */
+    private final int[] running;
+
+    /** The average time, in milliseconds, spent waiting in each lane. */
+    private final double[] waits;
+
+    /** The services running. */
+    private final List<Runner> runners;
+
+    /** The maximum number of services running. */
+    private final int size;
+
+    /** The threads running the services. */
+    private final ExecutorService executor;
+
+    /** Custom handler used in the case of uncaught exceptions. */
+    private final UncaughtExcHandler uncaughtExcHandler;
+
+    /**
+     * Tells whether the processor will accept and run new commands.
+     * Latches to <code>true</code> when the {@link #terminate(long)
+     * terminate} method is called. From that point on, new commands will
+     * be cancelled and discarded.
+     */
+    private boolean terminated;
+
+    /**
+     * Starts the waiting services while threads are available, the highest
+     * priority lanes first.
+     */
+    private synchronized void schedule()
+    {
+        int total = runners.size();
+        long now = System.currentTimeMillis();
+        LinkedList<Entry> queue;
+        Entry e;
+        Runner r;
+        for (int lane = 0; lane < PRIORITIES && total < size; lane++) {
+            queue = lanes.get(lane);
+            while (!queue.isEmpty() && running[lane] < limits[lane] &&
+                    total < size) {
+                e = queue.removeFirst();
+                waits[lane] = waits[lane] < 0 ? now-e.time :
+                    WEIGHT*(now-e.time)+(1-WEIGHT)*waits[lane];
+                r = new Runner(e.cmd, lane);
+                runners.add(r);
+                running[lane]++;
+                total++;
+                executor.execute(r);
+            }
+        }
+    }
+
+    /**
+     * Callback used by a <code>Runner</code> when exiting the run loop.
+     *
+     * @param r The <code>Runner</code> that exited.
+     */
+    private void notifyExit(Runner r)
+    {
+        synchronized (this) {
+            if (runners.remove(r)) running[r.lane]--;
+        }
+        schedule();
+    }
+
+    /**
+     * Checks the lane.
+     *
+     * @param lane The lane to check.
+     */
+    private static void checkLane(int lane)
+    {
+        if (lane < 0 || lane >= PRIORITIES)
+            throw new IllegalArgumentException("Lane not supported.");
+    }
+
+    /**
+     * Transfers a command for execution with the interactive priority.
+     *
+     * @param cmd The command to run.
+     * @see CmdProcessor#doExec(Runnable)
+     */
+    protected void doExec(Runnable cmd) { doExec(cmd, INTERACTIVE); }
+
+    /**
+     * Queues the command in the lane of the specified priority.
+     *
+     * @param cmd The command to run.
+     * @param priority The priority of the command.
+     * @see CmdProcessor#doExec(Runnable, int)
+     */
+    protected void doExec(Runnable cmd, int priority)
+    {
+        checkLane(priority);
+        ExecCommand srv = (ExecCommand) cmd;
+        synchronized (this) {
+            if (!terminated) {
+                lanes.get(priority).addLast(
+                        new Entry(srv, System.currentTimeMillis()));
+                srv = null;
+            }
+        }
+        if (srv != null) {
+            srv.cancel();
+            return;
+        }
+        schedule();
+    }
+
+    /**
+     * Creates a new instance with the default number of threads and
+     * limits.
+     */
+    public PoolProcessor()
+    {
+        this(DEFAULT_SIZE, DEFAULT_LIMITS, null);
+    }
+
+    /**
+     * Creates a new instance.
+     * Registers the passed <code>handler</code> to handle all uncaught
+     * exceptions that occurred during the execution of a service.
+     *
+     * @param handler   Handles uncaught exceptions.  Mustn't be
+     *                  <code>null</code>.
+     * @see UncaughtExcHandler
+     */
+    public PoolProcessor(UncaughtExcHandler handler)
+    {
+        this(DEFAULT_SIZE, DEFAULT_LIMITS, handler);
+        if (handler == null) throw new NullPointerException("No handler.");
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param size      The maximum number of services running.
+     * @param limits    The maximum number of services running in each lane,
+     *                  indexed by priority.
+     * @param handler   Handles uncaught exceptions or <code>null</code>.
+     */
+    public PoolProcessor(int size, int[] limits, UncaughtExcHandler handler)
+    {
+        if (size <= 0)
+            throw new IllegalArgumentException("The size must be positive.");
+        if (limits == null || limits.length != PRIORITIES)
+            throw new IllegalArgumentException("One limit per lane.");
+        this.size = size;
+        this.limits = new int[PRIORITIES];
+        lanes = new ArrayList<LinkedList<Entry>>(PRIORITIES);
+        for (int i = 0; i < PRIORITIES; i++) {
+            if (limits[i] <= 0)
+                throw new IllegalArgumentException("Limit must be positive.");
+            this.limits[i] = limits[i];
+            lanes.add(new LinkedList<Entry>());
+        }
+        running = new int[PRIORITIES];
+        waits = new double[PRIORITIES];
+        for (int i = 0; i < PRIORITIES; i++)
+            waits[i] = -1;
+        runners = new ArrayList<Runner>();
+        uncaughtExcHandler = handler;
+        final AtomicInteger count = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(size, size,
+                60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+                new ThreadFactory() {
+                    public Thread newThread(Runnable r)
+                    {
+                        Thread t = new Thread(r,
+                                "CmdProcessor-"+count.incrementAndGet());
+                        t.setDaemon(true);
+                        return t;
+                    }
+                });
+        pool.allowCoreThreadTimeOut(true);
+        executor = pool;
+    }
+
+    /**
+     * Returns the number of services waiting in the specified lane.
+     *
+     * @param lane One of the priorities defined by {@link CmdProcessor}.
+     * @return See above.
+     */
+    public synchronized int getQueueDepth(int lane)
+    {
+        checkLane(lane);
+        return lanes.get(lane).size();
+    }
+
+    /**
+     * Returns the number of services running in the specified lane.
+     *
+     * @param lane One of the priorities defined by {@link CmdProcessor}.
+     * @return See above.
+     */
+    public synchronized int getRunning(int lane)
+    {
+        checkLane(lane);
+        return running[lane];
+    }
+
+    /**
+     * Returns the average time, in milliseconds, the services spent waiting
+     * in the specified lane before running or <code>-1</code> if no service
+     * has been run yet.
+     *
+     * @param lane One of the priorities defined by {@link CmdProcessor}.
+     * @return See above.
+     */
+    public synchronized double getAverageWait(int lane)
+    {
+        checkLane(lane);
+        return waits[lane];
+    }
+
+    /**
+     * Cancels execution of all the services waiting or running.
+     * This is equivalent to calling the
+     * {@link ExecHandle#cancelExecution() cancelExecution} method on each
+     * {@link ExecHandle} of those services.
+     */
+    public void cancelAll()
+    {
+        List<ExecCommand> commands = new ArrayList<ExecCommand>();
+        synchronized (this) {  //Take snapshot.
+            Iterator<LinkedList<Entry>> i = lanes.iterator();
+            LinkedList<Entry> queue;
+            while (i.hasNext()) {
+                queue = i.next();
+                while (!queue.isEmpty())
+                    commands.add(queue.removeFirst().cmd);
+            }
+            Iterator<Runner> j = runners.iterator();
+            while (j.hasNext())
+                commands.add(j.next().cmd);
+        }
+        Iterator<ExecCommand> k = commands.iterator();
+        while (k.hasNext())
+            k.next().cancel();  //Won't hurt if no longer running.
+    }
+
+    /**
+     * Cancels execution of all the services and disallows execution of new
+     * ones. Waits at most <code>maxWait</code> milliseconds for the running
+     * services to exit.
+     *
+     * @param maxWait Maximum amount of milliseconds to wait.
+     * @return <code>true</code> no service is still running,
+     *          <code>false</code> otherwise.
+     * @see AsyncProcessor#terminate(long)
+     */
+    public boolean terminate(long maxWait)
+    {
+        synchronized (this) {
+            terminated = true;  //Disable processor forever.
+        }
+        cancelAll();
+        executor.shutdown();
+        try {
+            return executor.awaitTermination(maxWait, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ie) {
+            return executor.isTerminated();
+        }
+    }
+
+}
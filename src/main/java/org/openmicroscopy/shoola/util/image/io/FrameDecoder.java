@@ -0,0 +1,116 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+package org.openmicroscopy.shoola.util.image.io;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.util.Iterator;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+
+/**
+ * Decodes the compressed frames returned by the server.
+ * The readers are kept between two frames, one per thread, so that the
+ * image service is not looked up for each frame. The frames are read from
+ * memory, never through the stream cache of <code>ImageIO</code>.
+ * <p>Each frame is decoded into a new image. The frames are shared by the
+ * plane cache, the viewer and the movie player, none of which knows when
+ * the others release them, so a raster cannot be reused safely.</p>
+ *
+ * @author agent &nbsp;&nbsp;&nbsp;&nbsp;
+ * <a href="mailto:agent@local">agent@local</a>
+ * @since 5.6.3
+ */
+public class FrameDecoder
+{
+
+    /** The reader used by each thread. */
+    private final ThreadLocal<ImageReader> readers;
+
+    /**
+     * Returns a reader able to decode the passed stream, the reader of the
+     * current thread being reused if possible.
+     *
+     * @param stream The stream to decode.
+     * @return See above.
+     * @throws Exception If an error occurred while reading the stream.
+     */
+    private ImageReader getReader(ImageInputStream stream)
+        throws Exception
+    {
+        ImageReader reader = readers.get();
+        if (reader != null &&
+                reader.getOriginatingProvider().canDecodeInput(stream))
+            return reader;
+        Iterator<ImageReader> i = ImageIO.getImageReaders(stream);
+        if (!i.hasNext()) return null;
+        if (reader != null) reader.dispose();
+        reader = i.next();
+        readers.set(reader);
+        return reader;
+    }
+
+    /** Creates a new instance. */
+    public FrameDecoder()
+    {
+        readers = new ThreadLocal<ImageReader>();
+    }
+
+    /**
+     * Decodes the passed bytes.
+     *
+     * @param values The values to decode.
+     * @return See above.
+     * @throws EncoderException If an error occurred while decoding.
+     */
+    public BufferedImage decode(byte[] values)
+        throws EncoderException
+    {
+        if (values == null)
+            throw new IllegalArgumentException("No array specified.");
+        ImageInputStream stream = null;
+        ImageReader reader = null;
+        try {
+            //Read from memory, the stream is never cached on disk.
+            stream = new MemoryCacheImageInputStream(
+                    new ByteArrayInputStream(values));
+            reader = getReader(stream);
+            if (reader == null) return null;
+            reader.setInput(stream, true, true);
+            BufferedImage image = reader.read(0);
+            if (image != null) image.setAccelerationPriority(1f);
+            return image;
+        } catch (Exception e) {
+            throw new EncoderException("Cannot create buffered image", e);
+        } finally {
+            if (reader != null) reader.setInput(null);
+            if (stream != null) {
+                try {
+                    stream.close();
+                } catch (Exception ex) {}
+            }
+        }
+    }
+
+}
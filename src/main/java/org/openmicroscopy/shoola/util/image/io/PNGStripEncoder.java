@@ -0,0 +1,199 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.util.image.io;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Writes an <code>RGB</code> PNG band by band. The compressed rows are
+ * written in data chunks of bounded size as they are produced.
+ *
+ * @author agent &nbsp;&nbsp;&nbsp;&nbsp;
+ * <a href="mailto:agent@local">agent@local</a>
+ * @since 5.6.3
+ */
+public class PNGStripEncoder
+    extends StripEncoder
+{
+
+    /** The signature of a PNG file. */
+    private static final byte[] SIGNATURE = {(byte) 137, 80, 78, 71, 13, 10,
+            26, 10};
+
+    /** The maximum size of a data chunk. */
+    static final int CHUNK_SIZE = 65536;
+
+    /** Writes the compressed bytes as data chunks. */
+    private class ChunkOutputStream
+        extends OutputStream
+    {
+
+        /** The bytes of the current chunk. */
+        private final byte[] chunk = new byte[CHUNK_SIZE];
+
+        /** The number of bytes in the current chunk. */
+        private int count;
+
+        /**
+         * Writes the current chunk if not empty.
+         *
+         * @throws IOException If an error occurred while writing.
+         */
+        private void writeChunk()
+            throws IOException
+        {
+            if (count == 0) return;
+            PNGStripEncoder.this.writeChunk("IDAT", chunk, count);
+            count = 0;
+        }
+
+        /**
+         * Overridden to add the byte to the chunk.
+         * @see OutputStream#write(int)
+         */
+        public void write(int b)
+            throws IOException
+        {
+            if (count == chunk.length) writeChunk();
+            chunk[count++] = (byte) b;
+        }
+
+        /**
+         * Overridden to add the bytes to the chunk.
+         * @see OutputStream#write(byte[], int, int)
+         */
+        public void write(byte[] b, int off, int len)
+            throws IOException
+        {
+            int n;
+            while (len > 0) {
+                if (count == chunk.length) writeChunk();
+                n = Math.min(len, chunk.length-count);
+                System.arraycopy(b, off, chunk, count, n);
+                count += n;
+                off += n;
+                len -= n;
+            }
+        }
+
+        /**
+         * Overridden to write the last chunk.
+         * @see OutputStream#flush()
+         */
+        public void flush()
+            throws IOException
+        {
+            writeChunk();
+        }
+    }
+
+    /** The stream to write to. */
+    private DataOutputStream out;
+
+    /**
+     * Writes a chunk.
+     *
+     * @param type The type of the chunk.
+     * @param data The data of the chunk.
+     * @param length The number of bytes of data.
+     * @throws IOException If an error occurred while writing.
+     */
+    private void writeChunk(String type, byte[] data, int length)
+        throws IOException
+    {
+        byte[] t = type.getBytes("US-ASCII");
+        CRC32 crc = new CRC32();
+        crc.update(t);
+        crc.update(data, 0, length);
+        out.writeInt(length);
+        out.write(t);
+        out.write(data, 0, length);
+        out.writeInt((int) crc.getValue());
+    }
+
+    /**
+     * Writes the passed value as a big-endian integer.
+     *
+     * @param b The destination array.
+     * @param off The index of the first byte.
+     * @param v The value to write.
+     */
+    private static void writeInt(byte[] b, int off, int v)
+    {
+        b[off] = (byte) (v >>> 24);
+        b[off+1] = (byte) (v >>> 16);
+        b[off+2] = (byte) (v >>> 8);
+        b[off+3] = (byte) v;
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param source The image to encode. Mustn't be <code>null</code>.
+     * @param output The output stream. Mustn't be <code>null</code>.
+     */
+    public PNGStripEncoder(StripSource source, OutputStream output)
+    {
+        super(source, output);
+    }
+
+    /**
+     * Writes the header then the compressed rows.
+     * @see StripEncoder#write()
+     */
+    public void write()
+        throws EncoderException
+    {
+        Deflater deflater = new Deflater();
+        try {
+            out = new DataOutputStream(output);
+            out.write(SIGNATURE);
+            byte[] header = new byte[13];
+            writeInt(header, 0, imageWidth);
+            writeInt(header, 4, imageHeight);
+            header[8] = 8; //bit depth
+            header[9] = 2; //RGB
+            writeChunk("IHDR", header, header.length);
+            ChunkOutputStream chunks = new ChunkOutputStream();
+            DeflaterOutputStream zip = new DeflaterOutputStream(chunks,
+                    deflater, CHUNK_SIZE);
+            //Each row starts with the filter type.
+            byte[] buffer = new byte[3*imageWidth+1];
+            for (int y = 0; y < imageHeight; y += ROWS)
+                writeRows(getBand(y), getRows(y), zip, buffer, true);
+            zip.finish();
+            chunks.flush();
+            writeChunk("IEND", new byte[0], 0);
+            out.flush();
+        } catch (IOException e) {
+            throw new EncoderException("Cannot encode the image.", e);
+        } finally {
+            deflater.end();
+        }
+    }
+
+}
@@ -0,0 +1,141 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.util.image.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Top class for the encoders writing an image band by band, so that the
+ * memory used does not depend on the size of the image. Sub-classes
+ * override the {@link #write()} method.
+ *
+ * @author agent &nbsp;&nbsp;&nbsp;&nbsp;
+ * <a href="mailto:agent@local">agent@local</a>
+ * @since 5.6.3
+ */
+public abstract class StripEncoder
+{
+
+    /** The number of rows of a band. */
+    public static final int ROWS = 64;
+
+    /** The output stream. */
+    protected final OutputStream output;
+
+    /** The image to encode. */
+    protected final StripSource source;
+
+    /** The width of the image. */
+    protected final int imageWidth;
+
+    /** The height of the image. */
+    protected final int imageHeight;
+
+    /** The pixels of the current band. */
+    private final int[] band;
+
+    /**
+     * Initializes the encoder.
+     *
+     * @param source The image to encode.
+     * @param output The stream to write the encoded image to.
+     */
+    protected StripEncoder(StripSource source, OutputStream output)
+    {
+        if (output == null)
+            throw new IllegalArgumentException("Output not valid");
+        if (source == null)
+            throw new IllegalArgumentException("Image to encode not valid");
+        imageWidth = source.getWidth();
+        imageHeight = source.getHeight();
+        if (imageWidth <= 0 || imageHeight <= 0)
+            throw new IllegalArgumentException("Image to encode not valid");
+        this.source = source;
+        this.output = output;
+        band = new int[imageWidth*Math.min(ROWS, imageHeight)];
+    }
+
+    /**
+     * Returns the number of rows of the band starting at the specified row.
+     *
+     * @param y The first row of the band.
+     * @return See above.
+     */
+    protected int getRows(int y) { return Math.min(ROWS, imageHeight-y); }
+
+    /**
+     * Returns the pixels of the band starting at the specified row, packed
+     * as <code>RGB</code> integers. The returned buffer is reused for the
+     * next band.
+     *
+     * @param y The first row of the band.
+     * @return See above.
+     */
+    protected int[] getBand(int y)
+    {
+        source.getRGB(y, getRows(y), band);
+        return band;
+    }
+
+    /**
+     * Writes the specified band as interleaved <code>RGB</code> bytes.
+     *
+     * @param pixels The pixels of the band.
+     * @param rows The number of rows.
+     * @param out The stream to write to.
+     * @param buffer The buffer used to write a row, at least three times
+     *               the width of the image.
+     * @param filter Pass <code>true</code> to start each row with the
+     *               <code>PNG</code> filter type, <code>false</code>
+     *               otherwise.
+     * @throws IOException If an error occurred while writing.
+     */
+    protected void writeRows(int[] pixels, int rows, OutputStream out,
+            byte[] buffer, boolean filter)
+        throws IOException
+    {
+        int index = 0;
+        int j, v;
+        for (int y = 0; y < rows; y++) {
+            j = 0;
+            if (filter) buffer[j++] = 0;
+            for (int x = 0; x < imageWidth; x++) {
+                v = pixels[index++];
+                buffer[j++] = (byte) (v >> 16);
+                buffer[j++] = (byte) (v >> 8);
+                buffer[j++] = (byte) v;
+            }
+            out.write(buffer, 0, j);
+        }
+    }
+
+    /**
+     * Writes the encoded image. Sub-classes override this method.
+     *
+     * @throws EncoderException Exception thrown if an error occurred during
+     *                          the encoding process.
+     */
+    public abstract void write()
+        throws EncoderException;
+
+}
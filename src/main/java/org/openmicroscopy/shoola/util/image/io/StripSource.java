@@ -0,0 +1,60 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.util.image.io;
+
+/**
+ * Provides the pixels of an image band by band, so that the image can be
+ * encoded without being built in memory.
+ *
+ * @author agent &nbsp;&nbsp;&nbsp;&nbsp;
+ * <a href="mailto:agent@local">agent@local</a>
+ * @since 5.6.3
+ */
+public interface StripSource
+{
+
+    /**
+     * Returns the width of the image.
+     *
+     * @return See above.
+     */
+    public int getWidth();
+
+    /**
+     * Returns the height of the image.
+     *
+     * @return See above.
+     */
+    public int getHeight();
+
+    /**
+     * Copies the pixels of the specified rows into the passed buffer. The
+     * pixels are packed as <code>RGB</code> integers, row by row.
+     *
+     * @param y The first row.
+     * @param rows The number of rows.
+     * @param buffer The buffer to fill, at least <code>rows</code> times the
+     *               width of the image.
+     */
+    public void getRGB(int y, int rows, int[] buffer);
+
+}
@@ -0,0 +1,273 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.util.image.io;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes an uncompressed, big-endian <code>RGB</code> TIFF band by band.
+ * Each band of {@link StripEncoder#ROWS} rows is written as a strip. The
+ * <code>BigTIFF</code> format is used if the image cannot be addressed
+ * with 32-bit offsets.
+ *
+ * @author agent &nbsp;&nbsp;&nbsp;&nbsp;
+ * <a href="mailto:agent@local">agent@local</a>
+ * @since 5.6.3
+ */
+public class TIFFStripEncoder
+    extends StripEncoder
+{
+
+    /** The largest offset of a TIFF file. */
+    static final long MAX_OFFSET = 0xFFFFFFFFL;
+
+    /** The number of entries of the image file directory. */
+    private static final int ENTRIES = 14;
+
+    /** The <code>SHORT</code> field type. */
+    private static final int SHORT = 3;
+
+    /** The <code>LONG</code> field type. */
+    private static final int LONG = 4;
+
+    /** The <code>RATIONAL</code> field type. */
+    private static final int RATIONAL = 5;
+
+    /** The <code>LONG8</code> field type of the BigTIFF format. */
+    private static final int LONG8 = 16;
+
+    /** The tags written, in ascending order as required. */
+    private static final int NEW_SUBFILE_TYPE = 254, IMAGE_WIDTH = 256,
+            IMAGE_LENGTH = 257, BITS_PER_SAMPLE = 258, COMPRESSION = 259,
+            PHOTO_INTERP = 262, STRIP_OFFSETS = 273, SAMPLES_PER_PIXEL = 277,
+            ROWS_PER_STRIP = 278, STRIP_BYTE_COUNTS = 279,
+            X_RESOLUTION = 282, Y_RESOLUTION = 283, PLANAR_CONFIG = 284,
+            RESOLUTION_UNIT = 296;
+
+    /** Flag indicating to write a BigTIFF. */
+    private final boolean bigTIFF;
+
+    /** The number of strips. */
+    private final int strips;
+
+    /** The stream to write to. */
+    private DataOutputStream out;
+
+    /**
+     * Returns the number of bytes of the specified strip.
+     *
+     * @param strip The index of the strip.
+     * @return See above.
+     */
+    private long getStripSize(int strip)
+    {
+        return 3L*imageWidth*getRows(strip*ROWS);
+    }
+
+    /**
+     * Writes an entry of the image file directory.
+     *
+     * @param tag The tag.
+     * @param type The field type.
+     * @param count The number of values.
+     * @param value The value or the offset to the values.
+     * @throws IOException If an error occurred while writing.
+     */
+    private void writeEntry(int tag, int type, long count, long value)
+        throws IOException
+    {
+        out.writeShort(tag);
+        out.writeShort(type);
+        if (bigTIFF) {
+            out.writeLong(count);
+            if (count == 1 && type == SHORT) value <<= 48;
+            else if (count == 1 && type == LONG) value <<= 32;
+            out.writeLong(value);
+        } else {
+            out.writeInt((int) count);
+            if (count == 1 && type == SHORT) value <<= 16;
+            out.writeInt((int) value);
+        }
+    }
+
+    /**
+     * Writes an offset i.e. a <code>LONG</code> or a <code>LONG8</code>
+     * value depending on the format.
+     *
+     * @param value The value to write.
+     * @throws IOException If an error occurred while writing.
+     */
+    private void writeOffset(long value)
+        throws IOException
+    {
+        if (bigTIFF) out.writeLong(value);
+        else out.writeInt((int) value);
+    }
+
+    /**
+     * Creates a new instance, the format is selected depending on the size
+     * of the image.
+     *
+     * @param source The image to encode. Mustn't be <code>null</code>.
+     * @param output The output stream. Mustn't be <code>null</code>.
+     */
+    public TIFFStripEncoder(StripSource source, OutputStream output)
+    {
+        this(source, output, false);
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param source The image to encode. Mustn't be <code>null</code>.
+     * @param output The output stream. Mustn't be <code>null</code>.
+     * @param bigTIFF Pass <code>true</code> to write a BigTIFF whatever the
+     *                size of the image, <code>false</code> to select the
+     *                format depending on the size.
+     */
+    public TIFFStripEncoder(StripSource source, OutputStream output,
+            boolean bigTIFF)
+    {
+        super(source, output);
+        strips = (imageHeight+ROWS-1)/ROWS;
+        //Header, directory and offsets take less than the 64KB margin.
+        this.bigTIFF = bigTIFF ||
+                3L*imageWidth*imageHeight+16L*strips+65536 > MAX_OFFSET;
+    }
+
+    /**
+     * Returns <code>true</code> if a BigTIFF is written, <code>false</code>
+     * otherwise.
+     *
+     * @return See above.
+     */
+    public boolean isBigTIFF() { return bigTIFF; }
+
+    /**
+     * Writes the header, the image file directory then the strips.
+     * @see StripEncoder#write()
+     */
+    public void write()
+        throws EncoderException
+    {
+        try {
+            out = new DataOutputStream(output);
+            long offset;
+            int offsetType;
+            if (bigTIFF) {
+                out.writeShort(0x4D4D); //MM i.e. big-endian
+                out.writeShort(43);
+                out.writeShort(8);
+                out.writeShort(0);
+                out.writeLong(16);
+                offset = 16+8+ENTRIES*20+8;
+                offsetType = LONG8;
+            } else {
+                out.writeShort(0x4D4D);
+                out.writeShort(42);
+                out.writeInt(8);
+                offset = 8+2+ENTRIES*12+4;
+                offsetType = LONG;
+            }
+            //Values not fitting in the entries follow the directory.
+            long bpsOffset = 0, xOffset = 0, yOffset = 0;
+            if (!bigTIFF) {
+                bpsOffset = offset;
+                xOffset = bpsOffset+8;
+                yOffset = xOffset+8;
+                offset = yOffset+8;
+            }
+            int size = bigTIFF ? 8 : 4;
+            long stripOffsets = offset, stripCounts = offset;
+            if (strips > 1) {
+                stripCounts = stripOffsets+(long) size*strips;
+                offset = stripCounts+(long) size*strips;
+            }
+            long imageStart = offset;
+
+            if (bigTIFF) out.writeLong(ENTRIES);
+            else out.writeShort(ENTRIES);
+            writeEntry(NEW_SUBFILE_TYPE, LONG, 1, 0);
+            writeEntry(IMAGE_WIDTH, LONG, 1, imageWidth);
+            writeEntry(IMAGE_LENGTH, LONG, 1, imageHeight);
+            if (bigTIFF) {
+                out.writeShort(BITS_PER_SAMPLE);
+                out.writeShort(SHORT);
+                out.writeLong(3);
+                out.writeShort(8);
+                out.writeShort(8);
+                out.writeShort(8);
+                out.writeShort(0);
+            } else writeEntry(BITS_PER_SAMPLE, SHORT, 3, bpsOffset);
+            writeEntry(COMPRESSION, SHORT, 1, 1);
+            writeEntry(PHOTO_INTERP, SHORT, 1, 2);
+            if (strips > 1)
+                writeEntry(STRIP_OFFSETS, offsetType, strips, stripOffsets);
+            else writeEntry(STRIP_OFFSETS, offsetType, 1, imageStart);
+            writeEntry(SAMPLES_PER_PIXEL, SHORT, 1, 3);
+            writeEntry(ROWS_PER_STRIP, LONG, 1, ROWS);
+            if (strips > 1)
+                writeEntry(STRIP_BYTE_COUNTS, offsetType, strips, stripCounts);
+            else writeEntry(STRIP_BYTE_COUNTS, offsetType, 1,
+                    getStripSize(0));
+            if (bigTIFF) {
+                writeEntry(X_RESOLUTION, RATIONAL, 1, (1L << 32) | 1);
+                writeEntry(Y_RESOLUTION, RATIONAL, 1, (1L << 32) | 1);
+            } else {
+                writeEntry(X_RESOLUTION, RATIONAL, 1, xOffset);
+                writeEntry(Y_RESOLUTION, RATIONAL, 1, yOffset);
+            }
+            writeEntry(PLANAR_CONFIG, SHORT, 1, 1);
+            writeEntry(RESOLUTION_UNIT, SHORT, 1, 1); //no unit
+            writeOffset(0); //only one image
+
+            if (!bigTIFF) {
+                out.writeShort(8);
+                out.writeShort(8);
+                out.writeShort(8);
+                out.writeShort(0);
+                out.writeInt(1);
+                out.writeInt(1);
+                out.writeInt(1);
+                out.writeInt(1);
+            }
+            if (strips > 1) {
+                long start = imageStart;
+                for (int i = 0; i < strips; i++) {
+                    writeOffset(start);
+                    start += getStripSize(i);
+                }
+                for (int i = 0; i < strips; i++)
+                    writeOffset(getStripSize(i));
+            }
+            byte[] buffer = new byte[3*imageWidth];
+            for (int y = 0; y < imageHeight; y += ROWS)
+                writeRows(getBand(y), getRows(y), out, buffer, false);
+            out.flush();
+        } catch (IOException e) {
+            throw new EncoderException("Cannot encode the image.", e);
+        }
+    }
+
+}
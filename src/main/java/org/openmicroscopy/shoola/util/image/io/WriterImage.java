@@ -37,9 +37,12 @@ import java.awt.image.DataBufferInt;
 import java.awt.image.Raster;
 import java.awt.image.WritableRaster;
 import java.io.ByteArrayInputStream;
+import java.io.BufferedOutputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Iterator;
 import javax.imageio.ImageIO;
 import javax.imageio.ImageWriter;
@@ -52,6 +55,7 @@ import javax.imageio.stream.ImageOutputStream;
 import org.openmicroscopy.shoola.util.filter.file.GIFFilter;
 import org.openmicroscopy.shoola.util.filter.file.JPEGFilter;
 import org.openmicroscopy.shoola.util.filter.file.PNGFilter;
+import org.openmicroscopy.shoola.util.filter.file.TIFFFilter;
 
 /** 
  * Utility class to encode images.
@@ -79,6 +83,9 @@ public class WriterImage
 	/** Indicates to create a <code>GIF</code>. */
 	public static final int GIF = 2;
 	
+	/** Decodes the images, reusing the readers. */
+	private static final FrameDecoder DECODER = new FrameDecoder();
+	
     /**
      * Encodes the specified image. Depending on the specified format
      * a <code>JPEG</code>, <code>PNG</code>, <code>BMP</code> image is created.
@@ -137,6 +144,53 @@ public class WriterImage
             throw new EncoderException("Cannot encode the image.", e);
         }
     }
+
+    /**
+     * Encodes the image provided band by band. The <code>TIFF</code> and
+     * <code>PNG</code> images are written as the bands are produced so that
+     * the image is never built in memory. The other formats require the
+     * whole image.
+     *
+     * @param f The file to write to.
+     * @param source The image to encode.
+     * @param format The file format.
+     * @throws EncoderException Exception thrown if an error occurred during the
+     * encoding process.
+     */
+    public static void saveImage(File f, StripSource source, String format)
+        throws EncoderException
+    {
+    	if (f == null)
+    		throw new IllegalArgumentException("No file specified.");
+    	if (source == null)
+    		throw new IllegalArgumentException("No image specified.");
+    	if (!TIFFFilter.TIF.equals(format) && !PNGFilter.PNG.equals(format)) {
+    		BufferedImage img = new BufferedImage(source.getWidth(),
+    				source.getHeight(), BufferedImage.TYPE_INT_RGB);
+    		int[] data = ((DataBufferInt) img.getRaster().getDataBuffer())
+    				.getData();
+    		source.getRGB(0, source.getHeight(), data);
+    		saveImage(f, img, format);
+    		return;
+    	}
+    	OutputStream out = null;
+    	try {
+    		out = new BufferedOutputStream(new FileOutputStream(f));
+    		StripEncoder encoder;
+    		if (TIFFFilter.TIF.equals(format))
+    			encoder = new TIFFStripEncoder(source, out);
+    		else encoder = new PNGStripEncoder(source, out);
+    		encoder.write();
+    	} catch (IOException e) {
+    		throw new EncoderException("Cannot encode the image.", e);
+    	} finally {
+    		if (out != null) {
+    			try {
+    				out.close();
+    			} catch (Exception ex) {}
+    		}
+    	}
+    }
     
     /**
 	 * Converts the BufferImage to <code>JPEG</code> image.
@@ -203,23 +257,7 @@ public class WriterImage
 	public static BufferedImage bytesToImage(byte[] values)
 		throws EncoderException
 	{
-		if (values == null) 
-    		throw new IllegalArgumentException("No array specified.");
-		ByteArrayInputStream stream = null;
-		try {
-			stream = new ByteArrayInputStream(values);
-			BufferedImage image = ImageIO.read(stream);
-			if (image != null) image.setAccelerationPriority(1f);
-			return image;
-		} catch (Exception e) {
-			throw new EncoderException("Cannot create buffered image", e);
-		} finally {
-			if (stream != null) {
-				try {
-					stream.close();
-				} catch (Exception ex) {}
-			}
-		}
+		return DECODER.decode(values);
 	}
 	
 	/**
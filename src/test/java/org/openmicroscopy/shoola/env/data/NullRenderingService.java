@@ -102,6 +102,18 @@ public class NullRenderingService
      * @see OmeroImageService#shutDown(long)
      */
     public void shutDown(SecurityContext ctx, long pixelsID) {}
+
+    /**
+     * No-op implementation
+     * @see OmeroImageService#prepareRenderingControl(SecurityContext, long)
+     */
+    public void prepareRenderingControl(SecurityContext ctx, long pixelsID) {}
+
+    /**
+     * No-op implementation
+     * @see OmeroImageService#suspendRenderingControl(SecurityContext, long)
+     */
+    public void suspendRenderingControl(SecurityContext ctx, long pixelsID) {}
     
 	/**
      * No-op implementation
@@ -518,6 +530,13 @@ public class NullRenderingService
 		return null;
 	}
 
+    @Override
+    public Map<Long, Long> getRenderingDefTimes(SecurityContext ctx,
+            Collection<Long> pixelsIDs)
+            throws DSOutOfServiceException, DSAccessException {
+        return null;
+    }
+
     @Override
     public RndProxyDef getSettings(SecurityContext ctx, long rndID)
             throws DSOutOfServiceException, DSAccessException {
@@ -0,0 +1,181 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.env.data;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import omero.api.RenderingEnginePrx;
+import omero.gateway.SecurityContext;
+
+/**
+ * Checks that {@link RenderingEnginePool} keeps the engines of the images
+ * closed and discards the ones idle for too long.
+ *
+ * @author agent &nbsp;&nbsp;&nbsp;&nbsp;
+ * <a href="mailto:agent@local">agent@local</a>
+ * @since 5.6.3
+ */
+public class TestRenderingEnginePool
+    extends TestCase
+{
+
+    private RenderingEnginePool target;
+
+    private SecurityContext ctx;
+
+    private Map<RenderingEnginePrx, SecurityContext> discarded;
+
+    /** Creates an engine not connected to a server. */
+    private RenderingEnginePrx engine()
+    {
+        return (RenderingEnginePrx) Proxy.newProxyInstance(
+                getClass().getClassLoader(),
+                new Class[] {RenderingEnginePrx.class},
+                new InvocationHandler() {
+                    public Object invoke(Object proxy, Method m, Object[] args)
+                    {
+                        if ("equals".equals(m.getName()))
+                            return proxy == args[0];
+                        if ("hashCode".equals(m.getName()))
+                            return System.identityHashCode(proxy);
+                        return null;
+                    }
+                });
+    }
+
+    public void setUp()
+    {
+        target = new RenderingEnginePool(2, 1000);
+        ctx = new SecurityContext(1);
+        discarded = new HashMap<RenderingEnginePrx, SecurityContext>();
+    }
+
+    public void testReuse()
+    {
+        RenderingEnginePrx re = engine();
+        target.add(ctx, 1, re);
+        assertNull("Engine in use.", target.take(ctx, 1, 0, discarded));
+        assertTrue(target.release(ctx, 1, 0, discarded));
+        assertEquals(1, target.getIdleCount());
+        assertNull("Other image.", target.take(ctx, 2, 10, discarded));
+        assertNull("Other group.", target.take(new SecurityContext(2), 1, 10,
+                discarded));
+        assertSame(re, target.take(ctx, 1, 10, discarded));
+        assertEquals(0, target.getIdleCount());
+        assertTrue(discarded.isEmpty());
+    }
+
+    public void testReleaseUnknown()
+    {
+        assertFalse(target.release(ctx, 1, 0, discarded));
+        assertEquals(0, target.getIdleCount());
+    }
+
+    public void testIdleTime()
+    {
+        RenderingEnginePrx re = engine();
+        target.add(ctx, 1, re);
+        target.release(ctx, 1, 0, discarded);
+        assertNull(target.take(ctx, 1, 1000, discarded));
+        assertEquals(1, discarded.size());
+        assertSame(ctx, discarded.get(re));
+    }
+
+    public void testEvict()
+    {
+        RenderingEnginePrx old = engine();
+        RenderingEnginePrx recent = engine();
+        target.add(ctx, 1, old);
+        target.add(ctx, 2, recent);
+        target.release(ctx, 1, 0, discarded);
+        target.release(ctx, 2, 500, discarded);
+        assertTrue(target.evict(999).isEmpty());
+        Map<RenderingEnginePrx, SecurityContext> l = target.evict(1000);
+        assertEquals(1, l.size());
+        assertSame(ctx, l.get(old));
+        assertTrue(target.contains(ctx, 2));
+        assertFalse(target.contains(ctx, 1));
+        assertEquals(1, target.evict(1500).size());
+        assertEquals(0, target.getIdleCount());
+    }
+
+    public void testEvictInUse()
+    {
+        target.add(ctx, 1, engine());
+        assertTrue(target.evict(10000).isEmpty());
+        assertTrue("Engine in use.", target.contains(ctx, 1));
+    }
+
+    public void testMaxEngines()
+    {
+        RenderingEnginePrx first = engine();
+        target.add(ctx, 1, first);
+        target.add(ctx, 2, engine());
+        target.add(ctx, 3, engine());
+        target.release(ctx, 1, 0, discarded);
+        target.release(ctx, 2, 1, discarded);
+        target.release(ctx, 3, 2, discarded);
+        assertEquals(2, target.getIdleCount());
+        assertEquals(1, discarded.size());
+        assertTrue("Least recently released.", discarded.containsKey(first));
+        assertFalse(target.contains(ctx, 1));
+        assertTrue(target.contains(ctx, 3));
+    }
+
+    public void testOffer()
+    {
+        RenderingEnginePrx re = engine();
+        assertTrue(target.offer(ctx, 1, re, 0).isEmpty());
+        assertTrue(target.contains(ctx, 1));
+        assertSame(re, target.take(ctx, 1, 10, discarded));
+        assertTrue("Engine in use.", target.contains(ctx, 1));
+    }
+
+    public void testSeveralEngines()
+    {
+        RenderingEnginePrx a = engine();
+        RenderingEnginePrx b = engine();
+        target.add(ctx, 1, a);
+        target.add(ctx, 1, b);
+        target.release(ctx, 1, 0, discarded);
+        assertEquals(2, target.getIdleCount());
+        assertNotNull(target.take(ctx, 1, 10, discarded));
+        assertNotNull(target.take(ctx, 1, 10, discarded));
+        assertNull(target.take(ctx, 1, 10, discarded));
+    }
+
+    public void testClear()
+    {
+        target.add(ctx, 1, engine());
+        target.offer(ctx, 2, engine(), 0);
+        assertEquals(1, target.clear().size());
+        assertFalse(target.contains(ctx, 1));
+        assertFalse(target.contains(ctx, 2));
+    }
+
+}
@@ -57,6 +57,9 @@ public class FakeBatchCallTree
     //Increased every time getPartialResult() is called.
     private int                 partResCount;
     
+    //Increased every time release() is called.
+    private int                 releaseCount;
+    
     //Default processor the tree will work with.
     //Can be set to something different if needed.
     private CmdProcessor        processor = new SyncProcessor();
@@ -122,6 +125,11 @@ public class FakeBatchCallTree
         return Integer.valueOf(++partResCount);
     }
     
+    /* (non-Javadoc)
+     * @see BatchCallTree#release()
+     */
+    protected void release() { releaseCount++; }
+    
     //Called internally by the tree w/in exec().
     protected CmdProcessor getProcessor() { return processor; }
     
@@ -152,6 +160,9 @@ public class FakeBatchCallTree
         L[i].setException(fault);
     }
     
+    //How many times the tree released its resources.
+    public int getReleaseCount() { return releaseCount; }
+    
     //The number of leaves in the tree we build.
     public int getActualLeavesCount() { return 5; }
     
@@ -60,5 +60,8 @@ public class SyncBatchCallMonitor
     }
     
     protected void deliver(AgentEvent ae) { adaptee.eventFired(ae); }
+    
+    //Flushes every feedback event straight away.
+    protected void schedule(Runnable task, int delay) { task.run(); }
 
 }
@@ -0,0 +1,126 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+
+package org.openmicroscopy.shoola.env.data.views;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.openmicroscopy.shoola.env.data.events.DSCallAdapter;
+import org.openmicroscopy.shoola.env.data.events.DSCallBatchFeedbackEvent;
+import org.openmicroscopy.shoola.env.data.events.DSCallFeedbackEvent;
+import org.openmicroscopy.shoola.env.data.events.DSCallOutcomeEvent;
+import org.openmicroscopy.shoola.env.event.AgentEvent;
+
+/**
+ * Checks that {@link BatchCallMonitor} coalesces the feedback events fired
+ * within the same frame and delivers them before the outcome.
+ *
+ * @author agent &nbsp;&nbsp;&nbsp;&nbsp;
+ * <a href="mailto:agent@local">agent@local</a>
+ * @since 5.6.3
+ */
+public class TestBatchCallMonitor
+    extends TestCase
+{
+
+    //Events delivered by the monitor.
+    private List<AgentEvent> delivered;
+
+    //Tasks scheduled by the monitor, run by the tests.
+    private List<Runnable> scheduled;
+
+    //Object under test.
+    private BatchCallMonitor target;
+
+    public void setUp()
+    {
+        delivered = new ArrayList<AgentEvent>();
+        scheduled = new ArrayList<Runnable>();
+        target = new BatchCallMonitor(new FakeBatchCallTree(),
+                new DSCallAdapter() {}) {
+            protected void deliver(AgentEvent ae) { delivered.add(ae); }
+            protected void schedule(Runnable task, int delay)
+            {
+                scheduled.add(task);
+            }
+        };
+    }
+
+    public void testCoalesce()
+    {
+        target.onStart();
+        target.update(1);
+        target.update(2);
+        assertEquals("One flush per frame.", 1, scheduled.size());
+        assertTrue("Nothing delivered within the frame.", delivered.isEmpty());
+        scheduled.get(0).run();
+        assertEquals(1, delivered.size());
+        DSCallBatchFeedbackEvent batch =
+                (DSCallBatchFeedbackEvent) delivered.get(0);
+        assertEquals(3, batch.getEvents().size());
+        assertEquals(3, batch.getPartialResults().size());
+        assertEquals(batch.getEvents().get(2).getPartialResult(),
+                batch.getPartialResult());
+        target.update(3);
+        assertEquals("New frame.", 2, scheduled.size());
+    }
+
+    public void testSingle()
+    {
+        target.onStart();
+        scheduled.get(0).run();
+        assertEquals(1, delivered.size());
+        AgentEvent ae = delivered.get(0);
+        assertTrue(ae instanceof DSCallFeedbackEvent);
+        assertFalse("Not wrapped.", ae instanceof DSCallBatchFeedbackEvent);
+    }
+
+    public void testFeedbackBeforeOutcome()
+    {
+        target.onStart();
+        target.update(1);
+        target.onEnd(null);
+        assertEquals(2, delivered.size());
+        assertTrue(delivered.get(0) instanceof DSCallBatchFeedbackEvent);
+        assertTrue(delivered.get(1) instanceof DSCallOutcomeEvent);
+        scheduled.get(0).run();
+        assertEquals("Already delivered.", 2, delivered.size());
+    }
+
+    public void testAdapter()
+    {
+        final List<DSCallFeedbackEvent> received =
+                new ArrayList<DSCallFeedbackEvent>();
+        DSCallAdapter adapter = new DSCallAdapter() {
+            public void update(DSCallFeedbackEvent fe) { received.add(fe); }
+        };
+        List<DSCallFeedbackEvent> events = new ArrayList<DSCallFeedbackEvent>();
+        events.add(new DSCallFeedbackEvent(50, "a", null));
+        events.add(new DSCallFeedbackEvent(100, null, null));
+        adapter.eventFired(new DSCallBatchFeedbackEvent(events));
+        assertEquals("Each event forwarded.", events, received);
+    }
+
+}
@@ -47,7 +47,7 @@ import org.openmicroscopy.shoola.util.concur.tasks.FakeCmdProcessor;
  * (a {@link BatchCallMonitor}) with a {@link SyncBatchCallMonitor} (which will
  * dispach the tree's execution events in the JUnit thread).
  * Because all the {@link SyncBatchCallMonitor} does is overriding the 
- * <code>deliver</code> method, this test implicitly verifies the behavior of
+ * <code>deliver</code> and <code>schedule</code> methods, this test implicitly verifies the behavior of
  * {@link BatchCallMonitor}.  In turn, an instance of this latter class would
  * not work properly if the {@link BatchCallTree} didn't delegate calls to
  * its root node, so we also implicitly verify delegation.
@@ -130,6 +130,8 @@ public class TestBatchCallTree
         observer.activate();  //Transition mock to verification mode.
         target.exec(observer);  //Test.
         observer.verify();  //Make sure all expected calls were performed.
+        assertEquals("Resources released once.", 1,
+                target.getReleaseCount());
         verifySingleExecution();  //Make sure won't allow re-exec.
     }
     
@@ -143,6 +145,8 @@ public class TestBatchCallTree
         observer.activate();  //Transition mock to verification mode.
         target.exec(observer);  //Test.
         observer.verify();  //Make sure all expected calls were performed.
+        assertEquals("Resources released once.", 1,
+                target.getReleaseCount());
         verifySingleExecution();  //Make sure won't allow re-exec.
     }
     
@@ -237,6 +241,9 @@ public class TestBatchCallTree
         //Make sure all expected calls were performed.
         observer.verify();  
         
+        assertEquals("Resources released once.", 1,
+                target.getReleaseCount());
+        
         verifySingleExecution();  //Make sure won't allow re-exec.
     }
     //NOTE: what about the other cancellation paths?  If cancellation is
@@ -25,6 +25,10 @@ package org.openmicroscopy.shoola.env.data.views;
 
 
 //Java imports
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 //Third-party libraries
 import junit.framework.TestCase;
@@ -126,4 +130,78 @@ public class TestCompositeBatchCall
                     1, L[i].getDoCallCount());
     }
 
+    public void testParallel()
+        throws Exception
+    {
+        target.setFanOut(2);
+        assertTrue(target.isParallel());
+        int steps = 0;
+        while (!target.isDone()) {
+            target.doStep();
+            steps++;
+            assertTrue("Too many steps.", steps <= 5);
+        }
+        assertEquals("One step per call.", 5, steps);
+        assertNull("Last processed call should be discaded when done.", 
+                target.getCurCall());
+        for (int i = 1; i < 6; ++i) 
+            assertEquals("L"+i+" should have been called only once.", 
+                    1, L[i].getDoCallCount());
+    }
+    
+    public void testParallelResults()
+        throws Exception
+    {
+        //Each call waits for the other, so they can only complete if run
+        //concurrently.
+        final CountDownLatch latch = new CountDownLatch(2);
+        target = new CompositeBatchCall();
+        for (int i = 0; i < 2; ++i) {
+            final Integer value = Integer.valueOf(i);
+            target.add(new BatchCall() {
+                public void doCall()
+                    throws Exception
+                {
+                    latch.countDown();
+                    if (!latch.await(5, TimeUnit.SECONDS))
+                        throw new Exception("Not run concurrently.");
+                    setPartialResult(value);
+                }
+            });
+        }
+        target.setFanOut(2);
+        Set<Object> results = new HashSet<Object>();
+        while (!target.isDone()) {
+            target.doStep();
+            results.add(target.getPartialResult());
+        }
+        assertEquals(2, results.size());
+        assertTrue(results.contains(Integer.valueOf(0)));
+        assertTrue(results.contains(Integer.valueOf(1)));
+    }
+    
+    public void testParallelException()
+    {
+        Exception exc = new Exception();
+        L[3].setException(exc);
+        target.setFanOut(3);
+        try {
+            while (!target.isDone()) target.doStep();
+            fail("Should have forwarded the exception.");
+        } catch (Exception e) {
+            assertSame("Wrong exception.", exc, e);
+        }
+    }
+    
+    public void testWrongFanOut()
+    {
+        try {
+            target.setFanOut(0);
+            fail("Shouldn't accept a non-positive fan-out.");
+        } catch (IllegalArgumentException iae) {
+            //OK, expected.
+        }
+        assertFalse(target.isParallel());
+    }
+
 }
@@ -0,0 +1,164 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+
+package org.openmicroscopy.shoola.env.data.views.calls;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+/**
+ * Checks that {@link ThumbnailDiskCache} only returns the thumbnails
+ * generated with the current settings, evicts the least recently used
+ * thumbnails, keeps the thumbnails across sessions and is not shared by
+ * two applications.
+ *
+ * @author agent &nbsp;&nbsp;&nbsp;&nbsp;
+ * <a href="mailto:agent@local">agent@local</a>
+ * @since 5.6.3
+ */
+public class TestThumbnailDiskCache
+    extends TestCase
+{
+
+    private static final int SIZE = 96;
+
+    private File directory;
+
+    private byte[] thumbnail(int value)
+    {
+        byte[] data = new byte[100];
+        Arrays.fill(data, (byte) value);
+        return data;
+    }
+
+    public void setUp()
+        throws Exception
+    {
+        directory = Files.createTempDirectory("thumbnails").toFile();
+    }
+
+    public void tearDown()
+    {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (int i = 0; i < files.length; i++)
+                files[i].delete();
+        }
+        directory.delete();
+    }
+
+    public void testGet()
+    {
+        ThumbnailDiskCache cache = new ThumbnailDiskCache(directory, 10000);
+        assertTrue(cache.isEnabled());
+        cache.put(1, -1, SIZE, 10, thumbnail(1));
+        assertTrue(Arrays.equals(thumbnail(1), cache.get(1, -1, SIZE, 10)));
+        assertNull("Other user.", cache.get(1, 2, SIZE, 10));
+        assertNull("Other size.", cache.get(1, -1, 2*SIZE, 10));
+        assertEquals(100, cache.getSize());
+        cache.close();
+    }
+
+    public void testStale()
+    {
+        ThumbnailDiskCache cache = new ThumbnailDiskCache(directory, 10000);
+        cache.put(1, -1, SIZE, 10, thumbnail(1));
+        assertNull("Settings modified.", cache.get(1, -1, SIZE, 20));
+        assertNull("Removed.", cache.get(1, -1, SIZE, 10));
+        assertEquals(0, cache.getSize());
+        assertEquals("Only the index left.", 1,
+                directory.listFiles().length);
+        cache.close();
+    }
+
+    public void testEviction()
+    {
+        ThumbnailDiskCache cache = new ThumbnailDiskCache(directory, 200);
+        cache.put(1, -1, SIZE, 10, thumbnail(1));
+        cache.put(2, -1, SIZE, 10, thumbnail(2));
+        cache.get(1, -1, SIZE, 10);
+        cache.put(3, -1, SIZE, 10, thumbnail(3));
+        assertNotNull(cache.get(1, -1, SIZE, 10));
+        assertNull(cache.get(2, -1, SIZE, 10));
+        assertNotNull(cache.get(3, -1, SIZE, 10));
+        assertEquals(200, cache.getSize());
+        assertEquals(3, directory.listFiles().length);
+        cache.close();
+    }
+
+    public void testCapacity()
+    {
+        ThumbnailDiskCache cache = new ThumbnailDiskCache(directory, 10000,
+                2);
+        cache.put(1, -1, SIZE, 10, thumbnail(1));
+        cache.put(2, -1, SIZE, 10, thumbnail(2));
+        cache.put(3, -1, SIZE, 10, thumbnail(3));
+        assertNull(cache.get(1, -1, SIZE, 10));
+        assertNotNull(cache.get(2, -1, SIZE, 10));
+        assertNotNull(cache.get(3, -1, SIZE, 10));
+        cache.close();
+    }
+
+    public void testReopen()
+    {
+        ThumbnailDiskCache cache = new ThumbnailDiskCache(directory, 200);
+        cache.put(1, -1, SIZE, 10, thumbnail(1));
+        cache.put(2, -1, SIZE, 10, thumbnail(2));
+        cache.get(1, -1, SIZE, 10);
+        cache.close();
+        assertFalse(cache.isEnabled());
+        cache = new ThumbnailDiskCache(directory, 200);
+        assertEquals(200, cache.getSize());
+        assertTrue("Kept across sessions.",
+                Arrays.equals(thumbnail(2), cache.get(2, -1, SIZE, 10)));
+        cache.put(3, -1, SIZE, 10, thumbnail(3));
+        assertNull("Least recently used.", cache.get(1, -1, SIZE, 10));
+        assertNotNull(cache.get(3, -1, SIZE, 10));
+        cache.close();
+    }
+
+    public void testLocked()
+    {
+        ThumbnailDiskCache cache = new ThumbnailDiskCache(directory, 10000);
+        cache.put(1, -1, SIZE, 10, thumbnail(1));
+        ThumbnailDiskCache other = new ThumbnailDiskCache(directory, 10000);
+        assertFalse("Directory in use.", other.isEnabled());
+        assertNotNull("Files kept.", cache.get(1, -1, SIZE, 10));
+        cache.close();
+        other = new ThumbnailDiskCache(directory, 10000);
+        assertTrue(other.isEnabled());
+        assertNotNull(other.get(1, -1, SIZE, 10));
+        other.close();
+    }
+
+    public void testDisabled()
+    {
+        ThumbnailDiskCache cache = new ThumbnailDiskCache(directory, 0);
+        assertFalse(cache.isEnabled());
+        cache.put(1, -1, SIZE, 10, thumbnail(1));
+        assertNull(cache.get(1, -1, SIZE, 10));
+    }
+
+}
@@ -0,0 +1,108 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+
+package org.openmicroscopy.shoola.env.data.views.calls;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+/**
+ * Checks that a {@link ThumbnailSet} is loaded once and returns
+ * <code>null</code> for the thumbnails the caller must load on its own.
+ *
+ * @author agent &nbsp;&nbsp;&nbsp;&nbsp;
+ * <a href="mailto:agent@local">agent@local</a>
+ * @since 5.6.3
+ */
+public class TestThumbnailSet
+    extends TestCase
+{
+
+    /** The sets of ids requested. */
+    private List<List<Long>> requests;
+
+    /** Creates a set returning the passed thumbnails. */
+    private ThumbnailSet set(final Map<Long, byte[]> thumbnails)
+    {
+        ThumbnailSet set = new ThumbnailSet() {
+            Map<Long, byte[]> load(List<Long> pixelsIDs)
+            {
+                requests.add(new ArrayList<Long>(pixelsIDs));
+                return thumbnails;
+            }
+        };
+        set.add(1);
+        set.add(2);
+        set.add(3);
+        return set;
+    }
+
+    public void setUp()
+    {
+        requests = new ArrayList<List<Long>>();
+    }
+
+    public void testLoadOnce()
+    {
+        Map<Long, byte[]> m = new HashMap<Long, byte[]>();
+        m.put(1L, new byte[] {1});
+        m.put(2L, new byte[] {2});
+        m.put(3L, new byte[] {3});
+        ThumbnailSet set = set(m);
+        assertEquals(3, set.size());
+        assertTrue(requests.isEmpty());
+        assertEquals(2, set.get(2)[0]);
+        assertEquals(1, set.get(1)[0]);
+        assertEquals(1, requests.size());
+        assertEquals(3, requests.get(0).size());
+        assertNull("Handed out once.", set.get(1));
+        assertEquals(3, set.get(3)[0]);
+        assertEquals(1, requests.size());
+    }
+
+    public void testMissing()
+    {
+        Map<Long, byte[]> m = new HashMap<Long, byte[]>();
+        m.put(1L, new byte[] {1});
+        ThumbnailSet set = set(m);
+        assertNotNull(set.get(1));
+        assertNull("Loaded on its own.", set.get(2));
+        assertNull(set.get(3));
+        assertEquals(1, requests.size());
+    }
+
+    public void testFailure()
+    {
+        ThumbnailSet set = set(null);
+        assertNull(set.get(1));
+        assertNull(set.get(2));
+        assertEquals("Not retried.", 1, requests.size());
+        set = set(new HashMap<Long, byte[]>());
+        assertNull(set.get(3));
+        assertEquals(2, requests.size());
+    }
+
+}
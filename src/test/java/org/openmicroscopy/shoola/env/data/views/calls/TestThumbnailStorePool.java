@@ -0,0 +1,172 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+
+package org.openmicroscopy.shoola.env.data.views.calls;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import omero.api.ThumbnailStorePrx;
+import omero.gateway.SecurityContext;
+
+import org.openmicroscopy.shoola.env.data.OmeroDataService;
+import org.openmicroscopy.shoola.env.data.OmeroImageService;
+
+/**
+ * Checks that {@link ThumbnailStorePool} reuses the stores of a given user,
+ * keeps at most {@link ThumbnailStorePool#MAX_IDLE} idle stores and closes
+ * the stores in use once released after the pool is closed.
+ *
+ * @author agent &nbsp;&nbsp;&nbsp;&nbsp;
+ * <a href="mailto:agent@local">agent@local</a>
+ * @since 5.6.3
+ */
+public class TestThumbnailStorePool
+    extends TestCase
+{
+
+    private ThumbnailStorePool target;
+
+    /** The stores created by the image service. */
+    private List<ThumbnailStorePrx> created;
+
+    /** The stores closed by the data service. */
+    private List<Object> closed;
+
+    /** Creates an object implementing the passed interface. */
+    private Object proxy(Class<?> type, final InvocationHandler handler)
+    {
+        return Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class[] {type}, new InvocationHandler() {
+                    public Object invoke(Object proxy, Method m, Object[] args)
+                        throws Throwable
+                    {
+                        if ("equals".equals(m.getName()))
+                            return proxy == args[0];
+                        if ("hashCode".equals(m.getName()))
+                            return System.identityHashCode(proxy);
+                        if ("toString".equals(m.getName()))
+                            return "proxy";
+                        return handler == null ? null :
+                            handler.invoke(proxy, m, args);
+                    }
+                });
+    }
+
+    public void setUp()
+    {
+        created = new ArrayList<ThumbnailStorePrx>();
+        closed = new ArrayList<Object>();
+        OmeroImageService images = (OmeroImageService) proxy(
+                OmeroImageService.class, new InvocationHandler() {
+                    public Object invoke(Object proxy, Method m, Object[] args)
+                    {
+                        if (!"createThumbnailStore".equals(m.getName()))
+                            return null;
+                        ThumbnailStorePrx store = (ThumbnailStorePrx)
+                                proxy(ThumbnailStorePrx.class, null);
+                        created.add(store);
+                        return store;
+                    }
+                });
+        OmeroDataService data = (OmeroDataService) proxy(
+                OmeroDataService.class, new InvocationHandler() {
+                    public Object invoke(Object proxy, Method m, Object[] args)
+                    {
+                        if ("closeService".equals(m.getName()))
+                            closed.add(args[1]);
+                        return null;
+                    }
+                });
+        target = new ThumbnailStorePool(new SecurityContext(1), images, data);
+    }
+
+    public void testReuse()
+        throws Exception
+    {
+        ThumbnailStorePrx store = target.acquire(1);
+        assertEquals(1, created.size());
+        target.release(1, store);
+        assertSame(store, target.acquire(1));
+        assertEquals("Reused.", 1, created.size());
+        assertNotSame("Busy.", store, target.acquire(1));
+        target.release(1, store);
+        assertNotSame("Other user.", store, target.acquire(2));
+        assertEquals(3, created.size());
+        assertTrue(closed.isEmpty());
+    }
+
+    public void testMaxIdle()
+        throws Exception
+    {
+        int n = ThumbnailStorePool.MAX_IDLE+2;
+        List<ThumbnailStorePrx> stores = new ArrayList<ThumbnailStorePrx>();
+        for (int i = 0; i < n; i++)
+            stores.add(target.acquire(1));
+        for (ThumbnailStorePrx store : stores)
+            target.release(1, store);
+        assertEquals(2, closed.size());
+        for (int i = 0; i < ThumbnailStorePool.MAX_IDLE; i++)
+            assertFalse(closed.contains(target.acquire(1)));
+        assertEquals("All idle stores reused.", n, created.size());
+        target.acquire(1);
+        assertEquals(n+1, created.size());
+    }
+
+    public void testCloseWhileInUse()
+        throws Exception
+    {
+        ThumbnailStorePrx used = target.acquire(1);
+        ThumbnailStorePrx idle = target.acquire(1);
+        target.release(1, idle);
+        target.close();
+        assertEquals(1, closed.size());
+        assertSame("Idle store closed.", idle, closed.get(0));
+        target.release(1, used);
+        assertEquals(2, closed.size());
+        assertSame("Closed once released.", used, closed.get(1));
+        try {
+            target.acquire(1);
+            fail("The pool is closed.");
+        } catch (IllegalStateException e) {}
+        target.close();
+        assertEquals(2, closed.size());
+    }
+
+    public void testDiscard()
+        throws Exception
+    {
+        ThumbnailStorePrx store = target.acquire(1);
+        target.discard(store);
+        assertEquals(1, closed.size());
+        target.discard(null);
+        target.release(1, null);
+        assertEquals(1, closed.size());
+        assertNotSame("Not pooled.", store, target.acquire(1));
+    }
+
+}
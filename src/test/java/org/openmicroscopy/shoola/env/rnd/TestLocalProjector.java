@@ -0,0 +1,145 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+
+package org.openmicroscopy.shoola.env.rnd;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import junit.framework.TestCase;
+
+import org.openmicroscopy.shoola.env.data.model.ProjectionParam;
+
+/**
+ * Checks that {@link LocalProjector} projects the z-sections as the server
+ * does and only processes the sections added to or removed from the
+ * interval.
+ *
+ * @author agent &nbsp;&nbsp;&nbsp;&nbsp;
+ * <a href="mailto:agent@local">agent@local</a>
+ * @since 5.6.3
+ */
+public class TestLocalProjector
+    extends TestCase
+{
+
+    /** The number of pixels of a plane. */
+    private static final int SIZE = 2;
+
+    /**
+     * Provides the planes, the value of the pixel <code>i</code> is
+     * <code>z*10+i</code>, and records the loaded sections.
+     */
+    private static class Source
+        implements LocalProjector.PlaneSource
+    {
+
+        private final Set<Integer> loaded = new HashSet<Integer>();
+
+        public float[] getPlane(int z, int t, int c)
+        {
+            loaded.add(z);
+            float[] plane = new float[SIZE];
+            for (int i = 0; i < SIZE; i++)
+                plane[i] = z*10+i;
+            return plane;
+        }
+    }
+
+    private LocalProjector target;
+
+    private Source source;
+
+    private float[] project(int startZ, int endZ, int stepping, int type,
+            double upperBound)
+        throws Exception
+    {
+        source.loaded.clear();
+        return target.project(0, 0, LocalProjector.getSections(startZ, endZ,
+                stepping), type, upperBound, SIZE, source);
+    }
+
+    public void setUp()
+    {
+        target = new LocalProjector();
+        source = new Source();
+    }
+
+    public void testSections()
+    {
+        Set<Integer> sections = LocalProjector.getSections(1, 6, 2);
+        assertEquals(3, sections.size());
+        assertTrue(sections.contains(1));
+        assertTrue(sections.contains(3));
+        assertTrue(sections.contains(5));
+    }
+
+    public void testMaximum()
+        throws Exception
+    {
+        float[] values = project(0, 4, 1,
+                ProjectionParam.MAXIMUM_INTENSITY, 0);
+        assertEquals(40f, values[0]);
+        assertEquals(41f, values[1]);
+        values = project(0, 5, 1, ProjectionParam.MAXIMUM_INTENSITY, 0);
+        assertEquals("Only the new section is loaded.", 1,
+                source.loaded.size());
+        values = project(0, 2, 1, ProjectionParam.MAXIMUM_INTENSITY, 0);
+        assertEquals(20f, values[0]);
+        assertEquals("Computed again.", 3, source.loaded.size());
+    }
+
+    public void testMean()
+        throws Exception
+    {
+        float[] values = project(0, 2, 1, ProjectionParam.MEAN_INTENSITY, 0);
+        assertEquals(10f, values[0], 1e-6);
+        assertEquals(11f, values[1], 1e-6);
+        values = project(1, 3, 1, ProjectionParam.MEAN_INTENSITY, 0);
+        assertEquals(20f, values[0], 1e-6);
+        assertEquals("Added and removed sections.", 2, source.loaded.size());
+        assertTrue(source.loaded.contains(0));
+        assertTrue(source.loaded.contains(3));
+    }
+
+    public void testSum()
+        throws Exception
+    {
+        float[] values = project(0, 3, 1, ProjectionParam.SUM_INTENSITY, 0);
+        assertEquals(60f, values[0], 1e-6);
+        assertEquals(64f, values[1], 1e-6);
+        values = project(0, 3, 1, ProjectionParam.SUM_INTENSITY, 62);
+        assertEquals("Clamped.", 62f, values[1], 1e-6);
+        assertEquals("Nothing to load.", 0, source.loaded.size());
+    }
+
+    public void testTypeChanged()
+        throws Exception
+    {
+        project(0, 2, 1, ProjectionParam.SUM_INTENSITY, 0);
+        float[] values = project(0, 2, 1, ProjectionParam.MAXIMUM_INTENSITY,
+                0);
+        assertEquals(20f, values[0]);
+        assertEquals(3, source.loaded.size());
+    }
+
+}
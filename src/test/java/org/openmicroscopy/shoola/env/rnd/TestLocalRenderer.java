@@ -0,0 +1,161 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.env.rnd;
+
+import junit.framework.TestCase;
+
+/**
+ * Checks that {@link LocalRenderer} maps the raw values onto the window
+ * and identifies the settings it cannot handle.
+ *
+ * @author agent &nbsp;&nbsp;&nbsp;&nbsp;
+ * <a href="mailto:agent@local">agent@local</a>
+ * @since 5.6.3
+ */
+public class TestLocalRenderer
+    extends TestCase
+{
+
+    /** The number of pixels along the X-axis. */
+    private static final int SIZE_X = 3;
+
+    /** The raw values of the first channel. */
+    private static final float[] RED = {0, 50, 200};
+
+    /** The raw values of the second channel. */
+    private static final float[] GREEN = {100, 25, 0};
+
+    private RndProxyDef def;
+
+    private ChannelBindingsProxy channel(int r, int g, int b)
+    {
+        ChannelBindingsProxy c = new ChannelBindingsProxy();
+        c.setActive(true);
+        c.setInterval(0, 100);
+        c.setRGBA(r, g, b, 255);
+        c.setQuantization(RenderingControl.LINEAR, 1.0, false);
+        return c;
+    }
+
+    private int red(int pixel) { return (pixel >> 16) & 0xFF; }
+
+    private int green(int pixel) { return (pixel >> 8) & 0xFF; }
+
+    private int blue(int pixel) { return pixel & 0xFF; }
+
+    /**
+     * Checks the rendered value, allowing the rounding differences
+     * of the server.
+     */
+    private void assertValue(int expected, int value)
+    {
+        assertEquals(expected, value, 1);
+    }
+
+    public void setUp()
+    {
+        def = new RndProxyDef(null);
+        def.setBitResolution(255);
+        def.setCodomain(0, 255);
+        def.setColorModel(RenderingControl.RGB);
+        def.setChannel(0, channel(255, 0, 0));
+        def.setChannel(1, channel(0, 255, 0));
+    }
+
+    public void testRGB()
+    {
+        int[] buf = LocalRenderer.render(def, new float[][] {RED, GREEN},
+                SIZE_X, 1);
+        assertEquals(SIZE_X, buf.length);
+        assertEquals(0, red(buf[0]));
+        assertEquals(255, green(buf[0]));
+        assertValue(128, red(buf[1]));
+        assertValue(64, green(buf[1]));
+        assertEquals("Above the window.", 255, red(buf[2]));
+        assertEquals("Below the window.", 0, green(buf[2]));
+        for (int i = 0; i < buf.length; i++) {
+            assertEquals(0, blue(buf[i]));
+            assertEquals(0xFF, buf[i] >>> 24);
+        }
+    }
+
+    public void testInactiveChannel()
+    {
+        def.getChannel(1).setActive(false);
+        int[] buf = LocalRenderer.render(def, new float[][] {RED, null},
+                SIZE_X, 1);
+        assertValue(128, red(buf[1]));
+        assertEquals(0, green(buf[1]));
+    }
+
+    public void testGreyScale()
+    {
+        def.setColorModel(RenderingControl.GREY_SCALE);
+        def.getChannel(0).setActive(false);
+        int[] buf = LocalRenderer.render(def, new float[][] {null, GREEN},
+                SIZE_X, 1);
+        assertValue(64, red(buf[1]));
+        assertValue(64, green(buf[1]));
+        assertValue(64, blue(buf[1]));
+    }
+
+    public void testReverseIntensity()
+    {
+        def.getChannel(1).setActive(false);
+        def.getChannel(0).setReverseIntensity(true);
+        int[] buf = LocalRenderer.render(def, new float[][] {RED, null},
+                SIZE_X, 1);
+        assertEquals(255, red(buf[0]));
+        assertValue(127, red(buf[1]));
+        assertEquals(0, red(buf[2]));
+    }
+
+    public void testLargePlane()
+    {
+        int sizeX = 100;
+        int sizeY = 300;
+        float[] values = new float[sizeX*sizeY];
+        for (int i = 0; i < values.length; i++)
+            values[i] = i%101;
+        def.getChannel(1).setActive(false);
+        int[] buf = LocalRenderer.render(def, new float[][] {values, null},
+                sizeX, sizeY);
+        for (int i = 0; i < values.length; i++) {
+            assertValue((int) Math.round(values[i]*2.55), red(buf[i]));
+        }
+    }
+
+    public void testCanRender()
+    {
+        assertTrue(LocalRenderer.canRender(def));
+        def.getChannel(0).setLookupTable("cool.lut");
+        assertFalse("Lookup table.", LocalRenderer.canRender(def));
+        def.getChannel(0).setLookupTable(null);
+        def.getChannel(1).setQuantization(RenderingControl.LINEAR, 1.0, true);
+        assertFalse("Noise reduction.", LocalRenderer.canRender(def));
+        def.getChannel(1).setActive(false);
+        assertTrue("Inactive channel.", LocalRenderer.canRender(def));
+        def.getChannel(0).setActive(false);
+        assertFalse("No active channel.", LocalRenderer.canRender(def));
+    }
+
+}
@@ -0,0 +1,306 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.env.rnd;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.nio.file.Files;
+
+import junit.framework.TestCase;
+
+import omero.romio.PlaneDef;
+import omero.romio.RegionDef;
+
+/**
+ * Tests the eviction and invalidation policies of {@link PlaneCache}
+ * and the spill of the tiles to the {@link PlaneDiskCache}.
+ *
+ * @author agent &nbsp;&nbsp;&nbsp;&nbsp;
+ * <a href="mailto:agent@local">agent@local</a>
+ * @since 5.6.3
+ */
+public class TestPlaneCache
+    extends TestCase
+{
+
+    /** The size of an image used for testing. */
+    private static final long IMAGE_SIZE = 4*4*4;
+
+    private PlaneDef plane(int z, int t)
+    {
+        PlaneDef pDef = new PlaneDef();
+        pDef.slice = omero.romio.XY.value;
+        pDef.z = z;
+        pDef.t = t;
+        return pDef;
+    }
+
+    private BufferedImage image()
+    {
+        return new BufferedImage(4, 4, BufferedImage.TYPE_INT_RGB);
+    }
+
+    private PlaneCache.PlaneKey tile(long pixelsID, int x, int level)
+    {
+        PlaneDef pDef = plane(0, 0);
+        pDef.region = new RegionDef(x, 0, 4, 4);
+        return new PlaneCache.PlaneKey(pixelsID, pDef, level, 0, 1);
+    }
+
+    private File directory;
+
+    public void setUp()
+        throws Exception
+    {
+        directory = Files.createTempDirectory("tiles").toFile();
+    }
+
+    private void delete(File f)
+    {
+        File[] files = f.listFiles();
+        if (files != null) {
+            for (int i = 0; i < files.length; i++)
+                delete(files[i]);
+        }
+        f.delete();
+    }
+
+    /** Returns the number of planes written by the passed cache. */
+    private int count(PlaneDiskCache disk)
+    {
+        disk.flush();
+        File[] files = disk.getDirectory().listFiles();
+        int n = 0;
+        for (int i = 0; i < files.length; i++) {
+            if (files[i].getName().endsWith(".png")) n++;
+        }
+        return n;
+    }
+
+    public void tearDown()
+    {
+        delete(directory);
+    }
+
+    public void testGet()
+    {
+        PlaneCache cache = new PlaneCache(10*IMAGE_SIZE);
+        BufferedImage img = image();
+        cache.put(new PlaneCache.PlaneKey(1, plane(0, 0), 0, 0, 1), img);
+        assertSame(img,
+                cache.get(new PlaneCache.PlaneKey(1, plane(0, 0), 0, 0, 1)));
+        assertNull(cache.get(new PlaneCache.PlaneKey(1, plane(1, 0), 0, 0, 1)));
+        assertNull("Different settings.",
+                cache.get(new PlaneCache.PlaneKey(1, plane(0, 0), 0, 0, 2)));
+        assertNull("Different compression.",
+                cache.get(new PlaneCache.PlaneKey(1, plane(0, 0), 0, 1, 1)));
+        assertNull("Different pixels set.",
+                cache.get(new PlaneCache.PlaneKey(2, plane(0, 0), 0, 0, 1)));
+        assertEquals(IMAGE_SIZE, cache.getSize());
+    }
+
+    public void testRegion()
+    {
+        PlaneCache cache = new PlaneCache(10*IMAGE_SIZE);
+        PlaneDef pDef = plane(0, 0);
+        pDef.region = new RegionDef(0, 0, 4, 4);
+        cache.put(new PlaneCache.PlaneKey(1, pDef, 0, 0, 1), image());
+        assertNull(cache.get(new PlaneCache.PlaneKey(1, plane(0, 0), 0, 0, 1)));
+        pDef = plane(0, 0);
+        pDef.region = new RegionDef(0, 0, 4, 4);
+        assertNotNull(cache.get(new PlaneCache.PlaneKey(1, pDef, 0, 0, 1)));
+        assertNull("Different level.",
+                cache.get(new PlaneCache.PlaneKey(1, pDef, 1, 0, 1)));
+    }
+
+    public void testEviction()
+    {
+        PlaneCache cache = new PlaneCache(2*IMAGE_SIZE);
+        PlaneCache.PlaneKey k0 = new PlaneCache.PlaneKey(1, plane(0, 0), 0, 0,
+                1);
+        PlaneCache.PlaneKey k1 = new PlaneCache.PlaneKey(1, plane(1, 0), 0, 0,
+                1);
+        PlaneCache.PlaneKey k2 = new PlaneCache.PlaneKey(1, plane(2, 0), 0, 0,
+                1);
+        cache.put(k0, image());
+        cache.put(k1, image());
+        cache.get(k0); //k1 is now the least recently used.
+        cache.put(k2, image());
+        assertNotNull(cache.get(k0));
+        assertNull(cache.get(k1));
+        assertNotNull(cache.get(k2));
+        assertEquals(2*IMAGE_SIZE, cache.getSize());
+    }
+
+    public void testTooLarge()
+    {
+        PlaneCache cache = new PlaneCache(IMAGE_SIZE-1);
+        PlaneCache.PlaneKey k = new PlaneCache.PlaneKey(1, plane(0, 0), 0, 0,
+                1);
+        cache.put(k, image());
+        assertNull(cache.get(k));
+        assertEquals(0, cache.getSize());
+    }
+
+    public void testDisabled()
+    {
+        PlaneCache cache = new PlaneCache(0);
+        assertFalse(cache.isEnabled());
+        PlaneCache.PlaneKey k = new PlaneCache.PlaneKey(1, plane(0, 0), 0, 0,
+                1);
+        cache.put(k, image());
+        assertNull(cache.get(k));
+    }
+
+    public void testInvalidate()
+    {
+        PlaneCache cache = new PlaneCache(10*IMAGE_SIZE);
+        PlaneCache.PlaneKey k1 = new PlaneCache.PlaneKey(1, plane(0, 0), 0, 0,
+                1);
+        PlaneCache.PlaneKey k2 = new PlaneCache.PlaneKey(2, plane(0, 0), 0, 0,
+                1);
+        cache.put(k1, image());
+        cache.put(k2, image());
+        cache.invalidate(1);
+        assertNull(cache.get(k1));
+        assertNotNull(cache.get(k2));
+        assertEquals(IMAGE_SIZE, cache.getSize());
+        cache.clear();
+        assertNull(cache.get(k2));
+        assertEquals(0, cache.getSize());
+    }
+
+    public void testSpill()
+    {
+        PlaneDiskCache disk = new PlaneDiskCache(directory, 1024*1024);
+        PlaneCache cache = new PlaneCache(IMAGE_SIZE, disk);
+        BufferedImage img = image();
+        img.setRGB(1, 2, 0xFF0000);
+        cache.put(tile(1, 0, 0), img);
+        cache.put(tile(1, 4, 0), image());
+        assertTrue("Written to disk.", disk.contains(tile(1, 0, 0)));
+        assertEquals(1, count(disk));
+        BufferedImage read = cache.get(tile(1, 0, 0));
+        assertNotNull("Read from disk.", read);
+        assertEquals(0xFF0000, read.getRGB(1, 2) & 0xFFFFFF);
+        assertNull("Different level.", cache.get(tile(1, 0, 1)));
+    }
+
+    public void testSpillPlanes()
+    {
+        PlaneDiskCache disk = new PlaneDiskCache(directory, 1024*1024);
+        PlaneCache cache = new PlaneCache(IMAGE_SIZE, disk);
+        PlaneCache.PlaneKey k = new PlaneCache.PlaneKey(1, plane(0, 0), 0, 0,
+                1);
+        cache.put(k, image());
+        cache.put(tile(1, 0, 0), image());
+        assertFalse("Only the tiles are written.", disk.contains(k));
+        assertNull(cache.get(k));
+    }
+
+    public void testDiskEviction()
+    {
+        PlaneDiskCache disk = new PlaneDiskCache(directory, 1024*1024);
+        disk.put(tile(1, 0, 0), image());
+        long n = disk.getSize();
+        assertTrue(n > 0);
+        disk = new PlaneDiskCache(directory, 2*n);
+        assertEquals(0, count(disk));
+        disk.put(tile(1, 0, 0), image());
+        disk.put(tile(1, 4, 0), image());
+        disk.get(tile(1, 0, 0));
+        disk.put(tile(1, 8, 0), image());
+        assertTrue(disk.contains(tile(1, 0, 0)));
+        assertFalse(disk.contains(tile(1, 4, 0)));
+        assertTrue(disk.contains(tile(1, 8, 0)));
+        assertEquals(2, count(disk));
+        assertEquals(2*n, disk.getSize());
+    }
+
+    public void testDiskInvalidate()
+    {
+        PlaneDiskCache disk = new PlaneDiskCache(directory, 1024*1024);
+        PlaneCache cache = new PlaneCache(IMAGE_SIZE, disk);
+        cache.put(tile(1, 0, 0), image());
+        cache.put(tile(2, 0, 0), image());
+        cache.put(tile(2, 4, 0), image());
+        assertTrue(disk.contains(tile(1, 0, 0)));
+        cache.invalidate(1);
+        assertFalse(disk.contains(tile(1, 0, 0)));
+        assertTrue(disk.contains(tile(2, 0, 0)));
+        cache.clear();
+        assertEquals(0, count(disk));
+        assertEquals(0, disk.getSize());
+    }
+
+    public void testSpillInBackground()
+    {
+        PlaneDiskCache disk = new PlaneDiskCache(directory, 1024*1024);
+        BufferedImage img = image();
+        disk.spill(tile(1, 0, 0), img);
+        assertTrue(disk.contains(tile(1, 0, 0)));
+        assertNotNull("Served while waiting.", disk.get(tile(1, 0, 0)));
+        disk.spill(tile(2, 0, 0), image());
+        disk.invalidate(2);
+        assertEquals(1, count(disk));
+        assertTrue(disk.contains(tile(1, 0, 0)));
+        assertFalse("Invalidated while waiting.",
+                disk.contains(tile(2, 0, 0)));
+        assertTrue(disk.getSize() > 0);
+    }
+
+    public void testSeveralInstances()
+    {
+        PlaneDiskCache first = new PlaneDiskCache(directory, 1024*1024);
+        first.put(tile(1, 0, 0), image());
+        PlaneDiskCache second = new PlaneDiskCache(directory, 1024*1024);
+        assertFalse(first.getDirectory().equals(second.getDirectory()));
+        assertEquals("Used by the other instance.", 1, count(first));
+        assertNotNull(first.get(tile(1, 0, 0)));
+        assertFalse(second.contains(tile(1, 0, 0)));
+    }
+
+    public void testDeleteStale()
+        throws Exception
+    {
+        File stale = new File(directory, "tiles1");
+        stale.mkdir();
+        new File(stale, ".lock").createNewFile();
+        new File(stale, "plane0.png").createNewFile();
+        File other = new File(directory, "other");
+        other.mkdir();
+        PlaneDiskCache disk = new PlaneDiskCache(directory, 1024*1024);
+        assertTrue(disk.isEnabled());
+        assertFalse("Not in use.", stale.exists());
+        assertTrue("Not a cache.", other.exists());
+    }
+
+    public void testDiskDisabled()
+    {
+        PlaneDiskCache disk = new PlaneDiskCache(directory, 0);
+        assertFalse(disk.isEnabled());
+        assertNull(disk.getDirectory());
+        disk.spill(tile(1, 0, 0), image());
+        assertFalse(disk.contains(tile(1, 0, 0)));
+    }
+
+}
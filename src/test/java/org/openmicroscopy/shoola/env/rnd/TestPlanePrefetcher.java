@@ -0,0 +1,179 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.env.rnd;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+import omero.romio.PlaneDef;
+
+/**
+ * Checks that {@link PlanePrefetcher} renders the planes in the direction
+ * of travel and cancels them when the direction changes.
+ *
+ * @author agent &nbsp;&nbsp;&nbsp;&nbsp;
+ * <a href="mailto:agent@local">agent@local</a>
+ * @since 5.6.3
+ */
+public class TestPlanePrefetcher
+    extends TestCase
+{
+
+    /** The number of z-sections. */
+    private static final int SIZE_Z = 10;
+
+    /** The number of planes to render ahead. */
+    private static final int LOOK_AHEAD = 2;
+
+    private PlaneCache cache;
+
+    private ExecutorService executor;
+
+    /** The fingerprint of the current settings. */
+    private volatile long fingerprint;
+
+    /** Released to let the loader render the planes. */
+    private CountDownLatch latch;
+
+    /** Released when the loader starts rendering the first plane. */
+    private CountDownLatch started;
+
+    private PlanePrefetcher target;
+
+    private PlaneDef plane(int z)
+    {
+        PlaneDef pDef = new PlaneDef();
+        pDef.slice = omero.romio.XY.value;
+        pDef.z = z;
+        return pDef;
+    }
+
+    private PlaneCache.PlaneKey key(int z)
+    {
+        return new PlaneCache.PlaneKey(1, plane(z), 0, 0, fingerprint);
+    }
+
+    /** Waits for the submitted planes to be rendered. */
+    private void waitForPrefetch()
+        throws Exception
+    {
+        latch.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    public void setUp()
+    {
+        fingerprint = 1;
+        latch = new CountDownLatch(1);
+        started = new CountDownLatch(1);
+        cache = new PlaneCache(1024*1024);
+        executor = Executors.newSingleThreadExecutor();
+        target = new PlanePrefetcher(LOOK_AHEAD, SIZE_Z, 1, cache,
+                new PlanePrefetcher.PlaneLoader() {
+
+            public PlaneCache.PlaneKey getKey(PlaneDef pDef)
+            {
+                return new PlaneCache.PlaneKey(1, pDef, 0, 0, fingerprint);
+            }
+
+            public BufferedImage load(PlaneDef pDef)
+                throws Exception
+            {
+                started.countDown();
+                latch.await();
+                return new BufferedImage(2, 2, BufferedImage.TYPE_INT_RGB);
+            }
+        }, executor);
+    }
+
+    public void tearDown()
+    {
+        executor.shutdownNow();
+    }
+
+    public void testForward()
+        throws Exception
+    {
+        target.moved(plane(0));
+        assertEquals("No direction yet.", 0, target.getPendingCount());
+        target.moved(plane(1));
+        assertEquals(LOOK_AHEAD, target.getPendingCount());
+        waitForPrefetch();
+        assertNotNull(cache.get(key(2)));
+        assertNotNull(cache.get(key(3)));
+        assertNull(cache.get(key(4)));
+    }
+
+    public void testDirectionChange()
+        throws Exception
+    {
+        target.moved(plane(5));
+        target.moved(plane(6));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        target.moved(plane(5));
+        assertEquals(LOOK_AHEAD, target.getPendingCount());
+        waitForPrefetch();
+        assertNotNull("Running, not interrupted.", cache.get(key(7)));
+        assertNull("Cancelled.", cache.get(key(8)));
+        assertNotNull(cache.get(key(4)));
+        assertNotNull(cache.get(key(3)));
+    }
+
+    public void testBounds()
+        throws Exception
+    {
+        target.moved(plane(SIZE_Z-2));
+        target.moved(plane(SIZE_Z-1));
+        assertEquals(0, target.getPendingCount());
+    }
+
+    public void testSettingsChanged()
+        throws Exception
+    {
+        target.moved(plane(0));
+        target.moved(plane(1));
+        fingerprint = 2;
+        waitForPrefetch();
+        assertNull(cache.get(key(2)));
+        assertEquals(0, cache.getSize());
+    }
+
+    public void testCancel()
+        throws Exception
+    {
+        target.moved(plane(0));
+        target.moved(plane(1));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        target.cancel();
+        assertEquals(0, target.getPendingCount());
+        waitForPrefetch();
+        assertNotNull("Running, not interrupted.", cache.get(key(2)));
+        assertNull("Cancelled.", cache.get(key(3)));
+    }
+
+}
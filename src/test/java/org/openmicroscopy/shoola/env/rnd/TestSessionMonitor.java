@@ -0,0 +1,128 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.env.rnd;
+
+import junit.framework.TestCase;
+
+import org.openmicroscopy.shoola.env.config.NullRegistry;
+import org.openmicroscopy.shoola.env.data.NullRenderingService;
+import org.openmicroscopy.shoola.env.data.OmeroImageService;
+
+import omero.gateway.SecurityContext;
+
+/**
+ * Checks that {@link SessionMonitor} only contacts the server when the
+ * state of the session is unknown.
+ *
+ * @author agent &nbsp;&nbsp;&nbsp;&nbsp;
+ * <a href="mailto:agent@local">agent@local</a>
+ * @since 5.6.3
+ */
+public class TestSessionMonitor
+    extends TestCase
+{
+
+    /** The number of times the server was contacted. */
+    private int calls;
+
+    private SessionMonitor target;
+
+    private SecurityContext ctx;
+
+    public void setUp()
+    {
+        calls = 0;
+        ctx = new SecurityContext(0);
+        final OmeroImageService svc = new NullRenderingService() {
+            public boolean isAlive(SecurityContext ctx)
+            {
+                calls++;
+                return true;
+            }
+        };
+        target = new SessionMonitor(new NullRegistry() {
+            public OmeroImageService getImageService() { return svc; }
+        }, 60000);
+    }
+
+    public void tearDown()
+    {
+        target.stop();
+    }
+
+    public void testIsAlive()
+        throws Exception
+    {
+        assertFalse(target.isKnownAlive(ctx));
+        assertTrue(target.isAlive(ctx));
+        assertEquals(1, calls);
+        assertTrue(target.isKnownAlive(ctx));
+        assertTrue(target.isAlive(ctx));
+        assertEquals("Server should not be contacted.", 1, calls);
+    }
+
+    public void testSuccess()
+        throws Exception
+    {
+        target.success(ctx);
+        assertTrue(target.isAlive(ctx));
+        assertEquals(0, calls);
+    }
+
+    public void testFailure()
+        throws Exception
+    {
+        target.success(ctx);
+        target.failure(ctx);
+        assertFalse(target.isKnownAlive(ctx));
+        assertTrue(target.isAlive(ctx));
+        assertEquals(1, calls);
+    }
+
+    public void testStop()
+    {
+        target.success(ctx);
+        target.stop();
+        assertFalse(target.isKnownAlive(ctx));
+        target.success(ctx);
+        assertFalse("Stopped.", target.isKnownAlive(ctx));
+    }
+
+    public void testHeartbeat()
+    {
+        long now = System.currentTimeMillis();
+        target.success(ctx);
+        target.heartbeat(now+2*60000);
+        assertEquals(1, calls);
+        assertTrue(target.isKnownAlive(ctx));
+    }
+
+    public void testIdle()
+    {
+        long now = System.currentTimeMillis();
+        target.success(ctx);
+        target.heartbeat(now+(SessionMonitor.MAX_IDLE+1)*60000L);
+        assertEquals("Idle session not checked.", 0, calls);
+        assertFalse(target.isKnownAlive(ctx));
+    }
+
+}
@@ -0,0 +1,93 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.env.rnd;
+
+import junit.framework.TestCase;
+
+/**
+ * Checks that {@link ThroughputMonitor} only selects a stronger compression
+ * while browsing over a slow link.
+ *
+ * @author agent &nbsp;&nbsp;&nbsp;&nbsp;
+ * <a href="mailto:agent@local">agent@local</a>
+ * @since 5.6.3
+ */
+public class TestThroughputMonitor
+    extends TestCase
+{
+
+    private ThroughputMonitor target;
+
+    public void setUp()
+    {
+        target = new ThroughputMonitor(100, 300);
+    }
+
+    public void testRequest()
+    {
+        assertFalse("First request.", target.request(1000));
+        assertTrue(target.request(1200));
+        assertTrue(target.request(1400));
+        assertFalse("Interaction stopped.", target.request(2000));
+    }
+
+    public void testUnknown()
+    {
+        assertEquals(-1.0, target.getTime(RenderingControl.MEDIUM));
+        assertEquals(RenderingControl.MEDIUM,
+                target.select(RenderingControl.MEDIUM, true));
+    }
+
+    public void testAverage()
+    {
+        target.record(RenderingControl.MEDIUM, 100);
+        assertEquals(100.0, target.getTime(RenderingControl.MEDIUM), 1e-6);
+        target.record(RenderingControl.MEDIUM, 200);
+        double t = target.getTime(RenderingControl.MEDIUM);
+        assertTrue(t > 100 && t < 200);
+    }
+
+    public void testSlowLink()
+    {
+        target.record(RenderingControl.MEDIUM, 400);
+        assertEquals(RenderingControl.LOW,
+                target.select(RenderingControl.MEDIUM, true));
+        assertEquals("Not browsing.", RenderingControl.MEDIUM,
+                target.select(RenderingControl.MEDIUM, false));
+    }
+
+    public void testFastLink()
+    {
+        target.record(RenderingControl.MEDIUM, 50);
+        assertEquals(RenderingControl.MEDIUM,
+                target.select(RenderingControl.MEDIUM, true));
+    }
+
+    public void testLowAsSlow()
+    {
+        target.record(RenderingControl.MEDIUM, 400);
+        target.record(RenderingControl.LOW, 400);
+        assertEquals("No gain expected.", RenderingControl.MEDIUM,
+                target.select(RenderingControl.MEDIUM, true));
+    }
+
+}
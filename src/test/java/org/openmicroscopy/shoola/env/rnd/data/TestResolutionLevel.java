@@ -0,0 +1,102 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.env.rnd.data;
+
+import java.awt.Dimension;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+/**
+ * Checks that {@link ResolutionLevel#select(java.util.Collection, double)}
+ * returns the most detailed level not larger than the magnified image.
+ *
+ * @author agent &nbsp;&nbsp;&nbsp;&nbsp;
+ * <a href="mailto:agent@local">agent@local</a>
+ * @since 5.6.3
+ */
+public class TestResolutionLevel
+    extends TestCase
+{
+
+    /** The size of the full resolution image. */
+    private static final int SIZE = 10000;
+
+    /** The number of levels. */
+    private static final int LEVELS = 5;
+
+    private List<ResolutionLevel> levels;
+
+    public void setUp()
+    {
+        levels = new ArrayList<ResolutionLevel>();
+        Dimension tile = new Dimension(256, 256);
+        ResolutionLevel level;
+        int size;
+        //Level 0 is the least detailed one.
+        for (int i = 0; i < LEVELS; i++) {
+            size = SIZE >> (LEVELS-1-i);
+            level = new ResolutionLevel(i, tile, new Dimension(size, size));
+            level.setRatio((double) size/SIZE, (double) size/SIZE);
+            levels.add(level);
+        }
+    }
+
+    public void testExact()
+    {
+        assertEquals(LEVELS-1, ResolutionLevel.select(levels, 1));
+        assertEquals(LEVELS-2, ResolutionLevel.select(levels, 0.5));
+        assertEquals(0, ResolutionLevel.select(levels, 0.0625));
+    }
+
+    public void testBetween()
+    {
+        assertEquals(LEVELS-2, ResolutionLevel.select(levels, 0.75));
+        assertEquals(LEVELS-3, ResolutionLevel.select(levels, 0.3));
+    }
+
+    public void testMagnified()
+    {
+        assertEquals(LEVELS-1, ResolutionLevel.select(levels, 4));
+    }
+
+    public void testTooSmall()
+    {
+        assertEquals(0, ResolutionLevel.select(levels, 0.001));
+    }
+
+    public void testOrder()
+    {
+        Collections.reverse(levels);
+        assertEquals(LEVELS-2, ResolutionLevel.select(levels, 0.75));
+    }
+
+    public void testNoLevels()
+    {
+        assertEquals(-1, ResolutionLevel.select(null, 1));
+        assertEquals(-1, ResolutionLevel.select(
+                new ArrayList<ResolutionLevel>(), 1));
+    }
+
+}
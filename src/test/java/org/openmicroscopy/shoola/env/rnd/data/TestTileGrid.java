@@ -0,0 +1,103 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.env.rnd.data;
+
+import java.awt.Dimension;
+import java.awt.Rectangle;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+/**
+ * Checks that {@link TileGrid} computes the geometry of the tiles and only
+ * creates the selected tiles.
+ *
+ * @author agent &nbsp;&nbsp;&nbsp;&nbsp;
+ * <a href="mailto:agent@local">agent@local</a>
+ * @since 5.6.3
+ */
+public class TestTileGrid
+    extends TestCase
+{
+
+    /** The size of a tile. */
+    private static final Dimension TILE = new Dimension(256, 256);
+
+    public void testGeometry()
+    {
+        TileGrid grid = new TileGrid(new Dimension(1000, 512), TILE);
+        assertEquals(4, grid.getColumns());
+        assertEquals(2, grid.getRows());
+        assertEquals(1000, grid.getSizeX());
+        assertEquals(512, grid.getSizeY());
+        Tile tile = grid.getTile(1, 3);
+        assertEquals(7, tile.getIndex());
+        assertEquals(768, tile.getRegion().getX());
+        assertEquals(256, tile.getRegion().getY());
+        assertEquals("Edge tile.", 1000-768, tile.getRegion().getWidth());
+        assertEquals(256, tile.getRegion().getHeight());
+        assertSame(tile, grid.getTile(1, 3));
+        assertNull(grid.getTile(2, 0));
+        assertNull(grid.getTile(0, -1));
+    }
+
+    public void testSmallImage()
+    {
+        TileGrid grid = new TileGrid(new Dimension(10, 10), TILE);
+        assertEquals(1, grid.getColumns());
+        assertEquals(1, grid.getRows());
+        assertEquals(10, grid.getTile(0, 0).getRegion().getWidth());
+    }
+
+    public void testSelect()
+    {
+        int n = 100000;
+        TileGrid grid = new TileGrid(new Dimension(n*TILE.width,
+                n*TILE.height), TILE);
+        assertTrue("Nothing created.", grid.getTiles().isEmpty());
+        Rectangle visible = new Rectangle(10*TILE.width, 20*TILE.height,
+                2*TILE.width, TILE.height);
+        List<Tile> tiles = grid.select(visible, 0);
+        assertEquals(2, tiles.size());
+        assertEquals(20, tiles.get(0).getRow());
+        assertEquals(10, tiles.get(0).getColumn());
+        assertEquals(11, tiles.get(1).getColumn());
+        tiles = grid.select(visible, 1);
+        assertEquals(4*3, tiles.size());
+        assertEquals(tiles.size(), grid.getTiles().size());
+    }
+
+    public void testDiscard()
+    {
+        TileGrid grid = new TileGrid(new Dimension(4096, 4096), TILE);
+        List<Tile> tiles = grid.select(new Rectangle(0, 0, 100, 100), 1);
+        assertEquals(4, tiles.size());
+        Tile kept = grid.getTile(1, 1);
+        grid.select(new Rectangle(2*TILE.width, 2*TILE.height, 10, 10), 1);
+        assertEquals(9, grid.getTiles().size());
+        assertFalse(grid.getTiles().containsKey(0));
+        assertSame("Still selected.", kept, grid.getTile(1, 1));
+        grid.clear();
+        assertTrue(grid.getTiles().isEmpty());
+    }
+
+}
@@ -0,0 +1,219 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.env.rnd.data;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import omero.romio.PlaneDef;
+
+/**
+ * Checks that {@link TileQueue} orders the tiles by distance to the centre
+ * of the viewport, cancels the tiles no longer requested and does not load
+ * the same tile twice.
+ *
+ * @author agent &nbsp;&nbsp;&nbsp;&nbsp;
+ * <a href="mailto:agent@local">agent@local</a>
+ * @since 5.6.3
+ */
+public class TestTileQueue
+    extends TestCase
+{
+
+    /** The size of a tile. */
+    private static final int SIZE = 10;
+
+    /** The number of tiles along each axis. */
+    private static final int COUNT = 5;
+
+    private List<Tile> tiles;
+
+    private TileQueue target;
+
+    private PlaneDef plane(int z)
+    {
+        PlaneDef pDef = new PlaneDef();
+        pDef.slice = omero.romio.XY.value;
+        pDef.z = z;
+        return pDef;
+    }
+
+    /** Returns the coordinate of the centre of the specified tile. */
+    private int centre(int index)
+    {
+        return index*SIZE+SIZE/2;
+    }
+
+    private Tile tile(int row, int column)
+    {
+        return tiles.get(row*COUNT+column);
+    }
+
+    public void setUp()
+    {
+        tiles = new ArrayList<Tile>();
+        Tile tile;
+        for (int i = 0; i < COUNT; i++) {
+            for (int j = 0; j < COUNT; j++) {
+                tile = new Tile(i*COUNT+j, i, j);
+                tile.setRegion(new Region(j*SIZE, i*SIZE, SIZE, SIZE));
+                tiles.add(tile);
+            }
+        }
+        target = new TileQueue();
+    }
+
+    public void testPriority()
+    {
+        target.schedule(tiles, plane(0), centre(2), centre(2));
+        assertEquals(tiles.size(), target.getPendingCount());
+        assertSame("Centre first.", tile(2, 2),
+                target.take(this).getTile());
+        int previous = 0;
+        int d;
+        TileQueue.Request r;
+        Tile t;
+        while ((r = target.take(this)) != null) {
+            t = r.getTile();
+            d = (t.getRow()-2)*(t.getRow()-2)+
+                    (t.getColumn()-2)*(t.getColumn()-2);
+            assertTrue(d >= previous);
+            previous = d;
+        }
+    }
+
+    public void testPreviewFirst()
+    {
+        Tile preview = new Tile(-1, 0, 0);
+        preview.setRegion(new Region(0, 0, SIZE, SIZE));
+        preview.setResolutionLevel(0);
+        List<Tile> visible = new ArrayList<Tile>(tiles);
+        visible.add(preview);
+        target.schedule(visible, plane(0), 0, 0);
+        assertSame("Lowest level first.", preview,
+                target.take(this).getTile());
+        assertSame(tile(0, 0), target.take(this).getTile());
+    }
+
+    public void testPreviewOrder()
+    {
+        Tile lowest = new Tile(-1, 0, 0);
+        lowest.setRegion(new Region(0, 0, SIZE, SIZE));
+        lowest.setResolutionLevel(0);
+        Tile intermediate = new Tile(-1, 0, 0);
+        intermediate.setRegion(new Region(0, 0, 2*SIZE, 2*SIZE));
+        intermediate.setResolutionLevel(1);
+        List<Tile> visible = new ArrayList<Tile>(tiles);
+        visible.add(lowest);
+        visible.add(intermediate);
+        target.schedule(visible, plane(0), 0, 0);
+        assertSame("Lowest level first.", lowest,
+                target.take(this).getTile());
+        assertSame(intermediate, target.take(this).getTile());
+        assertSame(tile(0, 0), target.take(this).getTile());
+    }
+
+    public void testCancelQueued()
+    {
+        target.schedule(tiles, plane(0), 0, 0);
+        List<Tile> visible = Arrays.asList(tile(4, 3), tile(4, 4));
+        target.schedule(visible, plane(0), centre(4), centre(4));
+        assertEquals(visible.size(), target.getPendingCount());
+        assertSame(tile(4, 4), target.take(this).getTile());
+        assertSame(tile(4, 3), target.take(this).getTile());
+        assertNull(target.take(this));
+    }
+
+    public void testCoalesce()
+    {
+        List<Tile> visible = Arrays.asList(tile(0, 0), tile(0, 1));
+        target.schedule(visible, plane(0), 0, 0);
+        TileQueue.Request r = target.take(this);
+        target.schedule(visible, plane(0), 0, 0);
+        assertEquals(visible.size(), target.getPendingCount());
+        assertSame("Loading already.", tile(0, 1),
+                target.take(this).getTile());
+        assertNull(target.take(this));
+        assertTrue(target.done(r));
+    }
+
+    public void testCancelRunning()
+    {
+        target.schedule(Arrays.asList(tile(0, 0)), plane(0), 0, 0);
+        TileQueue.Request r = target.take(this);
+        target.schedule(Arrays.asList(tile(4, 4)), plane(0), 0, 0);
+        assertEquals(1, target.getPendingCount());
+        assertFalse("Scrolled out of view.", target.done(r));
+    }
+
+    public void testPlaneChanged()
+    {
+        List<Tile> visible = Arrays.asList(tile(0, 0));
+        target.schedule(visible, plane(0), 0, 0);
+        TileQueue.Request r = target.take(this);
+        target.schedule(visible, plane(1), 0, 0);
+        TileQueue.Request next = target.take(this);
+        assertNotNull("Requested again.", next);
+        assertEquals(1, next.getPlane().z);
+        assertFalse(target.done(r));
+        assertTrue(target.done(next));
+    }
+
+    public void testClear()
+    {
+        List<Tile> visible = Arrays.asList(tile(0, 0));
+        target.schedule(visible, plane(0), 0, 0);
+        TileQueue.Request r = target.take(this);
+        target.clear();
+        assertEquals(0, target.getPendingCount());
+        target.schedule(visible, plane(0), 0, 0);
+        assertNotNull("Settings changed.", target.take(this));
+        assertFalse(target.done(r));
+    }
+
+    public void testWorkers()
+    {
+        Object worker = new Object();
+        assertTrue(target.addWorker(worker));
+        assertFalse("Running already.", target.addWorker(worker));
+        assertNull(target.take(worker));
+        assertTrue("Stopped.", target.addWorker(worker));
+    }
+
+    public void testCancelWorker()
+    {
+        Object worker = new Object();
+        target.schedule(tiles, plane(0), 0, 0);
+        assertTrue(target.addWorker(worker));
+        TileQueue.Request r = target.take(worker);
+        target.removeWorker(worker);
+        assertTrue("Cancelled.", target.addWorker(worker));
+        assertNotNull(target.take(worker));
+        target.clear();
+        assertTrue("Cleared.", target.addWorker(worker));
+        assertFalse(target.done(r));
+    }
+
+}
@@ -0,0 +1,208 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+
+package org.openmicroscopy.shoola.util.concur.tasks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+/**
+ * Checks that {@link PoolProcessor} runs the services of the highest
+ * priority first and enforces the limit of each lane.
+ *
+ * @author agent &nbsp;&nbsp;&nbsp;&nbsp;
+ * <a href="mailto:agent@local">agent@local</a>
+ * @since 5.6.3
+ */
+public class TestPoolProcessor
+    extends TestCase
+{
+
+    /** The maximum time to wait for a service, in milliseconds. */
+    private static final long TIMEOUT = 5000;
+
+    /** Object under test. */
+    private PoolProcessor target;
+
+    /** The priorities of the services in the order they ran. */
+    private List<Integer> order;
+
+    /** Released to let the blocking services exit. */
+    private CountDownLatch gate;
+
+    /**
+     * Returns a service blocking until the gate is released.
+     *
+     * @param started Counted down when the service runs.
+     * @return See above.
+     */
+    private MultiStepTask blocking(final CountDownLatch started)
+    {
+        return new TaskAdapter(new Runnable() {
+            public void run()
+            {
+                started.countDown();
+                try {
+                    gate.await(TIMEOUT, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    //Ignore.
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns a service recording its priority.
+     *
+     * @param priority The priority of the service.
+     * @return See above.
+     */
+    private MultiStepTask recording(final int priority)
+    {
+        return new TaskAdapter(new Runnable() {
+            public void run() { order.add(priority); }
+        });
+    }
+
+    public void setUp()
+    {
+        order = Collections.synchronizedList(new ArrayList<Integer>());
+        gate = new CountDownLatch(1);
+    }
+
+    public void tearDown()
+    {
+        gate.countDown();
+        if (target != null) target.terminate(TIMEOUT);
+    }
+
+    public void testPriority()
+        throws Exception
+    {
+        target = new PoolProcessor(1, new int[] {1, 1, 1, 1, 1}, null);
+        CountDownLatch started = new CountDownLatch(1);
+        target.exec(blocking(started), null, CmdProcessor.BACKGROUND);
+        assertTrue(started.await(TIMEOUT, TimeUnit.MILLISECONDS));
+        Future f1 = target.exec(recording(CmdProcessor.BACKGROUND), null,
+                CmdProcessor.BACKGROUND);
+        Future f2 = target.exec(recording(CmdProcessor.THUMBNAILS), null,
+                CmdProcessor.THUMBNAILS);
+        Future f3 = target.exec(recording(CmdProcessor.INTERACTIVE), null,
+                CmdProcessor.INTERACTIVE);
+        assertEquals(1, target.getQueueDepth(CmdProcessor.BACKGROUND));
+        assertEquals(1, target.getQueueDepth(CmdProcessor.INTERACTIVE));
+        gate.countDown();
+        f1.getResult();
+        f2.getResult();
+        f3.getResult();
+        assertEquals(3, order.size());
+        assertEquals(CmdProcessor.INTERACTIVE, order.get(0).intValue());
+        assertEquals(CmdProcessor.THUMBNAILS, order.get(1).intValue());
+        assertEquals(CmdProcessor.BACKGROUND, order.get(2).intValue());
+        assertTrue(target.getAverageWait(CmdProcessor.INTERACTIVE) >= 0);
+        assertEquals(-1.0, target.getAverageWait(CmdProcessor.PREFETCH));
+    }
+
+    public void testLaneLimit()
+        throws Exception
+    {
+        target = new PoolProcessor(4, new int[] {1, 1, 1, 1, 1}, null);
+        CountDownLatch started = new CountDownLatch(1);
+        target.exec(blocking(started), null, CmdProcessor.THUMBNAILS);
+        assertTrue(started.await(TIMEOUT, TimeUnit.MILLISECONDS));
+        Future f1 = target.exec(recording(CmdProcessor.THUMBNAILS), null,
+                CmdProcessor.THUMBNAILS);
+        Future f2 = target.exec(recording(CmdProcessor.INTERACTIVE), null,
+                CmdProcessor.INTERACTIVE);
+        f2.getResult();
+        assertEquals("Other lanes not blocked.", 1, order.size());
+        assertEquals(1, target.getRunning(CmdProcessor.THUMBNAILS));
+        assertEquals(1, target.getQueueDepth(CmdProcessor.THUMBNAILS));
+        gate.countDown();
+        f1.getResult();
+        assertEquals(2, order.size());
+    }
+
+    public void testTilesLaneSaturated()
+        throws Exception
+    {
+        target = new PoolProcessor(4, new int[] {2, 1, 1, 1, 1}, null);
+        CountDownLatch started = new CountDownLatch(1);
+        target.exec(blocking(started), null, CmdProcessor.TILES);
+        assertTrue(started.await(TIMEOUT, TimeUnit.MILLISECONDS));
+        Future f1 = target.exec(recording(CmdProcessor.TILES), null,
+                CmdProcessor.TILES);
+        Future f2 = target.exec(recording(CmdProcessor.INTERACTIVE), null,
+                CmdProcessor.INTERACTIVE);
+        f2.getResult();
+        assertEquals("Interactive lane not blocked.", 1, order.size());
+        assertEquals(CmdProcessor.INTERACTIVE, order.get(0).intValue());
+        assertEquals(1, target.getRunning(CmdProcessor.TILES));
+        assertEquals(1, target.getQueueDepth(CmdProcessor.TILES));
+        gate.countDown();
+        f1.getResult();
+        assertEquals(2, order.size());
+    }
+
+    public void testCancelAll()
+        throws Exception
+    {
+        target = new PoolProcessor(1, new int[] {1, 1, 1, 1, 1}, null);
+        CountDownLatch started = new CountDownLatch(1);
+        target.exec(blocking(started), null, CmdProcessor.INTERACTIVE);
+        assertTrue(started.await(TIMEOUT, TimeUnit.MILLISECONDS));
+        Future f = target.exec(recording(CmdProcessor.PREFETCH), null,
+                CmdProcessor.PREFETCH);
+        target.cancelAll();
+        assertNull(f.getResult());
+        assertEquals(0, target.getQueueDepth(CmdProcessor.PREFETCH));
+        assertEquals("Queued service cancelled.", 0, order.size());
+    }
+
+    public void testTerminate()
+        throws Exception
+    {
+        target = new PoolProcessor();
+        assertTrue(target.terminate(TIMEOUT));
+        Future f = target.exec(recording(CmdProcessor.INTERACTIVE), null,
+                CmdProcessor.INTERACTIVE);
+        assertNull(f.getResult());
+        assertEquals(0, order.size());
+    }
+
+    public void testWrongPriority()
+    {
+        target = new PoolProcessor();
+        try {
+            target.exec(recording(0), null, CmdProcessor.PRIORITIES);
+            fail("Shouldn't accept an unknown priority.");
+        } catch (IllegalArgumentException e) {
+            //OK, expected.
+        }
+    }
+
+}
@@ -0,0 +1,112 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+package org.openmicroscopy.shoola.util.image.io;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+
+import javax.imageio.ImageIO;
+
+import junit.framework.TestCase;
+
+/**
+ * Checks that {@link FrameDecoder} decodes the successive frames with the
+ * reader kept between frames.
+ *
+ * @author agent &nbsp;&nbsp;&nbsp;&nbsp;
+ * <a href="mailto:agent@local">agent@local</a>
+ * @since 5.6.3
+ */
+public class TestFrameDecoder
+    extends TestCase
+{
+
+    private FrameDecoder target;
+
+    /** Creates a compressed frame of the specified size and color. */
+    private byte[] frame(int width, int height, Color color, String format)
+        throws Exception
+    {
+        BufferedImage img = new BufferedImage(width, height,
+                BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = img.createGraphics();
+        g.setColor(color);
+        g.fillRect(0, 0, width, height);
+        g.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(img, format, out);
+        return out.toByteArray();
+    }
+
+    public void setUp()
+    {
+        target = new FrameDecoder();
+    }
+
+    public void testDecode()
+        throws Exception
+    {
+        BufferedImage img = target.decode(frame(16, 8, Color.WHITE, "jpeg"));
+        assertNotNull(img);
+        assertEquals(16, img.getWidth());
+        assertEquals(8, img.getHeight());
+    }
+
+    public void testSuccessiveFrames()
+        throws Exception
+    {
+        BufferedImage a = target.decode(frame(16, 16, Color.WHITE, "jpeg"));
+        BufferedImage b = target.decode(frame(16, 16, Color.BLACK, "jpeg"));
+        assertNotSame("Frames not shared.", a, b);
+        assertTrue(new Color(a.getRGB(8, 8)).getRed() > 240);
+        assertTrue(new Color(b.getRGB(8, 8)).getRed() < 16);
+    }
+
+    public void testFormats()
+        throws Exception
+    {
+        BufferedImage img = target.decode(frame(8, 8, Color.RED, "png"));
+        assertEquals(Color.RED.getRGB(), img.getRGB(4, 4));
+        img = target.decode(frame(8, 4, Color.WHITE, "jpeg"));
+        assertEquals("Reader switched.", 4, img.getHeight());
+    }
+
+    public void testInvalid()
+    {
+        try {
+            target.decode(new byte[] {1, 2, 3});
+        } catch (EncoderException e) {
+            //expected
+        }
+        try {
+            target.decode(null);
+            fail("No array.");
+        } catch (IllegalArgumentException e) {
+            //expected
+        } catch (EncoderException e) {
+            fail("No array.");
+        }
+    }
+
+}
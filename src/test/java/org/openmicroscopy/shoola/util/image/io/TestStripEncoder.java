@@ -0,0 +1,166 @@
+/*
+ *------------------------------------------------------------------------------
+ *  Copyright (C) 2026 University of Dundee. All rights reserved.
+ *
+ *
+ *  This program is free software; you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation; either version 2 of the License, or
+ *  (at your option) any later version.
+ *  This program is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License along
+ *  with this program; if not, write to the Free Software Foundation, Inc.,
+ *  51 Franklin Street, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ *------------------------------------------------------------------------------
+ */
+
+
+package org.openmicroscopy.shoola.util.image.io;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+import javax.imageio.ImageIO;
+
+import junit.framework.TestCase;
+
+/**
+ * Checks that the images encoded band by band by {@link PNGStripEncoder}
+ * and {@link TIFFStripEncoder} contain all the rows.
+ *
+ * @author agent &nbsp;&nbsp;&nbsp;&nbsp;
+ * <a href="mailto:agent@local">agent@local</a>
+ * @since 5.6.3
+ */
+public class TestStripEncoder
+    extends TestCase
+{
+
+    /** The number of pixels along the X-axis. */
+    private static final int WIDTH = 37;
+
+    /** The number of rows, spanning several bands. */
+    private static final int HEIGHT = 2*StripEncoder.ROWS+5;
+
+    /** Provides a gradient and records the largest band requested. */
+    private static class Source
+        implements StripSource
+    {
+
+        private int maxRows;
+
+        public int getWidth() { return WIDTH; }
+
+        public int getHeight() { return HEIGHT; }
+
+        public void getRGB(int y, int rows, int[] buffer)
+        {
+            maxRows = Math.max(maxRows, rows);
+            int index = 0;
+            for (int j = y; j < y+rows; j++) {
+                for (int x = 0; x < WIDTH; x++)
+                    buffer[index++] = pixel(x, j);
+            }
+        }
+    }
+
+    /** Returns the value of the specified pixel. */
+    private static int pixel(int x, int y)
+    {
+        return ((x*7) & 0xFF) << 16 | ((y*3) & 0xFF) << 8 | ((x+y) & 0xFF);
+    }
+
+    /** Returns the value of an entry of the image file directory. */
+    private static long getEntry(ByteBuffer b, boolean big, int tag)
+    {
+        int ifd = big ? (int) b.getLong(8) : b.getInt(4);
+        int n = big ? (int) b.getLong(ifd) : b.getShort(ifd);
+        int entry = ifd+(big ? 8 : 2);
+        int size = big ? 20 : 12;
+        for (int i = 0; i < n; i++) {
+            int offset = entry+i*size;
+            if (b.getShort(offset) != tag) continue;
+            int type = b.getShort(offset+2);
+            int value = offset+(big ? 12 : 8);
+            if (type == 3) return b.getShort(value);
+            if (type == 16) return b.getLong(value);
+            return b.getInt(value) & 0xFFFFFFFFL;
+        }
+        fail("No tag "+tag);
+        return -1;
+    }
+
+    /** Checks the pixels of the encoded TIFF. */
+    private void checkTIFF(byte[] data, boolean big)
+    {
+        ByteBuffer b = ByteBuffer.wrap(data);
+        assertEquals(0x4D4D, b.getShort(0));
+        assertEquals(big ? 43 : 42, b.getShort(2));
+        assertEquals(WIDTH, getEntry(b, big, 256));
+        assertEquals(HEIGHT, getEntry(b, big, 257));
+        int rows = (int) getEntry(b, big, 278);
+        int offsets = (int) getEntry(b, big, 273);
+        int strips = (HEIGHT+rows-1)/rows;
+        assertTrue("Several strips.", strips > 1);
+        int start, index;
+        for (int y = 0; y < HEIGHT; y++) {
+            int strip = y/rows;
+            if (big) start = (int) b.getLong(offsets+8*strip);
+            else start = b.getInt(offsets+4*strip);
+            for (int x = 0; x < WIDTH; x++) {
+                index = start+3*((y-strip*rows)*WIDTH+x);
+                int v = (data[index] & 0xFF) << 16 |
+                        (data[index+1] & 0xFF) << 8 | (data[index+2] & 0xFF);
+                assertEquals(pixel(x, y), v);
+            }
+        }
+    }
+
+    public void testPNG()
+        throws Exception
+    {
+        Source source = new Source();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new PNGStripEncoder(source, out).write();
+        assertEquals(StripEncoder.ROWS, source.maxRows);
+        BufferedImage img = ImageIO.read(
+                new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(WIDTH, img.getWidth());
+        assertEquals(HEIGHT, img.getHeight());
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++)
+                assertEquals(pixel(x, y), img.getRGB(x, y) & 0xFFFFFF);
+        }
+    }
+
+    public void testTIFF()
+        throws Exception
+    {
+        Source source = new Source();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TIFFStripEncoder encoder = new TIFFStripEncoder(source, out);
+        assertFalse(encoder.isBigTIFF());
+        encoder.write();
+        assertEquals(StripEncoder.ROWS, source.maxRows);
+        checkTIFF(out.toByteArray(), false);
+    }
+
+    public void testBigTIFF()
+        throws Exception
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TIFFStripEncoder encoder = new TIFFStripEncoder(new Source(), out,
+                true);
+        assertTrue(encoder.isBigTIFF());
+        encoder.write();
+        checkTIFF(out.toByteArray(), true);
+    }
+
+}